@@ -0,0 +1,59 @@
+/**
+ * Benchmarks de CustomLinkedList con paradas: construcción con add, acceso por índice (getAt) y búsqueda por ID.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.bench;
+
+import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomLinkedListBenchmark {
+    private static final int SAMPLES = 1024;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private Stop[] stops;
+    private CustomLinkedList<Stop> list;
+    private int[] indexes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        list = NetworkGenerator.grid(size, 42).stops();
+        stops = list.toArray(Stop.class);
+        Random random = new Random(7);
+        indexes = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            indexes[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public CustomLinkedList<Stop> addAll() {
+        CustomLinkedList<Stop> built = new CustomLinkedList<>();
+        for (Stop stop : stops) {
+            built.add(stop);
+        }
+        return built;
+    }
+
+    @Benchmark
+    public Stop getAt() {
+        return list.getAt(indexes[cursor++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public Stop searchById() {
+        return list.search(indexes[cursor++ & (SAMPLES - 1)] + 1);
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Benchmarks de persistencia: FileManager.load y FileManager.save con redes sintéticas completas
+ * (paradas, rutas, horarios y aristas) escritas en archivos temporales.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.bench;
+
+import gestion_de_rutas_de_transporte.model.Graph;
+import gestion_de_rutas_de_transporte.model.Route;
+import gestion_de_rutas_de_transporte.model.Schedule;
+import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.FileManager;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class FileManagerBenchmark {
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private File input;
+    private File output;
+    private CustomLinkedList<Stop> stops;
+    private CustomLinkedList<Route> routes;
+    private CustomLinkedList<Schedule> schedules;
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        NetworkGenerator network = NetworkGenerator.generate(NetworkGenerator.GEOMETRIC, size, 42);
+        graph = network.buildGraph();
+        stops = network.stops();
+        routes = network.routes(graph);
+        schedules = network.schedules(routes);
+        input = File.createTempFile("bench-load", ".txt");
+        output = File.createTempFile("bench-save", ".txt");
+        FileManager.save(input.getPath(), stops, routes, schedules, graph);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        input.delete();
+        output.delete();
+    }
+
+    @Benchmark
+    public Graph load() {
+        Graph loaded = new Graph(Math.max(Graph.MAX_STOPS, size));
+        FileManager.load(input.getPath(), new CustomLinkedList<>(), new CustomLinkedList<>(),
+                new CustomLinkedList<>(), loaded);
+        return loaded;
+    }
+
+    @Benchmark
+    public long save() {
+        FileManager.save(output.getPath(), stops, routes, schedules, graph);
+        return output.length();
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Benchmarks de consultas de camino más corto (Graph.findPath) sobre redes sintéticas de 100 a 1M paradas.
+ * Mide rendimiento (operaciones por segundo) y percentiles de latencia (modo SampleTime).
+ * Ejemplo: ant bench -Dbench.args="GraphBenchmark -p topology=grid -p size=10000"
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.bench;
+
+import gestion_de_rutas_de_transporte.model.Graph;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class GraphBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({NetworkGenerator.GRID, NetworkGenerator.GEOMETRIC, NetworkGenerator.SCALE_FREE})
+    public String topology;
+
+    @Param({"100", "10000", "100000", "1000000"})
+    public int size;
+
+    private Graph graph;
+    private int[] origins;
+    private int[] destinations;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        graph = NetworkGenerator.generate(topology, size, 42).buildGraph();
+        Random random = new Random(7);
+        origins = new int[PAIRS];
+        destinations = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            origins[i] = 1 + random.nextInt(size);
+            destinations[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public CustomLinkedList<Integer> findPath() {
+        int i = cursor++ & (PAIRS - 1);
+        return graph.findPath(origins[i], destinations[i]);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Benchmarks de modificación del grafo: Graph.addEdge (existente y nueva), removeStop y la carga masiva
+ * con GraphBuilder frente a la inserción una por una. La red libre de escala incluye estaciones de grado alto.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.bench;
+
+import gestion_de_rutas_de_transporte.model.Graph;
+import gestion_de_rutas_de_transporte.model.GraphBuilder;
+import gestion_de_rutas_de_transporte.model.Node;
+import gestion_de_rutas_de_transporte.model.Pair;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx6g"})
+public class GraphMutationBenchmark {
+    private static final int SAMPLES = 1024;
+
+    @Param({NetworkGenerator.GRID, NetworkGenerator.SCALE_FREE})
+    public String topology;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private NetworkGenerator network;
+    private Graph graph;
+    private int[] us;
+    private int[] vs;
+    private int[] neighbors;
+    private int[] weights;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        network = NetworkGenerator.generate(topology, size, 42);
+        graph = network.buildGraph();
+        Random random = new Random(7);
+        us = new int[SAMPLES];
+        vs = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            us[i] = 1 + random.nextInt(size);
+            vs[i] = 1 + random.nextInt(size);
+        }
+        neighbors = new int[size];
+        weights = new int[size];
+    }
+
+    @Benchmark
+    public void addEdgeExisting() {
+        int u = us[cursor++ & (SAMPLES - 1)];
+        Node<Pair<Integer, Integer>> edge = graph.adjacency[u - 1].getHead();
+        if (edge != null) {
+            graph.addEdge(u, edge.getData().getFirst(), edge.getData().getSecond());
+        }
+    }
+
+    @Benchmark
+    public boolean addAndRemoveEdge() {
+        int i = cursor++ & (SAMPLES - 1);
+        if (graph.hasEdge(us[i], vs[i])) return false;
+        graph.addEdge(us[i], vs[i], 5);
+        return graph.removeEdge(us[i], vs[i]);
+    }
+
+    @Benchmark
+    public int removeAndRestoreStop() {
+        int u = us[cursor++ & (SAMPLES - 1)];
+        int degree = 0;
+        Node<Pair<Integer, Integer>> edge = graph.adjacency[u - 1].getHead();
+        while (edge != null) {
+            neighbors[degree] = edge.getData().getFirst();
+            weights[degree] = edge.getData().getSecond();
+            degree++;
+            edge = edge.getNext();
+        }
+        graph.removeStop(u);
+        for (int k = 0; k < degree; k++) {
+            graph.addEdge(u, neighbors[k], weights[k]);
+        }
+        return degree;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Graph bulkLoadWithBuilder() {
+        GraphBuilder builder = new GraphBuilder(network.getEdgeCount());
+        network.addEdgesTo(builder);
+        Graph target = new Graph(Math.max(Graph.MAX_STOPS, size));
+        target.addStop(size);
+        builder.buildInto(target);
+        return target;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public Graph loadEdgeByEdge() {
+        Graph target = new Graph(Math.max(Graph.MAX_STOPS, size));
+        target.addStop(size);
+        network.addEdgesTo(target);
+        return target;
+    }
+}
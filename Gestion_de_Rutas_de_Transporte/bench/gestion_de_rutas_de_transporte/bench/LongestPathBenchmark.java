@@ -0,0 +1,35 @@
+/**
+ * Benchmarks de Graph.longestPath (backtracking exponencial) con entradas acotadas:
+ * cuadrículas pequeñas entre esquinas opuestas, donde el número de caminos simples crece muy rápido.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.bench;
+
+import gestion_de_rutas_de_transporte.model.Graph;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LongestPathBenchmark {
+    // Cuadrículas de 3x3, 4x4 y 5x5 paradas
+    @Param({"9", "16", "25"})
+    public int size;
+
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        graph = NetworkGenerator.grid(size, 42).buildGraph();
+    }
+
+    @Benchmark
+    public CustomLinkedList<Integer> longestPathCornerToCorner() {
+        return graph.longestPath(1, size);
+    }
+}
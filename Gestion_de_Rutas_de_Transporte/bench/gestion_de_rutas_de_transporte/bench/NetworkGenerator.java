@@ -0,0 +1,276 @@
+/**
+ * Generadores de redes sintéticas para los benchmarks.
+ * Produce redes en cuadrícula, geométricas aleatorias y libres de escala (Barabási-Albert) de cualquier tamaño,
+ * junto con las paradas (con coordenadas), rutas y horarios necesarios para medir la persistencia.
+ * Todas las redes son deterministas para una misma semilla.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.bench;
+
+import gestion_de_rutas_de_transporte.model.Graph;
+import gestion_de_rutas_de_transporte.model.GraphBuilder;
+import gestion_de_rutas_de_transporte.model.Node;
+import gestion_de_rutas_de_transporte.model.Pair;
+import gestion_de_rutas_de_transporte.model.Route;
+import gestion_de_rutas_de_transporte.model.Schedule;
+import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Random;
+
+public class NetworkGenerator {
+    public static final String GRID = "grid";
+    public static final String GEOMETRIC = "geometric";
+    public static final String SCALE_FREE = "scalefree";
+
+    private final int[] xs;
+    private final int[] ys;
+    private final int size;
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int[] edgeWeight;
+    private int edgeCount;
+
+    private NetworkGenerator(int size, int expectedEdges) {
+        this.size = size;
+        this.xs = new int[size + 1];
+        this.ys = new int[size + 1];
+        this.edgeFrom = new int[Math.max(16, expectedEdges)];
+        this.edgeTo = new int[edgeFrom.length];
+        this.edgeWeight = new int[edgeFrom.length];
+    }
+
+    private void addEdge(int from, int to, int peso) {
+        if (edgeCount == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+            edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+            edgeWeight = Arrays.copyOf(edgeWeight, edgeCount * 2);
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeWeight[edgeCount] = peso;
+        edgeCount++;
+    }
+
+    /**
+     * Genera una red del tipo indicado.
+     * @param topology Tipo de red (grid, geometric o scalefree).
+     * @param size Número de paradas.
+     * @param seed Semilla aleatoria.
+     * @return Generador con la red lista para construir.
+     */
+    public static NetworkGenerator generate(String topology, int size, long seed) {
+        switch (topology) {
+            case GRID:
+                return grid(size, seed);
+            case GEOMETRIC:
+                return randomGeometric(size, 6, seed);
+            case SCALE_FREE:
+                return scaleFree(size, 3, seed);
+            default:
+                throw new IllegalArgumentException("Topología desconocida: " + topology);
+        }
+    }
+
+    /**
+     * Cuadrícula de lado ceil(sqrt(size)) con pesos aleatorios entre 1 y 10.
+     * @param size Número de paradas.
+     * @param seed Semilla aleatoria.
+     * @return Generador.
+     */
+    public static NetworkGenerator grid(int size, long seed) {
+        Random random = new Random(seed);
+        int side = (int) Math.ceil(Math.sqrt(size));
+        NetworkGenerator g = new NetworkGenerator(size, 2 * size);
+        for (int id = 1; id <= size; id++) {
+            int x = (id - 1) % side;
+            int y = (id - 1) / side;
+            g.xs[id] = 50 + x * 100;
+            g.ys[id] = 50 + y * 100;
+            if (x + 1 < side && id + 1 <= size) g.addEdge(id, id + 1, 1 + random.nextInt(10));
+            if (id + side <= size) g.addEdge(id, id + side, 1 + random.nextInt(10));
+        }
+        return g;
+    }
+
+    /**
+     * Red geométrica aleatoria: puntos uniformes en un cuadrado, unidos a los vecinos dentro de un radio
+     * elegido para el grado medio pedido. Usa celdas del tamaño del radio, por lo que es lineal.
+     * El peso es la distancia euclídea redondeada.
+     * @param size Número de paradas.
+     * @param averageDegree Grado medio esperado.
+     * @param seed Semilla aleatoria.
+     * @return Generador.
+     */
+    public static NetworkGenerator randomGeometric(int size, int averageDegree, long seed) {
+        Random random = new Random(seed);
+        NetworkGenerator g = new NetworkGenerator(size, size * averageDegree / 2 + 16);
+        int extent = (int) Math.max(1000, Math.sqrt(size) * 100);
+        double radius = Math.sqrt(averageDegree * (double) extent * extent / (Math.PI * size));
+        int cells = Math.max(1, (int) (extent / radius));
+        double cellSize = (double) extent / cells;
+        int[] head = new int[cells * cells];
+        int[] next = new int[size + 1];
+        for (int id = 1; id <= size; id++) {
+            g.xs[id] = random.nextInt(extent);
+            g.ys[id] = random.nextInt(extent);
+            int cx = Math.min(cells - 1, (int) (g.xs[id] / cellSize));
+            int cy = Math.min(cells - 1, (int) (g.ys[id] / cellSize));
+            next[id] = head[cy * cells + cx];
+            head[cy * cells + cx] = id;
+        }
+        double r2 = radius * radius;
+        for (int id = 1; id <= size; id++) {
+            int cx = Math.min(cells - 1, (int) (g.xs[id] / cellSize));
+            int cy = Math.min(cells - 1, (int) (g.ys[id] / cellSize));
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = cx + dx;
+                    int ny = cy + dy;
+                    if (nx < 0 || ny < 0 || nx >= cells || ny >= cells) continue;
+                    for (int other = head[ny * cells + nx]; other != 0; other = next[other]) {
+                        if (other <= id) continue;
+                        double ddx = g.xs[id] - g.xs[other];
+                        double ddy = g.ys[id] - g.ys[other];
+                        double d2 = ddx * ddx + ddy * ddy;
+                        if (d2 <= r2) g.addEdge(id, other, 1 + (int) Math.sqrt(d2));
+                    }
+                }
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Red libre de escala por enlace preferencial (Barabási-Albert): cada parada nueva se une a m paradas
+     * existentes con probabilidad proporcional a su grado. Produce estaciones "hub" de grado alto.
+     * @param size Número de paradas.
+     * @param m Aristas por parada nueva.
+     * @param seed Semilla aleatoria.
+     * @return Generador.
+     */
+    public static NetworkGenerator scaleFree(int size, int m, long seed) {
+        Random random = new Random(seed);
+        NetworkGenerator g = new NetworkGenerator(size, size * m);
+        int[] endpoints = new int[2 * size * m + 2];
+        int count = 0;
+        int extent = (int) Math.max(1000, Math.sqrt(size) * 100);
+        for (int id = 1; id <= size; id++) {
+            g.xs[id] = random.nextInt(extent);
+            g.ys[id] = random.nextInt(extent);
+            if (id == 1) continue;
+            int links = Math.min(m, id - 1);
+            for (int j = 0; j < links; j++) {
+                int target = count == 0 ? 1 : endpoints[random.nextInt(count)];
+                if (target == id) target = 1 + random.nextInt(id - 1);
+                g.addEdge(id, target, 1 + random.nextInt(10));
+                endpoints[count++] = id;
+                endpoints[count++] = target;
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Obtiene el número de paradas.
+     * @return Número de paradas.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Obtiene el número de aristas generadas (puede incluir duplicados que el grafo fusiona).
+     * @return Número de aristas.
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Construye el grafo de la red con el constructor masivo.
+     * @return Grafo con capacidad para todas las paradas.
+     */
+    public Graph buildGraph() {
+        GraphBuilder builder = new GraphBuilder(edgeCount);
+        addEdgesTo(builder);
+        Graph graph = new Graph(Math.max(Graph.MAX_STOPS, size));
+        graph.addStop(size);
+        builder.buildInto(graph);
+        return graph;
+    }
+
+    /**
+     * Agrega todas las aristas al constructor masivo dado (para medir la carga masiva).
+     * @param builder Constructor masivo destino.
+     */
+    public void addEdgesTo(GraphBuilder builder) {
+        for (int i = 0; i < edgeCount; i++) {
+            builder.addEdge(edgeFrom[i], edgeTo[i], edgeWeight[i]);
+        }
+    }
+
+    /**
+     * Agrega todas las aristas una por una con Graph.addEdge (el camino no masivo).
+     * @param graph Grafo destino con las paradas ya registradas.
+     */
+    public void addEdgesTo(Graph graph) {
+        for (int i = 0; i < edgeCount; i++) {
+            graph.addEdge(edgeFrom[i], edgeTo[i], edgeWeight[i]);
+        }
+    }
+
+    /**
+     * Crea la lista de paradas con sus coordenadas.
+     * @return Lista de paradas.
+     */
+    public CustomLinkedList<Stop> stops() {
+        CustomLinkedList<Stop> stops = new CustomLinkedList<>();
+        for (int id = 1; id <= size; id++) {
+            stops.add(new Stop(id, "Parada " + id, xs[id], ys[id]));
+        }
+        return stops;
+    }
+
+    /**
+     * Crea rutas que recorren bloques consecutivos de 10 paradas conectadas en el grafo.
+     * @param graph Grafo de la red.
+     * @return Lista de rutas.
+     */
+    public CustomLinkedList<Route> routes(Graph graph) {
+        CustomLinkedList<Route> routes = new CustomLinkedList<>();
+        int routeId = 1;
+        for (int first = 1; first + 1 <= size; first += 10) {
+            Route route = new Route(routeId, "Ruta " + routeId);
+            route.setColor(new Color((routeId * 53) % 256, (routeId * 97) % 256, (routeId * 193) % 256));
+            int current = first;
+            route.getStopIds().add(current);
+            for (int k = 0; k < 9; k++) {
+                Node<Pair<Integer, Integer>> edge = graph.adjacency[current - 1].getHead();
+                if (edge == null) break;
+                current = edge.getData().getFirst();
+                route.getStopIds().add(current);
+            }
+            routes.add(route);
+            routeId++;
+        }
+        return routes;
+    }
+
+    /**
+     * Crea un horario por ruta.
+     * @param routes Rutas de la red.
+     * @return Lista de horarios.
+     */
+    public CustomLinkedList<Schedule> schedules(CustomLinkedList<Route> routes) {
+        CustomLinkedList<Schedule> schedules = new CustomLinkedList<>();
+        Node<Route> node = routes.getHead();
+        while (node != null) {
+            int id = node.getData().getId();
+            schedules.add(new Schedule(id, id, String.format("%02d:%02d", 5 + id % 18, (id * 7) % 60)));
+            node = node.getNext();
+        }
+        return schedules;
+    }
+}
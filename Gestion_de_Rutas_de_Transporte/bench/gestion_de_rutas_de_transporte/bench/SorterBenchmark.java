@@ -0,0 +1,57 @@
+/**
+ * Benchmarks de Sorter.bubbleSort por nombre y por ID sobre listas de paradas desordenadas.
+ * Cada invocación ordena una copia nueva de la lista.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.bench;
+
+import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.Sorter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SorterBenchmark {
+    @Param({"100", "1000", "5000"})
+    public int size;
+
+    private Stop[] shuffled;
+    private CustomLinkedList<Stop> list;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        shuffled = NetworkGenerator.grid(size, 42).stops().toArray(Stop.class);
+        Random random = new Random(7);
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Stop tmp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = tmp;
+        }
+        list = new CustomLinkedList<>();
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        list.fromArray(shuffled);
+    }
+
+    @Benchmark
+    public CustomLinkedList<Stop> bubbleSortByName() {
+        Sorter.bubbleSort(list, "nombre");
+        return list;
+    }
+
+    @Benchmark
+    public CustomLinkedList<Stop> bubbleSortById() {
+        Sorter.bubbleSort(list, "id");
+        return list;
+    }
+}
@@ -10,28 +10,75 @@ package gestion_de_rutas_de_transporte.gui;
 import gestion_de_rutas_de_transporte.utils.Sorter;
 import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
 import gestion_de_rutas_de_transporte.model.Node;
+import gestion_de_rutas_de_transporte.model.BetweennessCentrality;
+import gestion_de_rutas_de_transporte.model.ConnectedComponents;
+import gestion_de_rutas_de_transporte.model.CsrGraph;
+import gestion_de_rutas_de_transporte.model.EntityStore;
 import gestion_de_rutas_de_transporte.model.Graph;
+import gestion_de_rutas_de_transporte.model.GraphBuilder;
+import gestion_de_rutas_de_transporte.model.HubLabels;
+import gestion_de_rutas_de_transporte.model.Journey;
+import gestion_de_rutas_de_transporte.model.FewestHopsPlanner;
+import gestion_de_rutas_de_transporte.model.FleetSimulation;
+import gestion_de_rutas_de_transporte.model.KShortestPaths;
+import gestion_de_rutas_de_transporte.model.LandmarkRouter;
+import gestion_de_rutas_de_transporte.model.NameIndex;
+import gestion_de_rutas_de_transporte.model.NetworkResilience;
+import gestion_de_rutas_de_transporte.model.OffHeapGraph;
+import gestion_de_rutas_de_transporte.model.Pair;
+import gestion_de_rutas_de_transporte.model.ParetoPlanner;
 import gestion_de_rutas_de_transporte.model.Schedule;
+import gestion_de_rutas_de_transporte.model.ShortestPathCache;
 import gestion_de_rutas_de_transporte.model.Route;
 import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.model.StopIndex;
+import gestion_de_rutas_de_transporte.model.Timetable;
+import gestion_de_rutas_de_transporte.model.TransferPlanner;
+import gestion_de_rutas_de_transporte.model.WeightedPath;
 import gestion_de_rutas_de_transporte.utils.FileManager;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.TrafficFeed;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
-import javax.swing.table.DefaultTableModel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
 
 
 public class Gestion_de_Rutas_de_Transporte extends JFrame {
     private JTabbedPane tabbedPane;
     private JTable routeTable;  // Para la lista de rutas
+    private RouteTableModel routeTableModel;  // Filas de la tabla, actualizadas por eventos
+    private ListingPanel listingPanel;  // Listado filtrable de "Mostrar Todo"
+    private EntityStore stopStore = new EntityStore();  // Columnas de las paradas; las Stop de la lista son vistas
     private CustomLinkedList<Stop> stops = new CustomLinkedList<>();
     private CustomLinkedList<Route> routes = new CustomLinkedList<>();
     private CustomLinkedList<Schedule> schedules = new CustomLinkedList<>();
     private Graph graph = new Graph();
+    private ShortestPathCache pathCache = new ShortestPathCache(graph, 16);  // Árboles reparados ante cambios de peso
+    private KShortestPaths alternatives = new KShortestPaths(graph);
+    private FewestHopsPlanner fewestHops = new FewestHopsPlanner(graph);
+    private ParetoPlanner paretoPlanner = new ParetoPlanner(graph, routes);  // Costo, tramos y transbordos a la vez
+    private TransferPlanner transferPlanner = new TransferPlanner(graph, routes);  // Penaliza los cambios de ruta
+    private LandmarkRouter landmarkRouter;  // A* con landmarks, tablas guardadas junto al archivo de datos
+    private HubLabels hubLabels;  // Distancias mínimas por etiquetas de hubs, guardadas junto al archivo de datos
+    private NetworkResilience resilience = new NetworkResilience(graph);  // Puntos críticos, recalculados por componente
+    private BetweennessCentrality centrality = new BetweennessCentrality(graph);  // Paradas troncales (en paralelo)
+    private StopIndex stopIndex = new StopIndex();  // Paradas por posición (clic en el mapa, paradas cercanas)
+    private NameIndex nameIndex = new NameIndex();  // Paradas y rutas por nombre (búsqueda por texto)
+    private Timetable timetable = new Timetable();  // Salidas de cada ruta ordenadas por hora
+    private Stop clickOrigin;  // Origen elegido con el primer clic en el mapa
+    private Thread simulationThread;  // Animación de la simulación de flota en curso
+    private static final int SIMULATION_FPS = 20;
+    private static final int SNAP_DISTANCE = 20;  // Radio del círculo de una parada
+    private static final int EXACT_CENTRALITY_LIMIT = 2000;  // Paradas hasta las que la centralidad es exacta por defecto
+    private static final int DEFAULT_CENTRALITY_SAMPLES = 256;  // Orígenes muestreados por encima del límite
     private String filename = "data.txt";
     private int nextStopId = 1;
     private int nextRouteId = 1;
@@ -39,7 +86,7 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
 
     private JTextArea outputArea;
     private PanelDibujo panelDibujo;
-    private JButton addStopButton, addRouteButton, addScheduleButton, showAllButton, searchButton, deleteButton, planRouteButton, sortButton, exitButton;
+    private JButton addStopButton, addRouteButton, addScheduleButton, showAllButton, searchButton, deleteButton, planRouteButton, sortButton, trafficButton, departuresButton, resilienceButton, centralityButton, simulationButton, metricsButton, exitButton;
 
     /**
      * Constructor de la clase principal. Inicializa la interfaz gráfica, carga datos desde archivo
@@ -55,18 +102,23 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
         tabbedPane = new JTabbedPane();
 
         // Pestaña 1: Visualización de Grafo (con scroll)
-        panelDibujo = new PanelDibujo(graph, stops, routes);
+        panelDibujo = new PanelDibujo(graph, stopStore, routes);
         JScrollPane graphScroll = new JScrollPane(panelDibujo);
         panelDibujo.setPreferredSize(new Dimension(1200, 800));  // Tamaño grande para grafo completo
         tabbedPane.addTab("Visualización de Grafo", graphScroll);
 
         // Pestaña 2: Lista de Rutas (con tabla)
         JPanel routesPanel = new JPanel(new BorderLayout());
-        routeTable = new JTable();
+        routeTableModel = new RouteTableModel(stopIndex, timetable);
+        routeTable = new JTable(routeTableModel);
         JScrollPane tableScroll = new JScrollPane(routeTable);
         routesPanel.add(tableScroll, BorderLayout.CENTER);
         tabbedPane.addTab("Lista de Rutas", routesPanel);
 
+        // Pestaña de listado completo (Mostrar Todo)
+        listingPanel = new ListingPanel();
+        tabbedPane.addTab("Listado", listingPanel);
+
         // Pestaña 3: Operaciones (botones en vertical con scroll)
         JPanel buttonPanel = new JPanel(new GridLayout(0, 1));  // Vertical
         addStopButton = new JButton("Agregar Parada");
@@ -77,6 +129,12 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
         deleteButton = new JButton("Eliminar");
         planRouteButton = new JButton("Planificar Recorrido");
         sortButton = new JButton("Ordenar Paradas");
+        trafficButton = new JButton("Actualizar Tráfico");
+        departuresButton = new JButton("Próximas Salidas");
+        resilienceButton = new JButton("Puntos Críticos");
+        centralityButton = new JButton("Centralidad");
+        simulationButton = new JButton("Simular Flota");
+        metricsButton = new JButton("Métricas");
         exitButton = new JButton("Salir y Guardar");
         buttonPanel.add(addStopButton);
         buttonPanel.add(addRouteButton);
@@ -86,6 +144,12 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
         buttonPanel.add(deleteButton);
         buttonPanel.add(planRouteButton);
         buttonPanel.add(sortButton);
+        buttonPanel.add(trafficButton);
+        buttonPanel.add(departuresButton);
+        buttonPanel.add(resilienceButton);
+        buttonPanel.add(centralityButton);
+        buttonPanel.add(simulationButton);
+        buttonPanel.add(metricsButton);
         buttonPanel.add(exitButton);
         tabbedPane.addTab("Operaciones", new JScrollPane(buttonPanel));
 
@@ -108,13 +172,25 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
         deleteButton.addActionListener(e -> deleteItem());
         planRouteButton.addActionListener(e -> planRoute());
         sortButton.addActionListener(e -> sortStops());
+        trafficButton.addActionListener(e -> updateTraffic());
+        departuresButton.addActionListener(e -> showDepartures());
+        resilienceButton.addActionListener(e -> showCriticalPoints());
+        centralityButton.addActionListener(e -> showCentrality());
+        simulationButton.addActionListener(e -> toggleSimulation());
+        metricsButton.addActionListener(e -> showMetrics());
         exitButton.addActionListener(e -> exitAndSave());
 
         // Ahora cargar datos y actualizar UI (después de que componentes existan)
-        FileManager.load(filename, stops, routes, schedules, graph);
+        FileManager.load(filename, stopStore, stops, routes, schedules, graph);
         updateNextIds();  // Esto llamará a initializeDefaultData() si es necesario
-        updateRouteTable();  // Actualiza tabla
-        panelDibujo.repaint();  // Repinta grafo
+        landmarkRouter = LandmarkRouter.open(graph, LandmarkRouter.DEFAULT_LANDMARKS, landmarksFile());
+        hubLabels = HubLabels.open(graph, hubLabelsFile());
+        stopIndex.rebuild(stopStore);
+        nameIndex.rebuild(stops, routes);
+        panelDibujo.setMapClickListener(this::routeFromClick);
+        timetable.rebuild(schedules);
+        routeTableModel.reload(routes);  // Carga la tabla
+        panelDibujo.modelChanged();  // Repinta grafo
 
         setVisible(true);
     }
@@ -139,25 +215,25 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
     private void initializeDefaultData() {
         Random random = new Random();
         // Paradas con posiciones espaciadas horizontalmente (x aumenta, y varía poco para líneas)
-        stops.add(new Stop(nextStopId++, "Belén (Heredia)", 50, 50));
-        stops.add(new Stop(nextStopId++, "Metroplaza/Multiplaza Rosa", 150, 60));
-        stops.add(new Stop(nextStopId++, "DEMASA/Santa Rosa", 250, 70));
-        stops.add(new Stop(nextStopId++, "PECOSA/Santo Reina", 350, 80));
-        stops.add(new Stop(nextStopId++, "Estación del Atlántico", 450, 90));
-        stops.add(new Stop(nextStopId++, "Ambos Mares", 550, 100));
-        stops.add(new Stop(nextStopId++, "San Pedro (UCR)", 650, 110));
-        stops.add(new Stop(nextStopId++, "Universidad Latina", 750, 120));
-        stops.add(new Stop(nextStopId++, "Curridabat", 850, 130));
-        stops.add(new Stop(nextStopId++, "Tres Rios", 950, 140));
-        stops.add(new Stop(nextStopId++, "Pavas", 50, 200));
-        stops.add(new Stop(nextStopId++, "Aya (Contraloria)", 150, 210));
-        stops.add(new Stop(nextStopId++, "Sabana (La Salle/MAGI)", 250, 220));
-        stops.add(new Stop(nextStopId++, "Sabana (Cementerio)", 350, 230));
-        stops.add(new Stop(nextStopId++, "Estación del Pacífico", 450, 240));
-        stops.add(new Stop(nextStopId++, "Plaza Gonzalez Viquez", 550, 250));
-        stops.add(new Stop(nextStopId++, "Cartago (extensión)", 650, 260));
-        stops.add(new Stop(nextStopId++, "Jack's", 750, 270));
-        stops.add(new Stop(nextStopId++, "Procuraduría", 850, 280));
+        stops.add(stopStore.addStop(nextStopId++, "Belén (Heredia)", 50, 50));
+        stops.add(stopStore.addStop(nextStopId++, "Metroplaza/Multiplaza Rosa", 150, 60));
+        stops.add(stopStore.addStop(nextStopId++, "DEMASA/Santa Rosa", 250, 70));
+        stops.add(stopStore.addStop(nextStopId++, "PECOSA/Santo Reina", 350, 80));
+        stops.add(stopStore.addStop(nextStopId++, "Estación del Atlántico", 450, 90));
+        stops.add(stopStore.addStop(nextStopId++, "Ambos Mares", 550, 100));
+        stops.add(stopStore.addStop(nextStopId++, "San Pedro (UCR)", 650, 110));
+        stops.add(stopStore.addStop(nextStopId++, "Universidad Latina", 750, 120));
+        stops.add(stopStore.addStop(nextStopId++, "Curridabat", 850, 130));
+        stops.add(stopStore.addStop(nextStopId++, "Tres Rios", 950, 140));
+        stops.add(stopStore.addStop(nextStopId++, "Pavas", 50, 200));
+        stops.add(stopStore.addStop(nextStopId++, "Aya (Contraloria)", 150, 210));
+        stops.add(stopStore.addStop(nextStopId++, "Sabana (La Salle/MAGI)", 250, 220));
+        stops.add(stopStore.addStop(nextStopId++, "Sabana (Cementerio)", 350, 230));
+        stops.add(stopStore.addStop(nextStopId++, "Estación del Pacífico", 450, 240));
+        stops.add(stopStore.addStop(nextStopId++, "Plaza Gonzalez Viquez", 550, 250));
+        stops.add(stopStore.addStop(nextStopId++, "Cartago (extensión)", 650, 260));
+        stops.add(stopStore.addStop(nextStopId++, "Jack's", 750, 270));
+        stops.add(stopStore.addStop(nextStopId++, "Procuraduría", 850, 280));
 
         // Rutas de ejemplo
       Route rutaRoja = new Route(nextRouteId++, "Belén - Tres Rios");
@@ -204,52 +280,44 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
         
     }
 
-    private void updateRouteTable() {
-        DefaultTableModel model = new DefaultTableModel(new String[]{"ID Ruta", "Nombre", "Inicio", "Fin", "Horarios"}, 0);
-        Node<Route> routeNode = routes.getHead();
-        while (routeNode != null) {
-            Route route = routeNode.getData();
-            String start = getStopNameById(route.getStopIds().getAt(0));
-            String end = getStopNameById(route.getStopIds().getAt(route.getStopIds().getSize() - 1));
-            String horarios = getSchedulesForRoute(route.getId());
-            model.addRow(new Object[]{route.getId(), route.getName(), start, end, horarios});
-            routeNode = routeNode.getNext();
-        }
-        routeTable.setModel(model);
+    private String getStopNameById(int id) {
+        Stop stop = stopIndex.get(id);
+        return stop != null ? stop.getName() : "Desconocido";
     }
 
-    private String getStopNameById(int id) {
-        Node<Stop> stopNode = stops.getHead();
-        while (stopNode != null) {
-            Stop stop = stopNode.getData();
-            if (stop.getId() == id) return stop.getName();
-            stopNode = stopNode.getNext();
+    private String getRouteNameById(int id) {
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext()) {
+            if (node.getData().getId() == id) return node.getData().getName();
         }
-        return "Desconocido";
+        return "Desconocida";
     }
 
-    private String getSchedulesForRoute(int routeId) {
-        StringBuilder sb = new StringBuilder();
-        Node<Schedule> schNode = schedules.getHead();
-        while (schNode != null) {
-            Schedule sch = schNode.getData();
-            if (sch.getRouteId() == routeId) {
-                if (sb.length() > 0) sb.append(", ");
-                sb.append(sch.getTime());
-            }
-            schNode = schNode.getNext();
-        }
-        return sb.toString();
+    /**
+     * Si dos paradas están en partes de la red sin conexión entre sí, lo explica en el área de salida.
+     * Se resuelve con el índice de componentes, sin buscar caminos.
+     * @param origen ID de origen.
+     * @param destino ID de destino.
+     * @return true si no hay conexión posible.
+     */
+    private boolean explainDisconnected(int origen, int destino) {
+        if (stopIndex.get(origen) == null || stopIndex.get(destino) == null) return false;
+        ConnectedComponents components = graph.getComponents();
+        if (components.connected(origen, destino)) return false;
+        outputArea.append("No hay conexión entre " + getStopNameById(origen) + " y " + getStopNameById(destino)
+                + ": pertenecen a redes separadas (" + components.componentSize(origen) + " y "
+                + components.componentSize(destino) + " paradas).\n");
+        return true;
     }
 
-    // Método auxiliar para conectar paradas consecutivas en una ruta al grafo
+    // Método auxiliar para conectar paradas consecutivas en una ruta al grafo (en una sola pasada)
     private void connectRouteToGraph(Route route, int defaultWeight) {
-        CustomLinkedList<Integer> stopIds = route.getStopIds();
-        for (int i = 0; i < stopIds.getSize() - 1; i++) {
-            int from = stopIds.getAt(i);
-            int to = stopIds.getAt(i + 1);
-            graph.addEdge(from, to, defaultWeight);
+        GraphBuilder builder = new GraphBuilder(route.getStopIds().getSize());
+        Node<Integer> current = route.getStopIds().getHead();
+        while (current != null && current.getNext() != null) {
+            builder.addEdge(current.getData(), current.getNext().getData(), defaultWeight);
+            current = current.getNext();
         }
+        builder.buildInto(graph);
     }
 
     private void addStop() {
@@ -257,12 +325,20 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
         if (name != null && !name.isEmpty()) {
             int x = Integer.parseInt(JOptionPane.showInputDialog(this, "Posición X:"));
             int y = Integer.parseInt(JOptionPane.showInputDialog(this, "Posición Y:"));
-            Stop newStop = new Stop(nextStopId++, name, x, y);
+            // Evitar duplicar una parada que ya existe en (casi) la misma posición
+            Stop near = stopIndex.nearest(x, y);
+            if (near != null && Math.hypot(near.getX() - x, near.getY() - y) <= SNAP_DISTANCE) {
+                int answer = JOptionPane.showConfirmDialog(this, "Ya existe la parada " + near.getName() + " (" + near.getId()
+                        + ") en esa posición. ¿Agregar otra de todas formas?", "Parada cercana", JOptionPane.YES_NO_OPTION);
+                if (answer != JOptionPane.YES_OPTION) return;
+            }
+            Stop newStop = stopStore.addStop(nextStopId++, name, x, y);
             stops.add(newStop);
+            stopIndex.add(newStop);
+            nameIndex.add(NameIndex.STOP, newStop.getId(), newStop.getNameId());
             graph.addStop(newStop.getId());
             outputArea.append("Parada agregada: " + newStop + "\n");
-            updateRouteTable();
-            panelDibujo.repaint();
+            panelDibujo.modelChanged();
         }
     }
 
@@ -278,53 +354,69 @@ public class Gestion_de_Rutas_de_Transporte extends JFrame {
           // Solicitar color para la nueva ruta
             Color color = JColorChooser.showDialog(this, "Elige color de la ruta", Color.BLACK);
             newRoute.setColor(color != null ? color : Color.BLACK);
+            String weightInput = JOptionPane.showInputDialog(this, "Peso entre paradas consecutivas (minutos):", "5");
+            int weight;
+            try {
+                weight = weightInput != null && !weightInput.trim().isEmpty() ? Integer.parseInt(weightInput.trim()) : 5;
+            } catch (NumberFormatException e) {
+                weight = 0;
+            }
+            if (weight <= 0) {
+                outputArea.append("Peso inválido: debe ser un entero mayor que 0.\n");
+                return;
+            }
             routes.add(newRoute);
-            connectRouteToGraph(newRoute, 5);  // Peso por defecto
+            nameIndex.add(NameIndex.ROUTE, newRoute.getId(), newRoute.getNameId());
+            connectRouteToGraph(newRoute, weight);
+            transferPlanner.routesChanged();
             outputArea.append("Ruta agregada: " + newRoute + "\n");
-            updateRouteTable();
-            panelDibujo.repaint();
+            routeTableModel.routeAdded(newRoute);
+            panelDibujo.modelChanged();
         }
     }
 
     private void addSchedule() {
         int routeId = Integer.parseInt(JOptionPane.showInputDialog(this, "ID de ruta:"));
         String time = JOptionPane.showInputDialog(this, "Hora (HH:MM):");
+        if (Timetable.parseTime(time) < 0) {
+            outputArea.append("Hora inválida, use HH:MM.\n");
+            return;
+        }
         Schedule newSchedule = new Schedule(nextScheduleId++, routeId, time);
         schedules.add(newSchedule);
+        timetable.add(newSchedule);
         outputArea.append("Horario agregado: " + newSchedule + "\n");
-        updateRouteTable();
+        routeTableModel.routeUpdated(routeId);
     }
     /**
-    * Muestra todos los elementos (paradas, rutas, horarios) en un diálogo con área de texto scrollable.
+    * Muestra todos los elementos (paradas, rutas, horarios) en la pestaña de listado, con filtro.
     */
     private void showAll() {
     showAll("");  // Llama a la versión con prefijo vacío
 }
 
 private void showAll(String prefix) {
-    StringBuilder sb = new StringBuilder(prefix);
-    sb.append("Paradas:\n");
-    for (int i = 0; i < stops.getSize(); i++) {
-        sb.append(stops.getAt(i)).append("\n");
-    }
-    sb.append("\nRutas:\n");
-    for (int i = 0; i < routes.getSize(); i++) {
-        sb.append(routes.getAt(i)).append("\n");
-    }
-    sb.append("\nHorarios:\n");
-    for (int i = 0; i < schedules.getSize(); i++) {
-        sb.append(schedules.getAt(i)).append("\n");
-    }
-    outputArea.setText(sb.toString());
-    outputArea.setCaretPosition(0);  // Scroll al inicio
+    if (!prefix.isEmpty()) outputArea.append(prefix);
+    listingPanel.load(stops, routes, schedules);
+    tabbedPane.setSelectedComponent(listingPanel);
 }
 
     /**
-    * Busca un elemento (parada, ruta o horario) por tipo e ID, y muestra el resultado en el área de salida.
+    * Busca un elemento (parada, ruta o horario) por tipo e ID, o paradas y rutas por nombre,
+    * y muestra el resultado en el área de salida.
     */
     private void searchItem() {
-        String type = JOptionPane.showInputDialog(this, "Buscar (parada/ruta/horario):");
-        int id = Integer.parseInt(JOptionPane.showInputDialog(this, "ID:"));
+        String type = JOptionPane.showInputDialog(this, "Buscar (parada/ruta/horario/nombre):");
+        if (type == null) return;
+        String input = JOptionPane.showInputDialog(this, "nombre".equalsIgnoreCase(type) ? "Nombre:" : "ID o nombre:");
+        if (input == null || input.trim().isEmpty()) return;
+        input = input.trim();
+        if ("nombre".equalsIgnoreCase(type) || !input.matches("\\d+")) {
+            int kind = "parada".equalsIgnoreCase(type) ? NameIndex.STOP : "ruta".equalsIgnoreCase(type) ? NameIndex.ROUTE : -1;
+            searchByName(input, kind);
+            return;
+        }
+        int id = Integer.parseInt(input);
         if ("parada".equalsIgnoreCase(type)) {
             Stop found = stops.search(id);
             outputArea.append(found != null ? found.toString() : "No encontrado");
@@ -337,6 +429,22 @@ private void showAll(String prefix) {
         }
     }
 
+    /**
+    * Muestra las paradas y/o rutas cuyo nombre coincide con el texto (prefijo, sin tildes, con errores de escritura).
+    */
+    private void searchByName(String text, int kind) {
+        CustomLinkedList<NameIndex.Match> matches = nameIndex.search(text, kind, 20);
+        if (matches.getSize() == 0) {
+            outputArea.append("No encontrado\n");
+            return;
+        }
+        StringBuilder sb = new StringBuilder("Resultados para \"" + text + "\":\n");
+        for (Node<NameIndex.Match> current = matches.getHead(); current != null; current = current.getNext()) {
+            sb.append("  ").append(current.getData()).append("\n");
+        }
+        outputArea.append(sb.toString());
+    }
+
     /**
     * Elimina un elemento (parada, ruta o horario) por tipo e ID, actualiza la tabla y repinta el panel.
     */
@@ -344,24 +452,31 @@ private void showAll(String prefix) {
         String type = JOptionPane.showInputDialog(this, "Eliminar (parada/ruta/horario):");
         int id = Integer.parseInt(JOptionPane.showInputDialog(this, "ID:"));
         if ("parada".equalsIgnoreCase(type)) {
-            Stop toRemove = new Stop(id, "", 0, 0);
-            if (stops.remove(toRemove)) {
+            Stop toRemove = stopIndex.get(id);
+            if (toRemove != null && stops.remove(toRemove)) {
+                stopStore.removeStop(toRemove);
+                stopIndex.remove(id);
+                nameIndex.remove(NameIndex.STOP, id);
                 graph.removeStop(id);
+                routeTableModel.stopsChanged();
                 outputArea.append("Parada eliminada.\n");
             }
         } else if ("ruta".equalsIgnoreCase(type)) {
             Route toRemove = new Route(id, "");
             if (routes.remove(toRemove)) {
+                routeTableModel.routeRemoved(id);
+                nameIndex.remove(NameIndex.ROUTE, id);
+                transferPlanner.routesChanged();
                 outputArea.append("Ruta eliminada.\n");
             }
         } else if ("horario".equalsIgnoreCase(type)) {
             Schedule toRemove = new Schedule(id, 0, "");
             if (schedules.remove(toRemove)) {
+                routeTableModel.routeUpdated(timetable.remove(id));
                 outputArea.append("Horario eliminado.\n");
             }
         }
-        updateRouteTable();
-        panelDibujo.repaint();
+        panelDibujo.modelChanged();
     }
     
     /**
@@ -370,9 +485,71 @@ private void showAll(String prefix) {
     private void planRoute() {
     int origen = Integer.parseInt(JOptionPane.showInputDialog(this, "ID de origen:"));
     int destino = Integer.parseInt(JOptionPane.showInputDialog(this, "ID de destino:"));
-    String type = JOptionPane.showInputDialog(this, "Tipo (corta/larga/establecida):");  // Agrega opción "establecida"
+    String type = JOptionPane.showInputDialog(this, "Tipo (corta/guiada/paradas/larga/establecida/alternativas/opciones/transbordos):");  // Agrega opción "establecida"
+
+    if (explainDisconnected(origen, destino)) return;
 
     CustomLinkedList<Integer> path = null;
+    panelDibujo.setAlternativePaths(new CustomLinkedList<>());
+
+    if ("alternativas".equalsIgnoreCase(type)) {
+        String kInput = JOptionPane.showInputDialog(this, "Número de alternativas (K):", "3");
+        int k = kInput != null && !kInput.trim().isEmpty() ? Integer.parseInt(kInput.trim()) : 3;
+        CustomLinkedList<WeightedPath> found = alternatives.find(origen, destino, k);
+        if (found.getSize() == 0) {
+            outputArea.append("No se encontró ruta.\n");
+            return;
+        }
+        Node<WeightedPath> altNode = found.getHead();
+        int rank = 1;
+        while (altNode != null) {
+            StringBuilder sb = new StringBuilder("Alternativa " + rank++ + " (costo " + altNode.getData().getCost() + "): ");
+            for (int stopId : altNode.getData().getStops()) {
+                sb.append(getStopNameById(stopId)).append(" -> ");
+            }
+            outputArea.append(sb.toString() + "\n");
+            altNode = altNode.getNext();
+        }
+        panelDibujo.setSelectedRoutePath(new CustomLinkedList<>());
+        panelDibujo.setAlternativePaths(found);
+        panelDibujo.repaint();
+        return;
+    }
+
+    if ("transbordos".equalsIgnoreCase(type)) {
+        String penaltyInput = JOptionPane.showInputDialog(this, "Penalización por transbordo (minutos):",
+                String.valueOf(transferPlanner.getTransferPenalty()));
+        if (penaltyInput != null && !penaltyInput.trim().isEmpty()) {
+            transferPlanner.setPenalties(TransferPlanner.DEFAULT_BOARDING_PENALTY, Integer.parseInt(penaltyInput.trim()));
+        }
+        Journey journey = transferPlanner.findPath(origen, destino);
+        if (journey == null) {
+            outputArea.append("No se encontró ruta.\n");
+            return;
+        }
+        outputArea.append(describeJourney("Ruta", journey) + "\n");
+        panelDibujo.setSelectedRoutePath(journey.toList());
+        panelDibujo.repaint();
+        return;
+    }
+
+    if ("opciones".equalsIgnoreCase(type)) {
+        CustomLinkedList<Journey> journeys = paretoPlanner.search(origen, destino);  // Frente de Pareto
+        if (journeys.getSize() == 0) {
+            outputArea.append("No se encontró ruta.\n");
+            return;
+        }
+        CustomLinkedList<WeightedPath> drawn = new CustomLinkedList<>();
+        int option = 1;
+        for (Node<Journey> node = journeys.getHead(); node != null; node = node.getNext()) {
+            outputArea.append(describeJourney("Opción " + option++, node.getData()) + "\n");
+            drawn.add(node.getData());
+        }
+        panelDibujo.setSelectedRoutePath(new CustomLinkedList<>());
+        panelDibujo.setAlternativePaths(drawn);
+        panelDibujo.repaint();
+        return;
+    }
     
     if ("establecida".equalsIgnoreCase(type)) {
         // Buscar ruta establecida que contenga origen y destino
@@ -382,7 +559,11 @@ private void showAll(String prefix) {
             return;
         }
     } else if ("corta".equalsIgnoreCase(type)) {
-        path = graph.findPath(origen, destino);
+        path = pathCache.findPath(origen, destino);
+    } else if ("guiada".equalsIgnoreCase(type)) {
+        path = landmarkRouter.findPath(origen, destino);  // A* con cotas de landmarks
+    } else if ("paradas".equalsIgnoreCase(type)) {
+        path = fewestHops.findPath(origen, destino);  // Menos paradas, sin considerar pesos
     } else if ("larga".equalsIgnoreCase(type)) {
         path = graph.longestPath(origen, destino);
     }
@@ -393,6 +574,16 @@ private void showAll(String prefix) {
             sb.append(getStopNameById(path.getAt(i))).append(" -> ");
         }
         outputArea.append(sb.toString() + "\n");
+        int costo = 0;
+        for (Node<Integer> node = path.getHead(); node.getNext() != null; node = node.getNext()) {
+            costo += Math.max(0, graph.getWeight(node.getData(), node.getNext().getData()));
+        }
+        outputArea.append("Costo de la ruta: " + costo + "\n");
+        // El índice no bloquea: si no está al día responde NOT_READY y se reconstruye en segundo plano
+        int minimo = hubLabels.distance(origen, destino);
+        if (minimo >= 0 && minimo < costo) {
+            outputArea.append("Costo mínimo entre ambas paradas: " + minimo + "\n");
+        }
         panelDibujo.setSelectedRoutePath(path);  // Resalta en el panel
         panelDibujo.repaint();
     } else {
@@ -400,6 +591,57 @@ private void showAll(String prefix) {
     }
 }
     
+    /**
+    * Planifica la ruta más corta con dos clics en el mapa: el primero elige como origen la parada más cercana
+    * al punto y el segundo el destino.
+    * @param point Punto del clic en coordenadas del modelo.
+    */
+    private void routeFromClick(Point point) {
+        Stop stop = stopIndex.nearest(point.x, point.y);
+        if (stop == null) return;
+        if (clickOrigin == null || clickOrigin == stop) {
+            clickOrigin = stop;
+            outputArea.append("Origen: " + stop.getName() + " (" + stop.getId() + "). Haz clic en el destino.\n");
+            return;
+        }
+        Stop origin = clickOrigin;
+        clickOrigin = null;
+        CustomLinkedList<Integer> path = pathCache.findPath(origin.getId(), stop.getId());
+        panelDibujo.setAlternativePaths(new CustomLinkedList<>());
+        if (path.getSize() > 0) {
+            StringBuilder sb = new StringBuilder("Ruta: ");
+            for (Node<Integer> current = path.getHead(); current != null; current = current.getNext()) {
+                sb.append(getStopNameById(current.getData())).append(" -> ");
+            }
+            outputArea.append(sb.toString() + "\n");
+        } else if (!explainDisconnected(origin.getId(), stop.getId())) {
+            outputArea.append("No se encontró ruta entre " + origin.getName() + " y " + stop.getName() + ".\n");
+        }
+        panelDibujo.setSelectedRoutePath(path);
+        panelDibujo.repaint();
+    }
+
+    /**
+    * Describe un viaje con sus criterios y el tramo recorrido en cada ruta.
+    * @param title Título de la línea.
+    * @param journey Viaje a describir.
+    * @return Texto del viaje.
+    */
+    private String describeJourney(String title, Journey journey) {
+        int[] stopIds = journey.getStops();
+        int[] routeIds = journey.getRoutes();
+        StringBuilder sb = new StringBuilder(title + " (costo " + journey.getCost() + ", "
+                + journey.getHops() + " tramos, " + journey.getTransfers() + " transbordos): ");
+        sb.append("[").append(getRouteNameById(routeIds[0])).append("] ").append(getStopNameById(stopIds[0]));
+        for (int i = 1; i < stopIds.length; i++) {
+            if (routeIds[i] != routeIds[i - 1]) {
+                sb.append(", [").append(getRouteNameById(routeIds[i])).append("] ").append(getStopNameById(stopIds[i - 1]));
+            }
+            sb.append(" -> ").append(getStopNameById(stopIds[i]));
+        }
+        return sb.toString();
+    }
+
     private CustomLinkedList<Integer> findEstablishedRoutePath(int origen, int destino) {
     Node<Route> routeNode = routes.getHead();
     while (routeNode != null) {
@@ -446,22 +688,312 @@ private void showAll(String prefix) {
         return;
     }
     showAll(message);  // Muestra el mensaje + toda la info
-    panelDibujo.repaint();
+    panelDibujo.modelChanged();
 }
 
+    /**
+    * Aplica actualizaciones de peso en vivo (congestión, cierres) desde una línea o un archivo de tráfico.
+    * Los caminos mínimos en caché se reparan de forma incremental.
+    */
+    private void updateTraffic() {
+        String input = JOptionPane.showInputDialog(this, "Actualización (origen,destino,peso; X = cierre) o archivo de tráfico:");
+        if (input == null || input.trim().isEmpty()) return;
+        input = input.trim();
+        int applied;
+        if (new java.io.File(input).isFile()) {
+            applied = TrafficFeed.apply(input, graph);
+        } else {
+            applied = TrafficFeed.applyLine(input, graph) ? 1 : 0;
+        }
+        outputArea.append("Actualizaciones de tráfico aplicadas: " + applied + "\n");
+        panelDibujo.repaint();
+    }
+
+    /**
+    * Muestra las próximas salidas de una ruta (con su frecuencia) o las de todas las rutas en la hora siguiente.
+    */
+    private void showDepartures() {
+        String timeInput = JOptionPane.showInputDialog(this, "Hora (HH:MM):");
+        int time = Timetable.parseTime(timeInput);
+        if (time < 0) {
+            outputArea.append("Hora inválida, use HH:MM.\n");
+            return;
+        }
+        String routeInput = JOptionPane.showInputDialog(this, "ID de ruta (vacío = todas):");
+        if (routeInput == null) return;
+        StringBuilder sb = new StringBuilder();
+        if (routeInput.trim().isEmpty()) {
+            sb.append("Salidas entre ").append(Timetable.formatTime(time)).append(" y ")
+              .append(Timetable.formatTime(time + 60)).append(":\n");
+            CustomLinkedList<Timetable.Departure> departures = timetable.departuresBetween(time, time + 60, 50);
+            for (Node<Timetable.Departure> current = departures.getHead(); current != null; current = current.getNext()) {
+                sb.append("  ").append(current.getData()).append("\n");
+            }
+        } else {
+            int routeId = Integer.parseInt(routeInput.trim());
+            sb.append("Próximas salidas de la ruta ").append(routeId).append(":\n");
+            CustomLinkedList<Timetable.Departure> departures = timetable.nextDepartures(routeId, time, 5);
+            for (Node<Timetable.Departure> current = departures.getHead(); current != null; current = current.getNext()) {
+                sb.append("  ").append(current.getData()).append("\n");
+            }
+            Timetable.Headway headway = timetable.headway(routeId, 0, Timetable.MINUTES_PER_DAY - 1);
+            if (headway != null) sb.append("  Frecuencia: ").append(headway).append("\n");
+        }
+        outputArea.append(sb.toString());
+    }
+
+    /**
+    * Muestra las paradas y tramos cuyo cierre desconectaría la red, y los resalta en el mapa.
+    */
+    private void showCriticalPoints() {
+        CustomLinkedList<Integer> points = resilience.getArticulationPoints();
+        CustomLinkedList<Pair<Integer, Integer>> bridges = resilience.getBridges();
+        StringBuilder sb = new StringBuilder("Paradas críticas (" + points.getSize() + "):\n");
+        for (Node<Integer> node = points.getHead(); node != null; node = node.getNext()) {
+            sb.append("  ").append(getStopNameById(node.getData())).append(" (").append(node.getData()).append(")\n");
+        }
+        sb.append("Tramos críticos (").append(bridges.getSize()).append("):\n");
+        for (Node<Pair<Integer, Integer>> node = bridges.getHead(); node != null; node = node.getNext()) {
+            sb.append("  ").append(getStopNameById(node.getData().first)).append(" - ")
+                    .append(getStopNameById(node.getData().second)).append("\n");
+        }
+        sb.append("Componentes biconexas: ").append(resilience.getBiconnectedComponents().getSize()).append("\n");
+        outputArea.append(sb.toString());
+        panelDibujo.setResilience(resilience);  // Resalta en rojo; se actualiza solo con las ediciones
+        tabbedPane.setSelectedIndex(0);
+    }
+
+    /**
+    * Calcula la centralidad de intermediación de las paradas, muestra las de mayor puntaje y dibuja cada
+    * parada con un tamaño proporcional a su puntaje. Con una muestra de orígenes el resultado es aproximado.
+    * El cálculo corre en segundo plano; por defecto es exacto solo hasta EXACT_CENTRALITY_LIMIT paradas.
+    */
+    private void showCentrality() {
+        String input = JOptionPane.showInputDialog(this, "Orígenes a muestrear (vacío = exacto hasta "
+                + EXACT_CENTRALITY_LIMIT + " paradas, 0 = ocultar):", "");
+        if (input == null) return;
+        int samples;
+        if (input.trim().isEmpty()) {
+            // Brandes exacto es O(V·E): en redes grandes se estima con una muestra de orígenes
+            samples = stops.getSize() > EXACT_CENTRALITY_LIMIT ? DEFAULT_CENTRALITY_SAMPLES : Integer.MAX_VALUE;
+        } else {
+            try {
+                samples = Integer.parseInt(input.trim());
+            } catch (NumberFormatException e) {
+                outputArea.append("Número de orígenes inválido.\n");
+                return;
+            }
+            if (samples <= 0) {
+                panelDibujo.setCentrality(null);
+                return;
+            }
+        }
+
+        // La instantánea se toma en el EDT, que es quien modifica el grafo; el cálculo corre en segundo plano
+        CsrGraph csr = graph.snapshot();
+        int origins = samples;
+        centralityButton.setEnabled(false);
+        outputArea.append(origins == Integer.MAX_VALUE ? "Calculando centralidad...\n"
+                : "Estimando centralidad con " + origins + " orígenes...\n");
+        new SwingWorker<double[], Void>() {
+            @Override
+            protected double[] doInBackground() {
+                return origins == Integer.MAX_VALUE ? centrality.compute(csr)
+                        : centrality.computeSampled(csr, origins, System.nanoTime());
+            }
+
+            @Override
+            protected void done() {
+                centralityButton.setEnabled(true);
+                try {
+                    showCentralityScores(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    outputArea.append("Error al calcular la centralidad: " + e.getMessage() + "\n");
+                }
+            }
+        }.execute();
+    }
+
+    /**
+    * Muestra las paradas de mayor centralidad y colorea el mapa.
+    * @param scores Puntaje por parada (índice id - 1).
+    */
+    private void showCentralityScores(double[] scores) {
+        // Las paradas de mayor puntaje, por selección parcial
+        int top = Math.min(10, stops.getSize());
+        boolean[] taken = new boolean[scores.length];
+        StringBuilder sb = new StringBuilder("Paradas con más caminos mínimos:\n");
+        for (int rank = 1; rank <= top; rank++) {
+            int best = -1;
+            for (int i = 0; i < scores.length; i++) {
+                if (!taken[i] && stopIndex.get(i + 1) != null && (best == -1 || scores[i] > scores[best])) best = i;
+            }
+            if (best == -1 || scores[best] <= 0) break;
+            taken[best] = true;
+            sb.append(String.format("  %d. %s (%d): %.1f%n", rank, getStopNameById(best + 1), best + 1, scores[best]));
+        }
+        outputArea.append(sb.toString());
+        panelDibujo.setCentrality(scores);
+        tabbedPane.setSelectedIndex(0);
+    }
+
+    /**
+    * Inicia la simulación de la flota del día, animada en el mapa desde un hilo de fondo, o la detiene si
+    * ya está en curso. Al terminar (o detenerse) se muestra el reporte de ocupación, frecuencias y agrupamientos.
+    */
+    private void toggleSimulation() {
+        if (simulationThread != null && simulationThread.isAlive()) {
+            simulationThread.interrupt();
+            return;
+        }
+        String input = JOptionPane.showInputDialog(this, "Minutos simulados por segundo:", "10");
+        if (input == null) return;
+        int speed;
+        try {
+            speed = Integer.parseInt(input.trim());
+        } catch (NumberFormatException e) {
+            outputArea.append("Velocidad inválida.\n");
+            return;
+        }
+        if (speed <= 0) return;
+        FleetSimulation simulation = new FleetSimulation(graph, routes, timetable, System.nanoTime());
+        if (simulation.getVehicleCount() == 0) {
+            outputArea.append("No hay salidas para simular.\n");
+            return;
+        }
+        outputArea.append("Simulando " + simulation.getVehicleCount() + " vehículos desde las "
+                + Timetable.formatTime(simulation.getClock() / 60) + " (clic en Simular Flota para detener).\n");
+        tabbedPane.setSelectedIndex(0);
+        simulationThread = new Thread(() -> animate(simulation, speed), "simulacion-flota");
+        simulationThread.setDaemon(true);
+        simulationThread.start();
+    }
+
+    /**
+    * Avanza la simulación un paso por cuadro y publica las posiciones en el panel (se ejecuta fuera del hilo de Swing).
+    * @param simulation Simulación a animar.
+    * @param speed Minutos simulados por segundo real.
+    */
+    private void animate(FleetSimulation simulation, int speed) {
+        int step = Math.max(1, speed * 60 / SIMULATION_FPS);
+        try {
+            while (!simulation.isFinished()) {
+                simulation.advanceTo(simulation.getClock() + step);
+                panelDibujo.setVehicles(simulation.snapshot());
+                Thread.sleep(1000 / SIMULATION_FPS);
+            }
+        } catch (InterruptedException e) {
+            // Detenida por el usuario: se informa hasta donde llegó
+        }
+        panelDibujo.setVehicles(null);
+        String report = simulation.report();
+        SwingUtilities.invokeLater(() -> outputArea.append(report));
+    }
+
+    /**
+    * Muestra el reporte de métricas de las operaciones (latencias, vértices asentados y aristas relajadas).
+    */
+    private void showMetrics() {
+        JTextArea report = new JTextArea(Metrics.report());  // Área propia: la tabla necesita fuente monoespaciada
+        report.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        report.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(report), "Métricas", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+    * Obtiene el archivo de tablas de landmarks, junto al de datos (data.txt → data.alt).
+    * @return Ruta del archivo.
+    */
+    private Path landmarksFile() {
+        return Paths.get(filename.replaceFirst("\\.txt$", "") + ".alt");
+    }
+
+    /**
+    * Obtiene el archivo del índice de distancias, junto al de datos (data.txt → data.hub).
+    * @return Ruta del archivo.
+    */
+    private Path hubLabelsFile() {
+        return Paths.get(filename.replaceFirst("\\.txt$", "") + ".hub");
+    }
+
     /**
     * Guarda los datos en archivo y cierra la aplicación.
     */
     private void exitAndSave() {
         FileManager.save(filename, stops, routes, schedules, graph);
+        if (landmarkRouter.isModified()) {
+            try {
+                landmarkRouter.save(landmarksFile());
+            } catch (IOException e) {
+                System.out.println("Error al guardar landmarks: " + e.getMessage());
+            }
+        }
+        if (hubLabels.isModified()) {
+            try {
+                hubLabels.save(hubLabelsFile());
+            } catch (IOException e) {
+                System.out.println("Error al guardar el índice de distancias: " + e.getMessage());
+            }
+        }
         System.exit(0);
     }
 
     /**
-    * Método principal para ejecutar la aplicación en el hilo de eventos de Swing.
-    * @param args Argumentos de línea de comandos (no utilizados).
+    * Calcula una ruta sin interfaz sobre el grafo fuera del heap (data.txt → data.csr), para redes que no
+    * caben en memoria. Solo lee las paradas y aristas del archivo de datos.
+    * @param file Archivo de datos.
+    * @param origen ID de la parada de origen.
+    * @param destino ID de la parada de destino.
+    */
+    private static void printRoute(String file, int origen, int destino) {
+        Path graphFile = Paths.get(file.replaceFirst("\\.txt$", "") + ".csr");
+        OffHeapGraph network;
+        try {
+            network = FileManager.loadOffHeap(file, graphFile);
+        } catch (IOException e) {
+            System.out.println("Error al cargar archivo: " + e.getMessage());
+            return;
+        }
+        CustomLinkedList<Integer> path = network.findPath(origen, destino);
+        if (path.getSize() == 0) {
+            System.out.println("No hay ruta entre " + origen + " y " + destino + ".");
+        } else {
+            StringBuilder ruta = new StringBuilder("Ruta: ");
+            int costo = 0;
+            int anterior = -1;
+            for (Node<Integer> node = path.getHead(); node != null; node = node.getNext()) {
+                int id = node.getData();
+                if (anterior != -1) {
+                    ruta.append(" -> ");
+                    costo += network.getWeight(anterior, id);
+                }
+                ruta.append(id);
+                anterior = id;
+            }
+            System.out.println(ruta);
+            System.out.println("Costo: " + costo);
+        }
+        try {
+            network.close();
+        } catch (IOException e) {
+            System.out.println("Error al cerrar el grafo: " + e.getMessage());
+        }
+    }
+
+    /**
+    * Método principal. Sin argumentos abre la aplicación en el hilo de eventos de Swing; con
+    * "archivo origen destino" imprime la ruta más corta sin abrir la interfaz.
+    * @param args Argumentos de línea de comandos.
     */
     public static void main(String[] args) {
+        if (args.length == 3) {
+            try {
+                printRoute(args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            } catch (NumberFormatException e) {
+                System.out.println("Uso: archivo origen destino (IDs numéricos)");
+            }
+            return;
+        }
         SwingUtilities.invokeLater(() -> new Gestion_de_Rutas_de_Transporte());
     }
 }
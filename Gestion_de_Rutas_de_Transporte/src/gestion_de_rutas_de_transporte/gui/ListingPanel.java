@@ -0,0 +1,239 @@
+/**
+ * Panel con el listado de todos los elementos (paradas, rutas, horarios) para "Mostrar Todo".
+ * En lugar de concatenar todo en un texto, guarda solo referencias a los elementos y un arreglo de índices
+ * del filtro; la JList pide el texto de las filas visibles, así que la memoria y el tiempo de pintado
+ * no dependen del tamaño de los datos.
+ * El filtro compara el texto con los campos de cada elemento (ID y nombre de paradas y rutas; ID, ruta y hora
+ * de horarios) sin construir cadenas por elemento, espera una pausa al escribir y, con muchos elementos, se
+ * calcula en segundo plano descartando resultados de textos ya reemplazados.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.gui;
+
+import gestion_de_rutas_de_transporte.model.Node;
+import gestion_de_rutas_de_transporte.model.Route;
+import gestion_de_rutas_de_transporte.model.Schedule;
+import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.NamePool;
+import java.awt.BorderLayout;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import javax.swing.AbstractListModel;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+
+public class ListingPanel extends JPanel {
+    private static final int FILTER_DELAY_MS = 150;
+    private static final int BACKGROUND_FILTER_SIZE = 50_000;  // Desde aquí el filtro no corre en el EDT
+
+    private final ListingModel model = new ListingModel();
+    private final JList<String> list = new JList<>(model);
+    private final JTextField filterField = new JTextField();
+    private final JLabel countLabel = new JLabel();
+    private final Timer filterTimer = new Timer(FILTER_DELAY_MS, e -> applyFilter());
+    private int filterGeneration;  // Cambia con cada filtro pedido; los resultados de uno anterior se ignoran
+
+    /**
+     * Constructor del panel.
+     */
+    public ListingPanel() {
+        super(new BorderLayout());
+        // Altura fija: la JList no mide cada fila, solo calcula las visibles
+        list.setPrototypeCellValue("Route{id=000000, name='xxxxxxxxxxxxxxxxxxxx', stops=[...]}");
+        filterTimer.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+        });
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(new JLabel("Filtrar: "), BorderLayout.WEST);
+        top.add(filterField, BorderLayout.CENTER);
+        top.add(countLabel, BorderLayout.EAST);
+        add(top, BorderLayout.NORTH);
+        add(new JScrollPane(list), BorderLayout.CENTER);
+    }
+
+    /**
+     * Carga el listado con el contenido actual de las listas (una pasada por lista, sin getAt).
+     * @param stops Lista de paradas.
+     * @param routes Lista de rutas.
+     * @param schedules Lista de horarios.
+     */
+    public void load(CustomLinkedList<Stop> stops, CustomLinkedList<Route> routes, CustomLinkedList<Schedule> schedules) {
+        Object[] entries = new Object[stops.getSize() + routes.getSize() + schedules.getSize() + 3];
+        int count = 0;
+        entries[count++] = "Paradas:";
+        for (Node<Stop> node = stops.getHead(); node != null; node = node.getNext()) {
+            entries[count++] = node.getData();
+        }
+        entries[count++] = "Rutas:";
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext()) {
+            entries[count++] = node.getData();
+        }
+        entries[count++] = "Horarios:";
+        for (Node<Schedule> node = schedules.getHead(); node != null; node = node.getNext()) {
+            entries[count++] = node.getData();
+        }
+        model.setEntries(entries, count);
+        filterTimer.stop();
+        applyFilter();
+        list.ensureIndexIsVisible(0);
+    }
+
+    /**
+     * Aplica el texto del filtro (sin distinguir mayúsculas); los encabezados de sección siempre se muestran.
+     */
+    private void applyFilter() {
+        String text = filterField.getText().trim().toLowerCase(Locale.ROOT);
+        int generation = ++filterGeneration;
+        Object[] entries = model.entries;
+        int count = model.entryCount;
+        if (count < BACKGROUND_FILTER_SIZE) {
+            showFilter(match(entries, count, text));
+            return;
+        }
+        countLabel.setText(" filtrando... ");
+        new SwingWorker<int[], Void>() {
+            @Override
+            protected int[] doInBackground() {
+                return match(entries, count, text);
+            }
+
+            @Override
+            protected void done() {
+                if (generation != filterGeneration) return;  // Llegó otro texto o se recargó el listado
+                try {
+                    showFilter(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    countLabel.setText(" error al filtrar ");
+                }
+            }
+        }.execute();
+    }
+
+    private void showFilter(int[] visible) {
+        model.setVisible(visible);
+        countLabel.setText(" " + model.getMatchCount() + " / " + model.getItemCount() + " ");
+    }
+
+    /**
+     * Calcula los índices que pasan el filtro; el arreglo de elementos no cambia después de cargarse.
+     * @param entries Elementos y encabezados de sección (String).
+     * @param text Texto del filtro en minúsculas.
+     * @return Índices visibles en orden.
+     */
+    private static int[] match(Object[] entries, int count, String text) {
+        int[] visible = new int[count];
+        int visibleCount = 0;
+        int number = parseNumber(text);
+        for (int i = 0; i < count; i++) {
+            if (text.isEmpty() || matches(entries[i], text, number)) visible[visibleCount++] = i;
+        }
+        return Arrays.copyOf(visible, visibleCount);
+    }
+
+    /**
+     * Verifica si un elemento pasa el filtro: un número se compara con los IDs y un texto con el nombre
+     * (o la hora); los encabezados siempre pasan.
+     */
+    private static boolean matches(Object entry, String text, int number) {
+        if (entry instanceof Stop stop) {
+            return stop.getId() == number || containsIgnoreCase(NamePool.get(stop.getNameId()), text);
+        }
+        if (entry instanceof Route route) {
+            return route.getId() == number || containsIgnoreCase(NamePool.get(route.getNameId()), text);
+        }
+        if (entry instanceof Schedule schedule) {
+            return schedule.getId() == number || schedule.getRouteId() == number
+                    || containsIgnoreCase(schedule.getTime(), text);
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(String value, String text) {
+        if (value == null) return false;
+        for (int i = 0; i + text.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, text, 0, text.length())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Interpreta el filtro como ID.
+     * @return El número, o -1 si el texto no es un entero positivo.
+     */
+    private static int parseNumber(String text) {
+        if (text.isEmpty() || text.length() > 9) return -1;
+        int value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Modelo virtual de la lista: referencias a los elementos y los índices que pasan el filtro.
+     */
+    private static class ListingModel extends AbstractListModel<String> {
+        private Object[] entries = new Object[0];
+        private int entryCount;
+        private int[] visible = new int[0];
+        private int visibleCount;
+
+        void setEntries(Object[] entries, int count) {
+            this.entries = entries;
+            this.entryCount = count;
+        }
+
+        void setVisible(int[] indices) {
+            int previous = visibleCount;
+            visible = indices;
+            visibleCount = indices.length;
+            if (previous > 0) fireIntervalRemoved(this, 0, previous - 1);
+            if (visibleCount > 0) fireIntervalAdded(this, 0, visibleCount - 1);
+        }
+
+        int getMatchCount() {
+            return Math.max(0, visibleCount - 3);
+        }
+
+        int getItemCount() {
+            return Math.max(0, entryCount - 3);
+        }
+
+        @Override
+        public int getSize() {
+            return visibleCount;
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            Object entry = entries[visible[index]];
+            return entry instanceof String ? (String) entry : "  " + entry;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/**
+ * Clase con la geometría de la red lista para dibujar: puntos (paradas o grupos de paradas), segmentos de
+ * rutas y una rejilla uniforme que los indexa por celdas para descartar rápidamente lo que queda fuera del
+ * área a dibujar. Las coordenadas son las del modelo (sin zoom).
+ * Se construye una vez por versión del modelo a partir de las columnas de paradas (EntityStore) y la lista de
+ * rutas; para las vistas alejadas se derivan versiones agrupadas (un punto por celda, segmentos entre grupos
+ * sin duplicados).
+ * Las consultas devuelven índices ordenados para conservar el orden de dibujo original.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.gui;
+
+import gestion_de_rutas_de_transporte.model.EntityStore;
+import gestion_de_rutas_de_transporte.model.Node;
+import gestion_de_rutas_de_transporte.model.Route;
+import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.LongHashMap;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+public class NetworkGeometry {
+    private static final int CELL_SIZE = 128;
+
+    public final int[] stopX, stopY;
+    public final int[] stopWeight;  // Paradas representadas por cada punto (1 sin agrupar)
+    public final int[] segFrom, segTo;  // Índices de puntos de cada segmento
+    public final Color[] segColor;
+    private final Stop[] stopRefs;  // null en las geometrías agrupadas
+    private final Stop[] byId;
+    private final int stopCount, segCount;
+    private final int width, height;
+
+    private final int cellSize;
+    private final int cols, rows;
+    private final int[] segCellStart, segCellItems;
+    private final int[] stopCellStart, stopCellItems;
+    private final int[] segStamp;
+    private int stamp;
+
+    /**
+     * Construye la geometría del modelo actual.
+     * @param stops Almacén de paradas (se recorren sus columnas).
+     * @param routes Lista de rutas.
+     * @return Geometría con un punto por parada y un segmento por tramo de ruta.
+     */
+    public static NetworkGeometry build(EntityStore stops, CustomLinkedList<Route> routes) {
+        // Paradas en orden de fila e índice por ID
+        int n = stops.getStopCount();
+        Stop[] refs = new Stop[n];
+        int[] x = new int[n];
+        int[] y = new int[n];
+        int[] weight = new int[n];
+        int maxId = 0;
+        for (int i = 0; i < n; i++) {
+            refs[i] = stops.getStopAt(i);
+            x[i] = stops.getStopX(i);
+            y[i] = stops.getStopY(i);
+            weight[i] = 1;
+            maxId = Math.max(maxId, stops.getStopId(i));
+        }
+        int[] indexById = new int[maxId + 1];
+        Arrays.fill(indexById, -1);
+        for (int i = 0; i < n; i++) {
+            int id = stops.getStopId(i);
+            if (id >= 0) indexById[id] = i;
+        }
+
+        // Segmentos de cada ruta con extremos resueltos
+        int total = 0;
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext()) {
+            total += Math.max(0, node.getData().getStopIds().getSize() - 1);
+        }
+        int[] from = new int[total];
+        int[] to = new int[total];
+        Color[] colors = new Color[total];
+        int s = 0;
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext()) {
+            Route route = node.getData();
+            Color color = route.getColor() != null ? route.getColor() : Color.BLACK;  // Negro si null
+            Node<Integer> current = route.getStopIds().getHead();
+            while (current != null && current.getNext() != null) {
+                int a = indexOf(indexById, current.getData());
+                int b = indexOf(indexById, current.getNext().getData());
+                if (a >= 0 && b >= 0) {
+                    from[s] = a;
+                    to[s] = b;
+                    colors[s] = color;
+                    s++;
+                }
+                current = current.getNext();
+            }
+        }
+        return new NetworkGeometry(refs, x, y, weight, Arrays.copyOf(from, s), Arrays.copyOf(to, s),
+                Arrays.copyOf(colors, s), CELL_SIZE);
+    }
+
+    /**
+     * Constructor a partir de arreglos ya resueltos; construye el índice por ID y la rejilla.
+     * @param refs Parada de cada punto, o null si los puntos son grupos.
+     * @param x Coordenadas X de los puntos.
+     * @param y Coordenadas Y de los puntos.
+     * @param weight Paradas representadas por cada punto.
+     * @param from Punto de origen de cada segmento.
+     * @param to Punto de destino de cada segmento.
+     * @param colors Color de cada segmento.
+     * @param cellSize Tamaño de celda de la rejilla.
+     */
+    private NetworkGeometry(Stop[] refs, int[] x, int[] y, int[] weight, int[] from, int[] to, Color[] colors,
+                            int cellSize) {
+        this.stopRefs = refs;
+        this.stopX = x;
+        this.stopY = y;
+        this.stopWeight = weight;
+        this.segFrom = from;
+        this.segTo = to;
+        this.segColor = colors;
+        this.stopCount = x.length;
+        this.segCount = from.length;
+        this.cellSize = Math.max(1, cellSize);
+
+        int maxX = 0, maxY = 0, maxId = 0;
+        for (int i = 0; i < stopCount; i++) {
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+            if (refs != null) maxId = Math.max(maxId, refs[i].getId());
+        }
+        width = maxX;
+        height = maxY;
+        byId = new Stop[refs != null ? maxId + 1 : 0];
+        if (refs != null) {
+            for (Stop stop : refs) {
+                if (stop.getId() >= 0) byId[stop.getId()] = stop;
+            }
+        }
+
+        // Rejilla uniforme (CSR por celda) para segmentos y puntos
+        cols = Math.max(1, maxX / this.cellSize + 1);
+        rows = Math.max(1, maxY / this.cellSize + 1);
+        segCellStart = new int[cols * rows + 1];
+        stopCellStart = new int[cols * rows + 1];
+        for (int i = 0; i < segCount; i++) {
+            forEachCell(i, true, segCellStart, null);
+        }
+        for (int i = 0; i < stopCount; i++) {
+            stopCellStart[cellOf(x[i], y[i]) + 1]++;
+        }
+        prefixSum(segCellStart);
+        prefixSum(stopCellStart);
+        segCellItems = new int[segCellStart[cols * rows]];
+        stopCellItems = new int[stopCellStart[cols * rows]];
+        int[] fill = Arrays.copyOf(segCellStart, segCellStart.length);
+        for (int i = 0; i < segCount; i++) {
+            forEachCell(i, false, fill, segCellItems);
+        }
+        System.arraycopy(stopCellStart, 0, fill, 0, stopCellStart.length);
+        for (int i = 0; i < stopCount; i++) {
+            stopCellItems[fill[cellOf(x[i], y[i])]++] = i;
+        }
+        segStamp = new int[segCount];
+        stamp = 0;
+    }
+
+    /**
+     * Deriva una geometría agrupada para vistas alejadas: las paradas de cada celda se reemplazan por un punto
+     * en su centroide, los tramos dentro de una misma celda desaparecen y los tramos entre el mismo par de
+     * grupos se dibujan una sola vez (con el color de la primera ruta que los recorre).
+     * @param clusterSize Tamaño de la celda de agrupación en coordenadas del modelo.
+     * @return Geometría agrupada.
+     */
+    public NetworkGeometry cluster(int clusterSize) {
+        int size = Math.max(1, clusterSize);
+        LongHashMap<Integer> clusterByCell = new LongHashMap<>();
+        int[] clusterOf = new int[stopCount];
+        long[] sumX = new long[Math.max(1, stopCount)];
+        long[] sumY = new long[Math.max(1, stopCount)];
+        int[] weight = new int[Math.max(1, stopCount)];
+        int clusters = 0;
+        for (int i = 0; i < stopCount; i++) {
+            long cell = ((long) Math.floorDiv(stopX[i], size) << 32) | (Math.floorDiv(stopY[i], size) & 0xFFFFFFFFL);
+            Integer c = clusterByCell.get(cell);
+            if (c == null) {
+                c = clusters++;
+                clusterByCell.put(cell, c);
+            }
+            clusterOf[i] = c;
+            sumX[c] += stopX[i];
+            sumY[c] += stopY[i];
+            weight[c] += stopWeight[i];
+        }
+        int[] x = new int[clusters];
+        int[] y = new int[clusters];
+        int[] members = new int[clusters];
+        for (int i = 0; i < stopCount; i++) {
+            members[clusterOf[i]]++;
+        }
+        for (int c = 0; c < clusters; c++) {
+            x[c] = (int) (sumX[c] / members[c]);
+            y[c] = (int) (sumY[c] / members[c]);
+        }
+
+        LongHashMap<Integer> seen = new LongHashMap<>();
+        int[] from = new int[segCount];
+        int[] to = new int[segCount];
+        Color[] colors = new Color[segCount];
+        int s = 0;
+        for (int i = 0; i < segCount; i++) {
+            int a = clusterOf[segFrom[i]];
+            int b = clusterOf[segTo[i]];
+            if (a == b) continue;
+            long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+            if (seen.containsKey(key)) continue;
+            seen.put(key, i);
+            from[s] = a;
+            to[s] = b;
+            colors[s] = segColor[i];
+            s++;
+        }
+        return new NetworkGeometry(null, x, y, Arrays.copyOf(weight, clusters), Arrays.copyOf(from, s), Arrays.copyOf(to, s),
+                Arrays.copyOf(colors, s), Math.max(CELL_SIZE, size * 4));
+    }
+
+    /**
+     * Obtiene una parada por su ID en O(1).
+     * @param id ID de la parada.
+     * @return La parada o null si no existe (siempre null en geometrías agrupadas).
+     */
+    public Stop getStop(int id) {
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    /**
+     * Obtiene la parada de un punto.
+     * @param index Índice del punto.
+     * @return Parada, o null si el punto es un grupo.
+     */
+    public Stop getStopAt(int index) {
+        return stopRefs != null ? stopRefs[index] : null;
+    }
+
+    /**
+     * Obtiene la mayor coordenada X de los puntos.
+     * @return Ancho de la red.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Obtiene la mayor coordenada Y de los puntos.
+     * @return Alto de la red.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Obtiene el número de segmentos.
+     * @return Número de segmentos.
+     */
+    public int getSegmentCount() {
+        return segCount;
+    }
+
+    /**
+     * Obtiene el número de puntos.
+     * @return Número de paradas o grupos.
+     */
+    public int getStopCount() {
+        return stopCount;
+    }
+
+    /**
+     * Busca los segmentos que cruzan un área.
+     * @param area Área a consultar.
+     * @param out Arreglo de salida con capacidad para getSegmentCount() índices.
+     * @return Número de índices escritos en out, en orden de dibujo.
+     */
+    public int querySegments(Rectangle area, int[] out) {
+        int epoch = ++stamp;
+        int count = 0;
+        int c0 = clampCol(area.x), c1 = clampCol(area.x + area.width);
+        int r0 = clampRow(area.y), r1 = clampRow(area.y + area.height);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c;
+                for (int j = segCellStart[cell]; j < segCellStart[cell + 1]; j++) {
+                    int seg = segCellItems[j];
+                    if (segStamp[seg] == epoch) continue;
+                    segStamp[seg] = epoch;
+                    int a = segFrom[seg], b = segTo[seg];
+                    if (!area.intersectsLine(stopX[a], stopY[a], stopX[b], stopY[b])) continue;
+                    out[count++] = seg;
+                }
+            }
+        }
+        Arrays.sort(out, 0, count);
+        return count;
+    }
+
+    /**
+     * Busca los puntos que caen dentro de un área.
+     * @param area Área a consultar.
+     * @param out Arreglo de salida con capacidad para getStopCount() índices.
+     * @return Número de índices escritos en out, en orden de dibujo.
+     */
+    public int queryStops(Rectangle area, int[] out) {
+        int count = 0;
+        int c0 = clampCol(area.x), c1 = clampCol(area.x + area.width);
+        int r0 = clampRow(area.y), r1 = clampRow(area.y + area.height);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c;
+                for (int j = stopCellStart[cell]; j < stopCellStart[cell + 1]; j++) {
+                    int index = stopCellItems[j];
+                    if (!area.contains(stopX[index], stopY[index])) continue;
+                    out[count++] = index;
+                }
+            }
+        }
+        Arrays.sort(out, 0, count);
+        return count;
+    }
+
+    /**
+     * Recorre las celdas que toca el rectángulo envolvente de un segmento, contando o registrando.
+     * @param seg Índice del segmento.
+     * @param counting true para contar (en start[celda + 1]), false para escribir en items.
+     * @param start Arreglo de conteos o de posiciones de escritura.
+     * @param items Arreglo de elementos (null al contar).
+     */
+    private void forEachCell(int seg, boolean counting, int[] start, int[] items) {
+        int a = segFrom[seg], b = segTo[seg];
+        int c0 = clampCol(Math.min(stopX[a], stopX[b])), c1 = clampCol(Math.max(stopX[a], stopX[b]));
+        int r0 = clampRow(Math.min(stopY[a], stopY[b])), r1 = clampRow(Math.max(stopY[a], stopY[b]));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (counting) start[r * cols + c + 1]++;
+                else items[start[r * cols + c]++] = seg;
+            }
+        }
+    }
+
+    private int cellOf(int x, int y) {
+        return clampRow(y) * cols + clampCol(x);
+    }
+
+    private int clampCol(int x) {
+        return Math.max(0, Math.min(cols - 1, x / cellSize));
+    }
+
+    private int clampRow(int y) {
+        return Math.max(0, Math.min(rows - 1, y / cellSize));
+    }
+
+    private static int indexOf(int[] indexById, int id) {
+        return id >= 0 && id < indexById.length ? indexById[id] : -1;
+    }
+
+    private static void prefixSum(int[] start) {
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+    }
+}
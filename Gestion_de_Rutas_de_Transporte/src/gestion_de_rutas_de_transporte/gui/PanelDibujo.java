@@ -8,12 +8,27 @@ package gestion_de_rutas_de_transporte.gui;
 
 
 import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.LongHashMap;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
 import gestion_de_rutas_de_transporte.model.Node;
+import gestion_de_rutas_de_transporte.model.EntityStore;
+import gestion_de_rutas_de_transporte.model.FleetSimulation;
 import gestion_de_rutas_de_transporte.model.Graph;
+import gestion_de_rutas_de_transporte.model.NetworkResilience;
+import gestion_de_rutas_de_transporte.model.Pair;
 import gestion_de_rutas_de_transporte.model.Route;
 import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.model.Timetable;
+import gestion_de_rutas_de_transporte.model.WeightedPath;
 
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.Consumer;
 import javax.swing.*;
 
 /**
@@ -22,17 +37,52 @@ import javax.swing.*;
 public class PanelDibujo extends JPanel {
     private Graph graph;
     private CustomLinkedList<Route> routes;
-    private CustomLinkedList<Stop> stops;
+    private EntityStore stops;
     private CustomLinkedList<Integer> shortestPath;
     private CustomLinkedList<Integer> longestPath;
 
+    private static final int STOP_RADIUS = 20;
+    private static final int LABEL_MARGIN = 150;  // Mitad del ancho máximo esperado de una etiqueta
+    private static final Font LABEL_FONT = new Font("Arial", Font.BOLD, 12);
+    private static final BasicStroke ROUTE_STROKE = new BasicStroke(3f);
+    private static final BasicStroke THIN_STROKE = new BasicStroke(1f);
+
+    private static final int TILE_SIZE = 256;
+
+    // Zoom discreto (escala 2^(nivel/4)) y umbrales de nivel de detalle
+    private static final int MIN_ZOOM_LEVEL = -24;  // 1/64
+    private static final int MAX_ZOOM_LEVEL = 8;    // 4x
+    private static final double LABEL_SCALE = 0.75;    // Desde aquí: círculos con etiqueta
+    private static final double CLUSTER_SCALE = 0.35;  // Debajo de aquí: grupos y rutas simplificadas
+    private static final int CLUSTER_PIXELS = 24;      // Tamaño en pantalla de la celda de agrupación
+    private static final int DOT_RADIUS = 3;
+    private static final Color CLUSTER_COLOR = new Color(170, 190, 215);
+    private static final BasicStroke CLUSTER_STROKE = new BasicStroke(2f);
+    private static final Color CRITICAL_COLOR = new Color(220, 30, 30);
+    private static final BasicStroke BRIDGE_STROKE = new BasicStroke(5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final BasicStroke CRITICAL_STROKE = new BasicStroke(3f);
+    private int zoomLevel = 0;
+    private Consumer<Point> mapClickListener;
+    private final NetworkGeometry[] levelGeometry = new NetworkGeometry[MAX_ZOOM_LEVEL - MIN_ZOOM_LEVEL + 1];
+
+    // Geometría y mosaicos de la red en caché, reconstruidos cuando cambia la versión del modelo
+    private NetworkGeometry geometry;
+    private long modelVersion;
+    private long geometryVersion = -1;
+    private final LongHashMap<Tile> tiles = new LongHashMap<>();
+    private Tile[] tilePool = new Tile[0];
+    private int tileCount;
+    private long frame;
+    private int[] visibleSegments = new int[0];
+    private int[] visibleStops = new int[0];
+
 /**
 * Constructor del panel de dibujo. Inicializa referencias y configura propiedades básicas.
 * @param graph Grafo a dibujar.
-* @param stops Lista de paradas.
+* @param stops Almacén de paradas.
 * @param routes Lista de rutas.
 */    
-   public PanelDibujo(Graph graph, CustomLinkedList<Stop> stops, CustomLinkedList<Route> routes) {
+   public PanelDibujo(Graph graph, EntityStore stops, CustomLinkedList<Route> routes) {
     this.graph = graph;
     this.stops = stops;
     this.routes = routes;
@@ -40,8 +90,61 @@ public class PanelDibujo extends JPanel {
     this.longestPath = new CustomLinkedList<>();
     setBackground(Color.WHITE);
     setPreferredSize(new Dimension(600, 400));
+    installNavigation();
 }
 
+    /**
+     * Establece la acción a ejecutar al hacer clic en el mapa (sin arrastrar).
+     * @param listener Recibe el punto del clic en coordenadas del modelo (sin zoom), o null para ninguna.
+     */
+    public void setMapClickListener(Consumer<Point> listener) {
+        this.mapClickListener = listener;
+    }
+
+    /**
+     * Instala la navegación con el ratón: la rueda acerca o aleja alrededor del cursor y arrastrar desplaza
+     * el mapa dentro del JScrollPane que contiene al panel.
+     */
+    private void installNavigation() {
+        MouseAdapter navigation = new MouseAdapter() {
+            private Point last;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                last = e.getLocationOnScreen();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, PanelDibujo.this);
+                if (viewport == null || last == null) return;
+                Point now = e.getLocationOnScreen();
+                Point view = viewport.getViewPosition();
+                Dimension extent = viewport.getExtentSize();
+                int x = Math.max(0, Math.min(view.x - (now.x - last.x), getWidth() - extent.width));
+                int y = Math.max(0, Math.min(view.y - (now.y - last.y), getHeight() - extent.height));
+                viewport.setViewPosition(new Point(x, y));
+                last = now;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (mapClickListener != null && SwingUtilities.isLeftMouseButton(e)) {
+                    double scale = getScale();
+                    mapClickListener.accept(new Point((int) Math.round(e.getX() / scale), (int) Math.round(e.getY() / scale)));
+                }
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                setZoomLevel(zoomLevel - e.getWheelRotation(), e.getPoint());
+            }
+        };
+        addMouseListener(navigation);
+        addMouseMotionListener(navigation);
+        addMouseWheelListener(navigation);
+    }
+
 /**
 * Establece la ruta más corta para resaltar en el dibujo.
 * @param path Lista de IDs de paradas en la ruta.
@@ -61,6 +164,18 @@ public class PanelDibujo extends JPanel {
     }
     
     private CustomLinkedList<Integer> selectedRoutePath = new CustomLinkedList<>();
+    private CustomLinkedList<WeightedPath> alternativePaths = new CustomLinkedList<>();
+    private NetworkResilience resilience;  // Puntos críticos a resaltar, o null
+    private double[] centrality;  // Puntaje por parada (índice id - 1) para el tamaño de los círculos, o null
+    private double maxCentrality;
+    private volatile FleetSimulation.Frame vehicles;  // Publicado por el hilo de la simulación, o null
+    private static final int VEHICLE_SIZE = 8;
+    // Colores distintos para cada alternativa (se reciclan si hay más alternativas que colores)
+    private static final Color[] ALTERNATIVE_COLORS = {
+        new Color(0, 90, 200), new Color(200, 0, 160), new Color(0, 160, 160), new Color(140, 80, 0),
+        new Color(90, 0, 200), new Color(0, 130, 40), new Color(220, 120, 0), new Color(120, 120, 120),
+        new Color(180, 0, 0), new Color(0, 0, 0)
+    };
 
     
     /**
@@ -72,76 +187,465 @@ public class PanelDibujo extends JPanel {
     }
 
     /**
-     * Método sobrescrito para dibujar el componente. Renderiza aristas, rutas seleccionadas y vértices.
+     * Establece las rutas alternativas (K más cortas) para dibujarlas con colores distintos.
+     * @param paths Lista de caminos ordenados por costo.
+     */
+    public void setAlternativePaths(CustomLinkedList<WeightedPath> paths) {
+        this.alternativePaths = paths;
+    }
+
+    /**
+     * Establece el análisis de resiliencia a resaltar: tramos puente y paradas de articulación en rojo.
+     * Se consulta en cada repintado, así que refleja las ediciones de la red sin volver a llamarlo.
+     * @param resilience Análisis de la red, o null para quitar el resaltado.
+     */
+    public void setResilience(NetworkResilience resilience) {
+        this.resilience = resilience;
+        repaint();
+    }
+
+    /**
+     * Establece los puntajes de centralidad: cada parada se dibuja con un tamaño proporcional a la raíz
+     * de su puntaje respecto al mayor (entre la mitad y el doble del tamaño normal).
+     * @param scores Puntaje por parada (índice id - 1), o null para volver al tamaño normal.
+     */
+    public void setCentrality(double[] scores) {
+        this.centrality = scores;
+        maxCentrality = 0;
+        if (scores != null) {
+            for (double score : scores) maxCentrality = Math.max(maxCentrality, score);
+        }
+        tiles.clear();  // Los círculos forman parte de la capa de red en caché
+        tileCount = 0;
+        repaint();
+    }
+
+    /**
+     * Establece las posiciones de los vehículos simulados. Puede llamarse desde cualquier hilo: la instantánea
+     * es inmutable y el repintado se agenda en el hilo de Swing.
+     * @param frame Instantánea de la simulación, o null para dejar de dibujar vehículos.
+     */
+    public void setVehicles(FleetSimulation.Frame frame) {
+        this.vehicles = frame;
+        repaint();
+    }
+
+    /**
+     * Indica que cambiaron las paradas o las rutas: la geometría y la capa de red se reconstruyen en el
+     * siguiente repintado. Los resaltados (rutas seleccionadas, alternativas) no requieren llamarlo.
+     */
+    public void modelChanged() {
+        modelVersion++;
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Obtiene el nivel de zoom actual.
+     * @return Nivel (0 = tamaño real; cada nivel multiplica la escala por 2^(1/4)).
+     */
+    public int getZoomLevel() {
+        return zoomLevel;
+    }
+
+    /**
+     * Obtiene la escala de dibujo (píxeles por unidad del modelo).
+     * @return Escala actual.
+     */
+    public double getScale() {
+        return Math.pow(2, zoomLevel / 4.0);
+    }
+
+    /**
+     * Cambia el nivel de zoom manteniendo fijo el punto del mapa bajo el ancla.
+     * @param level Nuevo nivel (se limita al rango permitido).
+     * @param anchor Punto del panel que no se mueve, o null para el centro del área visible.
+     */
+    public void setZoomLevel(int level, Point anchor) {
+        level = Math.max(MIN_ZOOM_LEVEL, Math.min(MAX_ZOOM_LEVEL, level));
+        if (level == zoomLevel) return;
+        double oldScale = getScale();
+        zoomLevel = level;
+        double newScale = getScale();
+        tiles.clear();
+        tileCount = 0;
+
+        JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        if (viewport != null) {
+            Point view = viewport.getViewPosition();
+            Dimension extent = viewport.getExtentSize();
+            Point a = anchor != null ? anchor : new Point(view.x + extent.width / 2, view.y + extent.height / 2);
+            setSize(getPreferredSize());  // El viewport acepta la nueva posición solo con el tamaño nuevo
+            int x = (int) Math.round(a.x / oldScale * newScale) - (a.x - view.x);
+            int y = (int) Math.round(a.y / oldScale * newScale) - (a.y - view.y);
+            x = Math.max(0, Math.min(x, getWidth() - extent.width));
+            y = Math.max(0, Math.min(y, getHeight() - extent.height));
+            viewport.setViewPosition(new Point(x, y));
+        }
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Obtiene el tamaño preferido: el configurado, ampliado si la red se extiende más allá, por la escala.
+     * @return Tamaño preferido.
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        Dimension size = super.getPreferredSize();
+        NetworkGeometry geo = getGeometry();
+        double scale = getScale();
+        return new Dimension((int) Math.ceil(Math.max(size.width, geo.getWidth() + LABEL_MARGIN) * scale),
+                (int) Math.ceil(Math.max(size.height, geo.getHeight() + 2 * STOP_RADIUS) * scale));
+    }
+
+    /**
+     * Método sobrescrito para dibujar el componente.
+     * La red estática (rutas y paradas) se compone de mosaicos en caché que solo se dibujan al aparecer en
+     * pantalla, al cambiar el modelo o al cambiar el zoom; cada mosaico dibuja únicamente lo que la rejilla de
+     * NetworkGeometry ubica en su área, así que desplazar el mapa solo dibuja la franja nueva. Encima van los
+     * resaltados. El nivel de detalle depende de la escala: paradas con etiqueta, puntos sin etiqueta o grupos.
      * @param g Objeto Graphics para dibujar.
      */
     @Override
     protected void paintComponent(Graphics g) {
+        OperationEvent trace = Metrics.begin(Metrics.PAINT);
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g;
+        NetworkGeometry geo = getGeometry();
+        double scale = getScale();
 
-        // Dibujar aristas (rutas con colores)
-        g2d.setStroke(new BasicStroke(3f));  // Grosor para resaltar rutas
-
-        Node<Route> routeNode = routes.getHead();
-        while (routeNode != null) {
-            Route route = routeNode.getData();
-            g2d.setColor(route.getColor() != null ? route.getColor() : Color.BLACK);  // Negro si null
-            CustomLinkedList<Integer> stopIds = route.getStopIds();
-            for (int j = 0; j < stopIds.getSize() - 1; j++) {
-                Stop origin = getStopById(stopIds.getAt(j));
-                Stop dest = getStopById(stopIds.getAt(j + 1));
-                if (origin != null && dest != null) {
-                    g2d.drawLine(origin.getX(), origin.getY(), dest.getX(), dest.getY());
+        // Mosaicos de la red que tocan el área a repintar
+        Rectangle clip = g.getClipBounds() != null ? g.getClipBounds() : getVisibleRect();
+        if (!clip.isEmpty()) {
+            frame++;
+            int tx0 = Math.max(0, clip.x / TILE_SIZE), tx1 = (clip.x + clip.width - 1) / TILE_SIZE;
+            int ty0 = Math.max(0, clip.y / TILE_SIZE), ty1 = (clip.y + clip.height - 1) / TILE_SIZE;
+            int needed = 2 * (tx1 - tx0 + 3) * (ty1 - ty0 + 3);
+            if (tilePool.length < needed) tilePool = Arrays.copyOf(tilePool, needed);
+            NetworkGeometry level = getLevelGeometry();
+            for (int ty = ty0; ty <= ty1; ty++) {
+                for (int tx = tx0; tx <= tx1; tx++) {
+                    g2d.drawImage(getTile(level, scale, tx, ty).image, tx * TILE_SIZE, ty * TILE_SIZE, null);
                 }
             }
-            routeNode = routeNode.getNext();
         }
 
-        g2d.setColor(Color.BLACK);  // Reset para otros dibujos
-        g2d.setStroke(new BasicStroke(1f));
+        // Dibujar alternativas: la mejor más gruesa y encima de las demás
+        int altCount = alternativePaths.getSize();
+        WeightedPath[] alternatives = alternativePaths.toArray(WeightedPath.class);
+        for (int k = altCount - 1; k >= 0; k--) {
+            g2d.setColor(ALTERNATIVE_COLORS[k % ALTERNATIVE_COLORS.length]);
+            g2d.setStroke(new BasicStroke(k == 0 ? 6f : 4f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            int[] altStops = alternatives[k].getStops();
+            for (int i = 0; i < altStops.length - 1; i++) {
+                drawSegment(g2d, geo.getStop(altStops[i]), geo.getStop(altStops[i + 1]), scale);
+            }
+        }
+        g2d.setColor(Color.BLACK);
 
         // Dibujar ruta seleccionada (si aplica)
-        g2d.setStroke(new BasicStroke(3f));
-        for (int i = 0; i < selectedRoutePath.getSize() - 1; i++) {
-            Stop origin = getStopById(selectedRoutePath.getAt(i));
-            Stop dest = getStopById(selectedRoutePath.getAt(i + 1));
-            if (origin != null && dest != null) {
-                g2d.drawLine(origin.getX(), origin.getY(), dest.getX(), dest.getY());
-            }
+        g2d.setStroke(ROUTE_STROKE);
+        Node<Integer> current = selectedRoutePath.getHead();
+        while (current != null && current.getNext() != null) {
+            drawSegment(g2d, geo.getStop(current.getData()), geo.getStop(current.getNext().getData()), scale);
+            current = current.getNext();
         }
 
-        // Dibujar vértices (paradas)
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));  // Fuente más legible
-        g2d.setStroke(new BasicStroke(1f));
-        for (int i = 0; i < stops.getSize(); i++) {
-            Stop stop = stops.getAt(i);
-            g2d.setColor(Color.LIGHT_GRAY);
-            g2d.fillOval(stop.getX() - 20, stop.getY() - 20, 40, 40);
+        // Tramos puente de la red (si aplica)
+        if (resilience != null) {
+            g2d.setColor(CRITICAL_COLOR);
+            g2d.setStroke(BRIDGE_STROKE);
+            for (Node<Pair<Integer, Integer>> bridge = resilience.getBridges().getHead(); bridge != null; bridge = bridge.getNext()) {
+                drawSegment(g2d, geo.getStop(bridge.getData().first), geo.getStop(bridge.getData().second), scale);
+            }
             g2d.setColor(Color.BLACK);
-            g2d.drawOval(stop.getX() - 20, stop.getY() - 20, 40, 40);
-            // Mejor posicionamiento: centrado debajo del círculo para evitar solapamientos
-            String label = stop.getName() + " (" + stop.getId() + ")";
-            int labelWidth = g2d.getFontMetrics().stringWidth(label);
-            g2d.drawString(label, stop.getX() - labelWidth / 2, stop.getY() + 30);  // Debajo del círculo
-        }    
+        }
+
+        // Las paradas de los resaltados vuelven a dibujarse encima de las líneas
+        g2d.setFont(LABEL_FONT);
+        g2d.setStroke(THIN_STROKE);
+        for (int k = 0; k < altCount; k++) {
+            for (int id : alternatives[k].getStops()) {
+                drawStop(g2d, geo.getStop(id), scale);
+            }
+        }
+        for (current = selectedRoutePath.getHead(); current != null; current = current.getNext()) {
+            drawStop(g2d, geo.getStop(current.getData()), scale);
+        }
+        if (resilience != null) {
+            for (current = resilience.getArticulationPoints().getHead(); current != null; current = current.getNext()) {
+                drawCriticalStop(g2d, geo.getStop(current.getData()), scale);
+            }
+        }
+        drawVehicles(g2d, geo, scale);
+        Metrics.end(trace);
     }
 
     /**
-     * Obtiene una parada por su ID.
-     * @param id ID de la parada.
-     * @return La parada encontrada o null si no existe.
-     */
-    private Stop getStopById(int id) {
-        Node<Stop> current = stops.head;
-        while (current != null) {
-            Stop stop = current.getData();
-            if (stop.getId() == id) {
-                return stop;
+     * Obtiene la geometría de la red, reconstruyéndola si el modelo cambió.
+     * @return Geometría vigente (una parada por punto).
+     */
+    private NetworkGeometry getGeometry() {
+        if (geometry == null || geometryVersion != modelVersion || geometry.getStopCount() != stops.getStopCount()) {
+            geometry = NetworkGeometry.build(stops, routes);
+            visibleSegments = new int[geometry.getSegmentCount()];
+            visibleStops = new int[geometry.getStopCount()];
+            Arrays.fill(levelGeometry, null);
+            geometryVersion = modelVersion;
+            tiles.clear();
+            tileCount = 0;
+        }
+        return geometry;
+    }
+
+    /**
+     * Obtiene la geometría del nivel de zoom actual: la completa, o la agrupada (calculada una vez por versión
+     * del modelo y nivel) cuando la escala es menor que CLUSTER_SCALE.
+     * @return Geometría a dibujar en los mosaicos.
+     */
+    private NetworkGeometry getLevelGeometry() {
+        double scale = getScale();
+        if (scale >= CLUSTER_SCALE) return geometry;
+        int index = zoomLevel - MIN_ZOOM_LEVEL;
+        if (levelGeometry[index] == null) {
+            levelGeometry[index] = geometry.cluster((int) Math.ceil(CLUSTER_PIXELS / scale));
+        }
+        return levelGeometry[index];
+    }
+
+    /**
+     * Obtiene el mosaico (tx, ty) de la caché, dibujándolo si no está. Si la caché está llena se reutiliza
+     * la imagen del mosaico usado hace más tiempo.
+     * @param geo Geometría del nivel de zoom.
+     * @param scale Escala de dibujo.
+     * @param tx Columna del mosaico.
+     * @param ty Fila del mosaico.
+     * @return Mosaico listo para dibujar.
+     */
+    private Tile getTile(NetworkGeometry geo, double scale, int tx, int ty) {
+        long key = ((long) tx << 32) | (ty & 0xFFFFFFFFL);
+        Tile tile = tiles.get(key);
+        if (tile == null) {
+            if (tileCount < tilePool.length) {
+                if (tilePool[tileCount] == null) tilePool[tileCount] = new Tile(createTileImage());
+                tile = tilePool[tileCount++];
+            } else {
+                tile = tilePool[0];
+                for (int i = 1; i < tileCount; i++) {
+                    if (tilePool[i].lastUsed < tile.lastUsed) tile = tilePool[i];
+                }
+                tiles.remove(tile.key);
             }
-            current = current.getNext();
+            tile.key = key;
+            tiles.put(key, tile);
+            renderTile(geo, scale, tile.image, tx * TILE_SIZE, ty * TILE_SIZE);
+        }
+        tile.lastUsed = frame;
+        return tile;
+    }
+
+    /**
+     * Crea la imagen de un mosaico, compatible con la pantalla si es posible.
+     * @return Imagen opaca de TILE_SIZE x TILE_SIZE.
+     */
+    private BufferedImage createTileImage() {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        return config != null ? config.createCompatibleImage(TILE_SIZE, TILE_SIZE, Transparency.OPAQUE)
+                : new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Dibuja en un mosaico las rutas y los puntos que caen en su área, según el nivel de detalle.
+     * @param geo Geometría del nivel de zoom.
+     * @param scale Escala de dibujo.
+     * @param image Imagen del mosaico.
+     * @param x Coordenada X del mosaico en el panel.
+     * @param y Coordenada Y del mosaico en el panel.
+     */
+    private void renderTile(NetworkGeometry geo, double scale, BufferedImage image, int x, int y) {
+        Graphics2D tile = image.createGraphics();
+        tile.setColor(getBackground());
+        tile.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+        tile.translate(-x, -y);
+
+        // Dibujar aristas (rutas con colores); el margen cubre el grosor del trazo
+        tile.setStroke(scale >= CLUSTER_SCALE ? ROUTE_STROKE : CLUSTER_STROKE);  // Grosor para resaltar rutas
+        int segments = geo.querySegments(toModel(x - 2, y - 2, TILE_SIZE + 4, scale), visibleSegments);
+        for (int i = 0; i < segments; i++) {
+            int seg = visibleSegments[i];
+            int a = geo.segFrom[seg], b = geo.segTo[seg];
+            tile.setColor(geo.segColor[seg]);
+            tile.drawLine(toScreen(geo.stopX[a], scale), toScreen(geo.stopY[a], scale),
+                    toScreen(geo.stopX[b], scale), toScreen(geo.stopY[b], scale));
+        }
+
+        // Dibujar vértices (paradas o grupos), incluidos los de afuera cuyo dibujo o etiqueta entra en el mosaico
+        tile.setFont(LABEL_FONT);  // Fuente más legible
+        tile.setStroke(THIN_STROKE);
+        int margin = scale >= LABEL_SCALE ? LABEL_MARGIN : CLUSTER_PIXELS;
+        int points = geo.queryStops(toModel(x - margin, y - margin, TILE_SIZE + 2 * margin, scale), visibleStops);
+        for (int i = 0; i < points; i++) {
+            int index = visibleStops[i];
+            Stop stop = geo.getStopAt(index);
+            if (stop != null) {
+                drawStop(tile, stop, scale);
+            } else {
+                drawCluster(tile, toScreen(geo.stopX[index], scale), toScreen(geo.stopY[index], scale),
+                        geo.stopWeight[index]);
+            }
+        }
+        tile.dispose();
+    }
+
+    /**
+     * Convierte un cuadrado del panel a coordenadas del modelo.
+     * @param x X del panel.
+     * @param y Y del panel.
+     * @param size Lado en píxeles.
+     * @param scale Escala de dibujo.
+     * @return Rectángulo en coordenadas del modelo.
+     */
+    private static Rectangle toModel(int x, int y, int size, double scale) {
+        int mx = (int) Math.floor(x / scale), my = (int) Math.floor(y / scale);
+        int side = (int) Math.ceil(size / scale) + 1;
+        return new Rectangle(mx, my, side, side);
+    }
+
+    /**
+     * Convierte una coordenada del modelo a píxeles del panel.
+     * @param value Coordenada del modelo.
+     * @param scale Escala de dibujo.
+     * @return Coordenada en el panel.
+     */
+    private static int toScreen(int value, double scale) {
+        return (int) Math.round(value * scale);
+    }
+
+    /**
+     * Dibuja un segmento entre dos paradas si ambas existen.
+     * @param g2d Contexto gráfico.
+     * @param origin Parada de origen o null.
+     * @param dest Parada de destino o null.
+     * @param scale Escala de dibujo.
+     */
+    private void drawSegment(Graphics2D g2d, Stop origin, Stop dest, double scale) {
+        if (origin != null && dest != null) {
+            g2d.drawLine(toScreen(origin.getX(), scale), toScreen(origin.getY(), scale),
+                    toScreen(dest.getX(), scale), toScreen(dest.getY(), scale));
         }
-        return null;
     }
 
-}
\ No newline at end of file
+    /**
+     * Dibuja una parada según el nivel de detalle: círculo con etiqueta centrada debajo, o solo un punto
+     * cuando la escala es menor que LABEL_SCALE.
+     * @param g2d Contexto gráfico.
+     * @param stop Parada o null.
+     * @param scale Escala de dibujo.
+     */
+    private void drawStop(Graphics2D g2d, Stop stop, double scale) {
+        if (stop == null) return;
+        int x = toScreen(stop.getX(), scale), y = toScreen(stop.getY(), scale);
+        if (scale < LABEL_SCALE) {
+            int dot = (int) Math.round(DOT_RADIUS * sizeFactor(stop.getId()));
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.fillOval(x - dot, y - dot, 2 * dot, 2 * dot);
+            return;
+        }
+        int radius = (int) Math.round(STOP_RADIUS * Math.min(1.0, scale) * sizeFactor(stop.getId()));
+        g2d.setColor(Color.LIGHT_GRAY);
+        g2d.fillOval(x - radius, y - radius, 2 * radius, 2 * radius);
+        g2d.setColor(Color.BLACK);
+        g2d.drawOval(x - radius, y - radius, 2 * radius, 2 * radius);
+        // Mejor posicionamiento: centrado debajo del círculo para evitar solapamientos
+        String label = stop.getName() + " (" + stop.getId() + ")";
+        int labelWidth = g2d.getFontMetrics().stringWidth(label);
+        g2d.drawString(label, x - labelWidth / 2, y + radius + 10);  // Debajo del círculo
+    }
+
+    /**
+     * Dibuja una parada de articulación: la parada normal con un anillo rojo alrededor.
+     * @param g2d Contexto gráfico.
+     * @param stop Parada o null.
+     * @param scale Escala de dibujo.
+     */
+    private void drawCriticalStop(Graphics2D g2d, Stop stop, double scale) {
+        if (stop == null) return;
+        drawStop(g2d, stop, scale);
+        int x = toScreen(stop.getX(), scale), y = toScreen(stop.getY(), scale);
+        int radius = (int) Math.round((scale < LABEL_SCALE ? DOT_RADIUS : STOP_RADIUS * Math.min(1.0, scale))
+                * sizeFactor(stop.getId())) + 3;
+        g2d.setColor(CRITICAL_COLOR);
+        g2d.setStroke(CRITICAL_STROKE);
+        g2d.drawOval(x - radius, y - radius, 2 * radius, 2 * radius);
+        g2d.setStroke(THIN_STROKE);
+        g2d.setColor(Color.BLACK);
+    }
+
+    /**
+     * Dibuja los vehículos de la simulación interpolando su posición en el tramo, y el reloj simulado.
+     * @param g2d Contexto gráfico.
+     * @param geo Geometría de la red.
+     * @param scale Escala de dibujo.
+     */
+    private void drawVehicles(Graphics2D g2d, NetworkGeometry geo, double scale) {
+        FleetSimulation.Frame frame = vehicles;
+        if (frame == null) return;
+        g2d.setStroke(THIN_STROKE);
+        int half = VEHICLE_SIZE / 2;
+        for (int i = 0; i < frame.count; i++) {
+            Stop a = geo.getStop(frame.from[i]);
+            Stop b = geo.getStop(frame.to[i]);
+            if (a == null || b == null) continue;
+            float p = frame.progress[i];
+            int x = toScreen(Math.round(a.getX() + (b.getX() - a.getX()) * p), scale);
+            int y = toScreen(Math.round(a.getY() + (b.getY() - a.getY()) * p), scale);
+            g2d.setColor(frame.getColor(i));
+            g2d.fillRect(x - half, y - half, VEHICLE_SIZE, VEHICLE_SIZE);
+            g2d.setColor(Color.BLACK);
+            g2d.drawRect(x - half, y - half, VEHICLE_SIZE, VEHICLE_SIZE);
+        }
+        Rectangle visible = getVisibleRect();
+        g2d.setFont(LABEL_FONT);
+        g2d.drawString("Simulación " + Timetable.formatTime(frame.clock / 60) + " - " + frame.count + " vehículos",
+                visible.x + 10, visible.y + 20);
+    }
+
+    /**
+     * Obtiene el factor de tamaño de una parada según su centralidad.
+     * @param id ID de la parada.
+     * @return Factor entre 0.5 y 2, o 1 si no hay puntajes.
+     */
+    private double sizeFactor(int id) {
+        if (centrality == null || maxCentrality <= 0 || id < 1 || id > centrality.length) return 1.0;
+        return 0.5 + 1.5 * Math.sqrt(centrality[id - 1] / maxCentrality);
+    }
+
+    /**
+     * Dibuja un grupo de paradas como un círculo cuyo tamaño crece con la cantidad de paradas.
+     * @param g2d Contexto gráfico.
+     * @param x X del centro en el panel.
+     * @param y Y del centro en el panel.
+     * @param count Paradas del grupo.
+     */
+    private void drawCluster(Graphics2D g2d, int x, int y, int count) {
+        int radius = Math.min(CLUSTER_PIXELS / 2, DOT_RADIUS + (int) Math.sqrt(count));
+        g2d.setColor(CLUSTER_COLOR);
+        g2d.fillOval(x - radius, y - radius, 2 * radius, 2 * radius);
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.drawOval(x - radius, y - radius, 2 * radius, 2 * radius);
+    }
+
+    /**
+     * Mosaico en caché de la capa de red.
+     */
+    private static class Tile {
+        final BufferedImage image;
+        long key;
+        long lastUsed;
+
+        Tile(BufferedImage image) {
+            this.image = image;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Modelo de la tabla "Lista de Rutas". Guarda las rutas en un arreglo (una fila por ruta) con un índice por ID
+ * de ruta, y notifica a la tabla solo las filas insertadas, modificadas o eliminadas.
+ * Las celdas se calculan al pedirlas (JTable solo pide las filas visibles): los nombres de inicio y fin salen
+ * del StopIndex en O(1) y los horarios, ya ordenados, de la Timetable.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.gui;
+
+import gestion_de_rutas_de_transporte.model.Node;
+import gestion_de_rutas_de_transporte.model.Route;
+import gestion_de_rutas_de_transporte.model.Stop;
+import gestion_de_rutas_de_transporte.model.StopIndex;
+import gestion_de_rutas_de_transporte.model.Timetable;
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.LongHashMap;
+import javax.swing.table.AbstractTableModel;
+
+
+public class RouteTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"ID Ruta", "Nombre", "Inicio", "Fin", "Horarios"};
+
+    private final StopIndex stopIndex;
+    private Route[] rows = new Route[16];
+    private int rowCount;
+    private final LongHashMap<Integer> rowByRoute = new LongHashMap<>();
+    private boolean rowIndexValid = true;
+    private final Timetable timetable;
+
+    /**
+     * Constructor del modelo.
+     * @param stopIndex Índice de paradas para resolver los nombres de inicio y fin.
+     * @param timetable Tabla de salidas para la columna de horarios.
+     */
+    public RouteTableModel(StopIndex stopIndex, Timetable timetable) {
+        this.stopIndex = stopIndex;
+        this.timetable = timetable;
+    }
+
+    /**
+     * Carga todas las rutas (por ejemplo, al leer el archivo); la Timetable ya debe estar cargada.
+     * @param routes Lista de rutas.
+     */
+    public void reload(CustomLinkedList<Route> routes) {
+        rows = new Route[Math.max(16, routes.getSize())];
+        rowCount = 0;
+        rowByRoute.clear();
+        rowByRoute.ensureCapacity(routes.getSize());
+        rowIndexValid = true;
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext()) {
+            rowByRoute.put(node.getData().getId(), rowCount);
+            rows[rowCount++] = node.getData();
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Agrega la fila de una ruta nueva al final.
+     * @param route Ruta agregada.
+     */
+    public void routeAdded(Route route) {
+        if (rowCount == rows.length) {
+            Route[] grown = new Route[rows.length * 2];
+            System.arraycopy(rows, 0, grown, 0, rowCount);
+            rows = grown;
+        }
+        if (rowIndexValid) rowByRoute.put(route.getId(), rowCount);
+        rows[rowCount++] = route;
+        fireTableRowsInserted(rowCount - 1, rowCount - 1);
+    }
+
+    /**
+     * Elimina la fila de una ruta.
+     * @param routeId ID de la ruta eliminada.
+     */
+    public void routeRemoved(int routeId) {
+        int row = rowOf(routeId);
+        if (row < 0) return;
+        System.arraycopy(rows, row + 1, rows, row, rowCount - row - 1);
+        rows[--rowCount] = null;
+        // Las filas siguientes cambian de posición: el índice se reconstruye en la próxima búsqueda
+        rowByRoute.clear();
+        rowIndexValid = false;
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Actualiza la fila de una ruta modificada (nombre, paradas u horarios).
+     * @param routeId ID de la ruta.
+     */
+    public void routeUpdated(int routeId) {
+        int row = rowOf(routeId);
+        if (row >= 0) fireTableRowsUpdated(row, row);
+    }
+
+    /**
+     * Indica que cambiaron paradas (nombre o eliminación): solo se repintan las celdas visibles.
+     */
+    public void stopsChanged() {
+        if (rowCount > 0) fireTableRowsUpdated(0, rowCount - 1);
+    }
+
+    /**
+     * Obtiene la ruta de una fila.
+     * @param row Fila.
+     * @return Ruta.
+     */
+    public Route getRouteAt(int row) {
+        return rows[row];
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Route route = rows[row];
+        CustomLinkedList<Integer> stopIds = route.getStopIds();
+        switch (column) {
+            case 0:
+                return route.getId();
+            case 1:
+                return route.getName();
+            case 2:
+                return stopIds.getSize() > 0 ? getStopName(stopIds.getHead().getData()) : "";
+            case 3:
+                return stopIds.getSize() > 0 ? getStopName(stopIds.getTail().getData()) : "";
+            default:
+                return getSchedules(route.getId());
+        }
+    }
+
+    /**
+     * Obtiene el nombre de una parada por su ID.
+     * @param id ID de la parada.
+     * @return Nombre o "Desconocido".
+     */
+    private String getStopName(int id) {
+        Stop stop = stopIndex.get(id);
+        return stop != null ? stop.getName() : "Desconocido";
+    }
+
+    /**
+     * Construye el texto de horarios de una ruta, en orden de salida.
+     * @param routeId ID de la ruta.
+     * @return Horarios separados por coma.
+     */
+    private String getSchedules(int routeId) {
+        StringBuilder sb = new StringBuilder();
+        for (int minutes : timetable.getDepartures(routeId)) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(Timetable.formatTime(minutes));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Busca la fila de una ruta, reconstruyendo el índice si una eliminación lo invalidó.
+     * @param routeId ID de la ruta.
+     * @return Fila o -1 si no está.
+     */
+    private int rowOf(int routeId) {
+        if (!rowIndexValid) {
+            for (int i = 0; i < rowCount; i++) {
+                rowByRoute.put(rows[i].getId(), i);
+            }
+            rowIndexValid = true;
+        }
+        Integer row = rowByRoute.get(routeId);
+        return row != null ? row : -1;
+    }
+}
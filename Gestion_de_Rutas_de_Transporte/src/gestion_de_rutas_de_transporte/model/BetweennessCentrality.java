@@ -0,0 +1,228 @@
+/**
+ * Clase que calcula la centralidad de intermediación (betweenness) de cada parada con el algoritmo de Brandes:
+ * cuántos caminos mínimos entre otros pares de paradas pasan por ella. Sirve para identificar las paradas
+ * troncales (por ejemplo, estaciones de transbordo) al planificar capacidad.
+ * Cada origen requiere un Dijkstra con conteo de caminos y una acumulación en orden inverso. Los orígenes
+ * se reparten dinámicamente entre tareas de un ForkJoinPool; cada tarea tiene sus propios arreglos y su
+ * acumulador, que se suman al final, de modo que no hay sincronización durante el cálculo.
+ * Para redes muy grandes, el modo por muestreo usa solo K orígenes al azar y escala el resultado (estimador
+ * sin sesgo de Brandes-Pich). Se trabaja sobre la instantánea CSR, que es inmutable y se comparte entre hilos.
+ * El conteo de caminos supone pesos positivos (con un tramo de peso 0 dos paradas serían predecesoras una de
+ * la otra); Graph y TrafficFeed rechazan los pesos que no lo son.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class BetweennessCentrality {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final Graph graph;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor que usa el pool común de ForkJoin.
+     * @param graph Grafo a analizar.
+     */
+    public BetweennessCentrality(Graph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor con un pool explícito.
+     * @param graph Grafo a analizar.
+     * @param pool Pool donde se ejecutan las tareas.
+     */
+    public BetweennessCentrality(Graph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Calcula la centralidad exacta usando todas las paradas como origen.
+     * @return Puntaje por parada: el índice id - 1 es el número de caminos mínimos que pasan por la parada id
+     *         (pares no ordenados; los empates se reparten en partes iguales).
+     */
+    public double[] compute() {
+        return compute(graph.snapshot());
+    }
+
+    /**
+     * Calcula la centralidad exacta sobre una instantánea; permite tomarla en el hilo que modifica el grafo
+     * y calcular en otro.
+     * @param csr Instantánea del grafo.
+     * @return Puntaje por parada, como compute().
+     */
+    public double[] compute(CsrGraph csr) {
+        int[] sources = activeStops(csr);
+        return run(csr, sources, sources.length, 1.0);
+    }
+
+    /**
+     * Estima la centralidad usando solo una muestra aleatoria de orígenes.
+     * @param samples Número de orígenes (si es mayor o igual al de paradas, el cálculo es exacto).
+     * @param seed Semilla del generador aleatorio, para resultados reproducibles.
+     * @return Puntaje estimado por parada, en la misma escala que compute.
+     */
+    public double[] computeSampled(int samples, long seed) {
+        return computeSampled(graph.snapshot(), samples, seed);
+    }
+
+    /**
+     * Estima la centralidad sobre una instantánea usando solo una muestra aleatoria de orígenes.
+     * @param csr Instantánea del grafo.
+     * @param samples Número de orígenes.
+     * @param seed Semilla del generador aleatorio.
+     * @return Puntaje estimado por parada, como computeSampled(int, long).
+     */
+    public double[] computeSampled(CsrGraph csr, int samples, long seed) {
+        int[] sources = activeStops(csr);
+        if (samples >= sources.length) return run(csr, sources, sources.length, 1.0);
+        int k = Math.max(1, samples);
+        Random random = new Random(seed);
+        for (int i = 0; i < k; i++) {  // Fisher-Yates parcial: los primeros k quedan al azar
+            int j = i + random.nextInt(sources.length - i);
+            int swap = sources[i];
+            sources[i] = sources[j];
+            sources[j] = swap;
+        }
+        return run(csr, sources, k, (double) sources.length / k);
+    }
+
+    /**
+     * Obtiene las paradas con al menos una arista; las aisladas no aportan caminos.
+     */
+    private static int[] activeStops(CsrGraph csr) {
+        int[] stops = new int[csr.getNumStops()];
+        int count = 0;
+        for (int id = 1; id <= csr.getNumStops(); id++) {
+            if (csr.offsets[id] > csr.offsets[id - 1]) stops[count++] = id;
+        }
+        return Arrays.copyOf(stops, count);
+    }
+
+    /**
+     * Ejecuta Brandes desde los primeros count orígenes y suma los acumuladores de cada tarea.
+     */
+    private double[] run(CsrGraph csr, int[] sources, int count, double factor) {
+        OperationEvent trace = Metrics.begin(Metrics.BETWEENNESS);
+        int n = csr.getVertexCount();
+        AtomicInteger cursor = new AtomicInteger();
+        int tasks = Math.max(1, Math.min(pool.getParallelism(), count));
+        Worker[] workers = new Worker[tasks];
+        ForkJoinTask<?>[] futures = new ForkJoinTask<?>[tasks];
+        for (int t = 0; t < tasks; t++) {
+            Worker worker = new Worker(csr, n);
+            workers[t] = worker;
+            futures[t] = pool.submit(() -> {
+                for (int i = cursor.getAndIncrement(); i < count; i = cursor.getAndIncrement()) {
+                    worker.accumulate(sources[i]);
+                }
+            });
+        }
+        double[] scores = new double[n];
+        long settled = 0, relaxed = 0;
+        for (int t = 0; t < tasks; t++) {
+            futures[t].join();
+            for (int v = 0; v < n; v++) {
+                scores[v] += workers[t].scores[v];
+            }
+            settled += workers[t].settled;
+            relaxed += workers[t].relaxed;
+        }
+        double scale = factor / 2;  // Cada par no ordenado se cuenta desde ambos extremos
+        for (int v = 0; v < n; v++) {
+            scores[v] *= scale;
+        }
+        Metrics.end(trace, settled, relaxed);
+        return scores;
+    }
+
+    /**
+     * Estado de una tarea: arreglos de Dijkstra reutilizados entre orígenes y su acumulador de puntajes.
+     */
+    private static class Worker {
+        final CsrGraph csr;
+        final int[] dist;
+        final double[] sigma;  // Número de caminos mínimos desde el origen
+        final double[] delta;  // Dependencia acumulada del origen en cada parada
+        final int[] order;     // Paradas en orden de asentamiento
+        final double[] scores;
+        final IntMinHeap heap = new IntMinHeap();
+        long settled;
+        long relaxed;
+
+        Worker(CsrGraph csr, int n) {
+            this.csr = csr;
+            dist = new int[n];
+            sigma = new double[n];
+            delta = new double[n];
+            order = new int[n];
+            scores = new double[n];
+            Arrays.fill(dist, INF);
+        }
+
+        /**
+         * Suma al acumulador las dependencias de un origen.
+         * @param source ID de la parada origen.
+         */
+        void accumulate(int source) {
+            int[] offsets = csr.offsets;
+            int[] targets = csr.targets;
+            int[] weights = csr.weights;
+            int count = 0;
+            dist[source - 1] = 0;
+            sigma[source - 1] = 1;
+            heap.clear();
+            heap.push(0, source);
+            while (!heap.isEmpty()) {
+                int d = heap.peekKey();
+                int u = heap.poll();
+                if (d > dist[u - 1]) continue;
+                order[count++] = u;
+                for (int e = offsets[u - 1]; e < offsets[u]; e++) {
+                    int w = targets[e];
+                    int nd = d + weights[e];
+                    relaxed++;
+                    if (nd < dist[w - 1]) {
+                        dist[w - 1] = nd;
+                        sigma[w - 1] = sigma[u - 1];
+                        heap.push(nd, w);
+                    } else if (nd == dist[w - 1]) {
+                        sigma[w - 1] += sigma[u - 1];
+                    }
+                }
+            }
+            settled += count;
+
+            // Acumulación en orden inverso: los predecesores de w son los vecinos v con dist[v] + peso = dist[w]
+            for (int i = count - 1; i > 0; i--) {
+                int w = order[i];
+                double coefficient = (1 + delta[w - 1]) / sigma[w - 1];
+                for (int e = offsets[w - 1]; e < offsets[w]; e++) {
+                    int v = targets[e];
+                    if (dist[v - 1] != INF && dist[v - 1] + weights[e] == dist[w - 1]) {
+                        delta[v - 1] += sigma[v - 1] * coefficient;
+                    }
+                }
+                scores[w - 1] += delta[w - 1];
+            }
+
+            for (int i = 0; i < count; i++) {  // Solo se limpian las paradas alcanzadas
+                int v = order[i] - 1;
+                dist[v] = INF;
+                sigma[v] = 0;
+                delta[v] = 0;
+            }
+        }
+    }
+}
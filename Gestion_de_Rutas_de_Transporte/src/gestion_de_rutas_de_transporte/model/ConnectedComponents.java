@@ -0,0 +1,145 @@
+/**
+ * Clase que mantiene las componentes conexas del grafo para responder en tiempo casi constante si dos
+ * paradas están conectadas, sin explorar el grafo.
+ * Usa union-find (unión por tamaño y compresión de caminos): cada arista nueva une dos componentes al
+ * momento. Eliminar una arista o una parada puede partir una componente, lo que union-find no sabe
+ * deshacer; en ese caso solo se marca como desactualizada y se recalcula completa en la siguiente consulta.
+ * Las paradas sin aristas forman cada una su propia componente.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+
+public class ConnectedComponents implements GraphListener {
+    private final Graph graph;
+    private int[] parent;
+    private int[] size;  // Tamaño de la componente, válido solo en las raíces
+    private boolean dirty;
+
+    /**
+     * Constructor del índice. Calcula las componentes actuales y se registra como observador del grafo.
+     * @param graph Grafo observado.
+     */
+    public ConnectedComponents(Graph graph) {
+        this.graph = graph;
+        recompute();
+        graph.addListener(this);
+    }
+
+    @Override
+    public void edgeChanged(int from, int to, int oldWeight, int newWeight) {
+        if (dirty) return;
+        if (newWeight == -1) {
+            dirty = true;  // Una arista eliminada puede partir la componente
+        } else if (oldWeight == -1) {
+            union(from, to);
+        }
+    }
+
+    /**
+     * Verifica si existe algún camino entre dos paradas.
+     * @param a ID de una parada.
+     * @param b ID de la otra parada.
+     * @return true si están en la misma componente.
+     */
+    public boolean connected(int a, int b) {
+        ensureCurrent();
+        if (!valid(a) || !valid(b)) return false;
+        return find(a) == find(b);
+    }
+
+    /**
+     * Obtiene el número de paradas de la componente a la que pertenece una parada.
+     * @param id ID de la parada.
+     * @return Tamaño de la componente, o 0 si el ID no es válido.
+     */
+    public int componentSize(int id) {
+        ensureCurrent();
+        return valid(id) ? size[find(id) - 1] : 0;
+    }
+
+    /**
+     * Obtiene un representante de la componente de una parada; dos paradas conectadas tienen el mismo.
+     * El representante puede cambiar cuando el grafo cambia.
+     * @param id ID de la parada.
+     * @return ID de la parada representante, o -1 si el ID no es válido.
+     */
+    public int componentOf(int id) {
+        ensureCurrent();
+        return valid(id) ? find(id) : -1;
+    }
+
+    /**
+     * Cuenta las componentes entre las paradas registradas en el grafo.
+     * @return Número de componentes.
+     */
+    public int getComponentCount() {
+        ensureCurrent();
+        int count = 0;
+        for (int id = 1; id <= graph.getNumStops(); id++) {
+            if (parent[id - 1] == id) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Recalcula las componentes si hubo eliminaciones desde el último cálculo.
+     */
+    private void ensureCurrent() {
+        if (dirty) recompute();
+    }
+
+    /**
+     * Calcula las componentes desde cero uniendo los extremos de cada arista.
+     */
+    private void recompute() {
+        int n = graph.getCapacity();
+        if (parent == null) {
+            parent = new int[n];
+            size = new int[n];
+        }
+        for (int i = 0; i < n; i++) {
+            parent[i] = i + 1;
+            size[i] = 1;
+        }
+        for (int i = 0; i < n; i++) {
+            Node<Pair<Integer, Integer>> edge = graph.adjacency[i].head;
+            while (edge != null) {
+                int target = edge.getData().first;
+                if (target > i + 1) union(i + 1, target);  // Cada arista no dirigida una sola vez
+                edge = edge.getNext();
+            }
+        }
+        dirty = false;
+    }
+
+    private boolean valid(int id) {
+        return id >= 1 && id <= parent.length;
+    }
+
+    private int find(int id) {
+        int root = id;
+        while (parent[root - 1] != root) {
+            root = parent[root - 1];
+        }
+        while (parent[id - 1] != root) {  // Compresión de caminos
+            int next = parent[id - 1];
+            parent[id - 1] = root;
+            id = next;
+        }
+        return root;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return;
+        if (size[rootA - 1] < size[rootB - 1]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB - 1] = rootA;
+        size[rootA - 1] += size[rootB - 1];
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Clase que representa una instantánea inmutable del grafo en formato CSR (compressed sparse row).
+ * Las aristas de cada parada quedan contiguas y ordenadas por destino en arreglos primitivos, lo que
+ * permite recorridos rápidos, búsquedas binarias de aristas y lecturas concurrentes desde varios hilos.
+ * Las paradas se identifican con su ID (1..n); las aristas de la parada id ocupan [offsets[id-1], offsets[id]).
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import java.util.Arrays;
+
+
+public class CsrGraph {
+    public final int[] offsets;
+    public final int[] targets;
+    public final int[] weights;
+    private final int numStops;
+    private final long version;
+    private long fingerprint;  // 0 si todavía no se calculó
+
+    /**
+     * Constructor de la instantánea a partir del grafo actual.
+     * @param graph Grafo de origen.
+     */
+    public CsrGraph(Graph graph) {
+        int n = graph.getCapacity();
+        offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + graph.adjacency[i].getSize();
+        }
+        targets = new int[offsets[n]];
+        weights = new int[offsets[n]];
+        long[] row = new long[16];
+        for (int i = 0; i < n; i++) {
+            int degree = offsets[i + 1] - offsets[i];
+            if (degree == 0) continue;
+            if (row.length < degree) row = new long[Math.max(degree, row.length << 1)];
+            int k = 0;
+            Node<Pair<Integer, Integer>> edge = graph.adjacency[i].head;
+            while (edge != null) {
+                row[k++] = ((long) edge.getData().first << 32) | (edge.getData().second & 0xFFFFFFFFL);
+                edge = edge.getNext();
+            }
+            Arrays.sort(row, 0, degree);
+            for (int j = 0; j < degree; j++) {
+                targets[offsets[i] + j] = (int) (row[j] >>> 32);
+                weights[offsets[i] + j] = (int) row[j];
+            }
+        }
+        numStops = graph.getNumStops();
+        version = graph.getVersion();
+    }
+
+    /**
+     * Obtiene el número de vértices representables (capacidad del grafo de origen).
+     * @return Número de vértices.
+     */
+    public int getVertexCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Obtiene el mayor ID de parada registrado al tomar la instantánea.
+     * @return Número de paradas.
+     */
+    public int getNumStops() {
+        return numStops;
+    }
+
+    /**
+     * Obtiene el número de aristas dirigidas (cada arista no dirigida cuenta dos veces).
+     * @return Número de aristas dirigidas.
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Obtiene la versión del grafo al tomar la instantánea.
+     * @return Versión del grafo.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Calcula una huella de las aristas y pesos (FNV-1a de 64 bits). A diferencia de la versión, se conserva
+     * entre ejecuciones, por lo que sirve para saber si un índice guardado en disco corresponde a este grafo.
+     * @return Huella del grafo.
+     */
+    public long fingerprint() {
+        if (fingerprint == 0) {
+            long h = 0xCBF29CE484222325L;
+            h = (h ^ numStops) * 0x100000001B3L;
+            for (int value : offsets) h = (h ^ value) * 0x100000001B3L;
+            for (int value : targets) h = (h ^ value) * 0x100000001B3L;
+            for (int value : weights) h = (h ^ value) * 0x100000001B3L;
+            fingerprint = h != 0 ? h : 1;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Obtiene el grado de una parada.
+     * @param id ID de la parada.
+     * @return Número de vecinos.
+     */
+    public int degree(int id) {
+        return offsets[id] - offsets[id - 1];
+    }
+
+    /**
+     * Busca el índice de la arista (from, to) mediante búsqueda binaria.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return Índice de la arista o -1 si no existe.
+     */
+    public int findEdge(int from, int to) {
+        if (from < 1 || from >= offsets.length) return -1;
+        int index = Arrays.binarySearch(targets, offsets[from - 1], offsets[from], to);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Obtiene el peso de la arista (from, to).
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return Peso o -1 si no existe.
+     */
+    public int weightOf(int from, int to) {
+        int index = findEdge(from, to);
+        return index >= 0 ? weights[index] : -1;
+    }
+}
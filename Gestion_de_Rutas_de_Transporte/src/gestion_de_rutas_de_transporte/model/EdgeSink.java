@@ -0,0 +1,22 @@
+/**
+ * Interfaz que recibe las paradas y aristas de un EdgeSource.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+
+public interface EdgeSink {
+    /**
+     * Declara una parada. Como en Graph, se descartan las aristas con IDs mayores que la mayor parada declarada.
+     * @param id ID de la parada.
+     */
+    void stop(int id);
+
+    /**
+     * Recibe una arista ponderada no dirigida.
+     * @param from ID de un extremo.
+     * @param to ID del otro extremo.
+     * @param peso Peso de la arista.
+     */
+    void edge(int from, int to, int peso);
+}
@@ -0,0 +1,19 @@
+/**
+ * Interfaz de un origen de aristas que se puede recorrer varias veces.
+ * Permite construir grafos grandes por pasadas sin tener todas las aristas en memoria, por ejemplo
+ * volviendo a leer el archivo de datos en cada pasada.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import java.io.IOException;
+
+
+public interface EdgeSource {
+    /**
+     * Entrega todas las paradas y aristas, siempre en el mismo orden.
+     * @param sink Destino de las paradas y aristas.
+     * @throws IOException Si falla la lectura del origen.
+     */
+    void forEach(EdgeSink sink) throws IOException;
+}
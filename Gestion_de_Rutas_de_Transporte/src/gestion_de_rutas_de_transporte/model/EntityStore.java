@@ -0,0 +1,205 @@
+/**
+ * Clase que guarda las paradas por columnas (struct-of-arrays): un arreglo primitivo por atributo (ID, nombre
+ * como símbolo de NamePool, x, y), de modo que los recorridos sobre todas las paradas (reconstruir el índice
+ * espacial, armar la geometría de dibujo) leen memoria contigua en lugar de saltar de objeto en objeto.
+ * Cada Stop es una vista liviana sobre una fila (el almacén y el número de fila): sus getters y setters leen y
+ * escriben las columnas. Las filas son posiciones 0..n-1; al eliminar, la última fila ocupa el lugar de la
+ * eliminada y su vista se reasigna, y la vista eliminada queda desligada con una copia de sus datos.
+ * Las rutas y los horarios siguen siendo objetos: sus listas de paradas son de largo variable y no se recorren
+ * en bloque.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.NamePool;
+import java.util.Arrays;
+
+
+public class EntityStore {
+    private int[] ids;
+    private int[] nameIds;  // Símbolos en NamePool
+    private int[] xs;
+    private int[] ys;
+    private Stop[] views;   // Vista de cada fila, para reasignarla cuando la fila se mueve
+    private int count;
+
+    /**
+     * Constructor de un almacén vacío.
+     */
+    public EntityStore() {
+        this(16);
+    }
+
+    /**
+     * Constructor con capacidad inicial.
+     * @param capacity Paradas que caben sin crecer.
+     */
+    public EntityStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        ids = new int[capacity];
+        nameIds = new int[capacity];
+        xs = new int[capacity];
+        ys = new int[capacity];
+        views = new Stop[capacity];
+    }
+
+    /**
+     * Agrega una parada.
+     * @param id ID de la parada.
+     * @param name Nombre de la parada.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @return Vista de la nueva fila.
+     */
+    public Stop addStop(int id, String name, int x, int y) {
+        return addStop(id, NamePool.intern(name), x, y);
+    }
+
+    /**
+     * Agrega una parada con el nombre ya registrado en NamePool (carga de archivos).
+     * @param id ID de la parada.
+     * @param nameId ID del nombre en NamePool.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @return Vista de la nueva fila.
+     */
+    public Stop addStop(int id, int nameId, int x, int y) {
+        int row = append(id, nameId, x, y);
+        Stop view = new Stop(this, row);
+        bind(row, view);
+        return view;
+    }
+
+    /**
+     * Elimina la fila de una parada. La última fila pasa a su lugar y la vista eliminada se desliga del
+     * almacén conservando sus datos.
+     * @param stop Vista de la parada.
+     * @return true si la parada era de este almacén.
+     */
+    public boolean removeStop(Stop stop) {
+        if (stop.store != this) return false;
+        int row = stop.row;
+        EntityStore detached = new EntityStore(1);
+        stop.row = detached.append(ids[row], nameIds[row], xs[row], ys[row]);
+        stop.store = detached;
+        detached.bind(stop.row, stop);
+
+        int last = --count;
+        if (row != last) {
+            ids[row] = ids[last];
+            nameIds[row] = nameIds[last];
+            xs[row] = xs[last];
+            ys[row] = ys[last];
+            views[row] = views[last];
+            views[row].row = row;
+        }
+        views[last] = null;
+        return true;
+    }
+
+    /**
+     * Elimina todas las paradas; sus vistas quedan desligadas con sus datos.
+     */
+    public void clear() {
+        while (count > 0) {
+            removeStop(views[count - 1]);
+        }
+    }
+
+    /**
+     * Obtiene el número de paradas.
+     * @return Número de filas.
+     */
+    public int getStopCount() {
+        return count;
+    }
+
+    /**
+     * Obtiene la vista de una fila.
+     * @param row Fila (0..getStopCount()-1).
+     * @return Vista de la parada.
+     */
+    public Stop getStopAt(int row) {
+        return views[row];
+    }
+
+    /**
+     * Obtiene el ID de la parada de una fila.
+     * @param row Fila.
+     * @return ID.
+     */
+    public int getStopId(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Obtiene el símbolo del nombre de la parada de una fila.
+     * @param row Fila.
+     * @return ID del nombre en NamePool.
+     */
+    public int getStopNameId(int row) {
+        return nameIds[row];
+    }
+
+    /**
+     * Obtiene la coordenada X de la parada de una fila.
+     * @param row Fila.
+     * @return Coordenada X.
+     */
+    public int getStopX(int row) {
+        return xs[row];
+    }
+
+    /**
+     * Obtiene la coordenada Y de la parada de una fila.
+     * @param row Fila.
+     * @return Coordenada Y.
+     */
+    public int getStopY(int row) {
+        return ys[row];
+    }
+
+    // Escrituras de las vistas
+    void setStopId(int row, int id) {
+        ids[row] = id;
+    }
+
+    void setStopNameId(int row, int nameId) {
+        nameIds[row] = nameId;
+    }
+
+    void setStopX(int row, int x) {
+        xs[row] = x;
+    }
+
+    void setStopY(int row, int y) {
+        ys[row] = y;
+    }
+
+    /**
+     * Agrega una fila sin vista.
+     * @return Número de la fila.
+     */
+    int append(int id, int nameId, int x, int y) {
+        if (count == ids.length) {
+            int capacity = count * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            nameIds = Arrays.copyOf(nameIds, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+        ids[count] = id;
+        nameIds[count] = nameId;
+        xs[count] = x;
+        ys[count] = y;
+        return count++;
+    }
+
+    /**
+     * Registra la vista de una fila creada con append.
+     */
+    void bind(int row, Stop view) {
+        views[row] = view;
+    }
+}
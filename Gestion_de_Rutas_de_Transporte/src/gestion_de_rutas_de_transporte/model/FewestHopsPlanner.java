@@ -0,0 +1,99 @@
+/**
+ * Clase que planifica el recorrido con menos paradas (menos saltos) entre dos paradas usando BFS,
+ * sin tener en cuenta los pesos de las aristas.
+ * Recorre la instantánea CSR del grafo con una cola circular de enteros y marcas de visita con época:
+ * los arreglos se crean una sola vez por tamaño del grafo y cada consulta solo incrementa la época,
+ * así que una búsqueda es O(V + E) y no reserva memoria salvo la lista del resultado.
+ * La búsqueda termina en cuanto descubre el destino.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.CustomQueue;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
+import java.util.Arrays;
+
+
+public class FewestHopsPlanner {
+    private final Graph graph;
+    private final CustomQueue queue = new CustomQueue();
+    private int[] visited;  // Época en que se descubrió cada parada
+    private int[] parent;
+    private int[] pathBuffer;
+    private int epoch;
+
+    /**
+     * Constructor del planificador.
+     * @param graph Grafo sobre el que se planifica.
+     */
+    public FewestHopsPlanner(Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Encuentra el camino con menos saltos entre dos paradas.
+     * @param start ID de inicio.
+     * @param end ID de fin.
+     * @return Lista de IDs en la ruta o lista vacía si no hay ruta.
+     */
+    public CustomLinkedList<Integer> findPath(int start, int end) {
+        CustomLinkedList<Integer> path = new CustomLinkedList<>();
+        CsrGraph csr = graph.snapshot();
+        if (start < 1 || start > csr.getNumStops() || end < 1 || end > csr.getNumStops()
+                || !graph.getComponents().connected(start, end)) {
+            return path;
+        }
+        int n = csr.getVertexCount();
+        if (visited == null || visited.length != n) {
+            visited = new int[n];
+            parent = new int[n];
+            pathBuffer = new int[n];
+            queue.ensureCapacity(n);
+            epoch = 0;
+        }
+        if (++epoch == 0) {  // Desborde de la época: se reinician las marcas
+            Arrays.fill(visited, 0);
+            epoch = 1;
+        }
+
+        OperationEvent trace = Metrics.begin(Metrics.FEWEST_HOPS);
+        long settled = 0;
+        long relaxed = 0;
+        int[] offsets = csr.offsets;
+        int[] targets = csr.targets;
+        queue.clear();
+        visited[start - 1] = epoch;
+        parent[start - 1] = -1;
+        queue.enqueue(start);
+        boolean found = start == end;
+        while (!found && !queue.isEmpty()) {
+            int current = queue.dequeue();
+            settled++;
+            for (int e = offsets[current - 1]; e < offsets[current]; e++) {
+                int next = targets[e];
+                relaxed++;
+                if (visited[next - 1] == epoch) continue;
+                visited[next - 1] = epoch;
+                parent[next - 1] = current;
+                if (next == end) {
+                    found = true;
+                    break;
+                }
+                queue.enqueue(next);
+            }
+        }
+        Metrics.end(trace, settled, relaxed);
+        if (!found) return path;
+
+        int length = 0;
+        for (int current = end; current != -1; current = parent[current - 1]) {
+            pathBuffer[length++] = current;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            path.add(pathBuffer[i]);
+        }
+        return path;
+    }
+}
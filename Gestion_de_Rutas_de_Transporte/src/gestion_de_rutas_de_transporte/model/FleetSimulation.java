@@ -0,0 +1,426 @@
+/**
+ * Clase que simula por eventos discretos los vehículos de todas las rutas durante un día de servicio.
+ * Cada salida de la tabla de horarios es un vehículo que recorre las paradas de su ruta; el tiempo entre
+ * paradas es el peso de la arista en minutos (con una variación aleatoria) y la detención en cada parada
+ * crece con los pasajeros que suben y bajan. Los pasajeros llegan a cada parada a una tasa constante, así
+ * que un vehículo atrasado encuentra más gente, se atrasa más y el siguiente lo alcanza (agrupamiento).
+ * El calendario de eventos es un IntMinHeap con clave = segundo del día y valor = vehículo, y el estado de
+ * los vehículos vive en arreglos primitivos: procesar un evento no crea objetos.
+ * Reporta por ruta la ocupación, la frecuencia observada (media y coeficiente de variación) y los casos de
+ * agrupamiento, y entrega instantáneas inmutables de las posiciones para animarlas desde otro hilo.
+ * La simulación copia todo lo que necesita al construirse; después no consulta el grafo ni los horarios,
+ * por lo que puede avanzar en un hilo de fondo mientras se editan. Una misma instancia no es segura para
+ * usarse desde varios hilos a la vez.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Random;
+
+
+public class FleetSimulation {
+    // Parámetros del modelo
+    private static final int VEHICLE_CAPACITY = 80;
+    private static final double PASSENGERS_PER_MINUTE = 0.5;  // Llegadas a cada parada de cada ruta
+    private static final int DWELL_SECONDS = 15;
+    private static final double SECONDS_PER_PASSENGER = 3;
+    private static final double TRAVEL_JITTER = 0.15;  // Variación máxima del tiempo de viaje (±15 %)
+    private static final double BUNCHING_RATIO = 0.25;  // Frecuencia observada menor al 25 % de la programada
+
+    private static final int WAITING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    // Rutas: las paradas de la ruta r ocupan las posiciones [routeStart[r], routeStart[r + 1]) de slotStop
+    private final int[] routeIds;
+    private final Color[] routeColors;
+    private final int[] routeStart;
+    private final int[] slotStop;
+    private final int[] travelSeconds;  // Viaje desde la posición hacia la siguiente de la misma ruta
+    private final double[] waitingPassengers;
+    private final int[] lastVisit;    // Última actualización de pasajeros en espera
+    private final int[] lastArrival;  // Última llegada de un vehículo, -1 si ninguna
+
+    // Vehículos (uno por salida)
+    private final int[] vehicleRoute;
+    private final int[] scheduledHeadway;  // Segundos desde la salida anterior de la ruta, 0 si es la primera
+    private final int[] slot;
+    private final int[] load;
+    private final int[] state;
+    private final int[] legStart;  // Inicio del tramo actual (fin de la detención)
+    private final int[] legEnd;    // Llegada a la siguiente parada
+
+    // Estadísticas por ruta
+    private final int[] tripsCompleted;
+    private final long[] loadSum;
+    private final int[] loadSamples;
+    private final int[] maxLoad;
+    private final long[] headwaySum;
+    private final double[] headwaySquares;
+    private final int[] headwayCount;
+    private final int[] bunching;
+    private final long[] passengersServed;
+
+    private final IntMinHeap calendar = new IntMinHeap();
+    private final Random random;
+    private int clock;
+    private int running;
+    private long events;
+
+    /**
+     * Constructor de la simulación: prepara un vehículo por cada salida de cada ruta.
+     * @param graph Grafo con los tiempos entre paradas (peso = minutos; 1 minuto si no hay arista).
+     * @param routes Rutas a simular.
+     * @param timetable Salidas de cada ruta.
+     * @param seed Semilla del generador aleatorio, para resultados reproducibles.
+     */
+    public FleetSimulation(Graph graph, CustomLinkedList<Route> routes, Timetable timetable, long seed) {
+        random = new Random(seed);
+        int routeCount = routes.getSize();
+        routeIds = new int[routeCount];
+        routeColors = new Color[routeCount];
+        routeStart = new int[routeCount + 1];
+        int r = 0;
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext(), r++) {
+            routeIds[r] = node.getData().getId();
+            routeColors[r] = node.getData().getColor() != null ? node.getData().getColor() : Color.DARK_GRAY;
+            routeStart[r + 1] = routeStart[r] + node.getData().getStopIds().getSize();
+        }
+        int slots = routeStart[routeCount];
+        slotStop = new int[slots];
+        travelSeconds = new int[slots];
+        r = 0;
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext(), r++) {
+            int s = routeStart[r];
+            for (Node<Integer> stop = node.getData().getStopIds().getHead(); stop != null; stop = stop.getNext(), s++) {
+                slotStop[s] = stop.getData();
+                if (stop.getNext() != null) {
+                    int weight = graph.getWeight(stop.getData(), stop.getNext().getData());
+                    travelSeconds[s] = Math.max(1, weight > 0 ? weight : 1) * 60;
+                }
+            }
+        }
+        waitingPassengers = new double[slots];
+        lastVisit = new int[slots];
+        lastArrival = new int[slots];
+        Arrays.fill(lastArrival, -1);
+
+        int vehicles = 0;
+        int[][] times = new int[routeCount][];
+        for (r = 0; r < routeCount; r++) {
+            times[r] = routeStart[r + 1] > routeStart[r] ? timetable.getDepartures(routeIds[r]) : new int[0];
+            vehicles += times[r].length;
+        }
+        vehicleRoute = new int[vehicles];
+        scheduledHeadway = new int[vehicles];
+        slot = new int[vehicles];
+        load = new int[vehicles];
+        state = new int[vehicles];
+        legStart = new int[vehicles];
+        legEnd = new int[vehicles];
+        int first = Integer.MAX_VALUE;
+        int v = 0;
+        for (r = 0; r < routeCount; r++) {
+            for (int i = 0; i < times[r].length; i++, v++) {
+                vehicleRoute[v] = r;
+                int departure = times[r][i] * 60;
+                scheduledHeadway[v] = i > 0 ? (times[r][i] - times[r][i - 1]) * 60 : 0;
+                slot[v] = routeStart[r];
+                legEnd[v] = departure;
+                calendar.push(departure, v);
+                first = Math.min(first, departure);
+            }
+        }
+        clock = vehicles > 0 ? first : 0;
+        Arrays.fill(lastVisit, clock);
+
+        tripsCompleted = new int[routeCount];
+        loadSum = new long[routeCount];
+        loadSamples = new int[routeCount];
+        maxLoad = new int[routeCount];
+        headwaySum = new long[routeCount];
+        headwaySquares = new double[routeCount];
+        headwayCount = new int[routeCount];
+        bunching = new int[routeCount];
+        passengersServed = new long[routeCount];
+    }
+
+    /**
+     * Avanza la simulación procesando todos los eventos hasta un instante.
+     * @param seconds Segundo del día hasta el que se avanza (incluido).
+     */
+    public void advanceTo(int seconds) {
+        while (!calendar.isEmpty() && calendar.peekKey() <= seconds) {
+            int time = calendar.peekKey();
+            int vehicle = calendar.poll();
+            arrive(vehicle, time);
+            events++;
+        }
+        clock = Math.max(clock, seconds);
+    }
+
+    /**
+     * Ejecuta la simulación hasta que todos los vehículos terminan su recorrido.
+     */
+    public void runToEnd() {
+        while (!calendar.isEmpty()) {
+            advanceTo(calendar.peekKey());
+        }
+    }
+
+    /**
+     * Verifica si ya no quedan eventos.
+     * @return true si todos los vehículos terminaron.
+     */
+    public boolean isFinished() {
+        return calendar.isEmpty();
+    }
+
+    /**
+     * Obtiene el reloj de la simulación.
+     * @return Segundos desde la medianoche.
+     */
+    public int getClock() {
+        return clock;
+    }
+
+    /**
+     * Obtiene el número de vehículos simulados (uno por salida).
+     * @return Vehículos.
+     */
+    public int getVehicleCount() {
+        return vehicleRoute.length;
+    }
+
+    /**
+     * Obtiene el número de vehículos en servicio en este momento.
+     * @return Vehículos entre su primera y su última parada.
+     */
+    public int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * Obtiene el número de eventos procesados (llegadas a paradas).
+     * @return Eventos.
+     */
+    public long getEventCount() {
+        return events;
+    }
+
+    /**
+     * Procesa la llegada de un vehículo a la parada de su posición actual: pasajeros, frecuencia y siguiente tramo.
+     * @param v Vehículo.
+     * @param time Segundo de llegada.
+     */
+    private void arrive(int v, int time) {
+        int r = vehicleRoute[v];
+        int s = slot[v];
+        boolean last = s == routeStart[r + 1] - 1;
+        if (state[v] == WAITING) {
+            state[v] = RUNNING;
+            running++;
+        }
+
+        // Frecuencia observada en esta parada
+        if (lastArrival[s] >= 0) {
+            int headway = time - lastArrival[s];
+            headwaySum[r] += headway;
+            headwaySquares[r] += (double) headway * headway;
+            headwayCount[r]++;
+            if (scheduledHeadway[v] > 0 && headway < BUNCHING_RATIO * scheduledHeadway[v]) bunching[r]++;
+        }
+        lastArrival[s] = time;
+
+        // Pasajeros: bajan en proporción a las paradas que quedan; suben los que esperan, hasta la capacidad
+        waitingPassengers[s] += PASSENGERS_PER_MINUTE * (time - lastVisit[s]) / 60.0;
+        lastVisit[s] = time;
+        int remaining = routeStart[r + 1] - s - 1;
+        int alighting = last ? load[v] : (int) Math.round((double) load[v] / (remaining + 1));
+        int boarding = last ? 0 : Math.min((int) waitingPassengers[s], VEHICLE_CAPACITY - (load[v] - alighting));
+        waitingPassengers[s] -= boarding;
+        load[v] += boarding - alighting;
+        passengersServed[r] += boarding;
+
+        if (last) {
+            state[v] = DONE;
+            running--;
+            tripsCompleted[r]++;
+            return;
+        }
+        loadSum[r] += load[v];
+        loadSamples[r]++;
+        maxLoad[r] = Math.max(maxLoad[r], load[v]);
+
+        int dwell = DWELL_SECONDS + (int) Math.round(SECONDS_PER_PASSENGER * (boarding + alighting));
+        double factor = 1 + TRAVEL_JITTER * (2 * random.nextDouble() - 1);
+        legStart[v] = time + dwell;
+        legEnd[v] = legStart[v] + Math.max(1, (int) Math.round(travelSeconds[s] * factor));
+        slot[v] = s + 1;
+        calendar.push(legEnd[v], v);
+    }
+
+    /**
+     * Crea una instantánea de las posiciones de los vehículos en servicio, para dibujarla desde otro hilo.
+     * @return Posiciones en el reloj actual.
+     */
+    public Frame snapshot() {
+        int[] from = new int[running];
+        int[] to = new int[running];
+        float[] progress = new float[running];
+        int[] route = new int[running];
+        int count = 0;
+        for (int v = 0; v < state.length && count < running; v++) {
+            if (state[v] != RUNNING) continue;
+            int s = slot[v];  // Parada hacia la que viaja
+            from[count] = slotStop[s - 1];
+            to[count] = slotStop[s];
+            int length = legEnd[v] - legStart[v];
+            progress[count] = clock <= legStart[v] ? 0f
+                    : Math.min(1f, (float) (clock - legStart[v]) / Math.max(1, length));
+            route[count] = vehicleRoute[v];
+            count++;
+        }
+        return new Frame(clock, count, from, to, progress, route, routeColors);
+    }
+
+    /**
+     * Obtiene las estadísticas de cada ruta con salidas.
+     * @return Estadísticas en el orden de las rutas.
+     */
+    public CustomLinkedList<RouteStats> getRouteStats() {
+        CustomLinkedList<RouteStats> result = new CustomLinkedList<>();
+        int[] trips = new int[routeIds.length];
+        for (int v = 0; v < vehicleRoute.length; v++) {
+            trips[vehicleRoute[v]]++;
+        }
+        for (int r = 0; r < routeIds.length; r++) {
+            if (trips[r] == 0) continue;
+            double meanLoad = loadSamples[r] > 0 ? (double) loadSum[r] / loadSamples[r] : 0;
+            double meanHeadway = headwayCount[r] > 0 ? (double) headwaySum[r] / headwayCount[r] : 0;
+            double variance = headwayCount[r] > 0 ? headwaySquares[r] / headwayCount[r] - meanHeadway * meanHeadway : 0;
+            double cv = meanHeadway > 0 ? Math.sqrt(Math.max(0, variance)) / meanHeadway : 0;
+            result.add(new RouteStats(routeIds[r], trips[r], tripsCompleted[r], passengersServed[r], meanLoad,
+                    maxLoad[r], meanHeadway / 60, cv, bunching[r]));
+        }
+        return result;
+    }
+
+    /**
+     * Genera el reporte de la simulación en texto.
+     * @return Reporte con el reloj, los eventos y una línea por ruta.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Simulación a las ").append(Timetable.formatTime(clock / 60)).append(": ")
+                .append(getVehicleCount()).append(" vehículos, ").append(running).append(" en servicio, ")
+                .append(events).append(" eventos\n");
+        for (Node<RouteStats> node = getRouteStats().getHead(); node != null; node = node.getNext()) {
+            sb.append("  ").append(node.getData()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Instantánea inmutable de las posiciones: el vehículo i viaja de la parada from[i] a to[i] y lleva
+     * recorrida la fracción progress[i] del tramo.
+     */
+    public static class Frame {
+        public final int clock;
+        public final int count;
+        public final int[] from;
+        public final int[] to;
+        public final float[] progress;
+        private final int[] route;
+        private final Color[] routeColors;
+
+        public Frame(int clock, int count, int[] from, int[] to, float[] progress, int[] route, Color[] routeColors) {
+            this.clock = clock;
+            this.count = count;
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+            this.route = route;
+            this.routeColors = routeColors;
+        }
+
+        public Color getColor(int i) {
+            return routeColors[route[i]];
+        }
+    }
+
+    /**
+     * Resultados de una ruta: viajes, ocupación, frecuencia observada y agrupamientos.
+     */
+    public static class RouteStats {
+        private final int routeId;
+        private final int trips;
+        private final int completed;
+        private final long passengers;
+        private final double meanLoad;
+        private final int maxLoad;
+        private final double meanHeadway;
+        private final double headwayCv;
+        private final int bunching;
+
+        public RouteStats(int routeId, int trips, int completed, long passengers, double meanLoad, int maxLoad,
+                double meanHeadway, double headwayCv, int bunching) {
+            this.routeId = routeId;
+            this.trips = trips;
+            this.completed = completed;
+            this.passengers = passengers;
+            this.meanLoad = meanLoad;
+            this.maxLoad = maxLoad;
+            this.meanHeadway = meanHeadway;
+            this.headwayCv = headwayCv;
+            this.bunching = bunching;
+        }
+
+        public int getRouteId() {
+            return routeId;
+        }
+
+        public int getTrips() {
+            return trips;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public long getPassengers() {
+            return passengers;
+        }
+
+        public double getMeanLoad() {
+            return meanLoad;
+        }
+
+        public int getMaxLoad() {
+            return maxLoad;
+        }
+
+        public double getMeanHeadway() {
+            return meanHeadway;
+        }
+
+        public double getHeadwayCv() {
+            return headwayCv;
+        }
+
+        public int getBunching() {
+            return bunching;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Ruta %d: %d/%d viajes, %d pasajeros, ocupación media %.1f (máx %d), "
+                    + "frecuencia %.1f min (CV %.2f), %d agrupamientos",
+                    routeId, completed, trips, passengers, meanLoad, maxLoad, meanHeadway, headwayCv, bunching);
+        }
+    }
+}
@@ -2,13 +2,19 @@
  * Clase que representa un grafo para modelar las conexiones entre paradas.
  * Utiliza listas de adyacencia implementadas con CustomLinkedList<Pair<vecino, peso>> para aristas ponderadas.
  * Soporta adición/eliminación de vértices y aristas, rutas más cortas (Dijkstra) y más largas (backtracking).
- * Compone un arreglo de listas de adyacencia y constantes para límites.
+ * Compone un arreglo de listas de adyacencia, un índice hash de aristas (origen, destino) → nodo
+ * de adyacencia para consultas en O(1), y constantes para límites.
+ * Los pesos pueden actualizarse en vivo (tráfico, cierres); cada cambio incrementa un contador de versión
+ * y se notifica a los GraphListener registrados para que reparen sus estructuras derivadas.
  * @author Elian
  */
 package gestion_de_rutas_de_transporte.model;
 
 
 import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.LongHashMap;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
 import java.util.HashSet;
 import java.util.PriorityQueue;
 
@@ -17,108 +23,337 @@ import java.util.PriorityQueue;
 public class Graph {
     public static final int MAX_STOPS = 100;
     public CustomLinkedList<Pair<Integer, Integer>>[] adjacency;
+    private final LongHashMap<Node<Pair<Integer, Integer>>> edgeIndex = new LongHashMap<>();
+    private final CustomLinkedList<GraphListener> listeners = new CustomLinkedList<>();
     private int numStops;
+    private long version;
+    private CsrGraph snapshot;
+    private ConnectedComponents components;
 
     /**
-     * Constructor del grafo. Inicializa el arreglo de listas de adyacencia.
+     * Constructor del grafo. Inicializa el arreglo de listas de adyacencia con capacidad MAX_STOPS.
      */
-    @SuppressWarnings("unchecked")
     public Graph() {
-        adjacency = new CustomLinkedList[MAX_STOPS];
-        for (int i = 0; i < MAX_STOPS; i++) {
+        this(MAX_STOPS);
+    }
+
+    /**
+     * Constructor del grafo con capacidad explícita, para redes más grandes que MAX_STOPS.
+     * @param capacity Número máximo de paradas (IDs de 1 a capacity).
+     */
+    @SuppressWarnings("unchecked")
+    public Graph(int capacity) {
+        adjacency = new CustomLinkedList[capacity];
+        for (int i = 0; i < capacity; i++) {
             adjacency[i] = new CustomLinkedList<>();
         }
         numStops = 0;
     }
 
+    /**
+     * Obtiene la capacidad del grafo (ID máximo de parada admitido).
+     * @return Capacidad.
+     */
+    public int getCapacity() {
+        return adjacency.length;
+    }
+
+    /**
+     * Obtiene el mayor ID de parada registrado.
+     * @return Número de paradas.
+     */
+    public int getNumStops() {
+        return numStops;
+    }
+
+    /**
+     * Obtiene la versión del grafo; cambia con cualquier modificación de aristas o pesos.
+     * @return Versión actual.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Obtiene una instantánea CSR inmutable del grafo. Se reutiliza mientras la versión no cambie.
+     * @return Instantánea del grafo.
+     */
+    public CsrGraph snapshot() {
+        if (snapshot == null || snapshot.getVersion() != version || snapshot.getNumStops() != numStops) {
+            snapshot = new CsrGraph(this);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Obtiene el índice de componentes conexas, creándolo en la primera llamada.
+     * Permite descartar en O(1) los pares de paradas sin conexión antes de buscar un camino.
+     * @return Componentes del grafo.
+     */
+    public ConnectedComponents getComponents() {
+        if (components == null) {
+            components = new ConnectedComponents(this);
+        }
+        return components;
+    }
+
+    /**
+     * Registra un observador de cambios en las aristas.
+     * @param listener Observador a registrar.
+     */
+    public void addListener(GraphListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Elimina un observador registrado.
+     * @param listener Observador a eliminar.
+     * @return true si estaba registrado.
+     */
+    public boolean removeListener(GraphListener listener) {
+        return listeners.remove(listener);
+    }
+
     /**
      * Elimina una parada (vértice) y todas las aristas conectadas a ella.
+     * Solo recorre los vecinos de la parada eliminada; cada arista inversa se borra en O(1) mediante el índice.
      * @param id ID de la parada a eliminar.
      */
     public void removeStop(int id) {
-    if (id < 1 || id > MAX_STOPS) return;
-    
-    // Limpiar lista de adyacencia del vértice eliminado
-    adjacency[id - 1].clear();
-    
-    // Eliminar todas las aristas que apuntaban a este vértice desde otros
-    for (int i = 0; i < MAX_STOPS; i++) {
-        Node<Pair<Integer, Integer>> current = adjacency[i].head;
-        Node<Pair<Integer, Integer>> previous = null;
-        
+        if (id < 1 || id > adjacency.length) return;
+
+        // Eliminar las aristas inversas desde cada vecino hacia este vértice
+        Node<Pair<Integer, Integer>> removed = adjacency[id - 1].head;
+        Node<Pair<Integer, Integer>> current = removed;
         while (current != null) {
-            if (current.getData().first == id) {
-                if (previous == null) {
-                    adjacency[i].head = current.getNext();
-                } else {
-                    previous.setNext(current.getNext());
-                }
-                break; // Solo puede haber una arista por par
+            int neighbor = current.getData().first;
+            Node<Pair<Integer, Integer>> back = edgeIndex.remove(edgeKey(neighbor, id));
+            if (back != null) {
+                unlink(neighbor, back);
             }
-            previous = current;
+            edgeIndex.remove(edgeKey(id, neighbor));
+            current = current.getNext();
+        }
+
+        // Limpiar lista de adyacencia del vértice eliminado
+        adjacency[id - 1].clear();
+
+        // Notificar con el grafo ya consistente
+        if (removed != null) {
+            version++;
+        }
+        current = removed;
+        while (current != null) {
+            fireEdgeChanged(id, current.getData().first, current.getData().second, -1);
             current = current.getNext();
         }
     }
-}
-    
+
     /**
      * Agrega una parada (vértice) al grafo.
      * @param id ID de la parada.
      */
     public void addStop(int id) {
-        if (id > 0 && id <= MAX_STOPS) {
+        if (id > 0 && id <= adjacency.length) {
             numStops = Math.max(numStops, id);
         }
     }
 
     /**
      * Agrega una arista ponderada no dirigida entre dos paradas, evitando duplicados.
+     * Si la arista ya existe se conserva el menor peso en ambas direcciones.
+     * Los pesos deben ser positivos: Dijkstra y los índices derivados asumen que ningún tramo cuesta 0 o menos,
+     * así que esas aristas se ignoran.
      * @param from ID de origen.
      * @param to ID de destino.
-     * @param peso Peso de la arista.
+     * @param peso Peso de la arista (mayor que 0).
      */
     public void addEdge(int from, int to, int peso) {
-    if (from < 1 || from > numStops || to < 1 || to > numStops || from == to) {
-        return;
-    }
+        if (from < 1 || from > numStops || to < 1 || to > numStops || from == to || peso <= 0) {
+            return;
+        }
 
-    // Verificar si ya existe la arista from → to
-    Node<Pair<Integer, Integer>> current = adjacency[from - 1].head;
-    while (current != null) {
-        if (current.getData().first == to) {
-            // Ya existe: opcionalmente actualizar al menor peso (por si acaso)
-            if (peso < current.getData().second) {
-                current.getData().second = peso;
+        // Verificar si ya existe la arista from → to
+        Node<Pair<Integer, Integer>> existing = edgeIndex.get(edgeKey(from, to));
+        if (existing != null) {
+            // Ya existe: actualizar al menor peso
+            int oldWeight = existing.getData().second;
+            if (peso < oldWeight) {
+                existing.getData().second = peso;
                 // También actualizar la dirección inversa
                 updateReverseWeight(to, from, peso);
+                version++;
+                fireEdgeChanged(from, to, oldWeight, peso);
             }
             return; // No añadir duplicada
         }
-        current = current.getNext();
+
+        // No existe → añadir en ambas direcciones
+        appendEdge(from, to, peso);
+        appendEdge(to, from, peso);
+        version++;
+        fireEdgeChanged(from, to, -1, peso);
     }
 
-    // No existe → añadir en ambas direcciones
-    adjacency[from - 1].add(new Pair<>(to, peso));
-    adjacency[to - 1].add(new Pair<>(from, peso));
-}
+    /**
+     * Cambia el peso de una arista existente en ambas direcciones (por ejemplo, por congestión).
+     * A diferencia de addEdge, el peso puede subir o bajar. Para un cierre usar removeEdge.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @param peso Nuevo peso (mayor que 0).
+     * @return true si la arista existía y el peso es válido.
+     */
+    public boolean setWeight(int from, int to, int peso) {
+        if (peso <= 0) return false;
+        Node<Pair<Integer, Integer>> existing = edgeIndex.get(edgeKey(from, to));
+        if (existing == null) return false;
+        int oldWeight = existing.getData().second;
+        if (oldWeight != peso) {
+            existing.getData().second = peso;
+            updateReverseWeight(to, from, peso);
+            version++;
+            fireEdgeChanged(from, to, oldWeight, peso);
+        }
+        return true;
+    }
 
-    
-/**
-* Actualiza el peso de la arista inversa.
-* @param from ID de origen inverso.
-* @param to ID de destino inverso.
-* @param newWeight Nuevo peso.
-*/
-private void updateReverseWeight(int from, int to, int newWeight) {
-    Node<Pair<Integer, Integer>> current = adjacency[from - 1].head;
-    while (current != null) {
-        if (current.getData().first == to) {
-            current.getData().second = newWeight;
-            break;
-        }
-        current = current.getNext();
+    /**
+     * Elimina la arista no dirigida entre dos paradas.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return true si la arista existía.
+     */
+    public boolean removeEdge(int from, int to) {
+        Node<Pair<Integer, Integer>> forward = edgeIndex.remove(edgeKey(from, to));
+        if (forward == null) return false;
+        int oldWeight = forward.getData().second;
+        unlink(from, forward);
+        Node<Pair<Integer, Integer>> backward = edgeIndex.remove(edgeKey(to, from));
+        if (backward != null) {
+            unlink(to, backward);
+        }
+        version++;
+        fireEdgeChanged(from, to, oldWeight, -1);
+        return true;
+    }
+
+    /**
+     * Verifica si existe la arista entre dos paradas.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return true si existe.
+     */
+    public boolean hasEdge(int from, int to) {
+        return edgeIndex.containsKey(edgeKey(from, to));
+    }
+
+    /**
+     * Obtiene el peso de la arista entre dos paradas.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return Peso de la arista o -1 si no existe.
+     */
+    public int getWeight(int from, int to) {
+        Node<Pair<Integer, Integer>> node = edgeIndex.get(edgeKey(from, to));
+        return node != null ? node.getData().second : -1;
+    }
+
+    /**
+     * Fusiona una arista dirigida durante una carga masiva: la agrega si no existe o conserva el menor peso.
+     * La dirección inversa la aporta el propio constructor masivo; se notifica al fusionar la segunda
+     * dirección (from &gt; to), cuando la arista ya es simétrica.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @param peso Peso de la arista.
+     */
+    void mergeDirectedEdge(int from, int to, int peso) {
+        Node<Pair<Integer, Integer>> existing = edgeIndex.get(edgeKey(from, to));
+        if (existing == null) {
+            appendEdge(from, to, peso);
+            version++;
+            if (from > to) fireEdgeChanged(from, to, -1, peso);
+        } else if (peso < existing.getData().second) {
+            int oldWeight = existing.getData().second;
+            existing.getData().second = peso;
+            version++;
+            if (from > to) fireEdgeChanged(from, to, oldWeight, peso);
+        }
+    }
+
+    /**
+     * Reserva espacio en el índice de aristas antes de una carga masiva.
+     * @param directedEdges Número de aristas dirigidas esperadas.
+     */
+    void reserveEdges(int directedEdges) {
+        edgeIndex.ensureCapacity(edgeIndex.size() + directedEdges);
+    }
+
+    /**
+     * Actualiza el peso de la arista inversa.
+     * @param from ID de origen inverso.
+     * @param to ID de destino inverso.
+     * @param newWeight Nuevo peso.
+     */
+    private void updateReverseWeight(int from, int to, int newWeight) {
+        Node<Pair<Integer, Integer>> reverse = edgeIndex.get(edgeKey(from, to));
+        if (reverse != null) {
+            reverse.getData().second = newWeight;
+        }
+    }
+
+    /**
+     * Agrega una arista dirigida al final de la lista de adyacencia y la registra en el índice.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @param peso Peso de la arista.
+     */
+    private void appendEdge(int from, int to, int peso) {
+        adjacency[from - 1].add(new Pair<>(to, peso));
+        edgeIndex.put(edgeKey(from, to), adjacency[from - 1].getTail());
+    }
+
+    /**
+     * Desenlaza un nodo de la lista de adyacencia de un vértice en O(1).
+     * Copia el dato de la cabeza sobre el nodo a borrar y elimina la cabeza, actualizando el índice
+     * de la arista que cambió de nodo. El orden de la lista puede variar.
+     * @param owner ID del vértice dueño de la lista.
+     * @param node Nodo a desenlazar (ya eliminado del índice).
+     */
+    private void unlink(int owner, Node<Pair<Integer, Integer>> node) {
+        CustomLinkedList<Pair<Integer, Integer>> list = adjacency[owner - 1];
+        Node<Pair<Integer, Integer>> head = list.getHead();
+        if (head != node) {
+            Pair<Integer, Integer> moved = head.getData();
+            node.setData(moved);
+            edgeIndex.put(edgeKey(owner, moved.first), node);
+        }
+        list.removeFirst();
+    }
+
+    /**
+     * Notifica a los observadores el cambio de una arista.
+     * @param from ID de un extremo.
+     * @param to ID del otro extremo.
+     * @param oldWeight Peso anterior o -1.
+     * @param newWeight Peso nuevo o -1.
+     */
+    private void fireEdgeChanged(int from, int to, int oldWeight, int newWeight) {
+        Node<GraphListener> current = listeners.head;
+        while (current != null) {
+            current.getData().edgeChanged(from, to, oldWeight, newWeight);
+            current = current.getNext();
+        }
+    }
+
+    /**
+     * Empaqueta el par (origen, destino) en una clave long para el índice de aristas.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return Clave empaquetada.
+     */
+    private static long edgeKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
     }
-}
 
     // Ruta más corta usando Dijkstra
     /**
@@ -128,13 +363,16 @@ private void updateReverseWeight(int from, int to, int newWeight) {
      * @return Lista de IDs en la ruta o lista vacía si no hay ruta.
      */
     public CustomLinkedList<Integer> findPath(int start, int end) {
-        if (start < 1 || start > numStops || end < 1 || end > numStops) {
+        if (start < 1 || start > numStops || end < 1 || end > numStops || !getComponents().connected(start, end)) {
             return new CustomLinkedList<>();
         }
 
-        int[] dist = new int[MAX_STOPS];
-        int[] parent = new int[MAX_STOPS];
-        for (int i = 0; i < MAX_STOPS; i++) {
+        OperationEvent trace = Metrics.begin(Metrics.FIND_PATH);
+        long settled = 0;
+        long relaxed = 0;
+        int[] dist = new int[adjacency.length];
+        int[] parent = new int[adjacency.length];
+        for (int i = 0; i < adjacency.length; i++) {
             dist[i] = Integer.MAX_VALUE;
             parent[i] = -1;
         }
@@ -147,12 +385,14 @@ private void updateReverseWeight(int from, int to, int newWeight) {
             Pair<Integer, Integer> top = pq.poll();
             int current = top.first;
             if (top.second > dist[current - 1]) continue;
+            settled++;
 
             Node<Pair<Integer, Integer>> neighbor = adjacency[current - 1].head;
             while (neighbor != null) {
                 Pair<Integer, Integer> neigh = neighbor.getData();
                 int neighId = neigh.first;
                 int weight = neigh.second;
+                relaxed++;
                 int newDist = dist[current - 1] + weight;
                 if (newDist < dist[neighId - 1]) {
                     dist[neighId - 1] = newDist;
@@ -170,12 +410,13 @@ private void updateReverseWeight(int from, int to, int newWeight) {
             current = parent[current - 1];
         }
 
-        if (path.getAt(path.getSize() - 1) != start) return new CustomLinkedList<>();
-
         CustomLinkedList<Integer> reversedPath = new CustomLinkedList<>();
-        for (int i = path.getSize() - 1; i >= 0; i--) {
-            reversedPath.add(path.getAt(i));
+        if (path.getAt(path.getSize() - 1) == start) {
+            for (int i = path.getSize() - 1; i >= 0; i--) {
+                reversedPath.add(path.getAt(i));
+            }
         }
+        Metrics.end(trace, settled, relaxed);
         return reversedPath;
     }
 
@@ -187,10 +428,14 @@ private void updateReverseWeight(int from, int to, int newWeight) {
      */
     public CustomLinkedList<Integer> longestPath(int origen, int destino) {
         CustomLinkedList<Integer> maxPath = new CustomLinkedList<>();
+        if (!getComponents().connected(origen, destino)) return maxPath;  // Evita enumerar todos los caminos
         int[] maxWeight = {Integer.MIN_VALUE};
         CustomLinkedList<Integer> path = new CustomLinkedList<>();
         HashSet<Integer> visited = new HashSet<>();
-        findLongestPath(origen, destino, visited, path, 0, maxPath, maxWeight);
+        long[] counters = {0, 0};  // {vértices visitados, aristas examinadas}
+        OperationEvent trace = Metrics.begin(Metrics.LONGEST_PATH);
+        findLongestPath(origen, destino, visited, path, 0, maxPath, maxWeight, counters);
+        Metrics.end(trace, counters[0], counters[1]);
         return maxPath;
     }
 
@@ -203,9 +448,11 @@ private void updateReverseWeight(int from, int to, int newWeight) {
      * @param currentWeight Peso actual.
      * @param maxPath Ruta máxima encontrada.
      * @param maxWeight Peso máximo.
+     * @param counters Contadores de vértices visitados y aristas examinadas.
      */
     private void findLongestPath(int current, int dest, HashSet<Integer> visited, CustomLinkedList<Integer> path, int currentWeight,
-                                 CustomLinkedList<Integer> maxPath, int[] maxWeight) {
+                                 CustomLinkedList<Integer> maxPath, int[] maxWeight, long[] counters) {
+        counters[0]++;
         visited.add(current);
         path.add(current);
 
@@ -227,8 +474,9 @@ private void updateReverseWeight(int from, int to, int newWeight) {
             Pair<Integer, Integer> neigh = neighbor.getData();
             int neighId = neigh.first;
             int weight = neigh.second;
+            counters[1]++;
             if (!visited.contains(neighId)) {
-                findLongestPath(neighId, dest, visited, path, currentWeight + weight, maxPath, maxWeight);
+                findLongestPath(neighId, dest, visited, path, currentWeight + weight, maxPath, maxWeight, counters);
             }
             neighbor = neighbor.getNext();
         }
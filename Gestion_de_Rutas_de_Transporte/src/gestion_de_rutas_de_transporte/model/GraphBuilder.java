@@ -0,0 +1,165 @@
+/**
+ * Clase que construye un grafo de forma masiva a partir de muchas aristas.
+ * Acumula las aristas en arreglos primitivos, las ordena por (origen, destino, peso) con un ordenamiento
+ * por conteo del origen seguido de un ordenamiento por cubeta, y elimina duplicados conservando el menor
+ * peso (igual que Graph.addEdge). Las listas de adyacencia finales se emiten en una sola pasada lineal.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import java.util.Arrays;
+
+
+public class GraphBuilder implements EdgeSource {
+    private int[] froms;
+    private int[] tos;
+    private int[] weights;
+    private int count;
+    private int maxStop;
+
+    /**
+     * Constructor del constructor masivo con capacidad inicial por defecto.
+     */
+    public GraphBuilder() {
+        this(16);
+    }
+
+    /**
+     * Constructor con número esperado de aristas.
+     * @param expectedEdges Aristas no dirigidas esperadas.
+     */
+    public GraphBuilder(int expectedEdges) {
+        int capacity = Math.max(16, expectedEdges);
+        froms = new int[capacity];
+        tos = new int[capacity];
+        weights = new int[capacity];
+        count = 0;
+        maxStop = 0;
+    }
+
+    /**
+     * Agrega una arista ponderada no dirigida. Los lazos, los IDs no positivos y los pesos no positivos
+     * se ignoran, como en Graph.addEdge.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @param peso Peso de la arista.
+     */
+    public void addEdge(int from, int to, int peso) {
+        if (from < 1 || to < 1 || from == to || peso <= 0) return;
+        if (count == froms.length) {
+            int capacity = froms.length << 1;
+            froms = Arrays.copyOf(froms, capacity);
+            tos = Arrays.copyOf(tos, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        froms[count] = from;
+        tos[count] = to;
+        weights[count] = peso;
+        count++;
+        maxStop = Math.max(maxStop, Math.max(from, to));
+    }
+
+    /**
+     * Obtiene el número de aristas acumuladas (antes de eliminar duplicados).
+     * @return Número de aristas.
+     */
+    public int getEdgeCount() {
+        return count;
+    }
+
+    /**
+     * Entrega las aristas acumuladas, declarando las paradas hasta el mayor ID referenciado (como build).
+     * @param sink Destino de las paradas y aristas.
+     */
+    @Override
+    public void forEach(EdgeSink sink) {
+        if (maxStop > 0) sink.stop(maxStop);
+        for (int i = 0; i < count; i++) {
+            sink.edge(froms[i], tos[i], weights[i]);
+        }
+    }
+
+    /**
+     * Construye un grafo nuevo con capacidad suficiente para todas las paradas referenciadas.
+     * @return Grafo construido.
+     */
+    public Graph build() {
+        Graph graph = new Graph(Math.max(Graph.MAX_STOPS, maxStop));
+        graph.addStop(maxStop);
+        buildInto(graph);
+        return graph;
+    }
+
+    /**
+     * Vuelca las aristas acumuladas en un grafo existente y vacía el constructor.
+     * Igual que Graph.addEdge, se descartan aristas con paradas no registradas en el grafo.
+     * @param graph Grafo destino.
+     */
+    public void buildInto(Graph graph) {
+        int numStops = graph.getNumStops();
+
+        // Conteo por origen, considerando ambas direcciones de cada arista
+        int[] start = new int[numStops + 2];
+        for (int i = 0; i < count; i++) {
+            if (froms[i] <= numStops && tos[i] <= numStops) {
+                start[froms[i] + 1]++;
+                start[tos[i] + 1]++;
+            }
+        }
+        for (int v = 1; v <= numStops + 1; v++) {
+            start[v] += start[v - 1];
+        }
+        int total = start[numStops + 1];
+
+        // Distribuir en cubetas por origen: clave = (destino, peso) empaquetados
+        long[] keys = new long[total];
+        int[] fill = Arrays.copyOf(start, numStops + 1);
+        for (int i = 0; i < count; i++) {
+            int from = froms[i];
+            int to = tos[i];
+            if (from <= numStops && to <= numStops) {
+                keys[fill[from]++] = pack(to, weights[i]);
+                keys[fill[to]++] = pack(from, weights[i]);
+            }
+        }
+
+        // Ordenar cada cubeta y emitir sin duplicados (el primero de cada destino tiene el menor peso)
+        graph.reserveEdges(total);
+        for (int v = 1; v <= numStops; v++) {
+            int from = start[v];
+            int to = start[v + 1];
+            if (to - from > 1) {
+                Arrays.sort(keys, from, to);
+            }
+            int previous = -1;
+            for (int k = from; k < to; k++) {
+                int target = (int) (keys[k] >>> 32);
+                if (target != previous) {
+                    graph.mergeDirectedEdge(v, target, unpackWeight(keys[k]));
+                    previous = target;
+                }
+            }
+        }
+        count = 0;
+        maxStop = 0;
+    }
+
+    /**
+     * Empaqueta destino y peso en una clave que ordena por destino y luego por peso (con signo).
+     * @param to ID de destino.
+     * @param peso Peso.
+     * @return Clave empaquetada.
+     */
+    static long pack(int to, int peso) {
+        return ((long) to << 32) | ((peso ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Recupera el peso de una clave empaquetada.
+     * @param key Clave.
+     * @return Peso.
+     */
+    static int unpackWeight(long key) {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+}
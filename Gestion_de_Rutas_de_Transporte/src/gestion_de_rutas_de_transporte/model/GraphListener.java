@@ -0,0 +1,20 @@
+/**
+ * Interfaz para observar cambios en las aristas del grafo.
+ * La implementan las estructuras derivadas (árboles de caminos mínimos, índices) que se reparan
+ * de forma incremental en lugar de recalcularse desde cero.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+
+public interface GraphListener {
+    /**
+     * Notifica que cambió una arista no dirigida. Un peso de -1 indica que la arista no existe
+     * (oldWeight = -1 es una arista nueva, newWeight = -1 es una arista eliminada o cerrada).
+     * @param from ID de un extremo.
+     * @param to ID del otro extremo.
+     * @param oldWeight Peso anterior o -1.
+     * @param newWeight Peso nuevo o -1.
+     */
+    void edgeChanged(int from, int to, int oldWeight, int newWeight);
+}
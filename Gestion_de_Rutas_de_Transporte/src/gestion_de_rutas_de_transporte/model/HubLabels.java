@@ -0,0 +1,409 @@
+/**
+ * Clase que responde la distancia mínima entre dos paradas sin buscar caminos, mediante etiquetas de 2 saltos
+ * (hub labeling). Cada parada guarda una etiqueta: pares (hub, distancia) ordenados por hub, de modo que para
+ * cualquier par s, t algún hub común está sobre un camino mínimo y d(s, t) = mín(d(s, h) + d(h, t)).
+ * Una consulta es una mezcla de dos arreglos ordenados cortos, sin reservar memoria.
+ * Las etiquetas se construyen con pruned landmark labeling (Akiba et al.): se recorre cada parada en orden
+ * de importancia con un Dijkstra que se poda donde las etiquetas ya existentes dan la distancia. La importancia
+ * es la centralidad de intermediación estimada con una muestra de orígenes: las paradas por las que pasan más
+ * caminos mínimos cubren más pares y las etiquetas quedan mucho más cortas que ordenando por grado
+ * (en una cuadrícula, los hubs quedan en las líneas centrales en lugar de repartirse por igual).
+ * Todas las etiquetas viven en un único int[] intercalado [hub, distancia, hub, distancia, ...] y las de la
+ * parada id ocupan los pares [offsets[id-1], offsets[id]).
+ * El índice es inmutable y solo responde si se construyó con la versión actual del grafo. Si no, la consulta
+ * devuelve NOT_READY y pide una reconstrucción en un hilo de fondo, así la interfaz nunca espera. Hay una
+ * construcción a la vez y los pedidos que llegan durante ella se descartan: si el grafo cambió mientras tanto,
+ * el índice publicado ya nace desactualizado y la siguiente consulta pide otra con la instantánea más reciente
+ * (la instantánea solo puede tomarse en el hilo que modifica el grafo, no en el de fondo).
+ * Si las etiquetas superan MAX_ENTRIES la construcción se abandona y esa versión del grafo queda sin índice.
+ * Se guarda en un archivo junto al de datos (hubs y distancias como enteros de longitud variable, con los
+ * hubs en diferencias) y se reutiliza si la huella del grafo coincide.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+public class HubLabels {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    public static final int NOT_READY = -1;
+    public static final int ORDER_SAMPLES = 256;  // Orígenes de la centralidad que ordena las paradas
+    public static final long MAX_ENTRIES = 50_000_000L;  // 400 MB de etiquetas
+    private static final int MAGIC = 0x4C425548;  // "HUBL"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 24;  // MAGIC, FORMAT, vértices, entradas, huella (8 bytes)
+
+    private final Graph graph;
+    private final AtomicBoolean building = new AtomicBoolean();
+    private volatile Labels labels;  // null hasta la primera construcción o carga
+    private volatile boolean modified;
+    private volatile Thread builder;
+    private volatile long abandonedVersion = -1;  // Versión cuyas etiquetas superaron MAX_ENTRIES
+
+    /**
+     * Constructor del índice. Las etiquetas se construyen en segundo plano después de la primera consulta.
+     * @param graph Grafo indexado.
+     */
+    public HubLabels(Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Crea el índice y carga las etiquetas guardadas si corresponden al grafo actual.
+     * @param graph Grafo indexado.
+     * @param file Archivo del índice.
+     * @return Índice.
+     */
+    public static HubLabels open(Graph graph, Path file) {
+        HubLabels index = new HubLabels(graph);
+        if (Files.exists(file)) {
+            try {
+                index.load(file);
+            } catch (IOException e) {
+                System.out.println("No se pudo leer el índice de distancias: " + e.getMessage());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Indica si el índice corresponde a la versión actual del grafo. Debe llamarse desde el hilo que modifica
+     * el grafo.
+     * @return true si las consultas responden.
+     */
+    public boolean isReady() {
+        Labels current = labels;
+        return current != null && current.version == graph.getVersion();
+    }
+
+    /**
+     * Obtiene la distancia mínima entre dos paradas. Debe llamarse desde el hilo que modifica el grafo.
+     * @param s ID de una parada.
+     * @param t ID de la otra parada.
+     * @return Distancia; UNREACHABLE si no hay camino o algún ID no es válido; NOT_READY si el índice no
+     *         corresponde al grafo actual (en ese caso se pide la reconstrucción en segundo plano).
+     */
+    public int distance(int s, int t) {
+        Labels current = labels;
+        if (current == null || current.version != graph.getVersion()) {
+            requestRebuild();
+            return NOT_READY;
+        }
+        int[] offsets = current.offsets;
+        int n = offsets.length - 1;
+        if (s < 1 || s > n || t < 1 || t > n) return UNREACHABLE;
+        if (s == t) return 0;
+        int[] l = current.labels;
+        int i = offsets[s - 1] << 1, iEnd = offsets[s] << 1;
+        int j = offsets[t - 1] << 1, jEnd = offsets[t] << 1;
+        int best = UNREACHABLE;
+        while (i < iEnd && j < jEnd) {
+            int hi = l[i], hj = l[j];
+            if (hi == hj) {
+                int d = l[i + 1] + l[j + 1];
+                if (d < best) best = d;
+                i += 2;
+                j += 2;
+            } else if (hi < hj) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Obtiene el número total de pares (hub, distancia) del último índice construido o cargado.
+     * @return Entradas, o 0 si todavía no hay índice.
+     */
+    public int getEntryCount() {
+        Labels current = labels;
+        return current != null ? current.labels.length / 2 : 0;
+    }
+
+    /**
+     * Indica si el índice cambió desde que se cargó o guardó.
+     * @return true si conviene volver a guardarlo.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Espera a que el índice corresponda al grafo actual, pidiendo la reconstrucción si hace falta.
+     * Pensado para usos sin interfaz; debe llamarse desde el hilo que modifica el grafo.
+     * @param timeoutMillis Tiempo máximo de espera.
+     * @return true si el índice quedó listo.
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public boolean awaitReady(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!isReady()) {
+            if (abandonedVersion == graph.getVersion()) return false;
+            requestRebuild();
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return false;
+            builder.join(left);
+        }
+        return true;
+    }
+
+    /**
+     * Inicia una reconstrucción en segundo plano si no hay otra en curso. La instantánea se toma aquí, en el
+     * hilo que modifica el grafo; el hilo de fondo solo lee la instantánea, que es inmutable.
+     */
+    private void requestRebuild() {
+        if (abandonedVersion == graph.getVersion() || !building.compareAndSet(false, true)) return;
+        CsrGraph csr = graph.snapshot();
+        Thread thread = new Thread(() -> {
+            try {
+                Labels built = build(csr, graph);
+                if (built != null) {
+                    labels = built;
+                    modified = true;
+                } else {
+                    abandonedVersion = csr.getVersion();
+                }
+            } finally {
+                building.set(false);
+            }
+        }, "hub-labels");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        builder = thread;
+        thread.start();
+    }
+
+    /**
+     * Construye las etiquetas con pruned landmark labeling sobre una instantánea.
+     * @return Etiquetas, o null si superan MAX_ENTRIES.
+     */
+    static Labels build(CsrGraph csr, Graph graph) {
+        OperationEvent trace = Metrics.begin(Metrics.HUB_LABELS);
+        int n = csr.getVertexCount();
+        int[] order = vertexOrder(csr, graph);
+        int active = order.length;
+
+        int[][] hubs = new int[n][];
+        int[][] dists = new int[n][];
+        int[] sizes = new int[n];
+        int[] dist = new int[n];
+        int[] rootDist = new int[active];  // Etiqueta de la raíz indexada por rango de hub
+        int[] touched = new int[n];
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(rootDist, UNREACHABLE);
+        IntMinHeap heap = new IntMinHeap();
+        long entries = 0;
+
+        for (int rank = 0; rank < active; rank++) {
+            int root = order[rank];
+            for (int k = 0; k < sizes[root - 1]; k++) {
+                rootDist[hubs[root - 1][k]] = dists[root - 1][k];
+            }
+            int touchedCount = 0;
+            dist[root - 1] = 0;
+            touched[touchedCount++] = root;
+            heap.clear();
+            heap.push(0, root);
+            while (!heap.isEmpty()) {
+                int d = heap.peekKey();
+                int u = heap.poll();
+                if (d > dist[u - 1]) continue;
+                if (prunedDistance(hubs[u - 1], dists[u - 1], sizes[u - 1], rootDist) <= d) continue;
+                entries++;
+                // Agregar (rank, d) a la etiqueta de u; los rangos llegan en orden creciente
+                if (hubs[u - 1] == null) {
+                    hubs[u - 1] = new int[4];
+                    dists[u - 1] = new int[4];
+                } else if (sizes[u - 1] == hubs[u - 1].length) {
+                    hubs[u - 1] = Arrays.copyOf(hubs[u - 1], sizes[u - 1] * 2);
+                    dists[u - 1] = Arrays.copyOf(dists[u - 1], sizes[u - 1] * 2);
+                }
+                hubs[u - 1][sizes[u - 1]] = rank;
+                dists[u - 1][sizes[u - 1]++] = d;
+                for (int e = csr.offsets[u - 1]; e < csr.offsets[u]; e++) {
+                    int w = csr.targets[e];
+                    int candidate = d + csr.weights[e];
+                    if (candidate < dist[w - 1]) {
+                        if (dist[w - 1] == UNREACHABLE) touched[touchedCount++] = w;
+                        dist[w - 1] = candidate;
+                        heap.push(candidate, w);
+                    }
+                }
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i] - 1] = UNREACHABLE;
+            }
+            for (int k = 0; k < sizes[root - 1]; k++) {
+                rootDist[hubs[root - 1][k]] = UNREACHABLE;
+            }
+            if (entries > MAX_ENTRIES) {
+                Metrics.end(trace, entries, 0);
+                System.out.println("Índice de distancias abandonado: más de " + MAX_ENTRIES + " etiquetas");
+                return null;
+            }
+        }
+
+        // Aplanar en un solo arreglo intercalado
+        int[] flatOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            flatOffsets[v + 1] = flatOffsets[v] + sizes[v];
+        }
+        int[] flat = new int[flatOffsets[n] * 2];
+        for (int v = 0; v < n; v++) {
+            int at = flatOffsets[v] * 2;
+            for (int k = 0; k < sizes[v]; k++) {
+                flat[at++] = hubs[v][k];
+                flat[at++] = dists[v][k];
+            }
+        }
+        Metrics.end(trace, entries, 0);
+        return new Labels(flatOffsets, flat, csr.fingerprint(), csr.getVersion());
+    }
+
+    /**
+     * Ordena las paradas con aristas por centralidad estimada decreciente; los empates, por grado.
+     */
+    private static int[] vertexOrder(CsrGraph csr, Graph graph) {
+        int n = csr.getVertexCount();
+        double[] scores = new BetweennessCentrality(graph).computeSampled(csr, ORDER_SAMPLES, 48);
+        Integer[] boxed = new Integer[n];
+        int active = 0;
+        for (int v = 1; v <= n; v++) {
+            if (csr.degree(v) > 0) boxed[active++] = v;
+        }
+        Arrays.sort(boxed, 0, active, (a, b) -> {
+            int byScore = Double.compare(scores[b - 1], scores[a - 1]);
+            return byScore != 0 ? byScore : Integer.compare(csr.degree(b), csr.degree(a));
+        });
+        int[] order = new int[active];
+        for (int i = 0; i < active; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    /**
+     * Distancia entre la raíz actual y una parada según las etiquetas ya construidas.
+     */
+    private static int prunedDistance(int[] hubs, int[] dists, int size, int[] rootDist) {
+        int best = UNREACHABLE;
+        for (int k = 0; k < size; k++) {
+            int r = rootDist[hubs[k]];
+            if (r != UNREACHABLE && r + dists[k] < best) best = r + dists[k];
+        }
+        return best;
+    }
+
+    /**
+     * Guarda el último índice construido o cargado (su huella indica a qué grafo corresponde): cabecera
+     * little-endian [MAGIC, FORMAT, vértices, entradas, huella], y por parada el tamaño de su etiqueta y sus
+     * pares (diferencia con el hub anterior, distancia) como enteros de longitud variable (7 bits por byte).
+     * @param file Archivo destino.
+     * @throws IOException Si falla la escritura.
+     */
+    public void save(Path file) throws IOException {
+        Labels current = labels;
+        if (current == null) return;
+        int[] offsets = current.offsets;
+        int[] labels = current.labels;
+        int n = offsets.length - 1;
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + 5 * (n + labels.length)).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT).putInt(n).putInt(labels.length / 2).putLong(current.fingerprint);
+        for (int v = 0; v < n; v++) {
+            putVarint(out, offsets[v + 1] - offsets[v]);
+            int previous = 0;
+            for (int i = offsets[v] * 2; i < offsets[v + 1] * 2; i += 2) {
+                putVarint(out, labels[i] - previous);
+                putVarint(out, labels[i + 1]);
+                previous = labels[i];
+            }
+        }
+        Files.write(file, Arrays.copyOf(out.array(), out.position()));
+        modified = false;
+    }
+
+    /**
+     * Carga un índice guardado si su huella coincide con el grafo actual; si no, se ignora y se reconstruye
+     * después de la primera consulta.
+     * @param file Archivo del índice.
+     * @throws IOException Si el archivo no se puede leer o no tiene el formato esperado.
+     */
+    private void load(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC || in.getInt() != FORMAT) {
+            throw new IOException("Formato de índice de distancias desconocido: " + file);
+        }
+        int n = in.getInt();
+        int entries = in.getInt();
+        long saved = in.getLong();
+        CsrGraph csr = graph.snapshot();
+        if (n != csr.getVertexCount() || saved != csr.fingerprint()) return;
+        if (entries < 0) throw new IOException("Índice de distancias dañado: " + file);
+        try {
+            int[] loadedOffsets = new int[n + 1];
+            int[] loaded = new int[entries * 2];
+            int at = 0;
+            for (int v = 0; v < n; v++) {
+                int size = getVarint(in);
+                int hub = 0;
+                for (int k = 0; k < size; k++) {
+                    hub += getVarint(in);
+                    loaded[at++] = hub;
+                    loaded[at++] = getVarint(in);
+                }
+                loadedOffsets[v + 1] = at / 2;
+            }
+            if (at != loaded.length) throw new IOException("Índice de distancias incompleto: " + file);
+            labels = new Labels(loadedOffsets, loaded, saved, csr.getVersion());
+        } catch (RuntimeException e) {
+            throw new IOException("Índice de distancias dañado: " + file, e);
+        }
+    }
+
+    private static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    /**
+     * Etiquetas construidas para una versión del grafo. Inmutables: se publican completas al terminar la
+     * construcción y las consultas nunca ven un índice a medias.
+     */
+    static class Labels {
+        final int[] offsets;
+        final int[] labels;
+        final long fingerprint;
+        final long version;
+
+        Labels(int[] offsets, int[] labels, long fingerprint, long version) {
+            this.offsets = offsets;
+            this.labels = labels;
+            this.fingerprint = fingerprint;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Clase que representa un viaje en la red de rutas: las paradas recorridas, la ruta usada para llegar a cada
+ * una y sus criterios (costo, paradas recorridas y transbordos).
+ * Es el resultado de la búsqueda multicriterio, que devuelve todos los viajes no dominados (frente de Pareto).
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import java.util.Arrays;
+
+
+public class Journey extends WeightedPath {
+    private final int[] routes;
+    private final int hops;
+    private final int transfers;
+
+    /**
+     * Constructor del viaje.
+     * @param stops IDs de las paradas en orden.
+     * @param routes ID de la ruta usada para llegar a cada parada (en el origen, la primera ruta abordada).
+     * @param cost Costo total.
+     * @param hops Número de tramos recorridos.
+     * @param transfers Número de transbordos.
+     */
+    public Journey(int[] stops, int[] routes, int cost, int hops, int transfers) {
+        super(stops, cost);
+        this.routes = routes;
+        this.hops = hops;
+        this.transfers = transfers;
+    }
+
+    /**
+     * Obtiene la ruta usada para llegar a cada parada.
+     * @return Arreglo de IDs de rutas, paralelo a getStops.
+     */
+    public int[] getRoutes() {
+        return routes;
+    }
+
+    /**
+     * Obtiene el número de tramos recorridos.
+     * @return Tramos.
+     */
+    public int getHops() {
+        return hops;
+    }
+
+    /**
+     * Obtiene el número de transbordos.
+     * @return Transbordos.
+     */
+    public int getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * Retorna una representación en string del viaje.
+     * @return String con criterios y paradas.
+     */
+    @Override
+    public String toString() {
+        return "Journey{" + "cost=" + getCost() + ", hops=" + hops + ", transfers=" + transfers
+                + ", stops=" + Arrays.toString(getStops()) + '}';
+    }
+}
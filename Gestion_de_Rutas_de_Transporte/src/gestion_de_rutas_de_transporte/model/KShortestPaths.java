@@ -0,0 +1,273 @@
+/**
+ * Clase que calcula los K caminos simples (sin ciclos) más cortos entre dos paradas con el algoritmo de Yen.
+ * Trabaja sobre la instantánea CSR del grafo e incorpora dos optimizaciones clásicas:
+ * - Lawler: cada camino solo genera desvíos desde su punto de desviación, porque los anteriores ya se exploraron.
+ * - Árbol inverso al destino: se calcula una sola vez y sirve como cota inferior (A*) de cada búsqueda de desvío;
+ *   si el camino del árbol desde el nodo de desvío no toca nada bloqueado, se reutiliza sin buscar.
+ * Las raíces compartidas se detectan con el prefijo común de cada camino aceptado respecto al anterior.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+
+
+public class KShortestPaths {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final Graph graph;
+    private CsrGraph csr;
+    private int[] distToEnd;
+    private int[] nextToEnd;
+    private int[] blockedVertex;
+    private int[] blockedTarget;
+    private int[] searchStamp;
+    private int[] searchDist;
+    private int[] searchParent;
+    private int[] pathBuffer;
+    private int blockEpoch;
+    private int searchEpoch;
+    private final IntMinHeap heap = new IntMinHeap();
+
+    /**
+     * Constructor del planificador de alternativas.
+     * @param graph Grafo sobre el que se planifica.
+     */
+    public KShortestPaths(Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Encuentra hasta K caminos simples entre dos paradas, ordenados por costo creciente.
+     * @param start ID de origen.
+     * @param end ID de destino.
+     * @param k Número máximo de caminos.
+     * @return Lista de caminos con su costo (vacía si no hay ruta).
+     */
+    public CustomLinkedList<WeightedPath> find(int start, int end, int k) {
+        CustomLinkedList<WeightedPath> result = new CustomLinkedList<>();
+        prepare();
+        if (k < 1 || start < 1 || start > csr.getNumStops() || end < 1 || end > csr.getNumStops()
+                || !graph.getComponents().connected(start, end)) {
+            return result;
+        }
+        computeReverseTree(end);
+        if (distToEnd[start - 1] == INF) return result;
+
+        WeightedPath[] accepted = new WeightedPath[k];
+        int[] deviations = new int[k];
+        int[] sharedPrefix = new int[k];
+        accepted[0] = new WeightedPath(treePath(start, 0, null), distToEnd[start - 1]);
+        deviations[0] = 0;
+        result.add(accepted[0]);
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        HashSet<WeightedPath> seen = new HashSet<>();
+        seen.add(accepted[0]);
+
+        for (int found = 1; found < k; found++) {
+            WeightedPath previous = accepted[found - 1];
+            int[] p = previous.getStops();
+            for (int q = 0; q < found; q++) {
+                sharedPrefix[q] = commonPrefix(accepted[q].getStops(), p);
+            }
+
+            // Costo de la raíz hasta el punto de desviación
+            int rootCost = 0;
+            for (int i = 0; i < deviations[found - 1]; i++) {
+                rootCost += csr.weightOf(p[i], p[i + 1]);
+            }
+
+            for (int i = deviations[found - 1]; i < p.length - 1; i++) {
+                int spur = p[i];
+                int stamp = ++blockEpoch;
+                for (int r = 0; r < i; r++) {
+                    blockedVertex[p[r] - 1] = stamp;
+                }
+                for (int q = 0; q < found; q++) {
+                    int[] other = accepted[q].getStops();
+                    if (sharedPrefix[q] > i && other.length > i + 1) {
+                        blockedTarget[other[i + 1] - 1] = stamp;
+                    }
+                }
+
+                int spurLength = spurSearch(spur, end, stamp);
+                if (spurLength > 0) {
+                    int[] stops = new int[i + spurLength];
+                    System.arraycopy(p, 0, stops, 0, i);
+                    System.arraycopy(pathBuffer, 0, stops, i, spurLength);
+                    WeightedPath candidate = new WeightedPath(stops, rootCost + searchDist[end - 1]);
+                    if (seen.add(candidate)) {
+                        candidates.add(new Candidate(candidate, i));
+                    }
+                }
+                rootCost += csr.weightOf(p[i], p[i + 1]);
+            }
+
+            Candidate best = candidates.poll();
+            if (best == null) break;
+            accepted[found] = best.path;
+            deviations[found] = best.deviation;
+            result.add(best.path);
+        }
+        return result;
+    }
+
+    /**
+     * Toma la instantánea vigente del grafo y ajusta los arreglos de trabajo a su tamaño.
+     */
+    private void prepare() {
+        csr = graph.snapshot();
+        int n = csr.getVertexCount();
+        if (distToEnd == null || distToEnd.length != n) {
+            distToEnd = new int[n];
+            nextToEnd = new int[n];
+            blockedVertex = new int[n];
+            blockedTarget = new int[n];
+            searchStamp = new int[n];
+            searchDist = new int[n];
+            searchParent = new int[n];
+            pathBuffer = new int[n];
+            blockEpoch = 0;
+            searchEpoch = 0;
+        }
+    }
+
+    /**
+     * Calcula con Dijkstra la distancia de cada parada al destino y el siguiente salto hacia él.
+     * @param end ID de destino.
+     */
+    private void computeReverseTree(int end) {
+        for (int i = 0; i < distToEnd.length; i++) {
+            distToEnd[i] = INF;
+            nextToEnd[i] = -1;
+        }
+        distToEnd[end - 1] = 0;
+        heap.clear();
+        heap.push(0, end);
+        while (!heap.isEmpty()) {
+            int d = heap.peekKey();
+            int u = heap.poll();
+            if (d > distToEnd[u - 1]) continue;
+            for (int e = csr.offsets[u - 1]; e < csr.offsets[u]; e++) {
+                int v = csr.targets[e];
+                long candidate = (long) d + csr.weights[e];
+                if (candidate < distToEnd[v - 1]) {
+                    distToEnd[v - 1] = (int) candidate;
+                    nextToEnd[v - 1] = u;
+                    heap.push((int) candidate, v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sigue el árbol inverso desde una parada hasta el destino.
+     * @param from ID de inicio.
+     * @param stamp Época de bloqueo vigente (0 para no verificar bloqueos).
+     * @param out Arreglo donde escribir el camino o null para crear uno nuevo.
+     * @return Camino, o null si toca una parada bloqueada o una arista bloqueada desde el inicio.
+     */
+    private int[] treePath(int from, int stamp, int[] out) {
+        int length = 0;
+        for (int v = from; v != -1; v = nextToEnd[v - 1]) {
+            if (stamp != 0 && v != from && blockedVertex[v - 1] == stamp) return null;
+            length++;
+        }
+        if (stamp != 0 && length > 1 && blockedTarget[nextToEnd[from - 1] - 1] == stamp) return null;
+        int[] path = out != null ? out : new int[length];
+        int i = 0;
+        for (int v = from; v != -1; v = nextToEnd[v - 1]) {
+            path[i++] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Busca el camino de desvío más corto desde el nodo de desvío al destino evitando lo bloqueado.
+     * Usa la distancia al destino del grafo completo como heurística admisible (A*).
+     * El camino queda en pathBuffer y su costo en searchDist[end - 1].
+     * @param spur ID del nodo de desvío.
+     * @param end ID de destino.
+     * @param stamp Época de bloqueo vigente.
+     * @return Longitud del camino en paradas, o 0 si no existe.
+     */
+    private int spurSearch(int spur, int end, int stamp) {
+        // Reutilizar el árbol inverso si no atraviesa nada bloqueado
+        if (distToEnd[spur - 1] != INF && treePath(spur, stamp, pathBuffer) != null) {
+            int length = 0;
+            for (int v = spur; v != -1; v = nextToEnd[v - 1]) length++;
+            searchDist[end - 1] = distToEnd[spur - 1];
+            return length;
+        }
+
+        int epoch = ++searchEpoch;
+        searchStamp[spur - 1] = epoch;
+        searchDist[spur - 1] = 0;
+        searchParent[spur - 1] = -1;
+        heap.clear();
+        heap.push(distToEnd[spur - 1], spur);
+        boolean reached = false;
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            if (u == end) {
+                reached = true;
+                break;
+            }
+            int g = searchDist[u - 1];
+            for (int e = csr.offsets[u - 1]; e < csr.offsets[u]; e++) {
+                int v = csr.targets[e];
+                if (blockedVertex[v - 1] == stamp || distToEnd[v - 1] == INF) continue;
+                if (u == spur && blockedTarget[v - 1] == stamp) continue;
+                long candidate = (long) g + csr.weights[e];
+                if (searchStamp[v - 1] != epoch || candidate < searchDist[v - 1]) {
+                    searchStamp[v - 1] = epoch;
+                    searchDist[v - 1] = (int) candidate;
+                    searchParent[v - 1] = u;
+                    heap.push((int) Math.min(INF - 1, candidate + distToEnd[v - 1]), v);
+                }
+            }
+        }
+        if (!reached) return 0;
+        int length = 0;
+        for (int v = end; v != -1; v = searchParent[v - 1]) length++;
+        int i = length;
+        for (int v = end; v != -1; v = searchParent[v - 1]) pathBuffer[--i] = v;
+        return length;
+    }
+
+    /**
+     * Calcula la longitud del prefijo común entre dos caminos.
+     * @param a Primer camino.
+     * @param b Segundo camino.
+     * @return Número de paradas iniciales iguales.
+     */
+    private static int commonPrefix(int[] a, int[] b) {
+        int limit = Math.min(a.length, b.length);
+        int i = 0;
+        while (i < limit && a[i] == b[i]) i++;
+        return i;
+    }
+
+    /**
+     * Candidato pendiente con el índice donde se desvía de su camino padre.
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        final WeightedPath path;
+        final int deviation;
+
+        Candidate(WeightedPath path, int deviation) {
+            this.path = path;
+            this.deviation = deviation;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (path.getCost() != other.path.getCost()) return Integer.compare(path.getCost(), other.path.getCost());
+            return Integer.compare(path.getStops().length, other.path.getStops().length);
+        }
+    }
+}
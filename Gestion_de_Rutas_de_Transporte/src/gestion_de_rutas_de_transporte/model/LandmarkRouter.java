@@ -0,0 +1,419 @@
+/**
+ * Clase que calcula rutas más cortas con A* guiado por landmarks (ALT: A*, landmarks y desigualdad triangular).
+ * Las coordenadas de las paradas son solo posiciones de dibujo, así que la cota inferior no sale de la
+ * geometría sino de K paradas de referencia (landmarks) con su distancia precalculada a todas las demás:
+ * para cualquier landmark L, d(v, t) &gt;= |d(L, t) - d(L, v)|.
+ * Los landmarks se eligen por el punto más lejano (cada uno es el más alejado de los ya elegidos, con lo
+ * que primero se cubren las componentes sin landmark) y las distancias se guardan en un int[] intercalado
+ * (las K distancias de una parada quedan contiguas). Si cambian los pesos, las tablas se recalculan en
+ * paralelo en un ForkJoinPool conservando los mismos landmarks.
+ * Aumentar un peso o quitar una arista no invalida las cotas (siguen siendo inferiores); solo una arista
+ * nueva o un peso menor obligan a recalcular, en la siguiente consulta.
+ * Las tablas se guardan en un archivo binario junto al de datos con una huella del grafo, y al abrirlas
+ * solo se recalculan si la huella ya no coincide.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+
+public class LandmarkRouter implements GraphListener {
+    public static final int DEFAULT_LANDMARKS = 8;
+    private static final int MAGIC = 0x4C4E444D;  // "LNDM"
+    private static final int FORMAT = 1;
+    private static final int HEADER_INTS = 6;  // MAGIC, FORMAT, vértices, landmarks, huella (2 enteros)
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final Graph graph;
+    private final int requested;
+    private final ForkJoinPool pool;
+    private int[] landmarks = new int[0];
+    private int[] table;  // table[(v - 1) * landmarks.length + l] = d(landmark l, v)
+    private long fingerprint;
+    private boolean stale = true;
+    private boolean modified;
+
+    // Búfers de A*, reutilizados entre consultas
+    private int[] stamp;
+    private int[] dist;
+    private int[] parent;
+    private int[] bound;
+    private int[] pathBuffer;
+    private int epoch;
+    private final IntMinHeap heap = new IntMinHeap();
+
+    /**
+     * Constructor del enrutador. Las tablas se calculan en la primera consulta.
+     * @param graph Grafo observado.
+     * @param landmarks Número de landmarks (más landmarks dan cotas más ajustadas y tablas más grandes).
+     */
+    public LandmarkRouter(Graph graph, int landmarks) {
+        this.graph = graph;
+        this.requested = Math.max(1, landmarks);
+        this.pool = ForkJoinPool.commonPool();
+        graph.addListener(this);
+    }
+
+    /**
+     * Crea el enrutador y carga las tablas guardadas si corresponden al grafo actual. Si el archivo no existe
+     * o el grafo cambió, las tablas se recalculan en la primera consulta (reutilizando los landmarks guardados).
+     * @param graph Grafo observado.
+     * @param landmarks Número de landmarks.
+     * @param file Archivo de tablas.
+     * @return Enrutador.
+     */
+    public static LandmarkRouter open(Graph graph, int landmarks, Path file) {
+        LandmarkRouter router = new LandmarkRouter(graph, landmarks);
+        if (Files.exists(file)) {
+            try {
+                router.load(file);
+            } catch (IOException e) {
+                System.out.println("No se pudieron leer los landmarks: " + e.getMessage());
+            }
+        }
+        return router;
+    }
+
+    @Override
+    public void edgeChanged(int from, int to, int oldWeight, int newWeight) {
+        if (newWeight != -1 && (oldWeight == -1 || newWeight < oldWeight)) {
+            stale = true;  // Una arista nueva o más barata puede acortar distancias
+        }
+    }
+
+    /**
+     * Encuentra la ruta más corta entre dos paradas con A* y la cota de los landmarks.
+     * @param start ID de inicio.
+     * @param end ID de fin.
+     * @return Lista de IDs en la ruta o lista vacía si no hay ruta.
+     */
+    public CustomLinkedList<Integer> findPath(int start, int end) {
+        CustomLinkedList<Integer> path = new CustomLinkedList<>();
+        if (start < 1 || start > graph.getNumStops() || end < 1 || end > graph.getNumStops()
+                || !graph.getComponents().connected(start, end)) {
+            return path;
+        }
+        ensureTables();
+        CsrGraph csr = graph.snapshot();
+        int n = csr.getVertexCount();
+        if (stamp == null || stamp.length != n) {
+            stamp = new int[n];
+            dist = new int[n];
+            parent = new int[n];
+            bound = new int[n];
+            pathBuffer = new int[n];
+            epoch = 0;
+        }
+        if (++epoch == 0) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+
+        OperationEvent trace = Metrics.begin(Metrics.ALT_PATH);
+        long settled = 0;
+        long relaxed = 0;
+        int[] offsets = csr.offsets;
+        int[] targets = csr.targets;
+        int[] weights = csr.weights;
+        touch(start, end);
+        dist[start - 1] = 0;
+        parent[start - 1] = -1;
+        heap.clear();
+        heap.push(bound[start - 1], start);
+        boolean found = false;
+        while (!heap.isEmpty()) {
+            int f = heap.peekKey();
+            int u = heap.poll();
+            if (f > dist[u - 1] + bound[u - 1]) continue;  // Entrada obsoleta
+            settled++;
+            if (u == end) {
+                found = true;
+                break;
+            }
+            for (int e = offsets[u - 1]; e < offsets[u]; e++) {
+                int w = targets[e];
+                relaxed++;
+                if (stamp[w - 1] != epoch) touch(w, end);
+                int candidate = dist[u - 1] + weights[e];
+                if (candidate < dist[w - 1]) {
+                    dist[w - 1] = candidate;
+                    parent[w - 1] = u;
+                    heap.push(candidate + bound[w - 1], w);
+                }
+            }
+        }
+        Metrics.end(trace, settled, relaxed);
+        if (!found) return path;
+
+        int length = 0;
+        for (int current = end; current != -1; current = parent[current - 1]) {
+            pathBuffer[length++] = current;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            path.add(pathBuffer[i]);
+        }
+        return path;
+    }
+
+    /**
+     * Obtiene la cota inferior de la distancia entre dos paradas según los landmarks.
+     * @param v ID de una parada.
+     * @param t ID de la otra parada.
+     * @return Cota (0 si ningún landmark alcanza a ambas).
+     */
+    public int lowerBound(int v, int t) {
+        ensureTables();
+        int n = graph.getCapacity();
+        if (v < 1 || v > n || t < 1 || t > n) return 0;
+        return computeBound(v, t);
+    }
+
+    /**
+     * Obtiene los landmarks elegidos.
+     * @return IDs de las paradas de referencia (copia).
+     */
+    public int[] getLandmarks() {
+        ensureTables();
+        return landmarks.clone();
+    }
+
+    /**
+     * Indica si las tablas cambiaron desde que se cargaron o guardaron.
+     * @return true si conviene volver a guardarlas.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Inicializa el estado de A* de una parada la primera vez que se toca en la consulta.
+     */
+    private void touch(int v, int end) {
+        stamp[v - 1] = epoch;
+        dist[v - 1] = INF;
+        bound[v - 1] = computeBound(v, end);
+    }
+
+    private int computeBound(int v, int t) {
+        int k = landmarks.length;
+        int rowV = (v - 1) * k;
+        int rowT = (t - 1) * k;
+        int best = 0;
+        for (int l = 0; l < k; l++) {
+            int dv = table[rowV + l];
+            int dt = table[rowT + l];
+            if (dv == INF || dt == INF) continue;
+            best = Math.max(best, Math.abs(dt - dv));
+        }
+        return best;
+    }
+
+    /**
+     * Recalcula las tablas si el grafo cambió de forma que las cotas podrían dejar de ser válidas.
+     */
+    private void ensureTables() {
+        CsrGraph csr = graph.snapshot();
+        int n = csr.getVertexCount();
+        if (!stale && table != null && table.length == n * landmarks.length) return;
+        if (landmarks.length == requested && usable(csr)) {
+            refresh(csr);
+        } else {
+            select(csr);
+        }
+        fingerprint = csr.fingerprint();
+        stale = false;
+        modified = true;
+    }
+
+    /**
+     * Verifica que los landmarks actuales sigan siendo paradas con aristas.
+     */
+    private boolean usable(CsrGraph csr) {
+        for (int landmark : landmarks) {
+            if (landmark < 1 || landmark > csr.getNumStops() || csr.offsets[landmark] == csr.offsets[landmark - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Elige los landmarks por el punto más lejano y llena la tabla con sus distancias.
+     * Cada elección depende de las distancias del landmark anterior, por lo que esta fase es secuencial.
+     */
+    private void select(CsrGraph csr) {
+        int n = csr.getVertexCount();
+        int[] chosen = new int[requested];
+        int[][] columns = new int[requested][];
+        int[] nearest = new int[n];  // Distancia al landmark más cercano ya elegido
+        Arrays.fill(nearest, INF);
+        int[] scratch = new int[n];
+        IntMinHeap queue = new IntMinHeap();
+
+        // Punto de partida: la parada más lejana de la de mayor grado
+        int hub = -1;
+        for (int v = 1; v <= csr.getNumStops(); v++) {
+            int degree = csr.offsets[v] - csr.offsets[v - 1];
+            if (degree > 0 && (hub == -1 || degree > csr.offsets[hub] - csr.offsets[hub - 1])) hub = v;
+        }
+        int count = 0;
+        if (hub != -1) {
+            shortestDistances(csr, hub, scratch, queue);
+            int next = farthest(csr, scratch, chosen, 0);
+            while (next != -1 && count < requested) {
+                chosen[count] = next;
+                columns[count] = new int[n];
+                shortestDistances(csr, next, columns[count], queue);
+                for (int v = 0; v < n; v++) {
+                    nearest[v] = Math.min(nearest[v], columns[count][v]);
+                }
+                count++;
+                next = farthest(csr, nearest, chosen, count);
+            }
+        }
+        landmarks = Arrays.copyOf(chosen, count);
+        table = new int[n * count];
+        for (int l = 0; l < count; l++) {
+            for (int v = 0; v < n; v++) {
+                table[v * count + l] = columns[l][v];
+            }
+        }
+    }
+
+    /**
+     * Obtiene la parada con aristas más alejada según las distancias dadas (INF cuenta como la mayor),
+     * sin repetir landmarks.
+     */
+    private static int farthest(CsrGraph csr, int[] distances, int[] chosen, int count) {
+        int best = -1;
+        for (int v = 1; v <= csr.getNumStops(); v++) {
+            if (csr.offsets[v] == csr.offsets[v - 1] || distances[v - 1] == 0) continue;
+            boolean taken = false;
+            for (int i = 0; i < count && !taken; i++) taken = chosen[i] == v;
+            if (!taken && (best == -1 || distances[v - 1] > distances[best - 1])) best = v;
+        }
+        return best;
+    }
+
+    /**
+     * Recalcula las distancias de los landmarks actuales, un Dijkstra por landmark en paralelo.
+     * Cada tarea escribe una columna distinta de la tabla, así que no comparten posiciones.
+     */
+    private void refresh(CsrGraph csr) {
+        int n = csr.getVertexCount();
+        int k = landmarks.length;
+        int[] fresh = new int[n * k];
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[k];
+        for (int l = 0; l < k; l++) {
+            int column = l;
+            tasks[l] = pool.submit(() -> {
+                int[] distances = new int[n];
+                shortestDistances(csr, landmarks[column], distances, new IntMinHeap());
+                for (int v = 0; v < n; v++) {
+                    fresh[v * k + column] = distances[v];
+                }
+            });
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        table = fresh;
+    }
+
+    /**
+     * Dijkstra completo desde una parada.
+     * @param csr Instantánea del grafo.
+     * @param source ID de origen.
+     * @param distances Salida: distancia por parada (índice id - 1), INF si no se alcanza.
+     * @param queue Cola de prioridad a usar.
+     */
+    private static void shortestDistances(CsrGraph csr, int source, int[] distances, IntMinHeap queue) {
+        Arrays.fill(distances, INF);
+        distances[source - 1] = 0;
+        queue.clear();
+        queue.push(0, source);
+        while (!queue.isEmpty()) {
+            int d = queue.peekKey();
+            int u = queue.poll();
+            if (d > distances[u - 1]) continue;
+            for (int e = csr.offsets[u - 1]; e < csr.offsets[u]; e++) {
+                int w = csr.targets[e];
+                int candidate = d + csr.weights[e];
+                if (candidate < distances[w - 1]) {
+                    distances[w - 1] = candidate;
+                    queue.push(candidate, w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Guarda los landmarks y sus tablas (enteros little-endian): cabecera [MAGIC, FORMAT, vértices, K,
+     * huella alta, huella baja], luego los K landmarks y la tabla intercalada.
+     * @param file Archivo destino.
+     * @throws IOException Si falla la escritura.
+     */
+    public void save(Path file) throws IOException {
+        ensureTables();
+        int n = graph.getCapacity();
+        int k = landmarks.length;
+        ByteBuffer bytes = ByteBuffer.allocate((HEADER_INTS + k + table.length) * 4).order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer ints = bytes.asIntBuffer();
+        ints.put(MAGIC).put(FORMAT).put(n).put(k);
+        ints.put((int) (fingerprint >>> 32)).put((int) fingerprint);
+        ints.put(landmarks).put(table);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+        }
+        modified = false;
+    }
+
+    /**
+     * Carga landmarks y tablas guardados. Los landmarks se adoptan siempre; las tablas solo si la huella
+     * coincide con el grafo actual (si no, se recalculan en paralelo en la primera consulta).
+     * @param file Archivo de tablas.
+     * @throws IOException Si el archivo no se puede leer o no tiene el formato esperado.
+     */
+    private void load(Path file) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer ints = bytes.asIntBuffer();
+        if (ints.remaining() < HEADER_INTS || ints.get(0) != MAGIC || ints.get(1) != FORMAT) {
+            throw new IOException("Formato de landmarks desconocido: " + file);
+        }
+        int n = ints.get(2);
+        int k = ints.get(3);
+        long saved = ((long) ints.get(4) << 32) | (ints.get(5) & 0xFFFFFFFFL);
+        if (k < 0 || n < 0 || ints.remaining() != HEADER_INTS + k + (long) n * k) {
+            throw new IOException("Archivo de landmarks incompleto: " + file);
+        }
+        ints.position(HEADER_INTS);
+        int[] loaded = new int[k];
+        ints.get(loaded);
+        CsrGraph csr = graph.snapshot();
+        landmarks = loaded;
+        if (k == requested && n == csr.getVertexCount() && saved == csr.fingerprint()) {
+            table = new int[n * k];
+            ints.get(table);
+            fingerprint = saved;
+            stale = false;
+        }
+    }
+}
@@ -0,0 +1,451 @@
+/**
+ * Clase que indexa los nombres de paradas y rutas para buscarlos por texto.
+ * Los nombres se normalizan (minúsculas, sin tildes ni signos: "Belén" -> "belen") y se separan en palabras;
+ * cada palabra se guarda en un trie con la lista de elementos que la contienen.
+ * Cada palabra de la consulta puede coincidir exacta, como prefijo ("esta" -> "estacion") o con errores de
+ * escritura (distancia de edición 1, o 2 en palabras largas); un resultado debe coincidir con todas las palabras
+ * y se ordena por puntaje. El índice se actualiza al agregar, renombrar o eliminar elementos.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.LongHashMap;
+import gestion_de_rutas_de_transporte.utils.NamePool;
+import java.text.Normalizer;
+
+
+public class NameIndex {
+    public static final int STOP = 0;
+    public static final int ROUTE = 1;
+
+    private static final int EXACT_SCORE = 100;
+    private static final int PREFIX_SCORE = 60;
+    private static final int FUZZY_SCORE = 40;
+
+    private final TrieNode root = new TrieNode();
+    private final LongHashMap<Entry> entries = new LongHashMap<>();
+
+    /**
+     * Reconstruye el índice con todas las paradas y rutas.
+     * @param stops Lista de paradas.
+     * @param routes Lista de rutas.
+     */
+    public void rebuild(CustomLinkedList<Stop> stops, CustomLinkedList<Route> routes) {
+        clear();
+        entries.ensureCapacity(stops.getSize() + routes.getSize());
+        for (Node<Stop> node = stops.getHead(); node != null; node = node.getNext()) {
+            add(STOP, node.getData().getId(), node.getData().getNameId());
+        }
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext()) {
+            add(ROUTE, node.getData().getId(), node.getData().getNameId());
+        }
+    }
+
+    /**
+     * Indexa (o vuelve a indexar) el nombre de un elemento.
+     * @param type STOP o ROUTE.
+     * @param id ID del elemento.
+     * @param name Nombre.
+     */
+    public void add(int type, int id, String name) {
+        add(type, id, NamePool.intern(name));
+    }
+
+    /**
+     * Indexa (o vuelve a indexar) el nombre de un elemento ya registrado en NamePool.
+     * @param type STOP o ROUTE.
+     * @param id ID del elemento.
+     * @param nameId ID del nombre en NamePool.
+     */
+    public void add(int type, int id, int nameId) {
+        remove(type, id);
+        long key = key(type, id);
+        String name = NamePool.get(nameId);
+        String[] tokens = tokenize(name);
+        entries.put(key, new Entry(type, id, nameId, name.length(), tokens));
+        for (String token : tokens) {
+            insert(token).addPosting(key);
+        }
+    }
+
+    /**
+     * Quita un elemento del índice.
+     * @param type STOP o ROUTE.
+     * @param id ID del elemento.
+     * @return true si estaba indexado.
+     */
+    public boolean remove(int type, int id) {
+        long key = key(type, id);
+        Entry entry = entries.remove(key);
+        if (entry == null) return false;
+        for (String token : entry.tokens) {
+            TrieNode node = find(token);
+            if (node != null) node.removePosting(key);
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene el número de elementos indexados.
+     * @return Número de elementos.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        root.childCount = 0;
+        root.keys = new char[0];
+        root.children = new TrieNode[0];
+        root.postingCount = 0;
+        entries.clear();
+    }
+
+    /**
+     * Busca elementos por nombre.
+     * @param query Texto a buscar.
+     * @param type STOP, ROUTE o -1 para ambos.
+     * @param limit Máximo de resultados.
+     * @return Resultados ordenados del más al menos relevante.
+     */
+    public CustomLinkedList<Match> search(String query, int type, int limit) {
+        CustomLinkedList<Match> result = new CustomLinkedList<>();
+        String[] words = tokenize(query);
+        if (words.length == 0 || limit < 1) return result;
+
+        // Candidatos de la primera palabra; las siguientes solo filtran y suman puntaje
+        LongHashMap<int[]> scores = new LongHashMap<>();
+        long[] candidates = collect(words[0], scores, null);
+        int count = candidates.length;
+        for (int w = 1; w < words.length && count > 0; w++) {
+            LongHashMap<int[]> wordScores = new LongHashMap<>();
+            collect(words[w], wordScores, scores);
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int[] extra = wordScores.get(candidates[i]);
+                if (extra != null) {
+                    scores.get(candidates[i])[0] += extra[0];
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            count = kept;
+        }
+
+        // Selección de los mejores por inserción (limit es pequeño)
+        Entry[] best = new Entry[Math.min(limit, count)];
+        int[] bestScore = new int[best.length];
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            Entry entry = entries.get(candidates[i]);
+            if (type >= 0 && entry.type != type) continue;
+            int score = scores.get(candidates[i])[0];
+            // Pequeño premio si la primera palabra del nombre es la buscada
+            if (entry.tokens.length > 0 && entry.tokens[0].startsWith(words[0])) score += 5;
+            if (found == best.length && !better(score, entry, bestScore[found - 1], best[found - 1])) continue;
+            int pos = found < best.length ? found++ : found - 1;
+            while (pos > 0 && better(score, entry, bestScore[pos - 1], best[pos - 1])) {
+                best[pos] = best[pos - 1];
+                bestScore[pos] = bestScore[pos - 1];
+                pos--;
+            }
+            best[pos] = entry;
+            bestScore[pos] = score;
+        }
+        for (int i = 0; i < found; i++) {
+            result.add(new Match(best[i].type, best[i].id, NamePool.get(best[i].nameId), bestScore[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Normaliza un texto para compararlo: sin tildes, en minúsculas y con solo letras y dígitos separados por espacio.
+     * @param text Texto original.
+     * @return Texto normalizado.
+     */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        if (sb.length() > 0 && sb.charAt(sb.length() - 1) == ' ') sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+
+    /**
+     * Separa un texto normalizado en palabras distintas.
+     * @param text Texto original.
+     * @return Palabras sin repetir.
+     */
+    private static String[] tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) return new String[0];
+        String[] words = normalized.split(" ");
+        int count = 0;
+        for (String word : words) {
+            boolean repeated = false;
+            for (int i = 0; i < count && !repeated; i++) {
+                repeated = words[i].equals(word);
+            }
+            if (!repeated) words[count++] = word;
+        }
+        String[] tokens = new String[count];
+        System.arraycopy(words, 0, tokens, 0, count);
+        return tokens;
+    }
+
+    /**
+     * Reúne los elementos que coinciden con una palabra de la consulta, con el mejor puntaje de cada uno.
+     * @param word Palabra normalizada.
+     * @param scores Mapa donde se guardan los puntajes (int[1] por elemento).
+     * @param restrict Si no es null, solo se consideran elementos presentes en este mapa.
+     * @return Claves de los elementos encontrados.
+     */
+    private long[] collect(String word, LongHashMap<int[]> scores, LongHashMap<int[]> restrict) {
+        KeyList keys = new KeyList();
+        TrieNode node = find(word);
+        if (node != null) {
+            // Coincidencia exacta y por prefijo: todo el subárbol
+            collectSubtree(node, word.length(), word.length(), keys, scores, restrict);
+        }
+        int maxDistance = word.length() <= 3 ? 0 : word.length() <= 7 ? 1 : 2;
+        if (maxDistance > 0) {
+            int[] row = new int[word.length() + 1];
+            for (int i = 0; i <= word.length(); i++) {
+                row[i] = i;
+            }
+            for (int i = 0; i < root.childCount; i++) {
+                fuzzy(root.children[i], root.keys[i], word, row, maxDistance, keys, scores, restrict);
+            }
+        }
+        long[] result = new long[keys.count];
+        System.arraycopy(keys.items, 0, result, 0, keys.count);
+        return result;
+    }
+
+    /**
+     * Recorre el subárbol de un prefijo y puntúa sus palabras (exacta si es el mismo nodo, prefijo si no).
+     */
+    private void collectSubtree(TrieNode node, int depth, int queryLength, KeyList keys,
+                                LongHashMap<int[]> scores, LongHashMap<int[]> restrict) {
+        int score = depth == queryLength ? EXACT_SCORE : PREFIX_SCORE - Math.min(20, depth - queryLength);
+        for (int i = 0; i < node.postingCount; i++) {
+            offer(node.postings[i], score, keys, scores, restrict);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            collectSubtree(node.children[i], depth + 1, queryLength, keys, scores, restrict);
+        }
+    }
+
+    /**
+     * Búsqueda aproximada sobre el trie calculando una fila de la distancia de Levenshtein por nodo;
+     * se poda la rama cuando el mínimo de la fila supera la distancia permitida.
+     */
+    private void fuzzy(TrieNode node, char c, String word, int[] previous, int maxDistance, KeyList keys,
+                       LongHashMap<int[]> scores, LongHashMap<int[]> restrict) {
+        int columns = word.length() + 1;
+        int[] row = new int[columns];
+        row[0] = previous[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < columns; i++) {
+            int replace = previous[i - 1] + (word.charAt(i - 1) == c ? 0 : 1);
+            row[i] = Math.min(replace, Math.min(row[i - 1] + 1, previous[i] + 1));
+            rowMin = Math.min(rowMin, row[i]);
+        }
+        int distance = row[columns - 1];
+        if (distance > 0 && distance <= maxDistance) {
+            for (int i = 0; i < node.postingCount; i++) {
+                offer(node.postings[i], FUZZY_SCORE - 15 * (distance - 1), keys, scores, restrict);
+            }
+        }
+        if (rowMin > maxDistance) return;
+        for (int i = 0; i < node.childCount; i++) {
+            fuzzy(node.children[i], node.keys[i], word, row, maxDistance, keys, scores, restrict);
+        }
+    }
+
+    /**
+     * Registra un candidato conservando su mejor puntaje para la palabra actual.
+     */
+    private static void offer(long key, int score, KeyList keys, LongHashMap<int[]> scores, LongHashMap<int[]> restrict) {
+        if (restrict != null && !restrict.containsKey(key)) return;
+        int[] current = scores.get(key);
+        if (current == null) {
+            scores.put(key, new int[]{score});
+            keys.add(key);
+        } else if (score > current[0]) {
+            current[0] = score;
+        }
+    }
+
+    /**
+     * Indica si un resultado va antes que otro: mayor puntaje, luego nombre más corto, luego menor ID.
+     */
+    private static boolean better(int score, Entry entry, int otherScore, Entry other) {
+        if (score != otherScore) return score > otherScore;
+        if (entry.nameLength != other.nameLength) return entry.nameLength < other.nameLength;
+        return entry.id < other.id;
+    }
+
+    private TrieNode insert(String token) {
+        TrieNode node = root;
+        for (int i = 0; i < token.length(); i++) {
+            TrieNode child = node.child(token.charAt(i));
+            if (child == null) child = node.addChild(token.charAt(i));
+            node = child;
+        }
+        return node;
+    }
+
+    private TrieNode find(String token) {
+        TrieNode node = root;
+        for (int i = 0; i < token.length() && node != null; i++) {
+            node = node.child(token.charAt(i));
+        }
+        return node;
+    }
+
+    private static long key(int type, int id) {
+        return ((long) type << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Resultado de una búsqueda por nombre.
+     */
+    public static class Match {
+        private final int type;
+        private final int id;
+        private final String name;
+        private final int score;
+
+        public Match(int type, int id, String name, int score) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+            this.score = score;
+        }
+
+        public int getType() {
+            return type;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return (type == STOP ? "Parada " : "Ruta ") + id + ": " + name + " (" + score + ")";
+        }
+    }
+
+    /**
+     * Elemento indexado con sus palabras normalizadas.
+     */
+    private static class Entry {
+        final int type;
+        final int id;
+        final int nameId;
+        final int nameLength;
+        final String[] tokens;
+
+        Entry(int type, int id, int nameId, int nameLength, String[] tokens) {
+            this.type = type;
+            this.id = id;
+            this.nameId = nameId;
+            this.nameLength = nameLength;
+            this.tokens = tokens;
+        }
+    }
+
+    /**
+     * Nodo del trie: hijos en arreglos compactos y las claves de los elementos cuya palabra termina aquí.
+     */
+    private static class TrieNode {
+        char[] keys = new char[0];
+        TrieNode[] children = new TrieNode[0];
+        int childCount;
+        long[] postings = new long[0];
+        int postingCount;
+
+        TrieNode child(char c) {
+            for (int i = 0; i < childCount; i++) {
+                if (keys[i] == c) return children[i];
+            }
+            return null;
+        }
+
+        TrieNode addChild(char c) {
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                char[] grownKeys = new char[capacity];
+                TrieNode[] grownChildren = new TrieNode[capacity];
+                System.arraycopy(keys, 0, grownKeys, 0, childCount);
+                System.arraycopy(children, 0, grownChildren, 0, childCount);
+                keys = grownKeys;
+                children = grownChildren;
+            }
+            TrieNode child = new TrieNode();
+            keys[childCount] = c;
+            children[childCount++] = child;
+            return child;
+        }
+
+        void addPosting(long key) {
+            if (postingCount == postings.length) {
+                long[] grown = new long[Math.max(2, postingCount * 2)];
+                System.arraycopy(postings, 0, grown, 0, postingCount);
+                postings = grown;
+            }
+            postings[postingCount++] = key;
+        }
+
+        void removePosting(long key) {
+            for (int i = 0; i < postingCount; i++) {
+                if (postings[i] == key) {
+                    postings[i] = postings[--postingCount];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lista creciente de claves.
+     */
+    private static class KeyList {
+        long[] items = new long[16];
+        int count;
+
+        void add(long key) {
+            if (count == items.length) {
+                long[] grown = new long[count * 2];
+                System.arraycopy(items, 0, grown, 0, count);
+                items = grown;
+            }
+            items[count++] = key;
+        }
+    }
+}
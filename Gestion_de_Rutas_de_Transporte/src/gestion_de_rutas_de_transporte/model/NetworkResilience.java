@@ -0,0 +1,276 @@
+/**
+ * Clase que analiza la resiliencia de la red: paradas de articulación (su cierre desconecta la red),
+ * tramos puente (su cierre desconecta la red) y componentes biconexas (partes que resisten el cierre de
+ * cualquier parada).
+ * Todo se calcula en una sola DFS de Tarjan O(V + E) sobre la instantánea CSR, con pila explícita en lugar
+ * de recursión para que las redes largas no desborden la pila de llamadas.
+ * Se registra como observador del grafo: al agregar o quitar una arista solo se marcan las componentes
+ * conexas de sus extremos, y en la siguiente consulta se recorren de nuevo únicamente esas componentes.
+ * Los cambios de peso no afectan el análisis.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Arrays;
+
+
+public class NetworkResilience implements GraphListener {
+    private final Graph graph;
+    private int[] root;  // Parada donde empezó la DFS de la componente, 0 si falta calcular
+    private int[] disc;
+    private int[] low;
+    private int[] dfsParent;
+    private int[] next;  // Siguiente arista CSR a examinar de cada parada en la pila
+    private int[] stack;
+    private long[] edgeStack = new long[64];
+    private int edgeTop;
+    private int[] mark;
+    private int markEpoch;
+    private int[] blockBuffer;
+    private boolean[] articulation;
+    private boolean[] bridgeToParent;  // La arista del árbol DFS hacia el padre es puente
+    private boolean[] dirtyRoot;
+    private boolean dirty;
+    private int computedStops;
+    private int time;
+
+    private CustomLinkedList<Block> blocks = new CustomLinkedList<>();
+    private CustomLinkedList<Integer> articulationPoints = new CustomLinkedList<>();
+    private CustomLinkedList<Pair<Integer, Integer>> bridges = new CustomLinkedList<>();
+    private CustomLinkedList<int[]> biconnected = new CustomLinkedList<>();
+
+    /**
+     * Constructor del análisis. Analiza la red completa y se registra como observador del grafo.
+     * @param graph Grafo observado.
+     */
+    public NetworkResilience(Graph graph) {
+        this.graph = graph;
+        int n = graph.getCapacity();
+        root = new int[n];
+        disc = new int[n];
+        low = new int[n];
+        dfsParent = new int[n];
+        next = new int[n];
+        stack = new int[n];
+        mark = new int[n];
+        blockBuffer = new int[n];
+        articulation = new boolean[n];
+        bridgeToParent = new boolean[n];
+        dirtyRoot = new boolean[n];
+        dirty = true;
+        graph.addListener(this);
+    }
+
+    @Override
+    public void edgeChanged(int from, int to, int oldWeight, int newWeight) {
+        if (oldWeight != -1 && newWeight != -1) return;  // Solo cambió el peso
+        markDirty(from);
+        markDirty(to);
+        dirty = true;
+    }
+
+    /**
+     * Verifica si una parada es de articulación.
+     * @param id ID de la parada.
+     * @return true si cerrarla deja paradas de su componente sin conexión entre sí.
+     */
+    public boolean isArticulation(int id) {
+        ensureCurrent();
+        return id >= 1 && id <= articulation.length && articulation[id - 1];
+    }
+
+    /**
+     * Verifica si el tramo entre dos paradas es un puente.
+     * @param a ID de un extremo.
+     * @param b ID del otro extremo.
+     * @return true si el tramo existe y cerrarlo desconecta la red.
+     */
+    public boolean isBridge(int a, int b) {
+        ensureCurrent();
+        if (a < 1 || a > root.length || b < 1 || b > root.length) return false;
+        return (dfsParent[b - 1] == a && bridgeToParent[b - 1] && root[b - 1] != 0)
+                || (dfsParent[a - 1] == b && bridgeToParent[a - 1] && root[a - 1] != 0);
+    }
+
+    /**
+     * Obtiene las paradas de articulación.
+     * @return IDs en orden creciente.
+     */
+    public CustomLinkedList<Integer> getArticulationPoints() {
+        ensureCurrent();
+        return articulationPoints;
+    }
+
+    /**
+     * Obtiene los tramos puente.
+     * @return Pares (padre en la DFS, hijo).
+     */
+    public CustomLinkedList<Pair<Integer, Integer>> getBridges() {
+        ensureCurrent();
+        return bridges;
+    }
+
+    /**
+     * Obtiene las componentes biconexas (bloques). Un puente forma un bloque de dos paradas.
+     * @return IDs de las paradas de cada bloque, en orden creciente.
+     */
+    public CustomLinkedList<int[]> getBiconnectedComponents() {
+        ensureCurrent();
+        return biconnected;
+    }
+
+    /**
+     * Marca para recalcular la componente a la que pertenecía una parada.
+     * @param id ID de la parada.
+     */
+    private void markDirty(int id) {
+        if (id >= 1 && id <= root.length && root[id - 1] != 0) {
+            dirtyRoot[root[id - 1] - 1] = true;
+        }
+    }
+
+    /**
+     * Recorre de nuevo las componentes marcadas y las paradas registradas desde el último cálculo.
+     */
+    private void ensureCurrent() {
+        if (!dirty && computedStops == graph.getNumStops()) return;
+        CsrGraph csr = graph.snapshot();
+        int numStops = csr.getNumStops();
+        boolean full = time > Integer.MAX_VALUE - 2 * root.length;  // Los tiempos de descubrimiento se agotan
+        if (full) time = 0;
+
+        // Limpiar las paradas de las componentes afectadas y descartar sus bloques
+        for (int v = 1; v <= numStops; v++) {
+            int r = root[v - 1];
+            if (full || r == 0 || dirtyRoot[r - 1]) {
+                root[v - 1] = 0;
+                disc[v - 1] = 0;
+                articulation[v - 1] = false;
+                bridgeToParent[v - 1] = false;
+            }
+        }
+        CustomLinkedList<Block> kept = new CustomLinkedList<>();
+        for (Node<Block> node = blocks.getHead(); node != null; node = node.getNext()) {
+            if (!full && !dirtyRoot[node.getData().root - 1]) kept.add(node.getData());
+        }
+        blocks = kept;
+        Arrays.fill(dirtyRoot, false);
+
+        for (int s = 1; s <= numStops; s++) {
+            if (root[s - 1] == 0) search(csr, s);
+        }
+
+        articulationPoints = new CustomLinkedList<>();
+        bridges = new CustomLinkedList<>();
+        for (int v = 1; v <= numStops; v++) {
+            if (articulation[v - 1]) articulationPoints.add(v);
+            if (bridgeToParent[v - 1]) bridges.add(new Pair<>(dfsParent[v - 1], v));
+        }
+        biconnected = new CustomLinkedList<>();
+        for (Node<Block> node = blocks.getHead(); node != null; node = node.getNext()) {
+            biconnected.add(node.getData().stops);
+        }
+        computedStops = numStops;
+        dirty = false;
+    }
+
+    /**
+     * DFS iterativa de Tarjan desde una parada: asigna tiempos de descubrimiento y valores low, y detecta
+     * articulaciones, puentes y bloques de toda su componente.
+     * @param csr Instantánea del grafo.
+     * @param s ID de la parada inicial.
+     */
+    private void search(CsrGraph csr, int s) {
+        int[] offsets = csr.offsets;
+        int[] targets = csr.targets;
+        int top = 0;
+        int rootChildren = 0;
+        edgeTop = 0;
+        stack[top++] = s;
+        disc[s - 1] = low[s - 1] = ++time;
+        dfsParent[s - 1] = -1;
+        next[s - 1] = offsets[s - 1];
+        root[s - 1] = s;
+
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (next[u - 1] < offsets[u]) {
+                int w = targets[next[u - 1]++];
+                if (disc[w - 1] == 0) {
+                    // Arista del árbol: bajar a w
+                    dfsParent[w - 1] = u;
+                    disc[w - 1] = low[w - 1] = ++time;
+                    next[w - 1] = offsets[w - 1];
+                    root[w - 1] = s;
+                    stack[top++] = w;
+                    pushEdge(u, w);
+                    if (u == s) rootChildren++;
+                } else if (w != dfsParent[u - 1] && disc[w - 1] < disc[u - 1]) {
+                    // Arista de retroceso hacia un ancestro
+                    low[u - 1] = Math.min(low[u - 1], disc[w - 1]);
+                    pushEdge(u, w);
+                }
+                continue;
+            }
+            // Todas las aristas de u examinadas: subir al padre
+            top--;
+            int p = dfsParent[u - 1];
+            if (p == -1) continue;
+            low[p - 1] = Math.min(low[p - 1], low[u - 1]);
+            if (low[u - 1] >= disc[p - 1]) {
+                if (p != s) articulation[p - 1] = true;
+                popBlock(p, u, s);
+            }
+            if (low[u - 1] > disc[p - 1]) bridgeToParent[u - 1] = true;
+        }
+        if (rootChildren >= 2) articulation[s - 1] = true;
+    }
+
+    private void pushEdge(int u, int w) {
+        if (edgeTop == edgeStack.length) edgeStack = Arrays.copyOf(edgeStack, edgeTop * 2);
+        edgeStack[edgeTop++] = ((long) u << 32) | w;
+    }
+
+    /**
+     * Saca de la pila las aristas del bloque cerrado por la arista del árbol (p, u) y lo registra.
+     */
+    private void popBlock(int p, int u, int s) {
+        if (++markEpoch == 0) {
+            Arrays.fill(mark, 0);
+            markEpoch = 1;
+        }
+        long last = ((long) p << 32) | u;
+        int count = 0;
+        long edge;
+        do {
+            edge = edgeStack[--edgeTop];
+            int a = (int) (edge >>> 32);
+            int b = (int) edge;
+            if (mark[a - 1] != markEpoch) {
+                mark[a - 1] = markEpoch;
+                blockBuffer[count++] = a;
+            }
+            if (mark[b - 1] != markEpoch) {
+                mark[b - 1] = markEpoch;
+                blockBuffer[count++] = b;
+            }
+        } while (edge != last);
+        int[] members = Arrays.copyOf(blockBuffer, count);
+        Arrays.sort(members);
+        blocks.add(new Block(s, members));
+    }
+
+    /**
+     * Bloque biconexo con la parada raíz de la DFS que lo encontró.
+     */
+    private static class Block {
+        final int root;
+        final int[] stops;
+
+        Block(int root, int[] stops) {
+            this.root = root;
+            this.stops = stops;
+        }
+    }
+}
@@ -0,0 +1,524 @@
+/**
+ * Grafo en formato CSR guardado fuera del heap (buffers directos o un archivo mapeado en memoria).
+ * Pensado para redes regionales con millones de aristas: el recolector de basura no ve ni recorre las aristas,
+ * y con un archivo mapeado el sistema operativo carga solo las páginas que se visitan, así que el grafo puede
+ * ser mayor que el heap. Ofrece las mismas consultas que Graph (hasEdge, getWeight, findPath) y permite
+ * cambiar pesos en su lugar; la topología es fija (se reconstruye desde Graph o CsrGraph).
+ * Para redes que no caben en el heap, write(EdgeSource, Path) escribe el archivo directamente desde un origen
+ * de aristas (el archivo de datos o un GraphBuilder) sin construir antes Graph ni CsrGraph.
+ * Disposición (enteros little-endian): cabecera [MAGIC, FORMAT, vértices, aristas, paradas, 0, 0, 0],
+ * luego offsets (vértices + 1), destinos (aristas) y pesos (aristas), como en CsrGraph.
+ * Los datos se reparten en bloques de 1 GB porque cada ByteBuffer se indexa con int.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+public class OffHeapGraph {
+    private static final int MAGIC = 0x52475246;  // "RGRF"
+    private static final int FORMAT = 1;
+    private static final int HEADER_INTS = 8;
+    private static final int CHUNK_SHIFT = 28;  // 2^28 enteros = 1 GB por bloque
+    private static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+
+    private final IntBuffer[] chunks;
+    private final FileChannel channel;  // null si el grafo está en memoria directa
+    private final int vertexCount;
+    private final int edgeCount;
+    private final int numStops;
+    private final long targetsBase;
+    private final long weightsBase;
+
+    private OffHeapGraph(IntBuffer[] chunks, FileChannel channel) {
+        this.chunks = chunks;
+        this.channel = channel;
+        if (chunks[0].get(0) != MAGIC || chunks[0].get(1) != FORMAT) {
+            throw new IllegalArgumentException("Formato de grafo desconocido");
+        }
+        vertexCount = chunks[0].get(2);
+        edgeCount = chunks[0].get(3);
+        numStops = chunks[0].get(4);
+        targetsBase = HEADER_INTS + vertexCount + 1L;
+        weightsBase = targetsBase + edgeCount;
+    }
+
+    /**
+     * Copia una instantánea CSR a memoria directa (fuera del heap).
+     * @param csr Instantánea del grafo.
+     * @return Grafo fuera del heap.
+     */
+    public static OffHeapGraph of(CsrGraph csr) {
+        long total = totalInts(csr.getVertexCount(), csr.getEdgeCount());
+        IntBuffer[] chunks = new IntBuffer[chunkCount(total)];
+        for (int i = 0; i < chunks.length; i++) {
+            long ints = Math.min(CHUNK_INTS, total - ((long) i << CHUNK_SHIFT));
+            chunks[i] = ByteBuffer.allocateDirect((int) (ints * 4)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        long[] position = {0};
+        try {
+            writeCsr(csr, value -> put(chunks, position[0]++, value));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);  // La memoria directa no produce errores de E/S
+        }
+        return new OffHeapGraph(chunks, null);
+    }
+
+    /**
+     * Copia el grafo a memoria directa (fuera del heap).
+     * @param graph Grafo de origen.
+     * @return Grafo fuera del heap.
+     */
+    public static OffHeapGraph of(Graph graph) {
+        return of(graph.snapshot());
+    }
+
+    /**
+     * Escribe una instantánea CSR en un archivo para mapearlo después con map.
+     * @param csr Instantánea del grafo.
+     * @param file Archivo de destino (se reemplaza).
+     * @throws IOException Si falla la escritura.
+     */
+    public static void write(CsrGraph csr, Path file) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            writeCsr(csr, value -> {
+                if (!buffer.hasRemaining()) flush(out, buffer);
+                buffer.putInt(value);
+            });
+            flush(out, buffer);
+        }
+    }
+
+    /**
+     * Escribe el grafo en un archivo directamente desde un origen de aristas, sin construir Graph ni CsrGraph.
+     * Recorre el origen dos veces: la primera cuenta el grado de cada parada y la segunda coloca cada arista,
+     * en ambas direcciones, en su fila del archivo mapeado. Al final ordena cada fila por destino y deja una
+     * arista por par con el menor peso, como GraphBuilder. En el heap solo quedan dos enteros por parada y la
+     * fila más larga. Se descartan lazos, IDs y pesos no positivos y aristas con IDs mayores que la mayor parada.
+     * @param source Origen de paradas y aristas; debe entregar lo mismo en ambas pasadas.
+     * @param file Archivo de destino (se reemplaza).
+     * @throws IOException Si falla la lectura del origen o la escritura.
+     */
+    public static void write(EdgeSource source, Path file) throws IOException {
+        DegreeCounter counter = new DegreeCounter();
+        source.forEach(counter);
+        int n = counter.maxStop;
+        int[] start = new int[n + 1];  // start[v-1]: primera posición de la fila v
+        long reserved = 0;
+        for (int v = 1; v <= n; v++) {
+            reserved += v < counter.degree.length ? counter.degree[v] : 0;
+            if (reserved > Integer.MAX_VALUE) throw new IOException("Demasiadas aristas para el formato");
+            start[v] = (int) reserved;
+        }
+        int edges = (int) reserved;
+        long targetsBase = HEADER_INTS + n + 1L;
+        long scratchWeights = targetsBase + edges;  // Pesos antes de compactar las filas
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntBuffer[] chunks = mapChunks(channel, FileChannel.MapMode.READ_WRITE, totalInts(n, edges));
+            RowFiller filler = new RowFiller(chunks, start, targetsBase, scratchWeights);
+            try {
+                source.forEach(filler);
+            } catch (IllegalStateException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            int[] fill = filler.fill;
+
+            // Ordenar cada fila y compactar sin duplicados; los destinos solo se mueven hacia atrás
+            long[] row = new long[16];
+            int out = 0;
+            for (int v = 1; v <= n; v++) {
+                int from = start[v - 1];
+                int size = fill[v - 1] - from;
+                if (size > row.length) row = new long[Math.max(size, row.length * 2)];
+                for (int k = 0; k < size; k++) {
+                    row[k] = GraphBuilder.pack(get(chunks, targetsBase + from + k), get(chunks, scratchWeights + from + k));
+                }
+                Arrays.sort(row, 0, size);
+                put(chunks, HEADER_INTS + v - 1, out);
+                int previous = -1;
+                for (int k = 0; k < size; k++) {
+                    int target = (int) (row[k] >>> 32);
+                    if (target == previous) continue;  // El primero de cada destino tiene el menor peso
+                    put(chunks, targetsBase + out, target);
+                    put(chunks, scratchWeights + out, GraphBuilder.unpackWeight(row[k]));
+                    out++;
+                    previous = target;
+                }
+            }
+            put(chunks, HEADER_INTS + n, out);
+            for (int e = 0; e < out; e++) {
+                put(chunks, targetsBase + out + e, get(chunks, scratchWeights + e));
+            }
+            put(chunks, 0, MAGIC);
+            put(chunks, 1, FORMAT);
+            put(chunks, 2, n);
+            put(chunks, 3, out);
+            put(chunks, 4, n);
+            try {
+                channel.truncate(totalInts(n, out) * 4);
+            } catch (IOException e) {
+                // Algunos sistemas no recortan un archivo mapeado; map acepta el espacio sobrante al final
+            }
+        }
+    }
+
+    /**
+     * Mapea un archivo escrito con write. El grafo queda respaldado por el archivo: solo las páginas
+     * visitadas ocupan memoria y los cambios de peso se escriben en el archivo si es modificable.
+     * @param file Archivo del grafo.
+     * @param writable true para permitir setWeight.
+     * @return Grafo mapeado.
+     * @throws IOException Si el archivo no se puede abrir o no tiene el formato esperado.
+     */
+    public static OffHeapGraph map(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long total = channel.size() / 4;
+            if (total < HEADER_INTS) throw new IOException("Archivo de grafo incompleto: " + file);
+            IntBuffer[] chunks = mapChunks(channel,
+                    writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, total);
+            OffHeapGraph graph = new OffHeapGraph(chunks, channel);
+            if (total < totalInts(graph.vertexCount, graph.edgeCount)) {
+                throw new IOException("Archivo de grafo incompleto: " + file);
+            }
+            return graph;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene el número de vértices representables (IDs 1..n).
+     * @return Número de vértices.
+     */
+    public int getCapacity() {
+        return vertexCount;
+    }
+
+    /**
+     * Obtiene el mayor ID de parada del grafo de origen.
+     * @return Número de paradas.
+     */
+    public int getNumStops() {
+        return numStops;
+    }
+
+    /**
+     * Obtiene el número de aristas dirigidas.
+     * @return Número de aristas.
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Obtiene el índice de la primera arista de una parada.
+     * @param id ID de la parada.
+     * @return Índice inicial (incluido).
+     */
+    public int edgeStart(int id) {
+        return get(HEADER_INTS + id - 1);
+    }
+
+    /**
+     * Obtiene el índice siguiente a la última arista de una parada.
+     * @param id ID de la parada.
+     * @return Índice final (excluido).
+     */
+    public int edgeEnd(int id) {
+        return get(HEADER_INTS + id);
+    }
+
+    /**
+     * Obtiene el destino de una arista.
+     * @param edge Índice de la arista.
+     * @return ID de destino.
+     */
+    public int targetAt(int edge) {
+        return get(targetsBase + edge);
+    }
+
+    /**
+     * Obtiene el peso de una arista.
+     * @param edge Índice de la arista.
+     * @return Peso.
+     */
+    public int weightAt(int edge) {
+        return get(weightsBase + edge);
+    }
+
+    /**
+     * Busca el índice de la arista (from, to) con búsqueda binaria (los destinos están ordenados).
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return Índice de la arista o -1 si no existe.
+     */
+    public int findEdge(int from, int to) {
+        if (from < 1 || from > vertexCount) return -1;
+        int lo = edgeStart(from), hi = edgeEnd(from) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int target = targetAt(mid);
+            if (target < to) lo = mid + 1;
+            else if (target > to) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Verifica si existe una arista dirigida.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return true si existe.
+     */
+    public boolean hasEdge(int from, int to) {
+        return findEdge(from, to) >= 0;
+    }
+
+    /**
+     * Obtiene el peso de la arista entre dos paradas.
+     * @param from ID de origen.
+     * @param to ID de destino.
+     * @return Peso de la arista o -1 si no existe.
+     */
+    public int getWeight(int from, int to) {
+        int edge = findEdge(from, to);
+        return edge >= 0 ? weightAt(edge) : -1;
+    }
+
+    /**
+     * Cambia el peso de una arista existente en ambas direcciones (como Graph.setWeight).
+     * @param from ID de un extremo.
+     * @param to ID del otro extremo.
+     * @param peso Nuevo peso (mayor que 0).
+     * @return true si la arista existe y el peso es válido.
+     */
+    public boolean setWeight(int from, int to, int peso) {
+        if (peso <= 0) return false;
+        int forward = findEdge(from, to);
+        if (forward < 0) return false;
+        put(chunks, weightsBase + forward, peso);
+        int backward = findEdge(to, from);
+        if (backward >= 0) put(chunks, weightsBase + backward, peso);
+        return true;
+    }
+
+    /**
+     * Encuentra la ruta más corta entre dos paradas usando Dijkstra sobre los arreglos fuera del heap.
+     * @param start ID de inicio.
+     * @param end ID de fin.
+     * @return Lista de IDs en la ruta o lista vacía si no hay ruta.
+     */
+    public CustomLinkedList<Integer> findPath(int start, int end) {
+        CustomLinkedList<Integer> path = new CustomLinkedList<>();
+        if (start < 1 || start > numStops || end < 1 || end > numStops) return path;
+
+        OperationEvent trace = Metrics.begin(Metrics.FIND_PATH);
+        long settled = 0;
+        long relaxed = 0;
+        int[] dist = new int[vertexCount + 1];
+        int[] parent = new int[vertexCount + 1];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[start] = 0;
+        IntMinHeap heap = new IntMinHeap();
+        heap.push(0, start);
+        while (!heap.isEmpty()) {
+            int d = heap.peekKey();
+            int current = heap.poll();
+            if (d > dist[current]) continue;
+            settled++;
+            if (current == end) break;
+            for (int e = edgeStart(current), last = edgeEnd(current); e < last; e++) {
+                relaxed++;
+                int next = targetAt(e);
+                int candidate = d + weightAt(e);
+                if (candidate < dist[next]) {
+                    dist[next] = candidate;
+                    parent[next] = current;
+                    heap.push(candidate, next);
+                }
+            }
+        }
+        if (dist[end] != Integer.MAX_VALUE) {
+            // parent[start] queda en 0 (los pesos no son negativos)
+            int length = 0;
+            for (int v = end; v != 0; v = parent[v]) {
+                length++;
+            }
+            int[] ids = new int[length];
+            for (int v = end, i = length - 1; i >= 0; v = parent[v], i--) {
+                ids[i] = v;
+            }
+            for (int id : ids) {
+                path.add(id);
+            }
+        }
+        Metrics.end(trace, settled, relaxed);
+        return path;
+    }
+
+    /**
+     * Fuerza la escritura de los pesos modificados en el archivo y lo cierra.
+     * Los bloques mapeados se liberan cuando el recolector descarta este objeto.
+     * @throws IOException Si falla el cierre.
+     */
+    public void close() throws IOException {
+        if (channel == null || !channel.isOpen()) return;
+        if (!chunks[0].isReadOnly()) channel.force(false);
+        channel.close();
+    }
+
+    private int get(long index) {
+        return get(chunks, index);
+    }
+
+    private static int get(IntBuffer[] chunks, long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & (CHUNK_INTS - 1)));
+    }
+
+    private static void put(IntBuffer[] chunks, long index, int value) {
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & (CHUNK_INTS - 1)), value);
+    }
+
+    private static long totalInts(int vertices, int edges) {
+        return HEADER_INTS + vertices + 1L + 2L * edges;
+    }
+
+    private static int chunkCount(long totalInts) {
+        return (int) ((totalInts + CHUNK_INTS - 1) >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Mapea los primeros total enteros del archivo en bloques; en modo escritura el archivo crece si hace falta.
+     */
+    private static IntBuffer[] mapChunks(FileChannel channel, FileChannel.MapMode mode, long total) throws IOException {
+        IntBuffer[] chunks = new IntBuffer[chunkCount(total)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            long ints = Math.min(CHUNK_INTS, total - start);
+            MappedByteBuffer mapped = channel.map(mode, start * 4, ints * 4);
+            chunks[i] = mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return chunks;
+    }
+
+    /**
+     * Recorre la instantánea en el orden del formato y entrega cada entero.
+     */
+    private static void writeCsr(CsrGraph csr, IntSink sink) throws IOException {
+        sink.accept(MAGIC);
+        sink.accept(FORMAT);
+        sink.accept(csr.getVertexCount());
+        sink.accept(csr.getEdgeCount());
+        sink.accept(csr.getNumStops());
+        for (int i = 5; i < HEADER_INTS; i++) {
+            sink.accept(0);
+        }
+        for (int offset : csr.offsets) {
+            sink.accept(offset);
+        }
+        for (int target : csr.targets) {
+            sink.accept(target);
+        }
+        for (int weight : csr.weights) {
+            sink.accept(weight);
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Destino de los enteros del formato (memoria directa o archivo).
+     */
+    private interface IntSink {
+        void accept(int value) throws IOException;
+    }
+
+    /**
+     * Primera pasada de write: mayor parada declarada y grado de cada parada.
+     */
+    private static class DegreeCounter implements EdgeSink {
+        int[] degree = new int[Graph.MAX_STOPS + 1];
+        int maxStop;
+
+        @Override
+        public void stop(int id) {
+            if (id > maxStop) maxStop = id;
+        }
+
+        @Override
+        public void edge(int from, int to, int peso) {
+            if (from < 1 || to < 1 || from == to || peso <= 0) return;
+            int needed = Math.max(from, to) + 1;
+            if (needed > degree.length) degree = Arrays.copyOf(degree, Math.max(needed, degree.length * 2));
+            degree[from]++;
+            degree[to]++;
+        }
+    }
+
+    /**
+     * Segunda pasada de write: coloca cada arista en ambas filas. Las aristas con una parada no declarada
+     * dejan huecos que se eliminan al compactar.
+     */
+    private static class RowFiller implements EdgeSink {
+        final int[] fill;
+        private final int[] start;
+        private final IntBuffer[] chunks;
+        private final long targetsBase;
+        private final long weightsBase;
+
+        RowFiller(IntBuffer[] chunks, int[] start, long targetsBase, long weightsBase) {
+            this.chunks = chunks;
+            this.start = start;
+            this.fill = Arrays.copyOf(start, start.length - 1);
+            this.targetsBase = targetsBase;
+            this.weightsBase = weightsBase;
+        }
+
+        @Override
+        public void stop(int id) {
+        }
+
+        @Override
+        public void edge(int from, int to, int peso) {
+            int n = fill.length;
+            if (from < 1 || to < 1 || from == to || peso <= 0 || from > n || to > n) return;
+            place(from, to, peso);
+            place(to, from, peso);
+        }
+
+        private void place(int from, int to, int peso) {
+            int at = fill[from - 1]++;
+            if (at >= start[from]) throw new IllegalStateException("El origen de aristas cambió entre pasadas");
+            put(chunks, targetsBase + at, to);
+            put(chunks, weightsBase + at, peso);
+        }
+    }
+}
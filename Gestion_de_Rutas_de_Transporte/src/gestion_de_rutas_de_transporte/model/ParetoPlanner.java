@@ -0,0 +1,281 @@
+/**
+ * Clase que busca viajes con varios criterios a la vez: costo, tramos recorridos y transbordos entre rutas.
+ * En lugar de un único mejor camino devuelve el frente de Pareto: todos los viajes que ningún otro iguala o
+ * mejora en los tres criterios (por ejemplo, uno más rápido con dos transbordos y otro más lento sin ninguno).
+ * Trabaja sobre la red expandida por rutas (TransferGraph) con un algoritmo de etiquetas (label-setting):
+ * cada posición parada-ruta guarda una bolsa de etiquetas no dominadas. Antes de buscar se calcula con un
+ * Dijkstra inverso sobre la instantánea CSR la distancia de cada parada al destino, que es una cota inferior
+ * del costo restante: las etiquetas se procesan en orden de costo + cota (como A*) y se descartan si las domina
+ * otra de su bolsa o, sumando la cota, alguna que ya llegó al destino.
+ * Las etiquetas viven en arreglos primitivos reutilizados entre consultas (costo, tramos, transbordos,
+ * posición y etiqueta anterior) y las bolsas son tramos fijos de MAX_BAG entradas por posición: si una bolsa
+ * se llena, la nueva etiqueta reemplaza a la de mayor costo. Esto acota memoria y tiempo a cambio de poder
+ * omitir algún viaje caro del frente; el de menor costo con a lo sumo MAX_TRANSFERS transbordos siempre se
+ * conserva.
+ * La red expandida se reconstruye en cada consulta (es lineal), así refleja las rutas editadas.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
+import java.util.Arrays;
+
+
+public class ParetoPlanner {
+    public static final int MAX_BAG = 8;
+    public static final int MAX_TRANSFERS = 5;
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final Graph graph;
+    private final CustomLinkedList<Route> routes;
+    private final IntMinHeap heap = new IntMinHeap();
+
+    // Etiquetas: la etiqueta i es (labelCost[i], labelHops[i], labelTransfers[i]) en la posición labelSlot[i]
+    private int[] labelCost = new int[256];
+    private int[] labelHops = new int[256];
+    private int[] labelTransfers = new int[256];
+    private int[] labelSlot = new int[256];
+    private int[] labelParent = new int[256];
+    private boolean[] labelTransferred = new boolean[256];  // Se llegó con un transbordo (no se encadena otro)
+    private boolean[] labelDead = new boolean[256];         // Dominada después de encolarse
+    private int labelCount;
+
+    // Bolsas: las etiquetas de la posición s ocupan bag[s * MAX_BAG .. s * MAX_BAG + bagSize[s])
+    private int[] bag;
+    private int[] bagSize;
+    private int[] bagEpoch;
+    private int epoch;
+    private int[] front = new int[16];  // Etiquetas que llegaron al destino
+    private int frontSize;
+    private int[] chain = new int[16];
+    private int[] remaining;  // Cota inferior del costo de cada parada al destino
+    private long relaxed;
+
+    /**
+     * Constructor del planificador.
+     * @param graph Grafo con los costos de los tramos.
+     * @param routes Rutas del sistema.
+     */
+    public ParetoPlanner(Graph graph, CustomLinkedList<Route> routes) {
+        this.graph = graph;
+        this.routes = routes;
+    }
+
+    /**
+     * Busca el frente de Pareto de viajes entre dos paradas.
+     * @param origin ID de la parada de origen.
+     * @param destination ID de la parada de destino.
+     * @return Viajes no dominados ordenados por costo, o lista vacía si ninguna ruta los conecta.
+     */
+    public CustomLinkedList<Journey> search(int origin, int destination) {
+        CustomLinkedList<Journey> journeys = new CustomLinkedList<>();
+        CsrGraph csr = graph.snapshot();
+        if (origin < 1 || origin > csr.getNumStops() || destination < 1 || destination > csr.getNumStops()
+                || !graph.getComponents().connected(origin, destination)) {
+            return journeys;
+        }
+        TransferGraph network = new TransferGraph(csr, routes);
+        int slots = network.getSlotCount();
+        if (bagSize == null || bagSize.length != slots) {
+            bag = new int[slots * MAX_BAG];
+            bagSize = new int[slots];
+            bagEpoch = new int[slots];
+            epoch = 0;
+        }
+        if (++epoch == 0) {  // Desborde de la época: se reinician las bolsas
+            Arrays.fill(bagEpoch, 0);
+            epoch = 1;
+        }
+
+        OperationEvent trace = Metrics.begin(Metrics.PARETO);
+        long settled = 0;
+        relaxed = 0;
+        distancesTo(csr, destination);
+        labelCount = 0;
+        frontSize = 0;
+        int[] slotStop = network.slotStop;
+        int[] slotRoute = network.slotRoute;
+        int[] routeStart = network.routeStart;
+        int[] rideCost = network.rideCost;
+        int[] stopStart = network.stopStart;
+        int[] stopSlots = network.stopSlots;
+
+        // Subir a cualquier ruta del origen no cuenta como transbordo
+        for (int i = stopStart[origin - 1]; i < stopStart[origin]; i++) {
+            insert(slotStop, stopSlots[i], 0, 0, 0, -1, true);
+        }
+        while (!heap.isEmpty()) {
+            int label = heap.poll();
+            if (labelDead[label]) continue;
+            settled++;
+            int slot = labelSlot[label];
+            int stop = slotStop[slot];
+            if (stop == destination) {
+                addToFront(label);
+                continue;
+            }
+            int cost = labelCost[label];
+            int hops = labelHops[label];
+            int transfers = labelTransfers[label];
+            int route = slotRoute[slot];
+            if (slot + 1 < routeStart[route + 1] && rideCost[slot] >= 0) {
+                insert(slotStop, slot + 1, cost + rideCost[slot], hops + 1, transfers, label, false);
+            }
+            if (slot > routeStart[route] && rideCost[slot - 1] >= 0) {
+                insert(slotStop, slot - 1, cost + rideCost[slot - 1], hops + 1, transfers, label, false);
+            }
+            if (!labelTransferred[label]) {
+                // Pasar a otra posición de la misma ruta (rutas que repiten parada) no es transbordo entre rutas
+                for (int i = stopStart[stop - 1]; i < stopStart[stop]; i++) {
+                    int other = stopSlots[i];
+                    if (other == slot) continue;
+                    int changed = slotRoute[other] == route ? transfers : transfers + 1;
+                    insert(slotStop, other, cost, hops, changed, label, true);
+                }
+            }
+        }
+        Metrics.end(trace, settled, relaxed);
+
+        for (int i = 0; i < frontSize; i++) {
+            journeys.add(toJourney(network, front[i]));
+        }
+        return journeys;
+    }
+
+    /**
+     * Crea una etiqueta en una posición si no la domina ninguna de su bolsa ni del destino, y descarta las
+     * etiquetas de la bolsa que quedan dominadas.
+     */
+    private void insert(int[] slotStop, int slot, int cost, int hops, int transfers, int parent, boolean transferred) {
+        relaxed++;
+        int bound = remaining[slotStop[slot] - 1];
+        if (transfers > MAX_TRANSFERS || bound == INF) return;
+        for (int i = 0; i < frontSize; i++) {
+            if (dominates(front[i], cost + bound, hops, transfers)) return;
+        }
+        if (bagEpoch[slot] != epoch) {
+            bagEpoch[slot] = epoch;
+            bagSize[slot] = 0;
+        }
+        int base = slot * MAX_BAG;
+        int size = bagSize[slot];
+        for (int i = 0; i < size; i++) {
+            if (dominates(bag[base + i], cost, hops, transfers)) return;
+        }
+        int kept = 0;
+        int worst = -1;
+        for (int i = 0; i < size; i++) {
+            int other = bag[base + i];
+            if (cost <= labelCost[other] && hops <= labelHops[other] && transfers <= labelTransfers[other]) {
+                labelDead[other] = true;
+                continue;
+            }
+            if (worst < 0 || labelCost[other] > labelCost[bag[base + worst]]) worst = kept;
+            bag[base + kept++] = other;
+        }
+        bagSize[slot] = kept;
+        if (kept == MAX_BAG && labelCost[bag[base + worst]] <= cost) return;  // Bolsa llena y es la más cara
+        int label = newLabel(slot, cost, hops, transfers, parent, transferred);
+        if (kept == MAX_BAG) {
+            // Bolsa llena: la nueva etiqueta reemplaza a la de mayor costo
+            labelDead[bag[base + worst]] = true;
+            bag[base + worst] = label;
+        } else {
+            bag[base + kept++] = label;
+        }
+        bagSize[slot] = kept;
+        heap.push(cost + bound, label);
+    }
+
+    /**
+     * Calcula con Dijkstra desde el destino la distancia de cada parada a él (el grafo no es dirigido).
+     */
+    private void distancesTo(CsrGraph csr, int destination) {
+        int n = csr.getVertexCount();
+        if (remaining == null || remaining.length != n) remaining = new int[n];
+        Arrays.fill(remaining, INF);
+        remaining[destination - 1] = 0;
+        heap.clear();
+        heap.push(0, destination);
+        while (!heap.isEmpty()) {
+            int d = heap.peekKey();
+            int u = heap.poll();
+            if (d > remaining[u - 1]) continue;
+            for (int e = csr.offsets[u - 1]; e < csr.offsets[u]; e++) {
+                int w = csr.targets[e];
+                if (d + csr.weights[e] < remaining[w - 1]) {
+                    remaining[w - 1] = d + csr.weights[e];
+                    heap.push(remaining[w - 1], w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra una etiqueta que llegó al destino y quita del frente las que ahora quedan dominadas.
+     */
+    private void addToFront(int label) {
+        int kept = 0;
+        for (int i = 0; i < frontSize; i++) {
+            int other = front[i];
+            if (dominates(other, labelCost[label], labelHops[label], labelTransfers[label])) return;
+            if (!dominates(label, labelCost[other], labelHops[other], labelTransfers[other])) front[kept++] = other;
+        }
+        if (kept == front.length) front = Arrays.copyOf(front, kept * 2);
+        front[kept++] = label;
+        frontSize = kept;
+    }
+
+    /**
+     * Verifica si una etiqueta es igual o mejor en los tres criterios.
+     */
+    private boolean dominates(int label, int cost, int hops, int transfers) {
+        return labelCost[label] <= cost && labelHops[label] <= hops && labelTransfers[label] <= transfers;
+    }
+
+    private int newLabel(int slot, int cost, int hops, int transfers, int parent, boolean transferred) {
+        if (labelCount == labelCost.length) {
+            int capacity = labelCount * 2;
+            labelCost = Arrays.copyOf(labelCost, capacity);
+            labelHops = Arrays.copyOf(labelHops, capacity);
+            labelTransfers = Arrays.copyOf(labelTransfers, capacity);
+            labelSlot = Arrays.copyOf(labelSlot, capacity);
+            labelParent = Arrays.copyOf(labelParent, capacity);
+            labelTransferred = Arrays.copyOf(labelTransferred, capacity);
+            labelDead = Arrays.copyOf(labelDead, capacity);
+        }
+        int label = labelCount++;
+        labelCost[label] = cost;
+        labelHops[label] = hops;
+        labelTransfers[label] = transfers;
+        labelSlot[label] = slot;
+        labelParent[label] = parent;
+        labelTransferred[label] = transferred;
+        labelDead[label] = false;
+        return label;
+    }
+
+    /**
+     * Reconstruye el viaje siguiendo las etiquetas anteriores; los transbordos no repiten la parada.
+     */
+    private Journey toJourney(TransferGraph network, int label) {
+        int length = 0;
+        for (int current = label; current != -1; current = labelParent[current]) {
+            if (length == chain.length) chain = Arrays.copyOf(chain, length * 2);
+            chain[length++] = current;
+        }
+        int[] stops = new int[labelHops[label] + 1];
+        int[] routeIds = new int[stops.length];
+        int count = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int current = chain[i];
+            if (i < length - 1 && labelTransferred[current]) continue;
+            stops[count] = network.slotStop[labelSlot[current]];
+            routeIds[count++] = network.routeIdOf(labelSlot[current]);
+        }
+        return new Journey(stops, routeIds, labelCost[label], labelHops[label], labelTransfers[label]);
+    }
+}
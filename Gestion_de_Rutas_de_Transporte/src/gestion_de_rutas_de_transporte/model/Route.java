@@ -6,12 +6,13 @@
 package gestion_de_rutas_de_transporte.model;
 
 import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.NamePool;
 import java.awt.Color;
 
 
 public class Route {
     private int id;
-    private String name;
+    private int nameId;  // Símbolo en NamePool
     private CustomLinkedList<Integer> stopIds;
     private Color color;  // Color de la ruta
     /**
@@ -21,7 +22,18 @@ public class Route {
      */
     public Route(int id, String name) {
         this.id = id;
-        this.name = name;
+        this.nameId = NamePool.intern(name);
+        this.stopIds = new CustomLinkedList<>();
+    }
+
+    /**
+     * Constructor con el nombre ya registrado en NamePool (carga de archivos).
+     * @param id Identificador único de la ruta.
+     * @param nameId ID del nombre en NamePool.
+     */
+    public Route(int id, int nameId) {
+        this.id = id;
+        this.nameId = nameId;
         this.stopIds = new CustomLinkedList<>();
     }
     
@@ -48,7 +60,15 @@ public class Route {
      * @return Nombre de la ruta.
      */
     public String getName() {
-        return name;
+        return NamePool.get(nameId);
+    }
+
+    /**
+     * Obtiene el ID del nombre en NamePool (para comparar sin crear el String).
+     * @return ID del símbolo.
+     */
+    public int getNameId() {
+        return nameId;
     }
     
     /**
@@ -64,7 +84,7 @@ public class Route {
      * @param name Nuevo nombre.
      */
     public void setName(String name) {
-        this.name = name;
+        this.nameId = NamePool.intern(name);
     }
     
     /**
@@ -90,7 +110,7 @@ public class Route {
      */
     @Override
     public String toString() {
-        return "Route{" + "id=" + id + ", name='" + name + "', stops=" + stopIds + '}';
+        return "Route{" + "id=" + id + ", name='" + getName() + "', stops=" + stopIds + '}';
     }
 
     /**
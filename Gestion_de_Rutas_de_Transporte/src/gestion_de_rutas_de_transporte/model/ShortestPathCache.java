@@ -0,0 +1,107 @@
+/**
+ * Clase que mantiene en caché árboles de caminos mínimos por parada origen (las filas de la tabla de distancias).
+ * Se registra como observador del grafo y repara cada árbol de forma incremental ante cada cambio de peso,
+ * cierre o apertura de arista, en lugar de recalcularlo. Cuando se llena descarta el árbol usado hace más tiempo.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
+
+
+public class ShortestPathCache implements GraphListener {
+    private final Graph graph;
+    private final ShortestPathTree[] trees;
+    private int size;
+
+    /**
+     * Constructor de la caché.
+     * @param graph Grafo observado.
+     * @param maxTrees Número máximo de orígenes en caché.
+     */
+    public ShortestPathCache(Graph graph, int maxTrees) {
+        this.graph = graph;
+        this.trees = new ShortestPathTree[Math.max(1, maxTrees)];
+        this.size = 0;
+        graph.addListener(this);
+    }
+
+    /**
+     * Obtiene el árbol de caminos mínimos de un origen, calculándolo si no está en caché.
+     * @param source ID de la parada origen.
+     * @return Árbol de caminos mínimos.
+     */
+    public ShortestPathTree getTree(int source) {
+        for (int i = 0; i < size; i++) {
+            if (trees[i].getSource() == source) {
+                ShortestPathTree tree = trees[i];
+                // Mover al frente (usado recientemente)
+                System.arraycopy(trees, 0, trees, 1, i);
+                trees[0] = tree;
+                return tree;
+            }
+        }
+        ShortestPathTree tree = new ShortestPathTree(graph, source);
+        int keep = Math.min(size, trees.length - 1);
+        System.arraycopy(trees, 0, trees, 1, keep);
+        trees[0] = tree;
+        size = keep + 1;
+        return tree;
+    }
+
+    /**
+     * Encuentra la ruta más corta entre dos paradas usando el árbol en caché del origen.
+     * @param start ID de inicio.
+     * @param end ID de fin.
+     * @return Lista de IDs en la ruta o lista vacía si no hay ruta.
+     */
+    public CustomLinkedList<Integer> findPath(int start, int end) {
+        if (start < 1 || start > graph.getNumStops() || end < 1 || end > graph.getNumStops()
+                || !graph.getComponents().connected(start, end)) {
+            return new CustomLinkedList<>();
+        }
+        OperationEvent trace = Metrics.begin(Metrics.CACHED_PATH);
+        CustomLinkedList<Integer> path = getTree(start).pathTo(end);
+        Metrics.end(trace);
+        return path;
+    }
+
+    /**
+     * Obtiene la distancia mínima entre dos paradas.
+     * @param start ID de inicio.
+     * @param end ID de fin.
+     * @return Distancia o ShortestPathTree.UNREACHABLE si no hay ruta.
+     */
+    public int distance(int start, int end) {
+        if (start < 1 || start > graph.getNumStops() || !graph.getComponents().connected(start, end)) {
+            return ShortestPathTree.UNREACHABLE;
+        }
+        return getTree(start).distanceTo(end);
+    }
+
+    /**
+     * Descarta todos los árboles en caché.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            trees[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Repara los árboles en caché tras el cambio de una arista.
+     * @param from ID de un extremo.
+     * @param to ID del otro extremo.
+     * @param oldWeight Peso anterior o -1.
+     * @param newWeight Peso nuevo o -1.
+     */
+    @Override
+    public void edgeChanged(int from, int to, int oldWeight, int newWeight) {
+        for (int i = 0; i < size; i++) {
+            trees[i].edgeChanged(from, to, oldWeight, newWeight);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Clase que representa el árbol de caminos mínimos desde una parada origen (Dijkstra).
+ * Guarda distancias y padres en arreglos primitivos y se repara de forma incremental cuando cambia
+ * una arista: una disminución de peso propaga las mejoras desde el extremo beneficiado, y un aumento
+ * o cierre de una arista del árbol invalida solo el subárbol colgante y vuelve a asentar esos vértices
+ * a partir de sus vecinos no afectados (esquema de Ramalingam-Reps). Los cambios en aristas que no
+ * pertenecen al árbol y que no mejoran distancias no cuestan nada.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+
+
+public class ShortestPathTree {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Graph graph;
+    private final int source;
+    private final int[] dist;
+    private final int[] parent;
+    private final int[] mark;
+    private final int[] stack;
+    private final IntMinHeap heap = new IntMinHeap();
+    private int epoch;
+
+    /**
+     * Constructor del árbol. Calcula las distancias desde el origen con Dijkstra.
+     * @param graph Grafo sobre el que se calcula.
+     * @param source ID de la parada origen.
+     */
+    public ShortestPathTree(Graph graph, int source) {
+        this.graph = graph;
+        this.source = source;
+        int n = graph.getCapacity();
+        dist = new int[n];
+        parent = new int[n];
+        mark = new int[n];
+        stack = new int[n];
+        for (int i = 0; i < n; i++) {
+            dist[i] = UNREACHABLE;
+            parent[i] = -1;
+        }
+        if (source >= 1 && source <= n) {
+            dist[source - 1] = 0;
+            heap.push(0, source);
+            settle();
+        }
+    }
+
+    /**
+     * Obtiene el ID de la parada origen.
+     * @return ID de origen.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Obtiene la distancia mínima desde el origen.
+     * @param id ID de la parada destino.
+     * @return Distancia o UNREACHABLE si no hay camino.
+     */
+    public int distanceTo(int id) {
+        if (id < 1 || id > dist.length) return UNREACHABLE;
+        return dist[id - 1];
+    }
+
+    /**
+     * Obtiene el padre de una parada en el árbol.
+     * @param id ID de la parada.
+     * @return ID del padre o -1 si es el origen o no es alcanzable.
+     */
+    public int parentOf(int id) {
+        if (id < 1 || id > parent.length) return -1;
+        return parent[id - 1];
+    }
+
+    /**
+     * Reconstruye el camino mínimo desde el origen hasta una parada.
+     * @param id ID de la parada destino.
+     * @return Lista de IDs del camino o lista vacía si no hay camino.
+     */
+    public CustomLinkedList<Integer> pathTo(int id) {
+        CustomLinkedList<Integer> path = new CustomLinkedList<>();
+        if (distanceTo(id) == UNREACHABLE) return path;
+        int length = 0;
+        for (int current = id; current != -1; current = parent[current - 1]) {
+            stack[length++] = current;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            path.add(stack[i]);
+        }
+        return path;
+    }
+
+    /**
+     * Repara el árbol tras el cambio de una arista no dirigida.
+     * @param from ID de un extremo.
+     * @param to ID del otro extremo.
+     * @param oldWeight Peso anterior o -1 si la arista es nueva.
+     * @param newWeight Peso nuevo o -1 si la arista se eliminó.
+     */
+    public void edgeChanged(int from, int to, int oldWeight, int newWeight) {
+        if (from < 1 || from > dist.length || to < 1 || to > dist.length) return;
+        boolean decreased = oldWeight == -1 || (newWeight != -1 && newWeight < oldWeight);
+        if (decreased) {
+            relaxDecreased(from, to, newWeight);
+            relaxDecreased(to, from, newWeight);
+            settle();
+        } else if (oldWeight != newWeight) {
+            if (parent[to - 1] == from) {
+                resettleSubtree(to);
+            } else if (parent[from - 1] == to) {
+                resettleSubtree(from);
+            }
+        }
+    }
+
+    /**
+     * Intenta mejorar la distancia de un extremo usando la arista que bajó de peso.
+     * @param u Extremo desde el que se relaja.
+     * @param v Extremo que puede mejorar.
+     * @param weight Peso nuevo de la arista.
+     */
+    private void relaxDecreased(int u, int v, int weight) {
+        if (dist[u - 1] == UNREACHABLE) return;
+        long candidate = (long) dist[u - 1] + weight;
+        if (candidate < dist[v - 1]) {
+            dist[v - 1] = (int) candidate;
+            parent[v - 1] = u;
+            heap.push((int) candidate, v);
+        }
+    }
+
+    /**
+     * Invalida el subárbol que cuelga de una parada y lo vuelve a asentar desde sus vecinos no afectados.
+     * @param root Raíz del subárbol afectado.
+     */
+    private void resettleSubtree(int root) {
+        int stamp = ++epoch;
+        int affected = 0;
+        stack[affected++] = root;
+        mark[root - 1] = stamp;
+        // Recorrer el subárbol: los hijos de y son vecinos cuyo padre es y
+        for (int i = 0; i < affected; i++) {
+            int y = stack[i];
+            Node<Pair<Integer, Integer>> edge = graph.adjacency[y - 1].head;
+            while (edge != null) {
+                int x = edge.getData().first;
+                if (parent[x - 1] == y && mark[x - 1] != stamp) {
+                    mark[x - 1] = stamp;
+                    stack[affected++] = x;
+                }
+                edge = edge.getNext();
+            }
+        }
+        for (int i = 0; i < affected; i++) {
+            dist[stack[i] - 1] = UNREACHABLE;
+            parent[stack[i] - 1] = -1;
+        }
+        // Sembrar cada vértice afectado con su mejor vecino fuera del subárbol
+        for (int i = 0; i < affected; i++) {
+            int x = stack[i];
+            long best = UNREACHABLE;
+            int bestParent = -1;
+            Node<Pair<Integer, Integer>> edge = graph.adjacency[x - 1].head;
+            while (edge != null) {
+                int y = edge.getData().first;
+                if (mark[y - 1] != stamp && dist[y - 1] != UNREACHABLE) {
+                    long candidate = (long) dist[y - 1] + edge.getData().second;
+                    if (candidate < best) {
+                        best = candidate;
+                        bestParent = y;
+                    }
+                }
+                edge = edge.getNext();
+            }
+            if (bestParent != -1) {
+                dist[x - 1] = (int) best;
+                parent[x - 1] = bestParent;
+                heap.push((int) best, x);
+            }
+        }
+        settle();
+    }
+
+    /**
+     * Procesa la cola de prioridad hasta vaciarla (fase de asentamiento de Dijkstra).
+     */
+    private void settle() {
+        while (!heap.isEmpty()) {
+            int d = heap.peekKey();
+            int u = heap.poll();
+            if (d > dist[u - 1]) continue;
+            Node<Pair<Integer, Integer>> edge = graph.adjacency[u - 1].head;
+            while (edge != null) {
+                int v = edge.getData().first;
+                long candidate = (long) d + edge.getData().second;
+                if (candidate < dist[v - 1]) {
+                    dist[v - 1] = (int) candidate;
+                    parent[v - 1] = u;
+                    heap.push((int) candidate, v);
+                }
+                edge = edge.getNext();
+            }
+        }
+    }
+}
@@ -1,35 +1,58 @@
 /**
  * Clase que representa una parada en el sistema de rutas de transporte.
- * Contiene un identificador único, un nombre y coordenadas (x, y) para visualización gráfica.
+ * Contiene un identificador único, un nombre y coordenadas (x, y) para visualización gráfica, guardados en
+ * las columnas de un EntityStore: la parada es una vista sobre su fila.
  * @author Elian
  */
 package gestion_de_rutas_de_transporte.model;
 
+import gestion_de_rutas_de_transporte.utils.NamePool;
 
 public class Stop {
-    private int id;
-    private String name;
-    private int x, y; // Posiciones para dibujo
+    EntityStore store;  // Almacén por columnas con los datos de la parada
+    int row;            // Fila en el almacén (la ajusta EntityStore si la fila se mueve)
 
     /**
-     * Constructor de la parada.
+     * Constructor de una parada suelta (con su propio almacén de una fila). Las paradas del sistema se crean
+     * con EntityStore.addStop para que sus datos queden en las columnas compartidas.
      * @param id Identificador único.
      * @param name Nombre de la parada.
      * @param x Coordenada X.
      * @param y Coordenada Y.
      */
     public Stop(int id, String name, int x, int y) {
-        this.id = id;
-        this.name = name;
-        this.x = x;
-        this.y = y;
+        this(id, NamePool.intern(name), x, y);
     }
-/**
+
+    /**
+     * Constructor de una parada suelta con el nombre ya registrado en NamePool.
+     * @param id Identificador único.
+     * @param nameId ID del nombre en NamePool.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     */
+    public Stop(int id, int nameId, int x, int y) {
+        store = new EntityStore(1);
+        row = store.append(id, nameId, x, y);
+        store.bind(row, this);
+    }
+
+    /**
+     * Constructor de la vista de una fila (lo usa EntityStore).
+     * @param store Almacén.
+     * @param row Fila.
+     */
+    Stop(EntityStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    /**
      * Obtiene el ID.
      * @return ID de la parada.
      */
     public int getId() {
-        return id;
+        return store.getStopId(row);
     }
 
     /**
@@ -37,7 +60,7 @@ public class Stop {
      * @param id Nuevo ID.
      */
     public void setId(int id) {
-        this.id = id;
+        store.setStopId(row, id);
     }
 
     /**
@@ -45,7 +68,15 @@ public class Stop {
      * @return Nombre de la parada.
      */
     public String getName() {
-        return name;
+        return NamePool.get(getNameId());
+    }
+
+    /**
+     * Obtiene el ID del nombre en NamePool (para comparar sin crear el String).
+     * @return ID del símbolo.
+     */
+    public int getNameId() {
+        return store.getStopNameId(row);
     }
 
     /**
@@ -53,7 +84,7 @@ public class Stop {
      * @param name Nuevo nombre.
      */
     public void setName(String name) {
-        this.name = name;
+        store.setStopNameId(row, NamePool.intern(name));
     }
 
     /**
@@ -61,7 +92,7 @@ public class Stop {
      * @return Coordenada X.
      */
     public int getX() {
-        return x;
+        return store.getStopX(row);
     }
 
     /**
@@ -69,7 +100,7 @@ public class Stop {
      * @param x Nueva coordenada X.
      */
     public void setX(int x) {
-        this.x = x;
+        store.setStopX(row, x);
     }
 
     /**
@@ -77,7 +108,7 @@ public class Stop {
      * @return Coordenada Y.
      */
     public int getY() {
-        return y;
+        return store.getStopY(row);
     }
 
     /**
@@ -85,7 +116,7 @@ public class Stop {
      * @param y Nueva coordenada Y.
      */
     public void setY(int y) {
-        this.y = y;
+        store.setStopY(row, y);
     }
 
     /**
@@ -94,7 +125,7 @@ public class Stop {
      */
     @Override
     public String toString() {
-        return "Stop{" + "id=" + id + ", name='" + name + '\'' + '}';
+        return "Stop{" + "id=" + getId() + ", name='" + getName() + '\'' + '}';
     }
 
     /**
@@ -107,6 +138,6 @@ public class Stop {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Stop stop = (Stop) obj;
-        return id == stop.id;
+        return getId() == stop.getId();
     }
 }
\ No newline at end of file
@@ -0,0 +1,347 @@
+/**
+ * Clase que indexa las paradas por sus coordenadas en una rejilla uniforme dispersa (solo existen las celdas
+ * ocupadas) y por ID. Permite buscar la parada más cercana a un punto, las K más cercanas, las que están
+ * dentro de un radio o de un rectángulo, revisando solo las celdas que pueden contener resultados.
+ * Debe mantenerse sincronizada con la lista de paradas: add al agregar, remove al eliminar y move si una
+ * parada cambia de posición.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.LongHashMap;
+
+
+public class StopIndex {
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    private final int cellSize;
+    private final LongHashMap<Cell> cells = new LongHashMap<>();
+    private final LongHashMap<Stop> byId = new LongHashMap<>();
+    private int minCol, maxCol, minRow, maxRow;
+
+    /**
+     * Constructor del índice con el tamaño de celda por defecto.
+     */
+    public StopIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Constructor del índice.
+     * @param cellSize Lado de cada celda en unidades de coordenadas (conviene cercano a la separación típica).
+     */
+    public StopIndex(int cellSize) {
+        this.cellSize = Math.max(1, cellSize);
+        resetBounds();
+    }
+
+    /**
+     * Reconstruye el índice a partir de una lista de paradas.
+     * @param stops Lista de paradas.
+     */
+    public void rebuild(CustomLinkedList<Stop> stops) {
+        clear();
+        byId.ensureCapacity(stops.getSize());
+        Node<Stop> current = stops.getHead();
+        while (current != null) {
+            add(current.getData());
+            current = current.getNext();
+        }
+    }
+
+    /**
+     * Reconstruye el índice recorriendo las columnas de un almacén de paradas (IDs y coordenadas contiguos).
+     * @param store Almacén de paradas.
+     */
+    public void rebuild(EntityStore store) {
+        clear();
+        int n = store.getStopCount();
+        byId.ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            insert(store.getStopAt(i), store.getStopId(i), store.getStopX(i), store.getStopY(i));
+        }
+    }
+
+    /**
+     * Agrega una parada (si ya había otra con el mismo ID, la reemplaza).
+     * @param stop Parada a indexar.
+     */
+    public void add(Stop stop) {
+        insert(stop, stop.getId(), stop.getX(), stop.getY());
+    }
+
+    /**
+     * Indexa una parada con sus datos ya leídos.
+     */
+    private void insert(Stop stop, int id, int x, int y) {
+        remove(id);
+        byId.put(id, stop);
+        int col = Math.floorDiv(x, cellSize);
+        int row = Math.floorDiv(y, cellSize);
+        long key = cellKey(col, row);
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell();
+            cells.put(key, cell);
+        }
+        cell.add(stop);
+        minCol = Math.min(minCol, col);
+        maxCol = Math.max(maxCol, col);
+        minRow = Math.min(minRow, row);
+        maxRow = Math.max(maxRow, row);
+    }
+
+    /**
+     * Elimina una parada por su ID.
+     * @param id ID de la parada.
+     * @return true si estaba indexada.
+     */
+    public boolean remove(int id) {
+        Stop stop = byId.remove(id);
+        if (stop == null) return false;
+        removeFromCell(stop, stop.getX(), stop.getY());
+        return true;
+    }
+
+    /**
+     * Actualiza la celda de una parada cuyas coordenadas cambiaron.
+     * @param stop Parada ya modificada.
+     * @param oldX Coordenada X anterior.
+     * @param oldY Coordenada Y anterior.
+     */
+    public void move(Stop stop, int oldX, int oldY) {
+        if (byId.get(stop.getId()) != stop) return;
+        removeFromCell(stop, oldX, oldY);
+        byId.remove(stop.getId());
+        add(stop);
+    }
+
+    /**
+     * Obtiene una parada por su ID en O(1).
+     * @param id ID de la parada.
+     * @return La parada o null si no existe.
+     */
+    public Stop get(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Obtiene el número de paradas indexadas.
+     * @return Número de paradas.
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void clear() {
+        cells.clear();
+        byId.clear();
+        resetBounds();
+    }
+
+    /**
+     * Busca la parada más cercana a un punto.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @return Parada más cercana o null si el índice está vacío.
+     */
+    public Stop nearest(int x, int y) {
+        CustomLinkedList<Stop> found = nearest(x, y, 1);
+        return found.getSize() > 0 ? found.getHead().getData() : null;
+    }
+
+    /**
+     * Busca las K paradas más cercanas a un punto, recorriendo anillos de celdas alrededor del punto
+     * hasta que ninguna celda sin revisar pueda mejorar el K-ésimo resultado.
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @param k Número de paradas.
+     * @return Lista ordenada de la más cercana a la más lejana.
+     */
+    public CustomLinkedList<Stop> nearest(int x, int y, int k) {
+        CustomLinkedList<Stop> result = new CustomLinkedList<>();
+        if (k < 1 || byId.size() == 0) return result;
+        k = Math.min(k, byId.size());
+        Stop[] best = new Stop[k];
+        long[] bestDist = new long[k];
+        int found = 0;
+
+        int col = Math.floorDiv(x, cellSize);
+        int row = Math.floorDiv(y, cellSize);
+        // Solo los anillos que tocan la zona ocupada pueden tener paradas
+        int firstRing = Math.max(Math.max(minCol - col, col - maxCol), Math.max(minRow - row, row - maxRow));
+        int lastRing = Math.max(Math.max(Math.abs(col - minCol), Math.abs(col - maxCol)),
+                Math.max(Math.abs(row - minRow), Math.abs(row - maxRow)));
+        for (int ring = Math.max(0, firstRing); ring <= lastRing; ring++) {
+            // Ninguna celda del anillo está a menos de (ring - 1) celdas del punto
+            if (found == k && ring > 0) {
+                long reach = (long) (ring - 1) * cellSize;
+                if (reach * reach > bestDist[k - 1]) break;
+            }
+            for (int r = Math.max(row - ring, minRow); r <= Math.min(row + ring, maxRow); r++) {
+                if (r == row - ring || r == row + ring) {
+                    for (int c = Math.max(col - ring, minCol); c <= Math.min(col + ring, maxCol); c++) {
+                        found = scanCell(c, r, x, y, best, bestDist, found);
+                    }
+                } else {
+                    if (col - ring >= minCol && col - ring <= maxCol) {
+                        found = scanCell(col - ring, r, x, y, best, bestDist, found);
+                    }
+                    if (col + ring >= minCol && col + ring <= maxCol) {
+                        found = scanCell(col + ring, r, x, y, best, bestDist, found);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < found; i++) {
+            result.add(best[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Busca las paradas a una distancia menor o igual a un radio.
+     * @param x Coordenada X del centro.
+     * @param y Coordenada Y del centro.
+     * @param radius Radio.
+     * @return Lista de paradas (sin orden particular).
+     */
+    public CustomLinkedList<Stop> withinRadius(int x, int y, int radius) {
+        CustomLinkedList<Stop> result = new CustomLinkedList<>();
+        long r2 = (long) radius * radius;
+        int c0 = Math.max(minCol, Math.floorDiv(x - radius, cellSize));
+        int c1 = Math.min(maxCol, Math.floorDiv(x + radius, cellSize));
+        int r0 = Math.max(minRow, Math.floorDiv(y - radius, cellSize));
+        int r1 = Math.min(maxRow, Math.floorDiv(y + radius, cellSize));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                Cell cell = cells.get(cellKey(c, r));
+                if (cell == null) continue;
+                for (int i = 0; i < cell.count; i++) {
+                    Stop stop = cell.items[i];
+                    long dx = stop.getX() - x, dy = stop.getY() - y;
+                    if (dx * dx + dy * dy <= r2) result.add(stop);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Busca las paradas dentro de un rectángulo (bordes incluidos).
+     * @param x Coordenada X de la esquina superior izquierda.
+     * @param y Coordenada Y de la esquina superior izquierda.
+     * @param width Ancho.
+     * @param height Alto.
+     * @return Lista de paradas (sin orden particular).
+     */
+    public CustomLinkedList<Stop> inRectangle(int x, int y, int width, int height) {
+        CustomLinkedList<Stop> result = new CustomLinkedList<>();
+        int c0 = Math.max(minCol, Math.floorDiv(x, cellSize));
+        int c1 = Math.min(maxCol, Math.floorDiv(x + width, cellSize));
+        int r0 = Math.max(minRow, Math.floorDiv(y, cellSize));
+        int r1 = Math.min(maxRow, Math.floorDiv(y + height, cellSize));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                Cell cell = cells.get(cellKey(c, r));
+                if (cell == null) continue;
+                for (int i = 0; i < cell.count; i++) {
+                    Stop stop = cell.items[i];
+                    if (stop.getX() >= x && stop.getX() <= x + width && stop.getY() >= y && stop.getY() <= y + height) {
+                        result.add(stop);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Revisa una celda y mezcla sus paradas en los K mejores resultados (ordenados por distancia).
+     * @param col Columna de la celda.
+     * @param row Fila de la celda.
+     * @param x Coordenada X del punto de consulta.
+     * @param y Coordenada Y del punto de consulta.
+     * @param best Mejores paradas encontradas.
+     * @param bestDist Distancias al cuadrado de las mejores paradas.
+     * @param found Resultados válidos en best.
+     * @return Nuevo número de resultados válidos.
+     */
+    private int scanCell(int col, int row, int x, int y, Stop[] best, long[] bestDist, int found) {
+        Cell cell = cells.get(cellKey(col, row));
+        if (cell == null) return found;
+        int k = best.length;
+        for (int i = 0; i < cell.count; i++) {
+            Stop stop = cell.items[i];
+            long dx = stop.getX() - x, dy = stop.getY() - y;
+            long d = dx * dx + dy * dy;
+            if (found == k && d >= bestDist[k - 1]) continue;
+            int pos = found < k ? found++ : k - 1;
+            while (pos > 0 && bestDist[pos - 1] > d) {
+                best[pos] = best[pos - 1];
+                bestDist[pos] = bestDist[pos - 1];
+                pos--;
+            }
+            best[pos] = stop;
+            bestDist[pos] = d;
+        }
+        return found;
+    }
+
+    /**
+     * Quita una parada de la celda correspondiente a unas coordenadas.
+     * @param stop Parada.
+     * @param x Coordenada X con la que fue indexada.
+     * @param y Coordenada Y con la que fue indexada.
+     */
+    private void removeFromCell(Stop stop, int x, int y) {
+        long key = cellKey(Math.floorDiv(x, cellSize), Math.floorDiv(y, cellSize));
+        Cell cell = cells.get(key);
+        if (cell != null && cell.remove(stop) && cell.count == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private void resetBounds() {
+        minCol = Integer.MAX_VALUE;
+        maxCol = Integer.MIN_VALUE;
+        minRow = Integer.MAX_VALUE;
+        maxRow = Integer.MIN_VALUE;
+    }
+
+    private static long cellKey(int col, int row) {
+        return ((long) col << 32) | (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Celda de la rejilla con sus paradas en un arreglo compacto.
+     */
+    private static class Cell {
+        Stop[] items = new Stop[4];
+        int count;
+
+        void add(Stop stop) {
+            if (count == items.length) {
+                Stop[] grown = new Stop[count * 2];
+                System.arraycopy(items, 0, grown, 0, count);
+                items = grown;
+            }
+            items[count++] = stop;
+        }
+
+        boolean remove(Stop stop) {
+            for (int i = 0; i < count; i++) {
+                if (items[i] == stop) {
+                    items[i] = items[--count];
+                    items[count] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
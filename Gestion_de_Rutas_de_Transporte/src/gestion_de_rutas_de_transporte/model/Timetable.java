@@ -0,0 +1,369 @@
+/**
+ * Clase que organiza los horarios como tabla de salidas.
+ * Cada hora "HH:MM" se convierte una sola vez a minutos desde la medianoche y se guarda en arreglos
+ * primitivos ordenados: uno por ruta y uno global (reordenado solo cuando cambió algo). Las consultas
+ * "próximas N salidas después de T", "salidas entre T1 y T2" y las estadísticas de frecuencia usan
+ * búsqueda binaria. Los horarios con hora inválida no se incluyen.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.LongHashMap;
+import java.util.Arrays;
+
+
+public class Timetable {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final LongHashMap<RouteTimes> byRoute = new LongHashMap<>();
+    private final LongHashMap<Schedule> byId = new LongHashMap<>();
+    private int[] routeIds = new int[16];  // Rutas con salidas (LongHashMap no se recorre)
+    private int routeCount;
+
+    // Índice global: (minutos << 32 | posición) ordenado, con las rutas e IDs en arreglos paralelos
+    private long[] global = new long[0];
+    private int[] globalRoutes = new int[0];
+    private int[] globalIds = new int[0];
+    private int globalCount;
+    private boolean globalDirty;
+
+    /**
+     * Reconstruye la tabla con todos los horarios.
+     * @param schedules Lista de horarios.
+     */
+    public void rebuild(CustomLinkedList<Schedule> schedules) {
+        byRoute.clear();
+        byId.clear();
+        routeCount = 0;
+        globalDirty = true;
+        byId.ensureCapacity(schedules.getSize());
+        for (Node<Schedule> node = schedules.getHead(); node != null; node = node.getNext()) {
+            add(node.getData());
+        }
+    }
+
+    /**
+     * Agrega un horario en su posición ordenada.
+     * @param schedule Horario.
+     * @return true si la hora es válida y se agregó.
+     */
+    public boolean add(Schedule schedule) {
+        int minutes = parseTime(schedule.getTime());
+        if (minutes < 0) return false;
+        remove(schedule.getId());
+        RouteTimes times = byRoute.get(schedule.getRouteId());
+        if (times == null) {
+            times = new RouteTimes();
+            byRoute.put(schedule.getRouteId(), times);
+            if (routeCount == routeIds.length) routeIds = Arrays.copyOf(routeIds, routeCount * 2);
+            routeIds[routeCount++] = schedule.getRouteId();
+        }
+        times.insert(minutes, schedule.getId());
+        byId.put(schedule.getId(), schedule);
+        globalDirty = true;
+        return true;
+    }
+
+    /**
+     * Quita un horario.
+     * @param scheduleId ID del horario.
+     * @return ID de la ruta del horario, o -1 si no estaba.
+     */
+    public int remove(int scheduleId) {
+        Schedule schedule = byId.remove(scheduleId);
+        if (schedule == null) return -1;
+        RouteTimes times = byRoute.get(schedule.getRouteId());
+        if (times != null) times.delete(scheduleId);
+        globalDirty = true;
+        return schedule.getRouteId();
+    }
+
+    /**
+     * Obtiene un horario por su ID.
+     * @param scheduleId ID del horario.
+     * @return Horario o null.
+     */
+    public Schedule get(int scheduleId) {
+        return byId.get(scheduleId);
+    }
+
+    /**
+     * Obtiene el número de horarios en la tabla.
+     * @return Número de salidas.
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Obtiene las salidas de una ruta en orden.
+     * @param routeId ID de la ruta.
+     * @return Minutos de cada salida (copia).
+     */
+    public int[] getDepartures(int routeId) {
+        RouteTimes times = byRoute.get(routeId);
+        return times != null ? Arrays.copyOf(times.minutes, times.count) : new int[0];
+    }
+
+    /**
+     * Obtiene las próximas salidas de una ruta a partir de una hora; si no alcanzan, continúa con
+     * las del día siguiente.
+     * @param routeId ID de la ruta.
+     * @param after Minutos desde la medianoche (incluido).
+     * @param n Número de salidas.
+     * @return Salidas en orden.
+     */
+    public CustomLinkedList<Departure> nextDepartures(int routeId, int after, int n) {
+        CustomLinkedList<Departure> result = new CustomLinkedList<>();
+        RouteTimes times = byRoute.get(routeId);
+        if (times == null || times.count == 0) return result;
+        int start = lowerBound(times.minutes, times.count, after);
+        for (int k = 0; k < Math.min(n, times.count); k++) {
+            int i = (start + k) % times.count;
+            result.add(new Departure(routeId, times.ids[i], times.minutes[i], start + k >= times.count));
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene las salidas de todas las rutas dentro de un intervalo del mismo día.
+     * @param from Minutos de inicio (incluido).
+     * @param to Minutos de fin (incluido).
+     * @param limit Máximo de resultados.
+     * @return Salidas ordenadas por hora.
+     */
+    public CustomLinkedList<Departure> departuresBetween(int from, int to, int limit) {
+        CustomLinkedList<Departure> result = new CustomLinkedList<>();
+        ensureGlobal();
+        int i = lowerBoundPacked(global, globalCount, (long) from << 32);
+        for (; i < globalCount && result.getSize() < limit; i++) {
+            int minutes = (int) (global[i] >>> 32);
+            if (minutes > to) break;
+            int slot = (int) global[i];
+            result.add(new Departure(globalRoutes[slot], globalIds[slot], minutes, false));
+        }
+        return result;
+    }
+
+    /**
+     * Cuenta las salidas de todas las rutas dentro de un intervalo (dos búsquedas binarias).
+     * @param from Minutos de inicio (incluido).
+     * @param to Minutos de fin (incluido).
+     * @return Número de salidas.
+     */
+    public int countBetween(int from, int to) {
+        ensureGlobal();
+        return lowerBoundPacked(global, globalCount, (long) (to + 1) << 32)
+                - lowerBoundPacked(global, globalCount, (long) from << 32);
+    }
+
+    /**
+     * Calcula la frecuencia (minutos entre salidas consecutivas) de una ruta, opcionalmente solo en una franja.
+     * @param routeId ID de la ruta.
+     * @param from Minutos de inicio de la franja (incluido).
+     * @param to Minutos de fin de la franja (incluido).
+     * @return Estadísticas, o null si hay menos de dos salidas en la franja.
+     */
+    public Headway headway(int routeId, int from, int to) {
+        RouteTimes times = byRoute.get(routeId);
+        if (times == null) return null;
+        int first = lowerBound(times.minutes, times.count, from);
+        int end = lowerBound(times.minutes, times.count, to + 1);
+        if (end - first < 2) return null;
+        int min = Integer.MAX_VALUE, max = 0;
+        for (int i = first + 1; i < end; i++) {
+            int gap = times.minutes[i] - times.minutes[i - 1];
+            min = Math.min(min, gap);
+            max = Math.max(max, gap);
+        }
+        double mean = (double) (times.minutes[end - 1] - times.minutes[first]) / (end - first - 1);
+        return new Headway(end - first, min, max, mean);
+    }
+
+    /**
+     * Convierte una hora "H:MM" o "HH:MM" a minutos desde la medianoche.
+     * @param time Hora.
+     * @return Minutos (0..1439) o -1 si el formato no es válido.
+     */
+    public static int parseTime(String time) {
+        if (time == null) return -1;
+        String t = time.trim();
+        int colon = t.indexOf(':');
+        if (colon < 1 || colon > 2 || t.length() != colon + 3) return -1;
+        int hours = 0, minutes = 0;
+        for (int i = 0; i < t.length(); i++) {
+            if (i == colon) continue;
+            char c = t.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            if (i < colon) hours = hours * 10 + (c - '0');
+            else minutes = minutes * 10 + (c - '0');
+        }
+        return hours < 24 && minutes < 60 ? hours * 60 + minutes : -1;
+    }
+
+    /**
+     * Convierte minutos desde la medianoche a "HH:MM".
+     * @param minutes Minutos.
+     * @return Hora con formato.
+     */
+    public static String formatTime(int minutes) {
+        int m = Math.floorMod(minutes, MINUTES_PER_DAY);
+        return String.format("%02d:%02d", m / 60, m % 60);
+    }
+
+    /**
+     * Reconstruye el índice global si hubo cambios: se empaqueta (minutos, posición) y se ordena.
+     */
+    private void ensureGlobal() {
+        if (!globalDirty) return;
+        int n = byId.size();
+        if (global.length < n) {
+            global = new long[n];
+            globalRoutes = new int[n];
+            globalIds = new int[n];
+        }
+        int slot = 0;
+        for (int r = 0; r < routeCount; r++) {
+            RouteTimes times = byRoute.get(routeIds[r]);
+            for (int i = 0; i < times.count; i++) {
+                global[slot] = ((long) times.minutes[i] << 32) | slot;
+                globalRoutes[slot] = routeIds[r];
+                globalIds[slot] = times.ids[i];
+                slot++;
+            }
+        }
+        Arrays.sort(global, 0, slot);
+        globalCount = slot;
+        globalDirty = false;
+    }
+
+    private static int lowerBound(int[] values, int count, int key) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int lowerBoundPacked(long[] values, int count, long key) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Salidas de una ruta ordenadas por hora, con el ID de horario en paralelo.
+     */
+    private static class RouteTimes {
+        int[] minutes = new int[4];
+        int[] ids = new int[4];
+        int count;
+
+        void insert(int value, int id) {
+            if (count == minutes.length) {
+                minutes = Arrays.copyOf(minutes, count * 2);
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            int pos = lowerBound(minutes, count, value + 1);  // Después de las salidas a la misma hora
+            System.arraycopy(minutes, pos, minutes, pos + 1, count - pos);
+            System.arraycopy(ids, pos, ids, pos + 1, count - pos);
+            minutes[pos] = value;
+            ids[pos] = id;
+            count++;
+        }
+
+        void delete(int id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(minutes, i + 1, minutes, i, count - i - 1);
+                    System.arraycopy(ids, i + 1, ids, i, count - i - 1);
+                    count--;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Una salida: ruta, horario y hora.
+     */
+    public static class Departure {
+        private final int routeId;
+        private final int scheduleId;
+        private final int minutes;
+        private final boolean nextDay;
+
+        public Departure(int routeId, int scheduleId, int minutes, boolean nextDay) {
+            this.routeId = routeId;
+            this.scheduleId = scheduleId;
+            this.minutes = minutes;
+            this.nextDay = nextDay;
+        }
+
+        public int getRouteId() {
+            return routeId;
+        }
+
+        public int getScheduleId() {
+            return scheduleId;
+        }
+
+        public int getMinutes() {
+            return minutes;
+        }
+
+        public boolean isNextDay() {
+            return nextDay;
+        }
+
+        @Override
+        public String toString() {
+            return formatTime(minutes) + (nextDay ? " (+1 día)" : "") + " - ruta " + routeId + " (horario " + scheduleId + ")";
+        }
+    }
+
+    /**
+     * Estadísticas de frecuencia de una ruta.
+     */
+    public static class Headway {
+        private final int departures;
+        private final int min;
+        private final int max;
+        private final double mean;
+
+        public Headway(int departures, int min, int max, double mean) {
+            this.departures = departures;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+        }
+
+        public int getDepartures() {
+            return departures;
+        }
+
+        public int getMin() {
+            return min;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d salidas, cada %.1f min (mín %d, máx %d)", departures, mean, min, max);
+        }
+    }
+}
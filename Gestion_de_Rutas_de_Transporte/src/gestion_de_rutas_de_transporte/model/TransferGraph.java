@@ -0,0 +1,175 @@
+/**
+ * Clase que representa la red expandida por rutas: cada nodo es un par (parada, ruta), es decir, una posición
+ * de una ruta. Así se distingue ir en una línea de cambiarse a otra en la misma parada.
+ * Las rutas se aplanan en posiciones contiguas (las de la ruta r ocupan [routeStart[r], routeStart[r+1])),
+ * de modo que viajar en la ruta es pasar a la posición anterior o siguiente, y un transbordo es pasar a otra
+ * posición de la misma parada (stopSlots, agrupadas por parada con un conteo en [stopStart[id-1], stopStart[id])).
+ * Para buscar caminos con Dijkstra la red también se guarda en formato CSR (offsets, targets, weights) con
+ * dos tipos de nodo: las posiciones 0..slots-1 y un nodo por parada (stopNode). Sus aristas son los tramos
+ * de viaje en ambos sentidos, bajar (posición → parada, con la penalización por transbordo) y subir
+ * (parada → posición, con la penalización por abordar). Un transbordo es bajar y volver a subir, así que
+ * cuesta ambas penalizaciones, y la red tiene a lo sumo cuatro aristas por posición en lugar de una por cada
+ * par de rutas que comparten parada.
+ * Se construye en pasadas lineales sobre las rutas y la instantánea CSR, y es inmutable.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Arrays;
+
+
+public class TransferGraph {
+    public final int[] routeIds;
+    public final int[] routeStart;
+    public final int[] slotStop;
+    public final int[] slotRoute;  // Índice de la ruta (no su ID) de cada posición
+    public final int[] rideCost;   // Costo de la posición a la siguiente de la misma ruta, -1 si no hay tramo
+    public final int[] stopStart;
+    public final int[] stopSlots;
+    public final int[] offsets;
+    public final int[] targets;
+    public final int[] weights;
+
+    /**
+     * Constructor de la red expandida sin penalizaciones.
+     * @param csr Instantánea del grafo con los costos de los tramos.
+     * @param routes Rutas a expandir.
+     */
+    public TransferGraph(CsrGraph csr, CustomLinkedList<Route> routes) {
+        this(csr, routes, 0, 0);
+    }
+
+    /**
+     * Constructor de la red expandida. Se omiten las paradas de una ruta que no existen en el grafo.
+     * @param csr Instantánea del grafo con los costos de los tramos.
+     * @param routes Rutas a expandir.
+     * @param boardingPenalty Costo de subir a una ruta (espera), también al inicio del viaje.
+     * @param transferPenalty Costo adicional de bajar para cambiar de ruta.
+     */
+    public TransferGraph(CsrGraph csr, CustomLinkedList<Route> routes, int boardingPenalty, int transferPenalty) {
+        int n = csr.getVertexCount();
+        int routeCount = routes.getSize();
+        routeIds = new int[routeCount];
+        routeStart = new int[routeCount + 1];
+        int slots = 0;
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext()) {
+            slots += node.getData().getStopIds().getSize();
+        }
+        int[] stops = new int[slots];
+        int[] owners = new int[slots];
+        int[] costs = new int[slots];
+        stopStart = new int[n + 1];
+        int s = 0;
+        int r = 0;
+        for (Node<Route> node = routes.getHead(); node != null; node = node.getNext(), r++) {
+            routeIds[r] = node.getData().getId();
+            for (Node<Integer> stop = node.getData().getStopIds().getHead(); stop != null; stop = stop.getNext()) {
+                int id = stop.getData();
+                if (id < 1 || id > n) continue;
+                if (s > routeStart[r]) costs[s - 1] = csr.weightOf(stops[s - 1], id);
+                stops[s] = id;
+                owners[s] = r;
+                costs[s] = -1;
+                stopStart[id]++;
+                s++;
+            }
+            routeStart[r + 1] = s;
+        }
+        slotStop = Arrays.copyOf(stops, s);
+        slotRoute = Arrays.copyOf(owners, s);
+        rideCost = Arrays.copyOf(costs, s);
+
+        // Conteo por parada: stopStart acumulado y luego cada posición en el hueco de su parada
+        for (int id = 1; id <= n; id++) {
+            stopStart[id] += stopStart[id - 1];
+        }
+        stopSlots = new int[s];
+        int[] fill = new int[n];
+        for (int slot = 0; slot < s; slot++) {
+            int id = slotStop[slot];
+            stopSlots[stopStart[id - 1] + fill[id - 1]++] = slot;
+        }
+
+        // CSR: grado de cada posición (tramos existentes + bajar) y de cada parada (subir a sus posiciones)
+        offsets = new int[s + n + 1];
+        for (int slot = 0; slot < s; slot++) {
+            int degree = 1;
+            if (hasNext(slot)) degree++;
+            if (hasPrevious(slot)) degree++;
+            offsets[slot + 1] = offsets[slot] + degree;
+        }
+        for (int id = 1; id <= n; id++) {
+            offsets[s + id] = offsets[s + id - 1] + stopStart[id] - stopStart[id - 1];
+        }
+        targets = new int[offsets[s + n]];
+        weights = new int[offsets[s + n]];
+        int e = 0;
+        for (int slot = 0; slot < s; slot++) {
+            if (hasNext(slot)) {
+                targets[e] = slot + 1;
+                weights[e++] = rideCost[slot];
+            }
+            if (hasPrevious(slot)) {
+                targets[e] = slot - 1;
+                weights[e++] = rideCost[slot - 1];
+            }
+            targets[e] = stopNode(slotStop[slot]);
+            weights[e++] = transferPenalty;
+        }
+        for (int i = 0; i < s; i++) {
+            targets[e] = stopSlots[i];
+            weights[e++] = boardingPenalty;
+        }
+    }
+
+    private boolean hasNext(int slot) {
+        return slot + 1 < routeStart[slotRoute[slot] + 1] && rideCost[slot] >= 0;
+    }
+
+    private boolean hasPrevious(int slot) {
+        return slot > routeStart[slotRoute[slot]] && rideCost[slot - 1] >= 0;
+    }
+
+    /**
+     * Obtiene el número de posiciones (nodos parada-ruta).
+     * @return Número de posiciones.
+     */
+    public int getSlotCount() {
+        return slotStop.length;
+    }
+
+    /**
+     * Obtiene el número de nodos del CSR (posiciones y paradas).
+     * @return Número de nodos.
+     */
+    public int getNodeCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Obtiene el nodo CSR de una parada.
+     * @param id ID de la parada.
+     * @return Índice del nodo.
+     */
+    public int stopNode(int id) {
+        return slotStop.length + id - 1;
+    }
+
+    /**
+     * Obtiene el número de paradas representables.
+     * @return Número de paradas.
+     */
+    public int getStopCount() {
+        return stopStart.length - 1;
+    }
+
+    /**
+     * Obtiene el ID de la ruta de una posición.
+     * @param slot Posición.
+     * @return ID de la ruta.
+     */
+    public int routeIdOf(int slot) {
+        return routeIds[slotRoute[slot]];
+    }
+}
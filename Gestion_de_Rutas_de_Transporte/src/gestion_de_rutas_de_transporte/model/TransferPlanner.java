@@ -0,0 +1,179 @@
+/**
+ * Clase que planifica el viaje más corto teniendo en cuenta los cambios de ruta: cada subida a una ruta cuesta
+ * una penalización por abordar y cada transbordo además una penalización por transbordo, de modo que un camino
+ * algo más largo en una sola línea puede ganarle a uno más corto con varios cambios.
+ * Ejecuta Dijkstra sobre el CSR de la red expandida por rutas (TransferGraph) desde el nodo de la parada de
+ * origen, y termina al asentar la primera posición de la parada de destino. La red expandida se guarda entre
+ * consultas y solo se reconstruye si cambia el grafo, las rutas (routesChanged) o las penalizaciones; los
+ * arreglos de Dijkstra se reutilizan con marcas de época, como en los demás planificadores.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.IntMinHeap;
+import gestion_de_rutas_de_transporte.utils.Metrics;
+import gestion_de_rutas_de_transporte.utils.OperationEvent;
+import java.util.Arrays;
+
+
+public class TransferPlanner {
+    public static final int DEFAULT_BOARDING_PENALTY = 2;
+    public static final int DEFAULT_TRANSFER_PENALTY = 5;
+
+    private final Graph graph;
+    private final CustomLinkedList<Route> routes;
+    private final IntMinHeap heap = new IntMinHeap();
+    private int boardingPenalty = DEFAULT_BOARDING_PENALTY;
+    private int transferPenalty = DEFAULT_TRANSFER_PENALTY;
+    private TransferGraph network;
+    private long networkVersion = -1;
+    private int[] stamp;  // Época en que se alcanzó cada nodo
+    private int[] dist;
+    private int[] parent;
+    private int[] pathBuffer;
+    private int epoch;
+
+    /**
+     * Constructor del planificador.
+     * @param graph Grafo con los costos de los tramos.
+     * @param routes Rutas del sistema.
+     */
+    public TransferPlanner(Graph graph, CustomLinkedList<Route> routes) {
+        this.graph = graph;
+        this.routes = routes;
+    }
+
+    /**
+     * Cambia las penalizaciones. Un transbordo cuesta ambas (bajar y volver a subir).
+     * @param boardingPenalty Costo de subir a una ruta, también al inicio del viaje.
+     * @param transferPenalty Costo adicional de bajar para cambiar de ruta.
+     */
+    public void setPenalties(int boardingPenalty, int transferPenalty) {
+        if (boardingPenalty < 0 || transferPenalty < 0) return;
+        if (boardingPenalty == this.boardingPenalty && transferPenalty == this.transferPenalty) return;
+        this.boardingPenalty = boardingPenalty;
+        this.transferPenalty = transferPenalty;
+        network = null;
+    }
+
+    /**
+     * Obtiene la penalización por transbordo.
+     * @return Penalización.
+     */
+    public int getTransferPenalty() {
+        return transferPenalty;
+    }
+
+    /**
+     * Avisa que se agregó, quitó o modificó una ruta, para reconstruir la red expandida.
+     */
+    public void routesChanged() {
+        network = null;
+    }
+
+    /**
+     * Encuentra el viaje de menor costo con penalizaciones entre dos paradas.
+     * @param origin ID de la parada de origen.
+     * @param destination ID de la parada de destino.
+     * @return Viaje (su costo es la suma de los tramos, sin penalizaciones) o null si ninguna ruta los conecta.
+     */
+    public Journey findPath(int origin, int destination) {
+        CsrGraph csr = graph.snapshot();
+        if (origin < 1 || origin > csr.getNumStops() || destination < 1 || destination > csr.getNumStops()
+                || !graph.getComponents().connected(origin, destination)) {
+            return null;
+        }
+        if (network == null || networkVersion != csr.getVersion()) {
+            network = new TransferGraph(csr, routes, boardingPenalty, transferPenalty);
+            networkVersion = csr.getVersion();
+        }
+        int n = network.getNodeCount();
+        if (stamp == null || stamp.length != n) {
+            stamp = new int[n];
+            dist = new int[n];
+            parent = new int[n];
+            pathBuffer = new int[n];
+            epoch = 0;
+        }
+        if (++epoch == 0) {  // Desborde de la época: se reinician las marcas
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+
+        OperationEvent trace = Metrics.begin(Metrics.TRANSFER_PATH);
+        long settled = 0;
+        long relaxed = 0;
+        int[] offsets = network.offsets;
+        int[] targets = network.targets;
+        int[] weights = network.weights;
+        int[] slotStop = network.slotStop;
+        int slots = network.getSlotCount();
+        int start = network.stopNode(origin);
+        int target = -1;
+        stamp[start] = epoch;
+        dist[start] = 0;
+        parent[start] = -1;
+        heap.clear();
+        heap.push(0, start);
+        while (!heap.isEmpty()) {
+            int d = heap.peekKey();
+            int u = heap.poll();
+            if (d > dist[u]) continue;
+            settled++;
+            if (u < slots && slotStop[u] == destination) {
+                target = u;
+                break;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int w = targets[e];
+                int candidate = d + weights[e];
+                relaxed++;
+                if (stamp[w] != epoch || candidate < dist[w]) {
+                    stamp[w] = epoch;
+                    dist[w] = candidate;
+                    parent[w] = u;
+                    heap.push(candidate, w);
+                }
+            }
+        }
+        Metrics.end(trace, settled, relaxed);
+        if (target == -1) return null;
+        return toJourney(target, slots);
+    }
+
+    /**
+     * Reconstruye el viaje: las posiciones alcanzadas viajando agregan una parada; subir desde el nodo de
+     * una parada inicia el viaje o, si no es la primera subida, es un transbordo si cambia de ruta (volver a
+     * subir a la misma ruta en una parada que repite no lo es, aunque pague las penalizaciones).
+     */
+    private Journey toJourney(int target, int slots) {
+        int length = 0;
+        for (int current = target; current != -1; current = parent[current]) {
+            pathBuffer[length++] = current;
+        }
+        int[] stops = new int[length];
+        int[] routeIds = new int[length];
+        int count = 0;
+        int cost = 0;
+        int transfers = 0;
+        int riding = -1;  // Ruta en la que se viaja
+        for (int i = length - 2; i >= 0; i--) {  // pathBuffer[length - 1] es el nodo de la parada de origen
+            int node = pathBuffer[i];
+            int previous = pathBuffer[i + 1];
+            if (node >= slots) continue;  // Bajó para transbordar
+            int route = network.routeIdOf(node);
+            if (previous >= slots && count > 0) {  // Transbordo: la parada ya está en el viaje
+                if (route != riding) transfers++;
+                riding = route;
+                continue;
+            }
+            if (previous < slots) cost += dist[node] - dist[previous];
+            stops[count] = network.slotStop[node];
+            routeIds[count++] = route;
+            riding = route;
+        }
+        return new Journey(Arrays.copyOf(stops, count), Arrays.copyOf(routeIds, count), cost, count - 1,
+                transfers);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Clase que representa un camino entre paradas junto con su costo total.
+ * Es el resultado de los planificadores que devuelven varias alternativas (K caminos más cortos).
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Arrays;
+
+
+public class WeightedPath {
+    private final int[] stops;
+    private final int cost;
+
+    /**
+     * Constructor del camino.
+     * @param stops IDs de las paradas en orden.
+     * @param cost Costo total del camino.
+     */
+    public WeightedPath(int[] stops, int cost) {
+        this.stops = stops;
+        this.cost = cost;
+    }
+
+    /**
+     * Obtiene los IDs de las paradas del camino.
+     * @return Arreglo de IDs.
+     */
+    public int[] getStops() {
+        return stops;
+    }
+
+    /**
+     * Obtiene el costo total.
+     * @return Costo.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Convierte el camino a lista enlazada (para la GUI y el panel de dibujo).
+     * @return Lista de IDs.
+     */
+    public CustomLinkedList<Integer> toList() {
+        CustomLinkedList<Integer> list = new CustomLinkedList<>();
+        for (int stop : stops) {
+            list.add(stop);
+        }
+        return list;
+    }
+
+    /**
+     * Retorna una representación en string del camino.
+     * @return String con paradas y costo.
+     */
+    @Override
+    public String toString() {
+        return "WeightedPath{" + "stops=" + Arrays.toString(stops) + ", cost=" + cost + '}';
+    }
+
+    /**
+     * Compara si dos caminos recorren las mismas paradas.
+     * @param obj Objeto a comparar.
+     * @return true si iguales, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        return Arrays.equals(stops, ((WeightedPath) obj).stops);
+    }
+
+    /**
+     * Calcula el hash a partir de las paradas.
+     * @return Código hash.
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(stops);
+    }
+}
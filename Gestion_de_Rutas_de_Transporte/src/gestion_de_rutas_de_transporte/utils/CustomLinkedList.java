@@ -2,7 +2,7 @@
  * Clase genérica que implementa una lista enlazada simple.
  * Se utiliza para almacenar paradas, rutas, horarios y listas de adyacencia en el grafo.
  * Soporta operaciones como agregar, remover, buscar, iterar y convertir a arreglo.
- * Compone un nodo cabeza y un contador de tamaño.
+ * Compone un nodo cabeza, una referencia al último nodo (para agregar en O(1)) y un contador de tamaño.
  * @param <T> Tipo de dato en la lista.
  * @author Elian
  */
@@ -18,6 +18,7 @@ import java.util.function.Consumer;
 
 public class CustomLinkedList<T> {
     public Node<T> head;
+    private Node<T> tail;
     private int size;
 
     /**
@@ -25,6 +26,7 @@ public class CustomLinkedList<T> {
      */
     public CustomLinkedList() {
         head = null;
+        tail = null;
         size = 0;
     }
     
@@ -49,15 +51,25 @@ public class CustomLinkedList<T> {
         if (head == null) {
             head = newNode;
         } else {
-            Node<T> current = head;
-            while (current.getNext() != null) {
-                current = current.getNext();
-            }
-            current.setNext(newNode);
+            tail.setNext(newNode);
         }
+        tail = newNode;
         size++;
     }
 
+    /**
+     * Remueve y retorna el primer elemento de la lista en O(1).
+     * @return Dato removido o null si la lista está vacía.
+     */
+    public T removeFirst() {
+        if (head == null) return null;
+        T data = head.getData();
+        head = head.getNext();
+        if (head == null) tail = null;
+        size--;
+        return data;
+    }
+
     /**
      * Remueve un elemento por valor.
      * @param data Dato a remover.
@@ -66,14 +78,14 @@ public class CustomLinkedList<T> {
     public boolean remove(T data) {
         if (head == null) return false;
         if (head.getData().equals(data)) {
-            head = head.getNext();
-            size--;
+            removeFirst();
             return true;
         }
         Node<T> current = head;
         while (current.getNext() != null) {
             if (current.getNext().getData().equals(data)) {
                 current.setNext(current.getNext().getNext());
+                if (current.getNext() == null) tail = current;
                 size--;
                 return true;
             }
@@ -155,6 +167,7 @@ public class CustomLinkedList<T> {
      */
     public void clear() {
         head = null;
+        tail = null;
         size = 0;
     }
 
@@ -207,6 +220,14 @@ public class CustomLinkedList<T> {
     public Node<T> getHead() {
     return head;  // Simplemente retorna el head
     }
+
+    /**
+     * Obtiene el último nodo de la lista.
+     * @return Nodo final o null si está vacía.
+     */
+    public Node<T> getTail() {
+        return tail;
+    }
     
     /**
  * Convierte la lista a un arreglo usando reflexión para el tipo correcto.
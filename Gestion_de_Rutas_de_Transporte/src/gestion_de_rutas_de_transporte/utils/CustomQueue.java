@@ -1,50 +1,68 @@
 /**
- * Clase genérica que implementa una cola utilizando nodos enlazados.
- * Se utiliza en algoritmos como BFS en el grafo.
- * Compone referencias al frente y final de la cola.
- * @param <T> Tipo de dato en la cola.
+ * Clase que implementa una cola de enteros sobre un arreglo circular (ring buffer).
+ * Se utiliza en algoritmos como BFS en el grafo: no crea nodos por elemento y puede reutilizarse
+ * entre búsquedas con clear, por lo que una consulta no reserva memoria una vez que la cola alcanzó su tamaño.
+ * La capacidad es siempre una potencia de dos y se duplica cuando se llena.
  * @author Elian
  */
 package gestion_de_rutas_de_transporte.utils;
 
-import gestion_de_rutas_de_transporte.model.Node;
+public class CustomQueue {
+    private int[] items;
+    private int mask;
+    private int head;  // Posición del frente
+    private int tail;  // Posición donde se escribe el siguiente elemento
+    private int size;
 
-public class CustomQueue<T> {
-    private Node<T> front;
-    private Node<T> rear;
+    /**
+     * Constructor de la cola con capacidad inicial por defecto.
+     */
+    public CustomQueue() {
+        this(16);
+    }
 
     /**
      * Constructor de la cola.
+     * @param capacity Capacidad inicial (se redondea a potencia de dos).
      */
-    public CustomQueue() {
-        front = null;
-        rear = null;
+    public CustomQueue(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        items = new int[n];
+        mask = n - 1;
     }
 
     /**
      * Agrega un elemento al final de la cola.
-     * @param data Dato a agregar.
+     * @param value Dato a agregar.
      */
-    public void enqueue(T data) {
-        Node<T> newNode = new Node<>(data);
-        if (rear == null) {
-            front = rear = newNode;
-        } else {
-            rear.setNext(newNode);
-            rear = newNode;
-        }
+    public void enqueue(int value) {
+        if (size == items.length) grow();
+        items[tail] = value;
+        tail = (tail + 1) & mask;
+        size++;
     }
 
     /**
      * Remueve y retorna el elemento al frente de la cola.
-     * @return Dato removido o null si vacía.
+     * @return Dato removido.
+     * @throws IllegalStateException si la cola está vacía.
      */
-    public T dequeue() {
-        if (front == null) return null;
-        T data = front.getData();
-        front = front.getNext();
-        if (front == null) rear = null;
-        return data;
+    public int dequeue() {
+        if (size == 0) throw new IllegalStateException("Cola vacía");
+        int value = items[head];
+        head = (head + 1) & mask;
+        size--;
+        return value;
+    }
+
+    /**
+     * Retorna el elemento al frente sin quitarlo.
+     * @return Dato del frente.
+     * @throws IllegalStateException si la cola está vacía.
+     */
+    public int peek() {
+        if (size == 0) throw new IllegalStateException("Cola vacía");
+        return items[head];
     }
 
     /**
@@ -52,6 +70,45 @@ public class CustomQueue<T> {
      * @return true si vacía, false otherwise.
      */
     public boolean isEmpty() {
-        return front == null;
+        return size == 0;
+    }
+
+    /**
+     * Obtiene el número de elementos en la cola.
+     * @return Tamaño.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Vacía la cola conservando el arreglo para reutilizarlo.
+     */
+    public void clear() {
+        head = 0;
+        tail = 0;
+        size = 0;
+    }
+
+    /**
+     * Asegura espacio para al menos la cantidad indicada de elementos sin volver a crecer.
+     * @param capacity Número de elementos.
+     */
+    public void ensureCapacity(int capacity) {
+        while (items.length < capacity) grow();
+    }
+
+    /**
+     * Duplica el arreglo dejando los elementos contiguos desde la posición 0.
+     */
+    private void grow() {
+        int[] grown = new int[items.length << 1];
+        int first = Math.min(size, items.length - head);
+        System.arraycopy(items, head, grown, 0, first);
+        System.arraycopy(items, 0, grown, first, size - first);
+        items = grown;
+        mask = grown.length - 1;
+        head = 0;
+        tail = size;
     }
 }
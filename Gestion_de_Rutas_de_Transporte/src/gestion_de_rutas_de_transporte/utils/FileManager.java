@@ -8,14 +8,21 @@ package gestion_de_rutas_de_transporte.utils;
 
 
 
+import gestion_de_rutas_de_transporte.model.EdgeSink;
+import gestion_de_rutas_de_transporte.model.EntityStore;
 import gestion_de_rutas_de_transporte.model.Node;
 import gestion_de_rutas_de_transporte.model.Graph;
+import gestion_de_rutas_de_transporte.model.GraphBuilder;
+import gestion_de_rutas_de_transporte.model.OffHeapGraph;
 import gestion_de_rutas_de_transporte.model.Pair;
 import gestion_de_rutas_de_transporte.model.Schedule;
 import gestion_de_rutas_de_transporte.model.Route;
 import gestion_de_rutas_de_transporte.model.Stop;
 import java.awt.Color;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class FileManager {
@@ -30,6 +37,7 @@ public class FileManager {
      */
     public static void save(String filename, CustomLinkedList<Stop> stops, CustomLinkedList<Route> routes,
                             CustomLinkedList<Schedule> schedules, Graph graph) {
+        OperationEvent trace = Metrics.begin(Metrics.FILE_SAVE);
         try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
             // Guardar paradas (ahora con x,y)
             writer.println("STOPS");
@@ -70,7 +78,7 @@ public class FileManager {
 
             // Guardar aristas (edges) con pesos
             writer.println("EDGES");
-            for (int i = 0; i < Graph.MAX_STOPS; i++) {
+            for (int i = 0; i < graph.getCapacity(); i++) {
                 Node<Pair<Integer, Integer>> edgeNode = graph.adjacency[i].head;
                 while (edgeNode != null) {
                     Pair<Integer, Integer> edge = edgeNode.getData();
@@ -80,11 +88,13 @@ public class FileManager {
             }
         } catch (IOException e) {
             System.out.println("Error al guardar archivo: " + e.getMessage());
+        } finally {
+            Metrics.end(trace);
         }
     }
 
     /**
-     * Carga todas las estructuras de datos desde un archivo.
+     * Carga todas las estructuras de datos desde un archivo, con las paradas en un almacén propio.
      * @param filename Nombre del archivo.
      * @param stops Lista de paradas a llenar.
      * @param routes Lista de rutas a llenar.
@@ -93,7 +103,26 @@ public class FileManager {
      */
     public static void load(String filename, CustomLinkedList<Stop> stops, CustomLinkedList<Route> routes,
                             CustomLinkedList<Schedule> schedules, Graph graph) {
+        load(filename, new EntityStore(), stops, routes, schedules, graph);
+    }
+
+    /**
+     * Carga todas las estructuras de datos desde un archivo.
+     * Los datos de cada parada se escriben en las columnas del almacén y la lista recibe su vista.
+     * Las aristas se acumulan en un GraphBuilder y se vuelcan al grafo en una sola pasada al final, también
+     * si el archivo tiene una línea inválida (se conservan las leídas hasta ese punto).
+     * @param filename Nombre del archivo.
+     * @param store Almacén de paradas a llenar.
+     * @param stops Lista de paradas a llenar.
+     * @param routes Lista de rutas a llenar.
+     * @param schedules Lista de horarios a llenar.
+     * @param graph Grafo a llenar con aristas.
+     */
+    public static void load(String filename, EntityStore store, CustomLinkedList<Stop> stops,
+                            CustomLinkedList<Route> routes, CustomLinkedList<Schedule> schedules, Graph graph) {
         String section = "";
+        GraphBuilder edges = new GraphBuilder();
+        OperationEvent trace = Metrics.begin(Metrics.FILE_LOAD);
         try (Scanner scanner = new Scanner(new File(filename))) {
             while (scanner.hasNextLine()) {
                 String line = scanner.nextLine().trim();
@@ -102,23 +131,31 @@ public class FileManager {
                     section = line;
                     continue;
                 }
-                String[] parts = line.split(",");
                 if (section.equals("STOPS")) {
-                    int id = Integer.parseInt(parts[0]);
-                    String name = parts[1];
-                    int x = Integer.parseInt(parts[2]);
-                    int y = Integer.parseInt(parts[3]);
-                    stops.add(new Stop(id, name, x, y));
+                    // Campos leídos en su lugar: el nombre va directo a NamePool sin crear Strings
+                    int c1 = line.indexOf(',');
+                    int c2 = line.indexOf(',', c1 + 1);
+                    int c3 = line.indexOf(',', c2 + 1);
+                    int id = Integer.parseInt(line, 0, c1, 10);
+                    int nameId = NamePool.intern(line, c1 + 1, c2);
+                    int x = Integer.parseInt(line, c2 + 1, c3, 10);
+                    int c4 = line.indexOf(',', c3 + 1);
+                    int y = Integer.parseInt(line, c3 + 1, c4 < 0 ? line.length() : c4, 10);
+                    stops.add(store.addStop(id, nameId, x, y));
                     graph.addStop(id);
-                } else if (section.equals("ROUTES")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (section.equals("ROUTES")) {
                     int id = Integer.parseInt(parts[0]);
-                    String name = parts[1];
+                    int c1 = line.indexOf(',');
+                    int nameId = NamePool.intern(line, c1 + 1, line.indexOf(',', c1 + 1));
                     String colorStr = parts[2]; // r;g;b
                     String[] rgb = colorStr.split(";");
                     int r = Integer.parseInt(rgb[0]);
                     int g = Integer.parseInt(rgb[1]);
                     int b = Integer.parseInt(rgb[2]);
-                    Route route = new Route(id, name);
+                    Route route = new Route(id, nameId);
                     route.setColor(new Color(r, g, b));
                     String stopsStr = parts[3].substring(6); // STOPS:
                     String[] stopIds = stopsStr.split(";");
@@ -137,13 +174,68 @@ public class FileManager {
                     int from = Integer.parseInt(parts[0]);
                     int to = Integer.parseInt(parts[1]);
                     int peso = Integer.parseInt(parts[2]);
-                    graph.addEdge(from, to, peso);
+                    edges.addEdge(from, to, peso);
                 }
             }
         } catch (FileNotFoundException e) {
             System.out.println("Archivo no encontrado, iniciando en blanco.");
         } catch (Exception e) {
             System.out.println("Error al cargar archivo: " + e.getMessage());
+        } finally {
+            edges.buildInto(graph);  // Si una línea falla se conservan las aristas leídas antes, como las paradas
+            Metrics.end(trace);
+        }
+    }
+
+    /**
+     * Carga solo la red del archivo como grafo fuera del heap, para consultas de rutas sobre redes que no
+     * caben en memoria. Las paradas y aristas se leen por líneas directamente hacia el archivo CSR, que se
+     * reutiliza mientras sea más reciente que el de datos.
+     * @param filename Nombre del archivo de datos.
+     * @param graphFile Archivo CSR generado junto al de datos.
+     * @return Grafo mapeado en solo lectura.
+     * @throws IOException Si falla la lectura o la escritura.
+     */
+    public static OffHeapGraph loadOffHeap(String filename, Path graphFile) throws IOException {
+        Path data = Paths.get(filename);
+        if (!Files.exists(graphFile)
+                || Files.getLastModifiedTime(graphFile).compareTo(Files.getLastModifiedTime(data)) < 0) {
+            OperationEvent trace = Metrics.begin(Metrics.FILE_LOAD);
+            try {
+                OffHeapGraph.write(sink -> readNetwork(data, sink), graphFile);
+            } finally {
+                Metrics.end(trace);
+            }
+        }
+        return OffHeapGraph.map(graphFile, false);
+    }
+
+    /**
+     * Recorre el archivo de datos entregando los IDs de la sección STOPS y las aristas de la sección EDGES.
+     */
+    private static void readNetwork(Path data, EdgeSink sink) throws IOException {
+        String section = "";
+        try (BufferedReader reader = Files.newBufferedReader(data)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                if (line.equals("STOPS") || line.equals("ROUTES") || line.equals("SCHEDULES") || line.equals("EDGES")) {
+                    section = line;
+                    continue;
+                }
+                int c1 = line.indexOf(',');
+                if (section.equals("STOPS")) {
+                    sink.stop(Integer.parseInt(line, 0, c1, 10));
+                } else if (section.equals("EDGES")) {
+                    int c2 = line.indexOf(',', c1 + 1);
+                    int c3 = line.indexOf(',', c2 + 1);
+                    sink.edge(Integer.parseInt(line, 0, c1, 10), Integer.parseInt(line, c1 + 1, c2, 10),
+                            Integer.parseInt(line, c2 + 1, c3 < 0 ? line.length() : c3, 10));
+                }
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("Línea inválida en " + data + ": " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
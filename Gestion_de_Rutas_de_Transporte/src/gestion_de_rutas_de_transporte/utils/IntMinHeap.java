@@ -0,0 +1,109 @@
+/**
+ * Montículo binario mínimo de pares (clave, valor) enteros, almacenados empaquetados en un arreglo long.
+ * Se utiliza como cola de prioridad en Dijkstra y algoritmos derivados sin crear objetos por inserción.
+ * Admite claves repetidas para un mismo valor (las entradas obsoletas se descartan al extraerlas).
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+import java.util.Arrays;
+
+public class IntMinHeap {
+    private long[] heap;
+    private int size;
+
+    /**
+     * Constructor del montículo con capacidad inicial por defecto.
+     */
+    public IntMinHeap() {
+        this(64);
+    }
+
+    /**
+     * Constructor con capacidad inicial.
+     * @param capacity Capacidad inicial.
+     */
+    public IntMinHeap(int capacity) {
+        heap = new long[Math.max(1, capacity)];
+        size = 0;
+    }
+
+    /**
+     * Inserta un valor con su clave de prioridad.
+     * @param key Prioridad (menor sale primero).
+     * @param value Valor asociado.
+     */
+    public void push(int key, int value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        long entry = ((long) key << 32) | (value & 0xFFFFFFFFL);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    /**
+     * Obtiene la clave mínima sin extraerla.
+     * @return Clave del tope.
+     */
+    public int peekKey() {
+        return (int) (heap[0] >> 32);
+    }
+
+    /**
+     * Obtiene el valor de la entrada mínima sin extraerla.
+     * @return Valor del tope.
+     */
+    public int peekValue() {
+        return (int) heap[0];
+    }
+
+    /**
+     * Extrae la entrada mínima.
+     * @return Valor de la entrada extraída.
+     */
+    public int poll() {
+        long top = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (last <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return (int) top;
+    }
+
+    /**
+     * Verifica si el montículo está vacío.
+     * @return true si vacío.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Obtiene el número de entradas.
+     * @return Tamaño.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Vacía el montículo conservando la capacidad.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
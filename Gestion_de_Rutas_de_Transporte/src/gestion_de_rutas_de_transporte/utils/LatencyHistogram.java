@@ -0,0 +1,115 @@
+/**
+ * Clase que acumula latencias en un histograma logarítmico-lineal al estilo HDR.
+ * Cada potencia de dos se divide en 32 sub-cubetas, por lo que el error relativo de cualquier
+ * percentil es menor al 3 % en todo el rango (nanosegundos hasta horas) con un arreglo fijo.
+ * El registro es una sola operación atómica sin bloqueos y no crea objetos.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Registra un valor (negativos se cuentan como cero).
+     * @param value Valor en nanosegundos.
+     */
+    public void record(long value) {
+        counts.incrementAndGet(indexOf(Math.max(0, value)));
+    }
+
+    /**
+     * Obtiene el número total de valores registrados.
+     * @return Total de muestras.
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el valor en un percentil dado.
+     * @param percentile Percentil entre 0 y 100.
+     * @return Valor aproximado (punto medio de la cubeta) o 0 si no hay muestras.
+     */
+    public long valueAt(double percentile) {
+        long total = getCount();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return midpointOf(i);
+        }
+        return midpointOf(BUCKETS - 1);
+    }
+
+    /**
+     * Obtiene el máximo aproximado (límite superior de la cubeta más alta con muestras).
+     * @return Valor máximo o 0 si no hay muestras.
+     */
+    public long getMax() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) != 0) return lowerBoundOf(i) + widthOf(i) - 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Borra todas las muestras.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Calcula la cubeta de un valor.
+     * @param value Valor no negativo.
+     * @return Índice de cubeta.
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) - SUB_COUNT);
+    }
+
+    /**
+     * Calcula el menor valor de una cubeta.
+     * @param index Índice de cubeta.
+     * @return Límite inferior.
+     */
+    private static long lowerBoundOf(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        return (long) (SUB_COUNT + index % SUB_COUNT) << shift;
+    }
+
+    /**
+     * Calcula el ancho de una cubeta.
+     * @param index Índice de cubeta.
+     * @return Cantidad de valores que cubre.
+     */
+    private static long widthOf(int index) {
+        return index < SUB_COUNT ? 1 : 1L << (index / SUB_COUNT - 1);
+    }
+
+    /**
+     * Calcula el punto medio de una cubeta.
+     * @param index Índice de cubeta.
+     * @return Valor representativo.
+     */
+    private static long midpointOf(int index) {
+        return lowerBoundOf(index) + widthOf(index) / 2;
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Tabla hash con claves primitivas long y direccionamiento abierto (sondeo lineal).
+ * Se utiliza como índice de aristas del grafo, donde la clave empaqueta el par (origen, destino).
+ * Evita el boxing de claves y las entradas enlazadas de HashMap; el borrado usa desplazamiento
+ * hacia atrás, por lo que no deja lápidas. No admite valores null.
+ * @param <V> Tipo de valor asociado a cada clave.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+import java.util.Arrays;
+
+public class LongHashMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * Constructor con capacidad inicial por defecto.
+     */
+    public LongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor con capacidad esperada.
+     * @param expected Número de entradas esperadas sin redimensionar.
+     */
+    public LongHashMap(int expected) {
+        allocate(tableSizeFor(expected));
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     * @param key Clave.
+     * @return Valor o null si no existe.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) return (V) values[i];
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Verifica si existe una clave.
+     * @param key Clave.
+     * @return true si existe.
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Asocia un valor a una clave, reemplazando el anterior si existía.
+     * @param key Clave.
+     * @param value Valor (no null).
+     * @return Valor anterior o null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("LongHashMap no admite valores null");
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Elimina una clave y reacomoda las entradas siguientes del mismo grupo.
+     * @param key Clave a eliminar.
+     * @return Valor eliminado o null si no existía.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                shiftBack(i);
+                size--;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene el número de entradas.
+     * @return Tamaño.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Limpia la tabla conservando la capacidad actual.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Asegura espacio para un número de entradas sin redimensionar.
+     * @param expected Número de entradas esperadas.
+     */
+    public void ensureCapacity(int expected) {
+        int needed = tableSizeFor(expected);
+        if (needed > keys.length) {
+            rehash(needed);
+        }
+    }
+
+    private void shiftBack(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) break;
+            int home = slot(keys[i]);
+            // Mover la entrada al hueco si su posición ideal no está entre el hueco y i
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.75f);
+    }
+
+    private static int tableSizeFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 0.75f <= expected) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Clase con las métricas en tiempo de ejecución de las operaciones críticas (rutas, persistencia, dibujo).
+ * Cada operación tiene contadores LongAdder, un histograma de latencias y un evento JFR; las métricas
+ * se publican por JMX y pueden volcarse como texto de forma periódica.
+ * Uso: OperationEvent trace = Metrics.begin(Metrics.FIND_PATH); ... Metrics.end(trace, asentados, relajadas);
+ * Propiedades del sistema:
+ * - rutas.metrics=false desactiva toda la instrumentación (begin devuelve null).
+ * - rutas.metrics.dump=N imprime el reporte cada N segundos.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+import gestion_de_rutas_de_transporte.model.Node;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class Metrics {
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("rutas.metrics"));
+    private static final CustomLinkedList<OperationStats> OPERATIONS = new CustomLinkedList<>();
+
+    public static final OperationStats FIND_PATH = register("findPath");
+    public static final OperationStats CACHED_PATH = register("cachedPath");
+    public static final OperationStats FEWEST_HOPS = register("fewestHops");
+    public static final OperationStats BETWEENNESS = register("betweenness");
+    public static final OperationStats ALT_PATH = register("altPath");
+    public static final OperationStats HUB_LABELS = register("hubLabels");
+    public static final OperationStats PARETO = register("pareto");
+    public static final OperationStats TRANSFER_PATH = register("transferPath");
+    public static final OperationStats LONGEST_PATH = register("longestPath");
+    public static final OperationStats FILE_LOAD = register("load");
+    public static final OperationStats FILE_SAVE = register("save");
+    public static final OperationStats PAINT = register("paint");
+
+    private static ScheduledExecutorService dumper;
+
+    static {
+        String period = System.getProperty("rutas.metrics.dump");
+        if (ENABLED && period != null) {
+            try {
+                startPeriodicDump(Long.parseLong(period.trim()));
+            } catch (NumberFormatException e) {
+                System.out.println("Periodo de métricas inválido: " + period);
+            }
+        }
+    }
+
+    /**
+     * Marca el inicio de una operación.
+     * @param stats Métricas de la operación.
+     * @return Traza a cerrar con end, o null si la instrumentación está desactivada.
+     */
+    public static OperationEvent begin(OperationStats stats) {
+        if (!ENABLED) return null;
+        OperationEvent trace = new OperationEvent(stats);
+        trace.begin();
+        return trace;
+    }
+
+    /**
+     * Marca el fin de una operación sin contadores de búsqueda.
+     * @param trace Traza devuelta por begin (puede ser null).
+     */
+    public static void end(OperationEvent trace) {
+        end(trace, 0, 0);
+    }
+
+    /**
+     * Marca el fin de una operación y registra su duración y contadores.
+     * @param trace Traza devuelta por begin (puede ser null).
+     * @param settled Vértices asentados.
+     * @param relaxed Aristas relajadas.
+     */
+    public static void end(OperationEvent trace, long settled, long relaxed) {
+        if (trace == null) return;
+        trace.stats.record(System.nanoTime() - trace.startNanos, settled, relaxed);
+        trace.end();
+        if (trace.shouldCommit()) {
+            trace.operation = trace.stats.getName();
+            trace.settled = settled;
+            trace.relaxed = relaxed;
+            trace.commit();
+        }
+    }
+
+    /**
+     * Obtiene las métricas de todas las operaciones registradas.
+     * @return Lista de métricas.
+     */
+    public static CustomLinkedList<OperationStats> getOperations() {
+        return OPERATIONS;
+    }
+
+    /**
+     * Genera un reporte de texto con una línea por operación.
+     * @return Reporte.
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-12s %9s %10s %10s %10s %10s %10s %11s %11s%n", "Operación", "Llamadas",
+                "Media µs", "p50 µs", "p90 µs", "p99 µs", "Máx µs", "Asentados", "Relajadas"));
+        Node<OperationStats> current = OPERATIONS.getHead();
+        while (current != null) {
+            OperationStats stats = current.getData();
+            sb.append(String.format("%-12s %9d %10.1f %10.1f %10.1f %10.1f %10.1f %11.1f %11.1f%n", stats.getName(),
+                    stats.getCount(), stats.getMeanMicros(), stats.getP50Micros(), stats.getP90Micros(),
+                    stats.getP99Micros(), stats.getMaxMicros(), stats.getSettledPerCall(), stats.getRelaxedPerCall()));
+            current = current.getNext();
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Borra las métricas de todas las operaciones.
+     */
+    public static void reset() {
+        Node<OperationStats> current = OPERATIONS.getHead();
+        while (current != null) {
+            current.getData().reset();
+            current = current.getNext();
+        }
+    }
+
+    /**
+     * Inicia (o reinicia) el volcado periódico del reporte en la salida estándar.
+     * @param seconds Periodo en segundos (0 o negativo detiene el volcado).
+     */
+    public static synchronized void startPeriodicDump(long seconds) {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+        if (seconds <= 0) return;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> System.out.print(report()), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Crea las métricas de una operación y las publica por JMX.
+     * @param name Nombre de la operación.
+     * @return Métricas creadas.
+     */
+    private static OperationStats register(String name) {
+        OperationStats stats = new OperationStats(name);
+        OPERATIONS.add(stats);
+        if (ENABLED) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName objectName = new ObjectName("gestion_de_rutas_de_transporte:type=Metrics,name=" + name);
+                if (!server.isRegistered(objectName)) {
+                    server.registerMBean(stats, objectName);
+                }
+            } catch (JMException | SecurityException e) {
+                System.out.println("No se pudo publicar la métrica " + name + ": " + e.getMessage());
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Tabla de símbolos para los nombres de paradas y rutas.
+ * Cada nombre distinto recibe un ID entero denso y sus bytes (UTF-8) se guardan una sola vez en un arreglo
+ * compartido; las entidades guardan solo el ID. Los nombres repetidos (archivos de varios operadores)
+ * ocupan un único lugar, y el String se crea al pedirlo, con una caché pequeña de tamaño fijo.
+ * Los símbolos no se liberan: un nombre que deja de usarse queda en la tabla hasta que termina el programa.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+public class NamePool {
+    private static final int CACHE_SIZE = 8192;  // Potencia de dos
+
+    private static byte[] arena = new byte[4096];
+    private static int arenaSize;
+    private static int[] offsets = new int[257];  // offsets[id]..offsets[id + 1] son los bytes del símbolo id
+    private static int count;
+    private static int[] slots = new int[512];  // Tabla hash abierta: ID + 1, 0 si está libre
+    private static byte[] scratch = new byte[64];
+
+    private static final String[] cache = new String[CACHE_SIZE];
+    private static final int[] cacheIds = new int[CACHE_SIZE];
+
+    static {
+        Arrays.fill(cacheIds, -1);
+    }
+
+    /**
+     * Obtiene el ID de un nombre, agregándolo si es nuevo.
+     * @param name Nombre (null se trata como vacío).
+     * @return ID del símbolo.
+     */
+    public static int intern(String name) {
+        return name == null ? intern("", 0, 0) : intern(name, 0, name.length());
+    }
+
+    /**
+     * Obtiene el ID de un fragmento de texto sin crear un String intermedio (por ejemplo, un campo de una línea).
+     * @param text Texto que contiene el nombre.
+     * @param from Índice inicial (incluido).
+     * @param to Índice final (excluido).
+     * @return ID del símbolo.
+     */
+    public static synchronized int intern(CharSequence text, int from, int to) {
+        int length = encode(text, from, to);
+        int hash = hash(scratch, 0, length);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (equalsAt(id, length)) return id;
+            slot = (slot + 1) & mask;
+        }
+        int id = append(length);
+        slots[slot] = id + 1;
+        if (count * 2 > slots.length) rehash();
+        return id;
+    }
+
+    /**
+     * Obtiene el nombre de un símbolo.
+     * @param id ID del símbolo.
+     * @return Nombre, o null si el ID no existe.
+     */
+    public static synchronized String get(int id) {
+        if (id < 0 || id >= count) return null;
+        int slot = id & (CACHE_SIZE - 1);
+        if (cacheIds[slot] == id) return cache[slot];
+        String name = new String(arena, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+        cache[slot] = name;
+        cacheIds[slot] = id;
+        return name;
+    }
+
+    /**
+     * Compara dos símbolos en orden alfabético (igual que String.compareTo) sin crear Strings.
+     * El orden de bytes UTF-8 coincide con el de puntos de código.
+     * @param a ID del primer símbolo.
+     * @param b ID del segundo símbolo.
+     * @return Negativo, cero o positivo.
+     */
+    public static synchronized int compare(int a, int b) {
+        if (a == b) return 0;
+        int i = offsets[a], endA = offsets[a + 1];
+        int j = offsets[b], endB = offsets[b + 1];
+        for (; i < endA && j < endB; i++, j++) {
+            int diff = (arena[i] & 0xFF) - (arena[j] & 0xFF);
+            if (diff != 0) return diff;
+        }
+        return (endA - i) - (endB - j);
+    }
+
+    /**
+     * Obtiene el número de nombres distintos.
+     * @return Número de símbolos.
+     */
+    public static synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Obtiene los bytes ocupados por los nombres en el arreglo compartido.
+     * @return Bytes usados.
+     */
+    public static synchronized int getArenaBytes() {
+        return arenaSize;
+    }
+
+    /**
+     * Codifica el fragmento en UTF-8 dentro del búfer temporal.
+     * @return Número de bytes escritos.
+     */
+    private static int encode(CharSequence text, int from, int to) {
+        if (scratch.length < (to - from) * 3) scratch = new byte[(to - from) * 3];
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                scratch[n++] = (byte) c;
+            } else if (c < 0x800) {
+                scratch[n++] = (byte) (0xC0 | (c >> 6));
+                scratch[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                scratch[n++] = (byte) (0xF0 | (cp >> 18));
+                scratch[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                scratch[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                scratch[n++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                scratch[n++] = (byte) (0xE0 | (c >> 12));
+                scratch[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                scratch[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return n;
+    }
+
+    private static boolean equalsAt(int id, int length) {
+        int start = offsets[id];
+        if (offsets[id + 1] - start != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (arena[start + i] != scratch[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copia el búfer temporal al final del arreglo compartido como un símbolo nuevo.
+     * @return ID del símbolo.
+     */
+    private static int append(int length) {
+        if (arenaSize + length > arena.length) {
+            byte[] grown = new byte[Math.max(arena.length * 2, arenaSize + length)];
+            System.arraycopy(arena, 0, grown, 0, arenaSize);
+            arena = grown;
+        }
+        if (count + 2 > offsets.length) {
+            int[] grown = new int[offsets.length * 2];
+            System.arraycopy(offsets, 0, grown, 0, count + 1);
+            offsets = grown;
+        }
+        System.arraycopy(scratch, 0, arena, arenaSize, length);
+        arenaSize += length;
+        offsets[count + 1] = arenaSize;
+        return count++;
+    }
+
+    private static void rehash() {
+        int[] grown = new int[slots.length * 2];
+        int mask = grown.length - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = hash(arena, offsets[id], offsets[id + 1] - offsets[id]) & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = id + 1;
+        }
+        slots = grown;
+    }
+
+    private static int hash(byte[] bytes, int start, int length) {
+        int h = 0x811C9DC5;  // FNV-1a
+        for (int i = start; i < start + length; i++) {
+            h = (h ^ bytes[i]) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Evento personalizado de JFR (Java Flight Recorder) para una operación instrumentada.
+ * Solo se escribe cuando hay una grabación activa que lo habilite; el inicio y las métricas
+ * destino son campos transient que JFR no graba.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("gestion_de_rutas_de_transporte.Operation")
+@Label("Operación de rutas")
+@Category("Gestión de Rutas de Transporte")
+@StackTrace(false)
+public class OperationEvent extends Event {
+    @Label("Operación")
+    String operation;
+
+    @Label("Vértices asentados")
+    long settled;
+
+    @Label("Aristas relajadas")
+    long relaxed;
+
+    transient final OperationStats stats;
+    transient final long startNanos;
+
+    /**
+     * Constructor del evento; marca el inicio de la operación.
+     * @param stats Métricas donde se registrará la operación.
+     */
+    OperationEvent(OperationStats stats) {
+        this.stats = stats;
+        this.startNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Clase que acumula las métricas de una operación: llamadas, tiempo total, histograma de latencias,
+ * vértices asentados y aristas relajadas. Usa contadores LongAdder para que varios hilos registren
+ * sin contención, y se publica por JMX a través de OperationStatsMXBean.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class OperationStats implements OperationStatsMXBean {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder relaxed = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * Constructor de las métricas de una operación.
+     * @param name Nombre de la operación.
+     */
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Registra una llamada terminada.
+     * @param nanos Duración en nanosegundos.
+     * @param settledVertices Vértices asentados (0 si no aplica).
+     * @param relaxedEdges Aristas relajadas (0 si no aplica).
+     */
+    public void record(long nanos, long settledVertices, long relaxedEdges) {
+        count.increment();
+        totalNanos.add(nanos);
+        if (settledVertices != 0) settled.add(settledVertices);
+        if (relaxedEdges != 0) relaxed.add(relaxedEdges);
+        latencies.record(nanos);
+    }
+
+    /**
+     * Obtiene el histograma de latencias (en nanosegundos).
+     * @return Histograma.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long calls = count.sum();
+        return calls == 0 ? 0 : totalNanos.sum() / 1000.0 / calls;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencies.valueAt(50) / 1000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return latencies.valueAt(90) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencies.valueAt(99) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latencies.getMax() / 1000.0;
+    }
+
+    @Override
+    public double getSettledPerCall() {
+        long calls = count.sum();
+        return calls == 0 ? 0 : (double) settled.sum() / calls;
+    }
+
+    @Override
+    public double getRelaxedPerCall() {
+        long calls = count.sum();
+        return calls == 0 ? 0 : (double) relaxed.sum() / calls;
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        settled.reset();
+        relaxed.reset();
+        latencies.reset();
+    }
+}
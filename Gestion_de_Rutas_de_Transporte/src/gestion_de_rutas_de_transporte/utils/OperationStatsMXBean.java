@@ -0,0 +1,67 @@
+/**
+ * Interfaz de administración (JMX) con las métricas de una operación instrumentada.
+ * Se publica como gestion_de_rutas_de_transporte:type=Metrics,name=<operación>.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+public interface OperationStatsMXBean {
+    /**
+     * Obtiene el nombre de la operación.
+     * @return Nombre.
+     */
+    String getName();
+
+    /**
+     * Obtiene el número de llamadas registradas.
+     * @return Llamadas.
+     */
+    long getCount();
+
+    /**
+     * Obtiene la latencia media.
+     * @return Media en microsegundos.
+     */
+    double getMeanMicros();
+
+    /**
+     * Obtiene la mediana de latencia.
+     * @return Percentil 50 en microsegundos.
+     */
+    double getP50Micros();
+
+    /**
+     * Obtiene el percentil 90 de latencia.
+     * @return Percentil 90 en microsegundos.
+     */
+    double getP90Micros();
+
+    /**
+     * Obtiene el percentil 99 de latencia.
+     * @return Percentil 99 en microsegundos.
+     */
+    double getP99Micros();
+
+    /**
+     * Obtiene la latencia máxima.
+     * @return Máximo en microsegundos.
+     */
+    double getMaxMicros();
+
+    /**
+     * Obtiene el promedio de vértices asentados por llamada.
+     * @return Vértices por llamada.
+     */
+    double getSettledPerCall();
+
+    /**
+     * Obtiene el promedio de aristas relajadas por llamada.
+     * @return Aristas por llamada.
+     */
+    double getRelaxedPerCall();
+
+    /**
+     * Borra las métricas acumuladas.
+     */
+    void reset();
+}
@@ -21,7 +21,7 @@ public class Sorter {
         for (int j = 0; j < n - i - 1; j++) {
             boolean swap = false;
             if ("nombre".equalsIgnoreCase(criterio)) {
-                if (array[j].getName().compareTo(array[j + 1].getName()) > 0) {
+                if (NamePool.compare(array[j].getNameId(), array[j + 1].getNameId()) > 0) {
                     swap = true;
                 }
             } else if ("id".equalsIgnoreCase(criterio)) {
@@ -0,0 +1,112 @@
+/**
+ * Clase para aplicar actualizaciones de tráfico en vivo sobre el grafo.
+ * Cada línea tiene el formato "origen,destino,peso"; un peso "X" o negativo indica cierre de la arista,
+ * y un peso sobre una arista inexistente la reabre. Un peso 0 se rechaza: los caminos mínimos asumen tramos
+ * de costo positivo. Las líneas se analizan sin split ni objetos
+ * intermedios para sostener miles de actualizaciones por segundo desde un archivo o flujo local.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.utils;
+
+import gestion_de_rutas_de_transporte.model.Graph;
+import java.io.*;
+
+public class TrafficFeed {
+
+    /**
+     * Aplica todas las actualizaciones de un archivo de tráfico.
+     * @param filename Nombre del archivo.
+     * @param graph Grafo a actualizar.
+     * @return Número de actualizaciones aplicadas.
+     */
+    public static int apply(String filename, Graph graph) {
+        try (Reader reader = new FileReader(filename)) {
+            return apply(reader, graph);
+        } catch (FileNotFoundException e) {
+            System.out.println("Archivo de tráfico no encontrado: " + filename);
+        } catch (IOException e) {
+            System.out.println("Error al leer tráfico: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Aplica todas las actualizaciones leídas de un flujo, línea por línea.
+     * @param reader Flujo de entrada.
+     * @param graph Grafo a actualizar.
+     * @return Número de actualizaciones aplicadas.
+     * @throws IOException Si falla la lectura.
+     */
+    public static int apply(Reader reader, Graph graph) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        int applied = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (applyLine(line, graph)) applied++;
+        }
+        return applied;
+    }
+
+    /**
+     * Aplica una sola actualización "origen,destino,peso".
+     * @param line Línea de actualización.
+     * @param graph Grafo a actualizar.
+     * @return true si la línea era válida y modificó o confirmó una arista.
+     */
+    public static boolean applyLine(String line, Graph graph) {
+        int firstComma = line.indexOf(',');
+        int secondComma = firstComma < 0 ? -1 : line.indexOf(',', firstComma + 1);
+        if (secondComma < 0) return false;
+        int from = parseInt(line, 0, firstComma);
+        int to = parseInt(line, firstComma + 1, secondComma);
+        if (from < 1 || to < 1) return false;
+
+        int weightStart = skipSpaces(line, secondComma + 1);
+        boolean closed = weightStart < line.length()
+                && (line.charAt(weightStart) == 'X' || line.charAt(weightStart) == 'x' || line.charAt(weightStart) == '-');
+        if (closed) {
+            return graph.removeEdge(from, to);
+        }
+        int peso = parseInt(line, weightStart, line.length());
+        if (peso <= 0) return false;
+        if (graph.setWeight(from, to, peso)) return true;
+        graph.addEdge(from, to, peso);  // Reapertura
+        return graph.hasEdge(from, to);
+    }
+
+    /**
+     * Analiza un entero no negativo en un rango de la línea, ignorando espacios.
+     * @param line Línea de texto.
+     * @param start Índice inicial (inclusive).
+     * @param end Índice final (exclusivo).
+     * @return Valor o -1 si el rango no es un número válido.
+     */
+    private static int parseInt(String line, int start, int end) {
+        int i = skipSpaces(line, start);
+        int value = 0;
+        int digits = 0;
+        while (i < end) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (value > (Integer.MAX_VALUE - 9) / 10) return -1;
+                value = value * 10 + (c - '0');
+                digits++;
+            } else if (c != ' ' && c != '\t') {
+                return -1;
+            }
+            i++;
+        }
+        return digits > 0 ? value : -1;
+    }
+
+    /**
+     * Avanza sobre espacios en blanco.
+     * @param line Línea de texto.
+     * @param i Índice inicial.
+     * @return Primer índice sin espacio.
+     */
+    private static int skipSpaces(String line, int i) {
+        while (i < line.length() && (line.charAt(i) == ' ' || line.charAt(i) == '\t')) i++;
+        return i;
+    }
+}
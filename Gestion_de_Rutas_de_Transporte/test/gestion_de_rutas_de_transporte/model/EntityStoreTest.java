@@ -0,0 +1,98 @@
+/**
+ * Pruebas de EntityStore: las paradas son vistas sobre las columnas, siguen a su fila cuando otra se elimina
+ * y el índice espacial reconstruido desde las columnas equivale al construido desde la lista.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class EntityStoreTest {
+
+    @Test
+    public void viewsReadAndWriteColumns() {
+        EntityStore store = new EntityStore(2);
+        Stop a = store.addStop(7, "Sabana", 10, 20);
+        Stop b = store.addStop(8, "Pavas", 30, 40);
+        Stop c = store.addStop(9, "Curridabat", 50, 60);  // Obliga a crecer las columnas
+
+        assertEquals(3, store.getStopCount());
+        assertEquals("Pavas", b.getName());
+        b.setX(-5);
+        b.setName("Pavas Centro");
+        assertEquals(-5, store.getStopX(1));
+        assertEquals("Pavas Centro", b.getName());
+        assertEquals(b.getNameId(), store.getStopNameId(1));
+        assertSame(c, store.getStopAt(2));
+        assertEquals(7, a.getId());
+        assertEquals(new Stop(9, "otro", 0, 0), c);
+    }
+
+    @Test
+    public void removalMovesLastRowAndDetachesView() {
+        EntityStore store = new EntityStore();
+        Stop first = store.addStop(1, "Uno", 1, 1);
+        Stop second = store.addStop(2, "Dos", 2, 2);
+        Stop third = store.addStop(3, "Tres", 3, 3);
+
+        assertTrue(store.removeStop(first));
+        assertFalse(store.removeStop(first));  // Ya no es de este almacén
+        assertEquals(2, store.getStopCount());
+        assertSame(third, store.getStopAt(0));
+        assertEquals(3, store.getStopId(0));
+
+        third.setY(33);  // La vista escribe en su nueva fila
+        assertEquals(33, store.getStopY(0));
+        assertEquals(2, second.getY());
+
+        assertEquals("Uno", first.getName());  // La vista eliminada conserva sus datos
+        first.setX(100);
+        assertEquals(100, first.getX());
+        assertEquals(3, store.getStopX(0));
+
+        store.clear();
+        assertEquals(0, store.getStopCount());
+        assertEquals(33, third.getY());
+    }
+
+    @Test
+    public void indexFromColumnsMatchesIndexFromList() {
+        Random random = new Random(11L);
+        EntityStore store = new EntityStore();
+        CustomLinkedList<Stop> stops = new CustomLinkedList<>();
+        for (int id = 1; id <= 400; id++) {
+            stops.add(store.addStop(id, "P" + id, random.nextInt(2000), random.nextInt(1500)));
+        }
+        for (int i = 0; i < 100; i++) {  // Bajas intercaladas: las filas se reordenan
+            Stop stop = stops.getAt(random.nextInt(stops.getSize()));
+            stops.remove(stop);
+            store.removeStop(stop);
+        }
+        StopIndex fromColumns = new StopIndex(48);
+        fromColumns.rebuild(store);
+        StopIndex fromList = new StopIndex(48);
+        fromList.rebuild(stops);
+
+        assertEquals(fromList.size(), fromColumns.size());
+        for (int i = 0; i < 50; i++) {
+            int x = random.nextInt(2200) - 100;
+            int y = random.nextInt(1700) - 100;
+            Stop expected = fromList.nearest(x, y);
+            Stop actual = fromColumns.nearest(x, y);  // En empates puede ser otra parada a la misma distancia
+            assertEquals(Math.hypot(expected.getX() - x, expected.getY() - y),
+                    Math.hypot(actual.getX() - x, actual.getY() - y), 0);
+            assertEquals(fromList.withinRadius(x, y, 150).getSize(), fromColumns.withinRadius(x, y, 150).getSize());
+        }
+        for (int row = 0; row < store.getStopCount(); row++) {
+            assertSame(store.getStopAt(row), fromColumns.get(store.getStopId(row)));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Pruebas de HubLabels: las distancias del índice se comparan con Dijkstra en consultas al azar, antes y
+ * después de cambiar el grafo y al recargar el índice guardado.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class HubLabelsTest {
+    private static final int SIDE = 30;
+    private static final int STOPS = SIDE * SIDE + 5;  // Las últimas cinco quedan aisladas
+
+    private final Random random = new Random(48);
+    private Graph graph;
+
+    @Before
+    public void setUp() {
+        GraphBuilder builder = new GraphBuilder();
+        for (int y = 0; y < SIDE; y++) {
+            for (int x = 0; x < SIDE; x++) {
+                int id = y * SIDE + x + 1;
+                if (x + 1 < SIDE) builder.addEdge(id, id + 1, 1 + random.nextInt(20));
+                if (y + 1 < SIDE) builder.addEdge(id, id + SIDE, 1 + random.nextInt(20));
+            }
+        }
+        for (int i = 0; i < 40; i++) {
+            builder.addEdge(1 + random.nextInt(SIDE * SIDE), 1 + random.nextInt(SIDE * SIDE), 5 + random.nextInt(60));
+        }
+        graph = new Graph(STOPS);
+        graph.addStop(STOPS);
+        builder.buildInto(graph);
+    }
+
+    @Test
+    public void distancesMatchDijkstra() throws InterruptedException {
+        HubLabels index = new HubLabels(graph);
+        assertEquals(HubLabels.NOT_READY, index.distance(1, 2));
+        assertTrue(index.awaitReady(60_000));
+        assertTrue(index.getEntryCount() < 60 * STOPS);
+        assertSameDistances(index, 400);
+    }
+
+    @Test
+    public void staleIndexRebuildsAfterChanges() throws InterruptedException {
+        HubLabels index = new HubLabels(graph);
+        assertTrue(index.awaitReady(60_000));
+        for (int step = 0; step < 5; step++) {
+            int x = random.nextInt(SIDE) * SIDE + 1 + random.nextInt(SIDE - 1);  // (x, x + 1) es una arista de la cuadrícula
+            switch (step % 3) {
+                case 0 -> graph.setWeight(x, x + 1, 1);
+                case 1 -> graph.removeEdge(x, x + 1);
+                default -> graph.addEdge(x, 1 + random.nextInt(SIDE * SIDE), 2);
+            }
+            assertFalse(index.isReady());
+            assertEquals(HubLabels.NOT_READY, index.distance(1, SIDE * SIDE));
+            assertTrue(index.awaitReady(60_000));
+            assertSameDistances(index, 100);
+        }
+    }
+
+    @Test
+    public void savedIndexIsReusedOnlyForTheSameGraph() throws IOException, InterruptedException {
+        HubLabels index = new HubLabels(graph);
+        assertTrue(index.awaitReady(60_000));
+        assertTrue(index.isModified());
+        Path file = Files.createTempFile("hub", ".hub");
+        try {
+            index.save(file);
+            assertFalse(index.isModified());
+            HubLabels loaded = HubLabels.open(graph, file);
+            assertTrue(loaded.isReady());
+            assertEquals(index.getEntryCount(), loaded.getEntryCount());
+            for (int q = 0; q < 400; q++) {
+                int s = 1 + random.nextInt(STOPS), t = 1 + random.nextInt(STOPS);
+                assertEquals(index.distance(s, t), loaded.distance(s, t));
+            }
+            graph.addEdge(1, SIDE * SIDE, 1);
+            assertFalse(HubLabels.open(graph, file).isReady());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private void assertSameDistances(HubLabels index, int queries) {
+        for (int q = 0; q < queries; q++) {
+            int s = 1 + random.nextInt(STOPS), t = 1 + random.nextInt(STOPS);
+            assertEquals("d(" + s + ", " + t + ")", dijkstra(s, t), index.distance(s, t));
+        }
+    }
+
+    private int dijkstra(int s, int t) {
+        if (s == t) return 0;
+        CustomLinkedList<Integer> path = graph.findPath(s, t);
+        if (path.getSize() == 0) return HubLabels.UNREACHABLE;
+        int cost = 0;
+        for (Node<Integer> node = path.getHead(); node.getNext() != null; node = node.getNext()) {
+            cost += graph.getWeight(node.getData(), node.getNext().getData());
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Pruebas de KShortestPaths: los caminos devueltos deben ser simples, distintos, con costo no decreciente
+ * igual a la suma de sus tramos, y coincidir con los K mejores de una enumeración exhaustiva.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class KShortestPathsTest {
+
+    /**
+     * Escalera 1-2-3 arriba y 4-5-6 abajo con peldaños 1-4, 2-5, 3-6; los tramos horizontales pesan 1
+     * y los peldaños 2. Entre 1 y 6 hay exactamente cuatro caminos simples: tres de costo 4 (uno por peldaño)
+     * y 1-4-5-2-3-6 de costo 8.
+     */
+    @Test
+    public void ladderHasFourSimplePaths() {
+        Graph graph = new Graph();
+        graph.addStop(6);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(4, 5, 1);
+        graph.addEdge(5, 6, 1);
+        graph.addEdge(1, 4, 2);
+        graph.addEdge(2, 5, 2);
+        graph.addEdge(3, 6, 2);
+
+        List<WeightedPath> paths = toJava(new KShortestPaths(graph).find(1, 6, 10));
+        assertEquals(4, paths.size());
+        int[] costs = new int[paths.size()];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = paths.get(i).getCost();
+        }
+        assertArrayEquals(new int[] {4, 4, 4, 8}, costs);
+        assertWellFormed(graph, paths, 1, 6);
+    }
+
+    @Test
+    public void firstPathIsTheShortest() {
+        Graph graph = randomGraph(new Random(7L), 40, 90);
+        List<WeightedPath> paths = toJava(new KShortestPaths(graph).find(3, 37, 5));
+        CustomLinkedList<Integer> shortest = graph.findPath(3, 37);
+        int cost = 0;
+        for (int i = 1; i < shortest.getSize(); i++) {
+            cost += graph.getWeight(shortest.getAt(i - 1), shortest.getAt(i));
+        }
+        assertEquals(cost, paths.get(0).getCost());
+        assertWellFormed(graph, paths, 3, 37);
+    }
+
+    @Test
+    public void unreachableOrInvalidGivesEmpty() {
+        Graph graph = new Graph();
+        graph.addStop(4);
+        graph.addEdge(1, 2, 3);
+        graph.addEdge(3, 4, 3);
+        KShortestPaths planner = new KShortestPaths(graph);
+        assertEquals(0, planner.find(1, 4, 3).getSize());
+        assertEquals(0, planner.find(1, 2, 0).getSize());
+        assertEquals(0, planner.find(1, 9, 3).getSize());
+    }
+
+    @Test
+    public void costsAgreeWithExhaustiveEnumeration() {
+        Random random = new Random(0xC0FFEEL);
+        for (int round = 0; round < 60; round++) {
+            int n = 5 + random.nextInt(5);
+            Graph graph = randomGraph(random, n, n + random.nextInt(2 * n));
+            int start = 1 + random.nextInt(n);
+            int end = 1 + random.nextInt(n);
+            if (start == end) continue;
+            int k = 1 + random.nextInt(12);
+
+            List<WeightedPath> paths = toJava(new KShortestPaths(graph).find(start, end, k));
+            List<Integer> all = new ArrayList<>();
+            boolean[] onPath = new boolean[n + 1];
+            onPath[start] = true;
+            enumerate(graph, start, end, 0, onPath, all);
+            Collections.sort(all);
+
+            assertEquals("ronda " + round, Math.min(k, all.size()), paths.size());
+            for (int i = 0; i < paths.size(); i++) {
+                assertEquals("ronda " + round + ", camino " + i, (int) all.get(i), paths.get(i).getCost());
+            }
+            assertWellFormed(graph, paths, start, end);
+        }
+    }
+
+    private static void assertWellFormed(Graph graph, List<WeightedPath> paths, int start, int end) {
+        HashSet<WeightedPath> distinct = new HashSet<>(paths);
+        assertEquals("caminos repetidos", paths.size(), distinct.size());
+        int previous = 0;
+        for (WeightedPath path : paths) {
+            int[] stops = path.getStops();
+            assertEquals(start, stops[0]);
+            assertEquals(end, stops[stops.length - 1]);
+            HashSet<Integer> visited = new HashSet<>();
+            int cost = 0;
+            for (int i = 0; i < stops.length; i++) {
+                assertTrue("ciclo en " + path, visited.add(stops[i]));
+                if (i > 0) {
+                    assertTrue(graph.hasEdge(stops[i - 1], stops[i]));
+                    cost += graph.getWeight(stops[i - 1], stops[i]);
+                }
+            }
+            assertEquals(cost, path.getCost());
+            assertTrue("costos fuera de orden", cost >= previous);
+            previous = cost;
+        }
+    }
+
+    private static void enumerate(Graph graph, int at, int end, int cost, boolean[] onPath, List<Integer> out) {
+        if (at == end) {
+            out.add(cost);
+            return;
+        }
+        for (int next = 1; next < onPath.length; next++) {
+            if (!onPath[next] && graph.hasEdge(at, next)) {
+                onPath[next] = true;
+                enumerate(graph, next, end, cost + graph.getWeight(at, next), onPath, out);
+                onPath[next] = false;
+            }
+        }
+    }
+
+    private static Graph randomGraph(Random random, int n, int extraEdges) {
+        GraphBuilder builder = new GraphBuilder();
+        for (int id = 2; id <= n; id++) {
+            builder.addEdge(id, 1 + random.nextInt(id - 1), 1 + random.nextInt(9));
+        }
+        for (int i = 0; i < extraEdges; i++) {
+            builder.addEdge(1 + random.nextInt(n), 1 + random.nextInt(n), 1 + random.nextInt(9));
+        }
+        return builder.build();
+    }
+
+    private static List<WeightedPath> toJava(CustomLinkedList<WeightedPath> list) {
+        List<WeightedPath> out = new ArrayList<>();
+        for (int i = 0; i < list.getSize(); i++) {
+            out.add(list.getAt(i));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Pruebas de NetworkResilience: paradas de articulación y puentes en una red conocida, y tras cada edición
+ * la instancia incremental debe coincidir con un análisis nuevo y con la definición (cerrar y contar componentes).
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.ArrayDeque;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class NetworkResilienceTest {
+
+    /**
+     * Dos triángulos (1-2-3 y 5-6-7) unidos por el camino 3-4-5; la parada 8 queda aislada.
+     */
+    private static Graph twoTriangles() {
+        Graph graph = new Graph();
+        graph.addStop(8);
+        graph.addEdge(1, 2, 4);
+        graph.addEdge(2, 3, 4);
+        graph.addEdge(3, 1, 4);
+        graph.addEdge(3, 4, 2);
+        graph.addEdge(4, 5, 2);
+        graph.addEdge(5, 6, 4);
+        graph.addEdge(6, 7, 4);
+        graph.addEdge(7, 5, 4);
+        return graph;
+    }
+
+    @Test
+    public void knownArticulationPointsAndBridges() {
+        Graph graph = twoTriangles();
+        NetworkResilience resilience = new NetworkResilience(graph);
+
+        assertEquals("[3, 4, 5]", join(resilience.getArticulationPoints()));
+        assertEquals(2, resilience.getBridges().getSize());
+        assertTrue(resilience.isBridge(3, 4));
+        assertTrue(resilience.isBridge(5, 4));
+        assertFalse(resilience.isBridge(1, 2));
+        assertFalse(resilience.isArticulation(8));
+
+        graph.addEdge(2, 6, 9);  // Cierra un ciclo grande: ya nada es crítico
+        assertEquals(0, resilience.getArticulationPoints().getSize());
+        assertEquals(0, resilience.getBridges().getSize());
+
+        graph.removeEdge(6, 7);
+        graph.removeEdge(7, 5);
+        graph.addEdge(7, 8, 1);
+        assertEquals("[]", join(resilience.getArticulationPoints()));
+        graph.addEdge(6, 7, 1);
+        assertEquals("[6, 7]", join(resilience.getArticulationPoints()));
+        assertTrue(resilience.isBridge(6, 7));
+        assertTrue(resilience.isBridge(7, 8));
+        assertFalse(resilience.isBridge(4, 5));
+    }
+
+    @Test
+    public void incrementalAnalysisTracksEdits() {
+        Random random = new Random(31337L);
+        int n = 24;
+        Graph graph = new Graph();
+        graph.addStop(n);
+        for (int i = 0; i < n; i++) {
+            graph.addEdge(1 + random.nextInt(n), 1 + random.nextInt(n), 1 + random.nextInt(5));
+        }
+        NetworkResilience incremental = new NetworkResilience(graph);
+
+        for (int step = 0; step < 250; step++) {
+            int a = 1 + random.nextInt(n);
+            int b = 1 + random.nextInt(n);
+            if (graph.hasEdge(a, b) && random.nextInt(3) > 0) graph.removeEdge(a, b);
+            else graph.addEdge(a, b, 1 + random.nextInt(5));
+            if (step % 5 == 0) graph.setWeight(a, b, 3);  // Los cambios de peso no deben alterar nada
+
+            NetworkResilience fresh = new NetworkResilience(graph);
+            assertEquals("paso " + step, join(fresh.getArticulationPoints()),
+                    join(incremental.getArticulationPoints()));
+            assertEquals("paso " + step, fresh.getBridges().getSize(), incremental.getBridges().getSize());
+
+            int components = countComponents(graph, 0, 0, 0);
+            for (int id = 1; id <= n; id++) {
+                boolean cut = countComponents(graph, id, 0, 0) > components - (isolated(graph, id) ? 1 : 0);
+                assertEquals("paso " + step + ", parada " + id, cut, incremental.isArticulation(id));
+                for (int other = id + 1; other <= n; other++) {
+                    if (graph.hasEdge(id, other)) {
+                        boolean bridge = countComponents(graph, 0, id, other) > components;
+                        assertEquals("paso " + step + ", tramo " + id + "-" + other, bridge,
+                                incremental.isBridge(id, other));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Cuenta componentes conexas sin la parada {@code closed} ni el tramo {@code a}-{@code b} (0 = ninguno).
+     */
+    private static int countComponents(Graph graph, int closed, int a, int b) {
+        int n = graph.getNumStops();
+        boolean[] seen = new boolean[n + 1];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int components = 0;
+        for (int startId = 1; startId <= n; startId++) {
+            if (startId == closed || seen[startId]) continue;
+            components++;
+            seen[startId] = true;
+            queue.add(startId);
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                for (int v = 1; v <= n; v++) {
+                    boolean skipped = (u == a && v == b) || (u == b && v == a);
+                    if (v != closed && !seen[v] && !skipped && graph.hasEdge(u, v)) {
+                        seen[v] = true;
+                        queue.add(v);
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    private static boolean isolated(Graph graph, int id) {
+        for (int v = 1; v <= graph.getNumStops(); v++) {
+            if (v != id && graph.hasEdge(id, v)) return false;
+        }
+        return true;
+    }
+
+    private static String join(CustomLinkedList<Integer> ids) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < ids.getSize(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(ids.getAt(i));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Pruebas de OffHeapGraph: el archivo escrito por pasadas desde un origen de aristas debe tener las mismas
+ * aristas que Graph y dar caminos del mismo costo en consultas al azar.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import gestion_de_rutas_de_transporte.utils.FileManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class OffHeapGraphTest {
+    private static final int STOPS = 800;
+
+    private final Random random = new Random(40);
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("offheap");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    /**
+     * Aristas al azar con lazos, duplicados de distinto peso y paradas aisladas.
+     */
+    private GraphBuilder randomEdges() {
+        GraphBuilder builder = new GraphBuilder();
+        for (int i = 0; i < STOPS * 3; i++) {
+            int from = 1 + random.nextInt(STOPS - 20);
+            int to = random.nextInt(4) == 0 ? from : 1 + random.nextInt(STOPS - 20);
+            builder.addEdge(from, to, 1 + random.nextInt(50));
+            if (random.nextInt(5) == 0) builder.addEdge(to, from, 1 + random.nextInt(50));
+        }
+        builder.addEdge(STOPS - 1, STOPS, 7);
+        return builder;
+    }
+
+    @Test
+    public void streamedWriteMatchesGraph() throws IOException {
+        GraphBuilder builder = randomEdges();
+        Path file = dir.resolve("red.csr");
+        OffHeapGraph.write(builder, file);
+        Graph graph = builder.build();
+        OffHeapGraph offHeap = OffHeapGraph.map(file, false);
+        try {
+            assertEquals(graph.getNumStops(), offHeap.getNumStops());
+            assertSameEdges(graph, offHeap);
+            assertSameCosts(graph, offHeap, 500);
+            assertEquals(Files.size(file), 4L * (8 + offHeap.getCapacity() + 1 + 2L * offHeap.getEdgeCount()));
+        } finally {
+            offHeap.close();
+        }
+    }
+
+    @Test
+    public void snapshotCopyMatchesGraph() {
+        Graph graph = randomEdges().build();
+        OffHeapGraph offHeap = OffHeapGraph.of(graph);
+        assertSameEdges(graph, offHeap);
+        assertSameCosts(graph, offHeap, 200);
+    }
+
+    @Test
+    public void loadOffHeapMatchesDataFile() throws IOException {
+        CustomLinkedList<Stop> stops = new CustomLinkedList<>();
+        for (int id = 1; id <= STOPS; id++) {
+            stops.add(new Stop(id, "Parada " + id, random.nextInt(1000), random.nextInt(1000)));
+        }
+        Graph original = randomEdges().build();
+        String data = dir.resolve("data.txt").toString();
+        FileManager.save(data, stops, new CustomLinkedList<>(), new CustomLinkedList<>(), original);
+
+        Graph graph = new Graph(STOPS);
+        FileManager.load(data, new CustomLinkedList<>(), new CustomLinkedList<>(), new CustomLinkedList<>(), graph);
+        OffHeapGraph offHeap = FileManager.loadOffHeap(data, dir.resolve("data.csr"));
+        try {
+            assertSameEdges(graph, offHeap);
+            assertSameCosts(graph, offHeap, 300);
+        } finally {
+            offHeap.close();
+        }
+    }
+
+    @Test
+    public void setWeightUpdatesBothDirections() {
+        GraphBuilder builder = new GraphBuilder();
+        builder.addEdge(1, 2, 10);
+        builder.addEdge(2, 3, 10);
+        builder.addEdge(1, 3, 30);
+        OffHeapGraph offHeap = OffHeapGraph.of(builder.build());
+        assertEquals(20, cost(offHeap, offHeap.findPath(1, 3)));
+        assertTrue(offHeap.setWeight(3, 1, 5));
+        assertEquals(5, offHeap.getWeight(1, 3));
+        assertEquals(5, cost(offHeap, offHeap.findPath(1, 3)));
+    }
+
+    private static void assertSameEdges(Graph graph, OffHeapGraph offHeap) {
+        int edges = 0;
+        for (int from = 1; from <= graph.getNumStops(); from++) {
+            for (int e = offHeap.edgeStart(from); e < offHeap.edgeEnd(from); e++) {
+                if (e > offHeap.edgeStart(from)) assertTrue(offHeap.targetAt(e - 1) < offHeap.targetAt(e));
+                assertEquals(graph.getWeight(from, offHeap.targetAt(e)), offHeap.weightAt(e));
+                edges++;
+            }
+            for (int to = 1; to <= graph.getNumStops(); to++) {
+                assertEquals(graph.hasEdge(from, to), offHeap.hasEdge(from, to));
+            }
+        }
+        assertEquals(edges, offHeap.getEdgeCount());
+    }
+
+    private void assertSameCosts(Graph graph, OffHeapGraph offHeap, int queries) {
+        for (int q = 0; q < queries; q++) {
+            int start = 1 + random.nextInt(graph.getNumStops());
+            int end = 1 + random.nextInt(graph.getNumStops());
+            CustomLinkedList<Integer> expected = graph.findPath(start, end);
+            CustomLinkedList<Integer> actual = offHeap.findPath(start, end);
+            assertEquals(expected.getSize() == 0, actual.getSize() == 0);
+            if (actual.getSize() > 0) {
+                assertEquals(start, (int) actual.getHead().getData());
+                assertEquals(cost(graph, expected), cost(offHeap, actual));
+            }
+        }
+    }
+
+    private static int cost(Graph graph, CustomLinkedList<Integer> path) {
+        int total = 0;
+        for (Node<Integer> node = path.getHead(); node != null && node.getNext() != null; node = node.getNext()) {
+            total += graph.getWeight(node.getData(), node.getNext().getData());
+        }
+        return total;
+    }
+
+    private static int cost(OffHeapGraph graph, CustomLinkedList<Integer> path) {
+        int total = 0;
+        for (Node<Integer> node = path.getHead(); node != null && node.getNext() != null; node = node.getNext()) {
+            int weight = graph.getWeight(node.getData(), node.getNext().getData());
+            assertTrue(weight >= 0);
+            total += weight;
+        }
+        return total;
+    }
+}
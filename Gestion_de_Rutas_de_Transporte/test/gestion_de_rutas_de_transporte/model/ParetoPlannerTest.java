@@ -0,0 +1,140 @@
+/**
+ * Pruebas de ParetoPlanner: el frente no debe tener viajes dominados y los criterios de cada viaje
+ * (costo, tramos, transbordos) deben corresponder a las paradas y rutas que recorre.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class ParetoPlannerTest {
+
+    private static Route route(int id, int... stops) {
+        Route route = new Route(id, "R" + id);
+        for (int stop : stops) {
+            route.getStopIds().add(stop);
+        }
+        return route;
+    }
+
+    /**
+     * De 1 a 4 hay tres opciones que no se dominan: rápida con transbordo (rutas 10 y 20, costo 2),
+     * lenta directa por 3 (ruta 30, costo 10) y muy lenta de un solo tramo (ruta 40, costo 20).
+     */
+    @Test
+    public void frontKeepsFastTransferAndSlowDirect() {
+        Graph graph = new Graph();
+        graph.addStop(4);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 4, 1);
+        graph.addEdge(1, 3, 5);
+        graph.addEdge(3, 4, 5);
+        graph.addEdge(1, 4, 20);
+        CustomLinkedList<Route> routes = new CustomLinkedList<>();
+        routes.add(route(10, 1, 2));
+        routes.add(route(20, 2, 4));
+        routes.add(route(30, 1, 3, 4));
+        routes.add(route(40, 1, 4));
+
+        CustomLinkedList<Journey> front = new ParetoPlanner(graph, routes).search(1, 4);
+        assertEquals(3, front.getSize());
+        Journey fast = front.getAt(0);
+        assertEquals(2, fast.getCost());
+        assertEquals(1, fast.getTransfers());
+        assertEquals(10, fast.getRoutes()[0]);
+        assertEquals(20, fast.getRoutes()[2]);
+        Journey direct = front.getAt(1);
+        assertEquals(10, direct.getCost());
+        assertEquals(0, direct.getTransfers());
+        assertEquals(2, direct.getHops());
+        Journey single = front.getAt(2);
+        assertEquals(20, single.getCost());
+        assertEquals(1, single.getHops());
+        assertFrontIsConsistent(graph, front);
+
+        routes.add(route(50, 1, 2, 4));  // Una ruta directa rápida domina a las tres menos la de un tramo
+        front = new ParetoPlanner(graph, routes).search(1, 4);
+        assertEquals(2, front.getSize());
+        assertEquals(0, front.getAt(0).getTransfers());
+        assertEquals(2, front.getAt(0).getCost());
+        assertFrontIsConsistent(graph, front);
+    }
+
+    @Test
+    public void noRouteServesTheDestination() {
+        Graph graph = new Graph();
+        graph.addStop(3);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        CustomLinkedList<Route> routes = new CustomLinkedList<>();
+        routes.add(route(1, 1, 2));
+        assertEquals(0, new ParetoPlanner(graph, routes).search(1, 3).getSize());
+        assertEquals(0, new ParetoPlanner(graph, routes).search(0, 3).getSize());
+    }
+
+    @Test
+    public void randomNetworksGiveNonDominatedFronts() {
+        Random random = new Random(424242L);
+        int n = 60;
+        GraphBuilder builder = new GraphBuilder();
+        CustomLinkedList<Route> routes = new CustomLinkedList<>();
+        for (int r = 1; r <= 14; r++) {
+            int length = 3 + random.nextInt(8);
+            int[] stops = new int[length];
+            stops[0] = 1 + random.nextInt(n);
+            for (int i = 1; i < length; i++) {
+                do {
+                    stops[i] = 1 + random.nextInt(n);
+                } while (stops[i] == stops[i - 1]);
+                builder.addEdge(stops[i - 1], stops[i], 1 + random.nextInt(20));
+            }
+            routes.add(route(r, stops));
+        }
+        Graph graph = builder.build();
+        ParetoPlanner planner = new ParetoPlanner(graph, routes);
+        int found = 0;
+        for (int query = 0; query < 200; query++) {
+            CustomLinkedList<Journey> front = planner.search(1 + random.nextInt(n), 1 + random.nextInt(n));
+            found += front.getSize();
+            assertFrontIsConsistent(graph, front);
+            for (int i = 0; i < front.getSize(); i++) {
+                assertTrue(front.getAt(i).getTransfers() <= ParetoPlanner.MAX_TRANSFERS);
+            }
+        }
+        assertTrue("la red aleatoria no generó viajes", found > 0);
+    }
+
+    private static void assertFrontIsConsistent(Graph graph, CustomLinkedList<Journey> front) {
+        for (int i = 0; i < front.getSize(); i++) {
+            Journey journey = front.getAt(i);
+            int[] stops = journey.getStops();
+            int[] routeIds = journey.getRoutes();
+            int cost = 0;
+            int changes = 0;
+            for (int j = 1; j < stops.length; j++) {
+                cost += graph.getWeight(stops[j - 1], stops[j]);
+                if (routeIds[j] != routeIds[j - 1]) changes++;
+            }
+            assertEquals(journey.toString(), cost, journey.getCost());
+            assertEquals(journey.toString(), stops.length - 1, journey.getHops());
+            assertEquals(journey.toString(), changes, journey.getTransfers());
+            if (i > 0) assertTrue(front.getAt(i - 1).getCost() <= journey.getCost());
+
+            for (int j = 0; j < front.getSize(); j++) {
+                Journey other = front.getAt(j);
+                boolean dominated = other.getCost() <= journey.getCost() && other.getHops() <= journey.getHops()
+                        && other.getTransfers() <= journey.getTransfers()
+                        && (other.getCost() < journey.getCost() || other.getHops() < journey.getHops()
+                            || other.getTransfers() < journey.getTransfers());
+                assertFalse(other + " domina a " + journey, dominated);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Pruebas de la reparación incremental de ShortestPathTree: tras subir, bajar o cerrar tramos, el árbol
+ * reparado debe dar las mismas distancias que un Dijkstra nuevo y sus padres deben formar caminos mínimos.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertEquals;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Random;
+import org.junit.Test;
+
+
+public class ShortestPathTreeTest {
+
+    /**
+     * Grafo pequeño con dos caminos de 1 a 4: por 2 (costo 2) y por 3 (costo 4); 5 cuelga de 4.
+     */
+    private static Graph diamond() {
+        Graph graph = new Graph();
+        graph.addStop(5);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 4, 1);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(3, 4, 2);
+        graph.addEdge(4, 5, 1);
+        return graph;
+    }
+
+    private static ShortestPathTree observe(Graph graph, int source) {
+        ShortestPathTree tree = new ShortestPathTree(graph, source);
+        graph.addListener(tree::edgeChanged);
+        return tree;
+    }
+
+    @Test
+    public void increaseOnTreeEdgeMovesSubtree() {
+        Graph graph = diamond();
+        ShortestPathTree tree = observe(graph, 1);
+        assertEquals(3, tree.distanceTo(5));
+        assertEquals(2, tree.parentOf(4));
+
+        graph.setWeight(2, 4, 10);
+        assertEquals(4, tree.distanceTo(4));
+        assertEquals(3, tree.parentOf(4));
+        assertEquals(5, tree.distanceTo(5));
+        assertEquals(4, tree.parentOf(5));
+    }
+
+    @Test
+    public void decreaseOffTreeEdgeImprovesDistances() {
+        Graph graph = diamond();
+        ShortestPathTree tree = observe(graph, 1);
+        graph.setWeight(3, 4, 1);  // 1-3-4 cuesta 3, sigue ganando 1-2-4
+        assertEquals(2, tree.distanceTo(4));
+        assertEquals(2, tree.parentOf(4));
+        graph.setWeight(1, 3, 1);  // Empate a 2: la distancia no cambia
+        assertEquals(2, tree.distanceTo(4));
+        assertEquals(1, tree.distanceTo(3));
+        graph.addEdge(1, 5, 1);
+        assertEquals(1, tree.distanceTo(5));
+        assertEquals(1, tree.parentOf(5));
+        CustomLinkedList<Integer> path = tree.pathTo(5);
+        assertEquals(2, path.getSize());
+        assertEquals(Integer.valueOf(1), path.getAt(0));
+        assertEquals(Integer.valueOf(5), path.getAt(1));
+    }
+
+    @Test
+    public void removingBridgeDisconnects() {
+        Graph graph = diamond();
+        ShortestPathTree tree = observe(graph, 1);
+        graph.removeEdge(2, 4);
+        assertEquals(4, tree.distanceTo(4));
+        graph.removeEdge(4, 5);
+        assertEquals(ShortestPathTree.UNREACHABLE, tree.distanceTo(5));
+        assertEquals(-1, tree.parentOf(5));
+        assertEquals(0, tree.pathTo(5).getSize());
+        graph.addEdge(5, 2, 7);
+        assertEquals(8, tree.distanceTo(5));
+    }
+
+    @Test
+    public void repairedTreesMatchFreshDijkstra() {
+        Random random = new Random(20240611L);
+        int n = 150;
+        GraphBuilder builder = new GraphBuilder();
+        for (int id = 2; id <= n; id++) {
+            builder.addEdge(id, 1 + random.nextInt(id - 1), 1 + random.nextInt(30));  // Árbol base conexo
+        }
+        for (int i = 0; i < 2 * n; i++) {
+            builder.addEdge(1 + random.nextInt(n), 1 + random.nextInt(n), 1 + random.nextInt(30));
+        }
+        Graph graph = builder.build();
+        ShortestPathTree[] trees = {observe(graph, 1), observe(graph, n / 2), observe(graph, n)};
+
+        for (int step = 0; step < 400; step++) {
+            int a = 1 + random.nextInt(n);
+            int b = 1 + random.nextInt(n);
+            switch (random.nextInt(4)) {
+                case 0 -> graph.setWeight(a, b, graph.getWeight(a, b) + 1 + random.nextInt(20));
+                case 1 -> graph.setWeight(a, b, Math.max(1, graph.getWeight(a, b) / 2));
+                case 2 -> graph.removeEdge(a, b);
+                default -> graph.addEdge(a, b, 1 + random.nextInt(30));
+            }
+            // Cambios sobre aristas del árbol actual, que son los que invalidan subárboles
+            int v = 1 + random.nextInt(n);
+            int p = trees[step % trees.length].parentOf(v);
+            if (p > 0) {
+                if (random.nextBoolean()) graph.setWeight(p, v, graph.getWeight(p, v) + 15);
+                else graph.removeEdge(p, v);
+            }
+            for (ShortestPathTree tree : trees) {
+                assertSameAsFresh(graph, tree, step);
+            }
+        }
+    }
+
+    private static void assertSameAsFresh(Graph graph, ShortestPathTree tree, int step) {
+        ShortestPathTree fresh = new ShortestPathTree(graph, tree.getSource());
+        for (int id = 1; id <= graph.getNumStops(); id++) {
+            String where = "paso " + step + ", origen " + tree.getSource() + ", parada " + id;
+            assertEquals(where, fresh.distanceTo(id), tree.distanceTo(id));
+            int parent = tree.parentOf(id);
+            if (parent > 0) {
+                assertEquals(where, tree.distanceTo(id), tree.distanceTo(parent) + graph.getWeight(parent, id));
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Pruebas de StopIndex: cada consulta se compara con un recorrido de todas las paradas sobre datos al azar,
+ * incluyendo coordenadas negativas, paradas movidas y eliminadas.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class StopIndexTest {
+    private final Random random = new Random(34);
+    private final List<Stop> stops = new ArrayList<>();
+    private StopIndex index;
+
+    @Before
+    public void setUp() {
+        index = new StopIndex(32);
+        for (int id = 1; id <= 2000; id++) {
+            Stop stop = new Stop(id, "P" + id, random.nextInt(3000) - 500, random.nextInt(2000) - 500);
+            stops.add(stop);
+            index.add(stop);
+        }
+        // Mover y eliminar algunas para probar el mantenimiento del índice
+        for (int i = 0; i < 200; i++) {
+            Stop stop = stops.get(random.nextInt(stops.size()));
+            int oldX = stop.getX(), oldY = stop.getY();
+            stop.setX(random.nextInt(3000) - 500);
+            stop.setY(random.nextInt(2000) - 500);
+            index.move(stop, oldX, oldY);
+        }
+        for (int i = 0; i < 100; i++) {
+            Stop stop = stops.remove(random.nextInt(stops.size()));
+            index.remove(stop.getId());
+        }
+    }
+
+    @Test
+    public void nearestMatchesBruteForce() {
+        for (int q = 0; q < 500; q++) {
+            int x = random.nextInt(4000) - 1000, y = random.nextInt(3000) - 1000;
+            int k = 1 + random.nextInt(10);
+            long[] expected = stops.stream().mapToLong(s -> distance2(s, x, y)).sorted().limit(k).toArray();
+            CustomLinkedList<Stop> found = index.nearest(x, y, k);
+            long[] actual = new long[found.getSize()];
+            for (int i = 0; i < actual.length; i++) {
+                actual[i] = distance2(found.getAt(i), x, y);
+            }
+            assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+            assertEquals(expected[0], distance2(index.nearest(x, y), x, y));
+        }
+    }
+
+    @Test
+    public void withinRadiusMatchesBruteForce() {
+        for (int q = 0; q < 500; q++) {
+            int x = random.nextInt(4000) - 1000, y = random.nextInt(3000) - 1000, radius = random.nextInt(300);
+            int[] expected = stops.stream().filter(s -> distance2(s, x, y) <= (long) radius * radius)
+                    .mapToInt(Stop::getId).sorted().toArray();
+            assertEquals(Arrays.toString(expected), Arrays.toString(sortedIds(index.withinRadius(x, y, radius))));
+        }
+    }
+
+    @Test
+    public void inRectangleMatchesBruteForce() {
+        for (int q = 0; q < 500; q++) {
+            int x = random.nextInt(4000) - 1000, y = random.nextInt(3000) - 1000;
+            int width = random.nextInt(400), height = random.nextInt(400);
+            int[] expected = stops.stream().filter(s -> s.getX() >= x && s.getX() <= x + width
+                    && s.getY() >= y && s.getY() <= y + height).mapToInt(Stop::getId).sorted().toArray();
+            assertEquals(Arrays.toString(expected), Arrays.toString(sortedIds(index.inRectangle(x, y, width, height))));
+        }
+    }
+
+    @Test
+    public void getAndEmptyIndex() {
+        for (Stop stop : stops) {
+            assertEquals(stop, index.get(stop.getId()));
+        }
+        assertNull(new StopIndex().nearest(0, 0));
+    }
+
+    private static long distance2(Stop stop, int x, int y) {
+        long dx = stop.getX() - x, dy = stop.getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static int[] sortedIds(CustomLinkedList<Stop> list) {
+        int[] ids = new int[list.getSize()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = list.getAt(i).getId();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+}
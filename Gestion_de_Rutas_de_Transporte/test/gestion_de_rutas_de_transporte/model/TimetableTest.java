@@ -0,0 +1,157 @@
+/**
+ * Pruebas de Timetable: las consultas por búsqueda binaria se comparan con un recorrido de todos los horarios
+ * sobre datos al azar, después de agregar, reemplazar y quitar horarios.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TimetableTest {
+    private static final int ROUTES = 25;
+
+    private final Random random = new Random(41);
+    private final Timetable timetable = new Timetable();
+    private final Map<Integer, Schedule> expected = new HashMap<>();  // Horarios válidos vigentes por ID
+
+    @Before
+    public void setUp() {
+        CustomLinkedList<Schedule> initial = new CustomLinkedList<>();
+        for (int id = 1; id <= 2000; id++) {
+            Schedule schedule = randomSchedule(id);
+            initial.add(schedule);
+            if (Timetable.parseTime(schedule.getTime()) >= 0) expected.put(id, schedule);
+        }
+        timetable.rebuild(initial);
+        for (int i = 0; i < 500; i++) {
+            int id = 1 + random.nextInt(2600);
+            if (random.nextBoolean()) {
+                Schedule schedule = randomSchedule(id);
+                if (timetable.add(schedule)) expected.put(id, schedule);
+            } else {
+                Schedule removed = expected.remove(id);
+                assertEquals(removed == null ? -1 : removed.getRouteId(), timetable.remove(id));
+            }
+        }
+    }
+
+    private Schedule randomSchedule(int id) {
+        int minutes = random.nextInt(Timetable.MINUTES_PER_DAY);
+        String time = random.nextInt(20) == 0 ? "2" + random.nextInt(10) + ":7" + random.nextInt(10)
+                : Timetable.formatTime(minutes);
+        return new Schedule(id, 1 + random.nextInt(ROUTES), time);
+    }
+
+    private int[] routeMinutes(int routeId) {
+        return expected.values().stream().filter(s -> s.getRouteId() == routeId)
+                .mapToInt(s -> Timetable.parseTime(s.getTime())).sorted().toArray();
+    }
+
+    @Test
+    public void departuresAreSortedPerRoute() {
+        assertEquals(expected.size(), timetable.size());
+        for (int route = 1; route <= ROUTES + 1; route++) {
+            assertEquals(Arrays.toString(routeMinutes(route)), Arrays.toString(timetable.getDepartures(route)));
+        }
+        for (Schedule schedule : expected.values()) {
+            assertEquals(schedule, timetable.get(schedule.getId()));
+        }
+    }
+
+    @Test
+    public void nextDeparturesMatchBruteForce() {
+        for (int q = 0; q < 1000; q++) {
+            int route = 1 + random.nextInt(ROUTES);
+            int after = random.nextInt(Timetable.MINUTES_PER_DAY);
+            int n = 1 + random.nextInt(8);
+            int[] minutes = routeMinutes(route);
+            List<String> brute = new ArrayList<>();
+            for (int m : minutes) {
+                if (m >= after && brute.size() < n) brute.add(m + "");
+            }
+            for (int m : minutes) {
+                if (brute.size() < Math.min(n, minutes.length)) brute.add(m + "+1");
+            }
+            List<String> actual = new ArrayList<>();
+            CustomLinkedList<Timetable.Departure> found = timetable.nextDepartures(route, after, n);
+            for (Node<Timetable.Departure> node = found.getHead(); node != null; node = node.getNext()) {
+                Timetable.Departure departure = node.getData();
+                assertEquals(route, departure.getRouteId());
+                assertEquals(departure.getMinutes(), Timetable.parseTime(expected.get(departure.getScheduleId()).getTime()));
+                actual.add(departure.getMinutes() + (departure.isNextDay() ? "+1" : ""));
+            }
+            assertEquals(brute, actual);
+        }
+    }
+
+    @Test
+    public void windowQueriesMatchBruteForce() {
+        int[] all = expected.values().stream().mapToInt(s -> Timetable.parseTime(s.getTime())).sorted().toArray();
+        for (int q = 0; q < 1000; q++) {
+            int from = random.nextInt(Timetable.MINUTES_PER_DAY);
+            int to = from + random.nextInt(180);
+            int limit = 1 + random.nextInt(40);
+            int[] window = Arrays.stream(all).filter(m -> m >= from && m <= to).toArray();
+            assertEquals(window.length, timetable.countBetween(from, to));
+
+            CustomLinkedList<Timetable.Departure> found = timetable.departuresBetween(from, to, limit);
+            int[] minutes = new int[found.getSize()];
+            int i = 0;
+            for (Node<Timetable.Departure> node = found.getHead(); node != null; node = node.getNext()) {
+                Timetable.Departure departure = node.getData();
+                assertEquals(expected.get(departure.getScheduleId()).getRouteId(), departure.getRouteId());
+                minutes[i++] = departure.getMinutes();
+            }
+            assertEquals(Arrays.toString(Arrays.copyOf(window, Math.min(limit, window.length))), Arrays.toString(minutes));
+        }
+    }
+
+    @Test
+    public void headwayMatchesBruteForce() {
+        for (int q = 0; q < 500; q++) {
+            int route = 1 + random.nextInt(ROUTES);
+            int from = random.nextInt(Timetable.MINUTES_PER_DAY);
+            int to = from + random.nextInt(600);
+            int[] band = Arrays.stream(routeMinutes(route)).filter(m -> m >= from && m <= to).toArray();
+            Timetable.Headway headway = timetable.headway(route, from, to);
+            if (band.length < 2) {
+                assertNull(headway);
+                continue;
+            }
+            int min = Integer.MAX_VALUE, max = 0;
+            for (int i = 1; i < band.length; i++) {
+                min = Math.min(min, band[i] - band[i - 1]);
+                max = Math.max(max, band[i] - band[i - 1]);
+            }
+            assertEquals(band.length, headway.getDepartures());
+            assertEquals(min, headway.getMin());
+            assertEquals(max, headway.getMax());
+            assertEquals((double) (band[band.length - 1] - band[0]) / (band.length - 1), headway.getMean(), 1e-9);
+        }
+    }
+
+    @Test
+    public void timesRoundTrip() {
+        for (int m = 0; m < Timetable.MINUTES_PER_DAY; m++) {
+            assertEquals(m, Timetable.parseTime(Timetable.formatTime(m)));
+        }
+        assertEquals(9 * 60 + 5, Timetable.parseTime("9:05"));
+        assertEquals(-1, Timetable.parseTime("24:00"));
+        assertEquals(-1, Timetable.parseTime("12:60"));
+        assertEquals(-1, Timetable.parseTime("1205"));
+        assertFalse(timetable.add(new Schedule(99999, 1, "x1:00")));
+    }
+}
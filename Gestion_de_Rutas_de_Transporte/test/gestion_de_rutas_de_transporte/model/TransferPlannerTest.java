@@ -0,0 +1,152 @@
+/**
+ * Pruebas de TransferPlanner: las penalizaciones deciden entre el camino corto con transbordo y la línea
+ * directa, y el número de transbordos del viaje es el de cambios de ruta que muestra.
+ * @author Elian
+ */
+package gestion_de_rutas_de_transporte.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import gestion_de_rutas_de_transporte.utils.CustomLinkedList;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TransferPlannerTest {
+    private Graph graph;
+    private CustomLinkedList<Route> routes;
+    private TransferPlanner planner;
+
+    /**
+     * Red de 6 paradas: la línea 1 va 1-2-3 y la línea 2 va 3-4, ambas con tramos de 1; la línea 3 va
+     * directo 1-5-6-4 con tramos de 3. Ir de 1 a 4 cuesta 3 con un transbordo en 3 o 9 sin transbordos.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        graph.addStop(6);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(1, 5, 3);
+        graph.addEdge(5, 6, 3);
+        graph.addEdge(6, 4, 3);
+        routes = new CustomLinkedList<>();
+        routes.add(route(1, 1, 2, 3));
+        routes.add(route(2, 3, 4));
+        routes.add(route(3, 1, 5, 6, 4));
+        planner = new TransferPlanner(graph, routes);
+    }
+
+    private static Route route(int id, int... stops) {
+        Route route = new Route(id, "Línea " + id);
+        for (int stop : stops) {
+            route.getStopIds().add(stop);
+        }
+        return route;
+    }
+
+    @Test
+    public void cheapTransfersTakeTheShortPath() {
+        planner.setPenalties(0, 0);
+        Journey journey = planner.findPath(1, 4);
+        assertArrayEquals(new int[] {1, 2, 3, 4}, journey.getStops());
+        assertArrayEquals(new int[] {1, 1, 1, 2}, journey.getRoutes());
+        assertEquals(3, journey.getCost());
+        assertEquals(1, journey.getTransfers());
+        assertEquals(3, journey.getHops());
+    }
+
+    @Test
+    public void expensiveTransfersTakeTheDirectLine() {
+        planner.setPenalties(2, 10);
+        Journey journey = planner.findPath(1, 4);
+        assertArrayEquals(new int[] {1, 5, 6, 4}, journey.getStops());
+        assertEquals(9, journey.getCost());  // El costo no incluye penalizaciones
+        assertEquals(0, journey.getTransfers());
+
+        planner.setPenalties(2, 5);  // 3 + 2 + 5 + 2 = 12 sigue perdiendo contra 9 + 2 = 11
+        assertEquals(0, planner.findPath(1, 4).getTransfers());
+        planner.setPenalties(2, 3);  // 3 + 2 + 3 + 2 = 10 ya gana
+        assertEquals(1, planner.findPath(1, 4).getTransfers());
+    }
+
+    @Test
+    public void routeEditsNeedRoutesChanged() {
+        planner.setPenalties(0, 1);
+        assertEquals(1, planner.findPath(1, 4).getTransfers());
+        routes.add(route(4, 1, 2, 3, 4));
+        planner.routesChanged();
+        Journey journey = planner.findPath(1, 4);
+        assertEquals(3, journey.getCost());
+        assertEquals(0, journey.getTransfers());
+        assertArrayEquals(new int[] {4, 4, 4, 4}, journey.getRoutes());
+
+        assertNull(planner.findPath(1, 9));
+        graph.removeEdge(6, 4);
+        graph.removeEdge(3, 4);
+        assertNull(planner.findPath(1, 4));
+    }
+
+    @Test
+    public void loopRouteRevisitIsNotATransfer() {
+        // La línea 5 pasa dos veces por 8: de 7 a 6 conviene cambiar de posición en 8 sin bajar de la línea
+        graph.addStop(9);
+        graph.addEdge(7, 8, 1);
+        graph.addEdge(8, 9, 1);
+        graph.addEdge(8, 6, 1);
+        routes.add(route(5, 7, 8, 9, 8, 6));
+        planner.routesChanged();
+        planner.setPenalties(0, 0);
+        Journey journey = planner.findPath(7, 6);
+        assertNotNull(journey);
+        assertArrayEquals(new int[] {7, 8, 6}, journey.getStops());
+        assertEquals(2, journey.getCost());
+        assertEquals(0, journey.getTransfers());
+    }
+
+    @Test
+    public void transfersMatchRouteChangesOnRandomNetworks() {
+        Random random = new Random(9001L);
+        for (int network = 0; network < 20; network++) {
+            int n = 30;
+            GraphBuilder builder = new GraphBuilder();
+            CustomLinkedList<Route> lines = new CustomLinkedList<>();
+            for (int r = 1; r <= 8; r++) {
+                int[] stops = new int[4 + random.nextInt(6)];
+                stops[0] = 1 + random.nextInt(n);
+                for (int i = 1; i < stops.length; i++) {
+                    do {
+                        stops[i] = 1 + random.nextInt(n);
+                    } while (stops[i] == stops[i - 1]);
+                    builder.addEdge(stops[i - 1], stops[i], 1 + random.nextInt(9));
+                }
+                lines.add(route(r, stops));
+            }
+            Graph randomGraph = builder.build();
+            TransferPlanner randomPlanner = new TransferPlanner(randomGraph, lines);
+            randomPlanner.setPenalties(random.nextInt(4), random.nextInt(8));
+            for (int query = 0; query < 30; query++) {
+                Journey journey = randomPlanner.findPath(1 + random.nextInt(n), 1 + random.nextInt(n));
+                if (journey == null) continue;
+                int[] stops = journey.getStops();
+                int[] routeIds = journey.getRoutes();
+                int cost = 0;
+                int changes = 0;
+                for (int i = 1; i < stops.length; i++) {
+                    assertTrue(randomGraph.hasEdge(stops[i - 1], stops[i]));
+                    cost += randomGraph.getWeight(stops[i - 1], stops[i]);
+                    if (routeIds[i] != routeIds[i - 1]) changes++;
+                }
+                assertEquals(journey.toString(), cost, journey.getCost());
+                assertEquals(journey.toString(), changes, journey.getTransfers());
+                assertEquals(stops.length - 1, journey.getHops());
+            }
+        }
+    }
+}